@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.cdt.ui.disassembly;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDisassembly.IDisassemblyLine;
+import org.eclipse.tcf.services.ILineNumbers.CodeArea;
+import org.eclipse.tcf.services.ISymbols;
+
+/**
+ * DisassemblyCache keeps decoded instruction blocks, together with their symbols,
+ * source mapping and code bytes, per memory context.
+ *
+ * Code rarely changes while a program is debugged, so the cache survives suspend/resume.
+ * Blocks are removed when memory map of the context changes, when memory in block range
+ * is reported changed, and when the context is removed.
+ * Since not all agents report memory changes made by the program itself,
+ * the backend also compares code bytes of a block after the target has run, see Block.check_cnt.
+ *
+ * All methods must be called on the dispatch thread.
+ */
+public class DisassemblyCache {
+
+    private static final int MAX_BLOCKS = 256;
+
+    public static class Block {
+        public final String mem_id;
+        public final BigInteger start;
+        public final BigInteger end;
+        public final IDisassemblyLine[] lines;
+        final BigInteger[] addrs;
+
+        ISymbols.Symbol[] symbols;
+        boolean has_symbols;
+        CodeArea[] code_areas;
+        boolean has_code_areas;
+        byte[] code;
+
+        /** Backend check count when the code bytes were last compared with the target memory */
+        int check_cnt;
+
+        public Block(String mem_id, IDisassemblyLine[] lines) {
+            assert lines.length > 0;
+            this.mem_id = mem_id;
+            this.lines = lines;
+            addrs = new BigInteger[lines.length];
+            for (int i = 0; i < lines.length; i++) addrs[i] = JSON.toBigInteger(lines[i].getAddress());
+            IDisassemblyLine last = lines[lines.length - 1];
+            start = addrs[0];
+            end = addrs[lines.length - 1].add(BigInteger.valueOf(last.getSize()));
+        }
+
+        /**
+         * @return index of the instruction at given address, or -1 if the address is not an instruction start.
+         */
+        public int indexOf(BigInteger addr) {
+            int l = 0;
+            int h = addrs.length - 1;
+            while (l <= h) {
+                int m = (l + h) >>> 1;
+                int c = addrs[m].compareTo(addr);
+                if (c == 0) return m;
+                if (c < 0) l = m + 1;
+                else h = m - 1;
+            }
+            return -1;
+        }
+
+        /**
+         * Get instructions of the block that start in given range.
+         */
+        public IDisassemblyLine[] getLines(BigInteger from, BigInteger to) {
+            int i = indexOf(from);
+            if (i < 0) return null;
+            int j = i;
+            while (j < lines.length && addrs[j].compareTo(to) < 0) j++;
+            if (i == 0 && j == lines.length) return lines;
+            IDisassemblyLine[] res = new IDisassemblyLine[j - i];
+            System.arraycopy(lines, i, res, 0, j - i);
+            return res;
+        }
+
+        boolean overlaps(BigInteger addr, BigInteger size) {
+            return addr.compareTo(end) < 0 && addr.add(size).compareTo(start) > 0;
+        }
+    }
+
+    private final Map<String,TreeMap<BigInteger,Block>> contexts = new HashMap<String,TreeMap<BigInteger,Block>>();
+    private final LinkedHashMap<Block,Block> lru = new LinkedHashMap<Block,Block>(16, 0.75f, true);
+    private IChannel channel;
+    private int mod_cnt;
+
+    /**
+     * Set communication channel of cached contexts.
+     * Cache invalidation depends on events of the channel, so the cache is cleared when the channel changes.
+     */
+    public void setChannel(IChannel channel) {
+        assert Protocol.isDispatchThread();
+        if (this.channel == channel) return;
+        clear();
+        this.channel = channel;
+    }
+
+    /**
+     * @return number of invalidations so far, used to detect that a block loaded
+     * by a pending command can be out of date.
+     */
+    public int getModCount() {
+        return mod_cnt;
+    }
+
+    /**
+     * Find a block that contains an instruction at given address.
+     */
+    public Block find(String mem_id, BigInteger addr) {
+        assert Protocol.isDispatchThread();
+        TreeMap<BigInteger,Block> map = contexts.get(mem_id);
+        if (map == null) return null;
+        /* Blocks can overlap, check few blocks that start before the address */
+        int cnt = 0;
+        for (Block b : map.headMap(addr, true).descendingMap().values()) {
+            if (b.end.compareTo(addr) > 0 && b.indexOf(addr) >= 0) {
+                lru.get(b);
+                return b;
+            }
+            if (++cnt >= 4) break;
+        }
+        return null;
+    }
+
+    public void add(Block b) {
+        assert Protocol.isDispatchThread();
+        TreeMap<BigInteger,Block> map = contexts.get(b.mem_id);
+        if (map == null) contexts.put(b.mem_id, map = new TreeMap<BigInteger,Block>());
+        Block x = map.put(b.start, b);
+        if (x != null) lru.remove(x);
+        lru.put(b, b);
+        if (lru.size() > MAX_BLOCKS) remove(lru.keySet().iterator().next());
+    }
+
+    public void remove(Block b) {
+        assert Protocol.isDispatchThread();
+        TreeMap<BigInteger,Block> map = contexts.get(b.mem_id);
+        if (map == null || map.get(b.start) != b) return;
+        map.remove(b.start);
+        lru.remove(b);
+        if (map.isEmpty()) contexts.remove(b.mem_id);
+    }
+
+    /**
+     * Remove all blocks of a memory context.
+     */
+    public void clear(String mem_id) {
+        assert Protocol.isDispatchThread();
+        mod_cnt++;
+        TreeMap<BigInteger,Block> map = contexts.remove(mem_id);
+        if (map == null) return;
+        for (Block b : map.values()) lru.remove(b);
+    }
+
+    /**
+     * Remove blocks that overlap changed memory ranges.
+     * @param addr - start addresses of the ranges, null means whole memory.
+     * @param size - sizes of the ranges.
+     */
+    public void memoryChanged(String mem_id, Number[] addr, long[] size) {
+        assert Protocol.isDispatchThread();
+        mod_cnt++;
+        TreeMap<BigInteger,Block> map = contexts.get(mem_id);
+        if (map == null) return;
+        if (addr == null || size == null) {
+            clear(mem_id);
+            return;
+        }
+        for (int i = 0; i < addr.length && i < size.length; i++) {
+            BigInteger a = JSON.toBigInteger(addr[i]);
+            BigInteger s = BigInteger.valueOf(size[i]);
+            Iterator<Block> it = map.values().iterator();
+            while (it.hasNext()) {
+                Block b = it.next();
+                if (b.start.compareTo(a.add(s)) >= 0) break;
+                if (b.overlaps(a, s)) {
+                    it.remove();
+                    lru.remove(b);
+                }
+            }
+        }
+        if (map.isEmpty()) contexts.remove(mem_id);
+    }
+
+    public void clear() {
+        assert Protocol.isDispatchThread();
+        mod_cnt++;
+        contexts.clear();
+        lru.clear();
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010-2022 Wind River Systems, Inc. and others.
+ * Copyright (c) 2010-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import static org.eclipse.cdt.debug.internal.ui.disassembly.dsf.DisassemblyUtils
 import java.lang.reflect.Method;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -131,6 +132,7 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
         }
 
         public void onChannelClosed(Throwable error) {
+            fCache.clear();
             handleSessionEnded();
         }
 
@@ -147,6 +149,7 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
         }
 
         public void contextRemoved(String[] context_ids) {
+            for (String contextId : context_ids) fCache.clear(contextId);
             String id = fExecContext.getID();
             for (String contextId : context_ids) {
                 if (id.equals(contextId)) {
@@ -203,6 +206,7 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
 
         @Override
         public void changed(String context_id) {
+            fCache.clear(context_id);
             if (fMemoryContext == null) return;
             if (!fMemoryContext.getID().equals(context_id)) return;
             if (fCallback == null) return;
@@ -222,14 +226,17 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
 
         @Override
         public void contextChanged(MemoryContext[] contexts) {
+            for (MemoryContext ctx : contexts) fCache.clear(ctx.getID());
         }
 
         @Override
         public void contextRemoved(String[] context_ids) {
+            for (String id : context_ids) fCache.clear(id);
         }
 
         @Override
         public void memoryChanged(String context_id, Number[] addr, long[] size) {
+            fCache.memoryChanged(context_id, addr, size);
             if (fMemoryContext == null) return;
             if (!fMemoryContext.getID().equals(context_id)) return;
             if (fCallback == null) return;
@@ -250,6 +257,13 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
     private volatile int fContextCount;
     private volatile boolean disposed;
 
+    /* Disassembly cache and prefetch state, accessed on the dispatch thread only */
+    private final DisassemblyCache fCache = new DisassemblyCache();
+    private BlockLoader fPrefetch;
+    /* Incremented when cached code can be changed without notification:
+     * the target has run, or cache invalidation events are not listened to */
+    private int fCheckCount;
+
     /* Objects of the Request class represent pending disassembly update requests.
      * A request becomes obsolete and should be aborted if:
      * 1. debug context selection changes.
@@ -436,11 +450,14 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
                 IMemory memory = channel.getRemoteService(IMemory.class);
                 if (memory != null) memory.removeListener(fMemoryListener);
                 channel.removeChannelListener(fChannelListener);
+                fCheckCount++;
             }
         });
     }
 
     private void handleContextSuspended() {
+        assert Protocol.isDispatchThread();
+        fCheckCount++;
         fSuspendCount++;
         fSuspended = true;
         fContextState = null;
@@ -595,19 +612,6 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
 
         Protocol.invokeLater(new Runnable() {
 
-            IMemory.MemoryContext mem;
-            boolean big_endian;
-            int addr_bits;
-            IDisassemblyLine[] disassembly;
-            AddressRange range;
-            boolean done_disassembly;
-            ISymbols.Symbol[] symbol_array;
-            boolean done_symbols;
-            CodeArea[] code_areas;
-            boolean done_line_numbers;
-            byte[] code;
-            boolean done_code;
-
             public void run() {
                 if (!request.check()) return;
                 IChannel channel = request.ctx.getChannel();
@@ -618,13 +622,13 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
                 }
                 TCFDataCache<IMemory.MemoryContext> cache = request.mem.getMemoryContext();
                 if (!cache.validate(this)) return;
-                mem = cache.getData();
+                final IMemory.MemoryContext mem = cache.getData();
                 if (mem == null) {
                     request.done();
                     return;
                 }
-                big_endian = mem.isBigEndian();
-                addr_bits = mem.getAddressSize() * 8;
+                final boolean big_endian = mem.isBigEndian();
+                final int addr_bits = mem.getAddressSize() * 8;
 
                 int accessSize = 0;
                 BigInteger mem_end = BigInteger.ONE.shiftLeft(addr_bits);
@@ -648,130 +652,248 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
                     accessSize = linesHint * mem.getAddressSize();
                 }
 
-                if (!done_disassembly) {
-                    Map<String, Object> params = new HashMap<String, Object>();
-                    /* Use thread, not memory context, to allow disassembler to check CPU mode. */
-                    /* It can improve disassembler accuracy, at least around current PC. */
-                    disass.disassemble(request.ctx.getID(), startAddress, accessSize, params, new DoneDisassemble() {
-                        @Override
-                        public void doneDisassemble(IToken token, final Throwable error, IDisassemblyLine[] res) {
-                            if (error != null) {
-                                fCallback.asyncExec(new Runnable() {
-                                    public void run() {
-                                        insertError(request, startAddress, error);
-                                        if (fCallback.getAddressSize() < addr_bits) fCallback.addressSizeChanged(addr_bits);
+                final BigInteger endAddress = startAddress.add(BigInteger.valueOf(accessSize));
+                final int size = accessSize;
+                fCache.setChannel(channel);
+                new BlockLoader(request.ctx, mem, startAddress, accessSize, showSymbols, mixed) {
+                    @Override
+                    boolean check() {
+                        return request.check();
+                    }
+                    @Override
+                    void done(final DisassemblyCache.Block block, final Throwable error) {
+                        if (error != null) {
+                            fCallback.asyncExec(new Runnable() {
+                                public void run() {
+                                    insertError(request, startAddress, error);
+                                    if (fCallback.getAddressSize() < addr_bits) fCallback.addressSizeChanged(addr_bits);
+                                }
+                            });
+                            return;
+                        }
+                        final IDisassemblyLine[] disassembly = block == null ? null : block.getLines(startAddress, endAddress);
+                        final AddressRange range = new AddressRange();
+                        if (block != null) {
+                            range.start = block.start;
+                            range.end = block.end;
+                        }
+                        final byte[] code = block == null ? null : block.code;
+                        final ISymbols.Symbol[] symbol_array = block == null || !showSymbols ? null : block.symbols;
+                        final CodeArea[] code_areas = block == null || !mixed ? null : code_areas_loaded;
+                        fCallback.asyncExec(new Runnable() {
+                            public void run() {
+                                insertDisassembly(request, startAddress, code, range, big_endian,
+                                        disassembly, symbol_array, code_areas);
+                                if (fCallback.getAddressSize() < addr_bits) fCallback.addressSizeChanged(addr_bits);
+                            }
+                        });
+                        if (block != null) prefetch(request.ctx, mem, block.end, size, showSymbols, mixed);
+                    }
+                }.run();
+            }
+        });
+    }
+
+    /* Loads a block of disassembly together with symbols, source mapping and code bytes of the block.
+     * Blocks are kept in the disassembly cache, parts that are already cached are not loaded again. */
+    private abstract class BlockLoader implements Runnable {
+
+        final TCFNodeExecContext ctx;
+        final IMemory.MemoryContext mem;
+        final BigInteger start;
+        final int size;
+        final boolean symbols;
+        final boolean line_numbers;
+        final int check_cnt;
+
+        DisassemblyCache.Block block;
+        boolean done_check;
+        boolean done_line_numbers;
+        CodeArea[] code_areas_loaded;
+
+        BlockLoader(TCFNodeExecContext ctx, IMemory.MemoryContext mem, BigInteger start, int size,
+                boolean symbols, boolean line_numbers) {
+            assert Protocol.isDispatchThread();
+            this.ctx = ctx;
+            this.mem = mem;
+            this.start = start;
+            this.size = size;
+            this.symbols = symbols;
+            this.line_numbers = line_numbers;
+            check_cnt = fCheckCount;
+        }
+
+        /* Return true if loading should continue */
+        abstract boolean check();
+
+        /* Called when loading is done, block is null if the disassembler returned no instructions */
+        abstract void done(DisassemblyCache.Block block, Throwable error);
+
+        public void run() {
+            if (!check()) return;
+            IChannel channel = ctx.getChannel();
+            if (block == null) {
+                block = fCache.find(mem.getID(), start);
+                done_check = false;
+            }
+            if (block == null) {
+                IDisassembly disass = channel.getRemoteService(IDisassembly.class);
+                Map<String, Object> params = new HashMap<String, Object>();
+                final int mod_cnt = fCache.getModCount();
+                /* Use thread, not memory context, to allow disassembler to check CPU mode. */
+                /* It can improve disassembler accuracy, at least around current PC. */
+                disass.disassemble(ctx.getID(), start, size, params, new DoneDisassemble() {
+                    @Override
+                    public void doneDisassemble(IToken token, final Throwable error, IDisassemblyLine[] res) {
+                        if (error != null || res == null || res.length == 0) {
+                            if (check()) done(null, error);
+                            return;
+                        }
+                        block = new DisassemblyCache.Block(mem.getID(), res);
+                        block.check_cnt = check_cnt;
+                        done_check = true;
+                        /* Don't cache the block if memory was changed while the command was pending */
+                        if (mod_cnt == fCache.getModCount()) fCache.add(block);
+                        run();
+                    }
+                });
+                return;
+            }
+            if (!done_check && block.check_cnt != check_cnt) {
+                /* Target has run since the block was loaded: compare code bytes,
+                 * reading memory is much cheaper than disassembling it again */
+                final DisassemblyCache.Block b = block;
+                final byte[] buf = new byte[b.end.subtract(b.start).intValue()];
+                mem.get(b.start, 1, buf, 0, buf.length, 0, new IMemory.DoneMemory() {
+                    @Override
+                    public void doneMemory(IToken token, MemoryError error) {
+                        done_check = true;
+                        if (error == null && b.code != null && Arrays.equals(buf, b.code)) {
+                            b.check_cnt = check_cnt;
+                        }
+                        else {
+                            fCache.remove(b);
+                            block = null;
+                        }
+                        run();
+                    }
+                });
+                return;
+            }
+            if (symbols && !block.has_symbols) {
+                final ISymbols svc = channel.getRemoteService(ISymbols.class);
+                if (svc == null) {
+                    block.has_symbols = true;
+                }
+                else {
+                    final DisassemblyCache.Block b = block;
+                    final ArrayList<ISymbols.Symbol> symbol_list = new ArrayList<ISymbols.Symbol>();
+                    svc.findByAddr(mem.getID(), b.lines[0].getAddress(), new ISymbols.DoneFind() {
+                        int idx = 0;
+                        public void doneFind(IToken token, Exception error, String symbol_id) {
+                            if (error == null && symbol_id != null) {
+                                svc.getContext(symbol_id, new ISymbols.DoneGetContext() {
+                                    public void doneGetContext(IToken token, Exception error, ISymbols.Symbol context) {
+                                        BigInteger nextAddress = null;
+                                        if (error == null && context != null) {
+                                            if (context.getTypeClass().equals(ISymbols.TypeClass.function) &&
+                                                context.getAddress() != null && context.getSize() >= 0)
+                                            {
+                                                symbol_list.add(context);
+                                                nextAddress = JSON.toBigInteger(context.getAddress()).add(BigInteger.valueOf(context.getSize()));
+                                            }
+                                        }
+                                        findNextSymbol(nextAddress);
                                     }
                                 });
                                 return;
                             }
-                            if (res != null && res.length > 0) {
-                                disassembly = res;
-                                range = new AddressRange();
-                                range.start = JSON.toBigInteger(res[0].getAddress());
-                                IDisassemblyLine last = res[res.length - 1];
-                                range.end = JSON.toBigInteger(last.getAddress()).add(BigInteger.valueOf(last.getSize()));
+                            findNextSymbol(null);
+                        }
+                        private void findNextSymbol(BigInteger nextAddress) {
+                            while (++idx < b.lines.length) {
+                                BigInteger instrAddress = b.addrs[idx];
+                                if (nextAddress != null && instrAddress.compareTo(nextAddress) < 0) continue;
+                                svc.findByAddr(mem.getID(), instrAddress, this);
+                                return;
                             }
-                            done_disassembly = true;
+                            b.symbols = symbol_list.toArray(new ISymbols.Symbol[symbol_list.size()]);
+                            b.has_symbols = true;
                             run();
                         }
                     });
                     return;
                 }
-                if (!done_symbols && (range == null || !showSymbols)) {
-                    done_symbols = true;
-                }
-                if (!done_symbols) {
-                    final ISymbols symbols = channel.getRemoteService(ISymbols.class);
-                    if (symbols == null) {
-                        done_symbols = true;
-                    }
-                    else {
-                        final ArrayList<ISymbols.Symbol> symbol_list = new ArrayList<ISymbols.Symbol>();
-                        IDisassemblyLine line = disassembly[0];
-                        symbols.findByAddr(mem.getID(), line.getAddress(), new ISymbols.DoneFind() {
-                            int idx = 0;
-                            public void doneFind(IToken token, Exception error, String symbol_id) {
-                                if (error == null && symbol_id != null) {
-                                    symbols.getContext(symbol_id, new ISymbols.DoneGetContext() {
-                                        public void doneGetContext(IToken token, Exception error, ISymbols.Symbol context) {
-                                            BigInteger nextAddress = null;
-                                            if (error == null && context != null) {
-                                                if (context.getTypeClass().equals(ISymbols.TypeClass.function) &&
-                                                    context.getAddress() != null && context.getSize() >= 0)
-                                                {
-                                                    symbol_list.add(context);
-                                                    nextAddress = JSON.toBigInteger(context.getAddress()).add(BigInteger.valueOf(context.getSize()));
-                                                }
-                                            }
-                                            findNextSymbol(nextAddress);
-                                        }
-                                    });
-                                    return;
-                                }
-                                findNextSymbol(null);
-                            }
-                            private void findNextSymbol(BigInteger nextAddress) {
-                                while (++idx < disassembly.length) {
-                                    BigInteger instrAddress = JSON.toBigInteger(disassembly[idx].getAddress());
-                                    if (nextAddress != null && instrAddress.compareTo(nextAddress) < 0) continue;
-                                    symbols.findByAddr(mem.getID(), instrAddress, this);
-                                    return;
-                                }
-                                symbol_array = symbol_list.toArray(new ISymbols.Symbol[symbol_list.size()]);
-                                done_symbols = true;
-                                run();
-                            }
-                        });
-                        return;
-                    }
-                }
-                if (!done_line_numbers && (range == null || !mixed)) {
+            }
+            if (block.has_code_areas) {
+                code_areas_loaded = block.code_areas;
+                done_line_numbers = true;
+            }
+            if (line_numbers && !done_line_numbers) {
+                ILineNumbers lineNumbers = channel.getRemoteService(ILineNumbers.class);
+                if (lineNumbers == null) {
                     done_line_numbers = true;
                 }
-                if (!done_line_numbers) {
-                    ILineNumbers lineNumbers = channel.getRemoteService(ILineNumbers.class);
-                    if (lineNumbers == null) {
-                        done_line_numbers = true;
-                    }
-                    else {
-                        lineNumbers.mapToSource(mem.getID(), range.start, range.end, new DoneMapToSource() {
-                            public void doneMapToSource(IToken token, Exception error, final CodeArea[] areas) {
-                                if (error != null) {
-                                    Activator.log(error);
-                                }
-                                else {
-                                    code_areas = areas;
-                                }
-                                done_line_numbers = true;
-                                run();
+                else {
+                    final DisassemblyCache.Block b = block;
+                    lineNumbers.mapToSource(mem.getID(), b.start, b.end, new DoneMapToSource() {
+                        public void doneMapToSource(IToken token, Exception error, final CodeArea[] areas) {
+                            if (error != null) {
+                                Activator.log(error);
                             }
-                        });
-                        return;
-                    }
-                }
-                if (!done_code && range == null) {
-                    done_code = true;
-                }
-                if (!done_code) {
-                    code = new byte[range.end.subtract(range.start).intValue()];
-                    mem.get(range.start, 1, code, 0, code.length, 0, new IMemory.DoneMemory() {
-                        @Override
-                        public void doneMemory(IToken token, MemoryError error) {
-                            done_code = true;
+                            else {
+                                b.code_areas = areas;
+                                b.has_code_areas = true;
+                                code_areas_loaded = areas;
+                            }
+                            done_line_numbers = true;
                             run();
                         }
                     });
                     return;
                 }
-                fCallback.asyncExec(new Runnable() {
-                    public void run() {
-                        insertDisassembly(request, startAddress, code, range, big_endian,
-                                disassembly, symbol_array, code_areas);
-                        if (fCallback.getAddressSize() < addr_bits) fCallback.addressSizeChanged(addr_bits);
+            }
+            if (block.code == null) {
+                final DisassemblyCache.Block b = block;
+                final byte[] buf = new byte[b.end.subtract(b.start).intValue()];
+                mem.get(b.start, 1, buf, 0, buf.length, 0, new IMemory.DoneMemory() {
+                    @Override
+                    public void doneMemory(IToken token, MemoryError error) {
+                        b.code = buf;
+                        run();
                     }
                 });
+                return;
             }
-        });
+            done(block, null);
+        }
+    }
+
+    /* Load next block in background, so scrolling the view down is served from the cache.
+     * Only forward prefetch is done, since instruction boundaries before a block are not known. */
+    private void prefetch(final TCFNodeExecContext ctx, IMemory.MemoryContext mem, BigInteger addr, int size,
+            boolean symbols, boolean line_numbers) {
+        assert Protocol.isDispatchThread();
+        if (fPrefetch != null || disposed) return;
+        BigInteger mem_end = BigInteger.ONE.shiftLeft(mem.getAddressSize() * 8);
+        if (addr.compareTo(mem_end) >= 0) return;
+        if (fCache.find(mem.getID(), addr) != null) return;
+        size = mem_end.subtract(addr).min(BigInteger.valueOf(size)).intValue();
+        final int context_cnt = fContextCount;
+        fPrefetch = new BlockLoader(ctx, mem, addr, size, symbols, line_numbers) {
+            @Override
+            boolean check() {
+                if (fPrefetch != this) return false;
+                if (!disposed && context_cnt == fContextCount && !ctx.isDisposed()) return true;
+                fPrefetch = null;
+                return false;
+            }
+            @Override
+            void done(DisassemblyCache.Block block, Throwable error) {
+                fPrefetch = null;
+            }
+        };
+        Protocol.invokeLater(fPrefetch);
     }
 
     private long getModCount() {
@@ -1110,6 +1232,11 @@ public class TCFDisassemblyBackend extends AbstractDisassemblyBackend {
 
     public void dispose() {
         disposed = true;
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                fCache.clear();
+            }
+        });
     }
 
     public Object insertSource(Position pos, BigInteger address, String file, int lineNumber) {
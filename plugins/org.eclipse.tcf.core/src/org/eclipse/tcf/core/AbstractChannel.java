@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,10 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 import org.eclipse.tcf.internal.core.ServiceManager;
 import org.eclipse.tcf.internal.core.Token;
@@ -30,6 +34,8 @@ import org.eclipse.tcf.protocol.IPeer;
 import org.eclipse.tcf.protocol.IService;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.JSONReader;
+import org.eclipse.tcf.protocol.JSONWriter;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.ILocator;
 
@@ -94,9 +100,20 @@ public abstract class AbstractChannel implements IChannel {
          * The array of bytes that accompanies the message
          */
         byte[] data;
+        /**
+         * Payload of a received Command Result that is not copied into 'data':
+         * a slice of a buffer handed off by FrameDecoder, it is parsed in place by Command.
+         */
+        byte[] data_buf;
+        int data_pos;
+        int data_len;
 
-        boolean is_sent;
-        boolean is_canceled;
+        /* Transmission state: OUT_QUEUED, OUT_SENT or OUT_CANCELED, changed atomically */
+        volatile int out_state;
+        /* Time when a command was sent, System.nanoTime() */
+        long send_time;
+        /* Command metrics, null if metrics are disabled */
+        CommandMetrics.Entry metrics;
 
         Collection<TraceListener> trace;
 
@@ -108,6 +125,43 @@ public abstract class AbstractChannel implements IChannel {
             this.type = type;
         }
 
+        /**
+         * Mark the message as being transmitted.
+         * @return false if the message was canceled.
+         */
+        boolean markSent() {
+            return out_state_updater.compareAndSet(this, OUT_QUEUED, OUT_SENT);
+        }
+
+        /**
+         * Get the message payload as an array of bytes.
+         * A payload slice is copied into 'data' when it is needed as a whole array.
+         * @return the payload, or null
+         */
+        byte[] getData() {
+            if (data_buf != null) {
+                data = FrameDecoder.toByteArray(data_buf, data_pos, data_len);
+                data_buf = null;
+            }
+            return data;
+        }
+
+        /**
+         * @return size of the message payload in bytes.
+         */
+        int getDataSize() {
+            if (data_buf != null) return data_len;
+            return data == null ? 0 : data.length;
+        }
+
+        /**
+         * Mark the message as canceled.
+         * @return false if the message is already being transmitted.
+         */
+        boolean markCanceled() {
+            return out_state_updater.compareAndSet(this, OUT_QUEUED, OUT_CANCELED);
+        }
+
         @Override
         public String toString() {
             try {
@@ -126,6 +180,8 @@ public abstract class AbstractChannel implements IChannel {
                     bf.append(' ');
                     bf.append(name);
                 }
+                byte[] data = this.data;
+                if (data_buf != null) data = FrameDecoder.toByteArray(data_buf, data_pos, data_len);
                 if (data != null) {
                     int i = 0;
                     while (i < data.length) {
@@ -146,19 +202,155 @@ public abstract class AbstractChannel implements IChannel {
         }
     }
 
+    /**
+     * Statistics of inbound message dispatch.
+     * Received messages are queued by the channel and handled by the dispatch thread in batches,
+     * the statistics help to tune the batch size, see setMaxInputBatchSize().
+     * @since 1.8
+     */
+    public static final class DispatchStatistics {
+        /**
+         * Number of dispatched messages, including end of stream and error notifications
+         */
+        public final long messages;
+        /**
+         * Number of dispatch thread events used to handle the messages
+         */
+        public final long batches;
+        /**
+         * Largest number of messages handled by a single event
+         */
+        public final int max_batch_size;
+        /**
+         * Current number of messages waiting to be dispatched
+         */
+        public final int queue_depth;
+        /**
+         * Largest number of messages waiting to be dispatched
+         */
+        public final int max_queue_depth;
+        /**
+         * Histogram of batch sizes, element N is number of batches with size in range 2^N..2^(N+1)-1
+         */
+        public final long[] batch_size_histogram;
+
+        DispatchStatistics(long messages, long batches, int max_batch_size,
+                int queue_depth, int max_queue_depth, long[] batch_size_histogram) {
+            this.messages = messages;
+            this.batches = batches;
+            this.max_batch_size = max_batch_size;
+            this.queue_depth = queue_depth;
+            this.max_queue_depth = max_queue_depth;
+            this.batch_size_histogram = batch_size_histogram;
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer bf = new StringBuffer();
+            bf.append("[messages=").append(messages);
+            bf.append(", batches=").append(batches);
+            bf.append(", max_batch_size=").append(max_batch_size);
+            bf.append(", queue_depth=").append(queue_depth);
+            bf.append(", max_queue_depth=").append(max_queue_depth);
+            bf.append(']');
+            return bf.toString();
+        }
+    }
+
+    /**
+     * Statistics of outbound message transmission.
+     * The transmitter writes all queued messages before flushing the output stream,
+     * the statistics help to tune the batching, see setOutputBatching().
+     * @since 1.8
+     */
+    public static final class OutputStatistics {
+        /**
+         * Number of transmitted messages
+         */
+        public final long messages;
+        /**
+         * Number of transmitted message bytes, not including transport framing
+         */
+        public final long bytes;
+        /**
+         * Number of output stream flushes
+         */
+        public final long flushes;
+        /**
+         * Largest number of messages written by a single flush
+         */
+        public final int max_messages_per_flush;
+        /**
+         * Largest number of bytes written by a single flush
+         */
+        public final long max_bytes_per_flush;
+        /**
+         * Histogram of messages per flush, element N is number of flushes with message count in range 2^N..2^(N+1)-1
+         */
+        public final long[] messages_per_flush_histogram;
+
+        OutputStatistics(long messages, long bytes, long flushes, int max_messages_per_flush,
+                long max_bytes_per_flush, long[] messages_per_flush_histogram) {
+            this.messages = messages;
+            this.bytes = bytes;
+            this.flushes = flushes;
+            this.max_messages_per_flush = max_messages_per_flush;
+            this.max_bytes_per_flush = max_bytes_per_flush;
+            this.messages_per_flush_histogram = messages_per_flush_histogram;
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer bf = new StringBuffer();
+            bf.append("[messages=").append(messages);
+            bf.append(", bytes=").append(bytes);
+            bf.append(", flushes=").append(flushes);
+            if (flushes > 0) {
+                bf.append(", messages_per_flush=").append(messages / flushes);
+                bf.append(", bytes_per_flush=").append(bytes / flushes);
+            }
+            bf.append(", max_messages_per_flush=").append(max_messages_per_flush);
+            bf.append(", max_bytes_per_flush=").append(max_bytes_per_flush);
+            bf.append(']');
+            return bf.toString();
+        }
+    }
+
     private final LinkedList<Map<String,String>> redirect_queue = new LinkedList<Map<String,String>>();
     private final Map<Class<?>,IService> local_service_by_class = new HashMap<Class<?>,IService>();
     private final Map<Class<?>,IService> remote_service_by_class = new HashMap<Class<?>,IService>();
     private final Map<String,IService> local_service_by_name = new HashMap<String,IService>();
     private final Map<String,IService> remote_service_by_name = new HashMap<String,IService>();
-    private final LinkedList<Message> out_queue = new LinkedList<Message>();
+    private final ConcurrentLinkedQueue<Message> out_queue = new ConcurrentLinkedQueue<Message>();
+    private final AtomicReference<Message> out_flow_control = new AtomicReference<Message>();
     private final Collection<IChannelListener> channel_listeners = new ArrayList<IChannelListener>();
     private final Map<String,IChannel.IEventListener[]> event_listeners = new HashMap<String,IChannel.IEventListener[]>();
     private final Map<String,IChannel.ICommandServer> command_servers = new HashMap<String,IChannel.ICommandServer>();
     private final LinkedList<IPeer> remote_peer_list = new LinkedList<IPeer>();
     private final Map<String,Message> out_tokens = new LinkedHashMap<String,Message>();
+    private final Map<String,CommandWindow> command_windows = new HashMap<String,CommandWindow>();
+    private CommandMetrics metrics;
+    /* JSON codec of commands sent on this channel, accessed by the dispatch thread only */
+    private JSONReader json_reader;
+    private JSONWriter json_writer;
     private final Thread inp_thread;
     private final Thread out_thread;
+
+    /* Framed input buffer of the default read() implementation, accessed by the receiver thread only */
+    private byte[] blk_buf;
+    private int blk_pos;
+    private int blk_len;
+    private int blk_bin_size;
+    /* State of the default readBlock() implementation, accessed by the receiver thread only */
+    private boolean blk_fallback;
+    private boolean blk_eos;
+    private boolean blk_end;
+
+    private volatile boolean out_eos;
+    private volatile boolean out_waiting;
+    private boolean out_eos_sent;
+    private final Object out_eos_lock = new Object();
+    private volatile boolean started;
     private boolean notifying_channel_opened;
     private boolean registered_with_trasport;
     private int state = STATE_OPENING;
@@ -167,14 +359,57 @@ public abstract class AbstractChannel implements IChannel {
     private IPeer remote_peer;
     private Proxy proxy;
     private boolean zero_copy;
+    private boolean hello_received;
 
     private static final int pending_command_limit = 32;
+
+    /* Name of pseudo-service that advertises support of compressed byte stream */
+    static final String COMPRESSION_SERVICE = "CompressedStream";
     private int local_congestion_level = -100;
     private int remote_congestion_level = -100;
     private long local_congestion_time;
     private int local_congestion_cnt;
     private Collection<TraceListener> trace_listeners;
 
+    private static final int INP_QUEUE_SIZE = 64;
+    private static final int INP_BATCH_SIZE = Math.max(1, Integer.getInteger("org.eclipse.tcf.core.channel.batch", 64));
+
+    private final Object inp_queue_lock = new Object();
+    private Object[] inp_queue = new Object[INP_QUEUE_SIZE];
+    private int inp_queue_pos;
+    private int inp_queue_cnt;
+    private boolean inp_drain_posted;
+    private Object[] inp_batch = new Object[0];
+    private volatile int inp_batch_size = INP_BATCH_SIZE;
+    private long inp_stats_messages;
+    private long inp_stats_batches;
+    private int inp_stats_max_batch;
+    private int inp_stats_max_depth;
+    private final long[] inp_stats_histogram = new long[32];
+
+    private static final int
+        OUT_QUEUED = 0,
+        OUT_SENT = 1,
+        OUT_CANCELED = 2;
+
+    private static final AtomicIntegerFieldUpdater<Message> out_state_updater =
+        AtomicIntegerFieldUpdater.newUpdater(Message.class, "out_state");
+
+    private static final int OUT_FLUSH_SIZE = Integer.getInteger("org.eclipse.tcf.core.channel.flush_size", 0x10000);
+    private static final int OUT_FLUSH_DELAY = Integer.getInteger("org.eclipse.tcf.core.channel.flush_delay", 0);
+
+    private volatile int out_flush_size = OUT_FLUSH_SIZE;
+    private volatile int out_flush_delay = OUT_FLUSH_DELAY;
+    /* Average number of messages per flush, multiplied by 16 */
+    private int out_avg_batch;
+    private final Object out_stats_lock = new Object();
+    private long out_stats_messages;
+    private long out_stats_bytes;
+    private long out_stats_flushes;
+    private int out_stats_max_messages;
+    private long out_stats_max_bytes;
+    private final long[] out_stats_histogram = new long[32];
+
     /**
      * @since 1.2
      */
@@ -195,11 +430,29 @@ public abstract class AbstractChannel implements IChannel {
     }
 
     protected AbstractChannel(IPeer local_peer, IPeer remote_peer) {
+        this(local_peer, remote_peer, true);
+    }
+
+    /**
+     * Construct a channel that optionally does not own receiver and transmitter threads.
+     * Non-blocking transports (see ChannelNIO) pass false and drive the channel
+     * with onInputMessage(), onInputEndOfStream(), onIOError() and pollOutQueue() instead.
+     * @param local_peer local peer
+     * @param remote_peer remote peer
+     * @param threads true if the channel should create receiver and transmitter threads
+     */
+    AbstractChannel(IPeer local_peer, IPeer remote_peer, boolean threads) {
         assert Protocol.isDispatchThread();
         this.remote_peer = remote_peer;
         this.local_peer = local_peer;
         remote_peer_list.add(remote_peer);
 
+        if (!threads) {
+            inp_thread = null;
+            out_thread = null;
+            return;
+        }
+
         /**
          * Thread used handles messages received through the channel
          */
@@ -321,9 +574,52 @@ public abstract class AbstractChannel implements IChannel {
                 return new String(cbf, 0, len);
             }
 
+            /**
+             * Read input in blocks and decode whole blocks with FrameDecoder,
+             * instead of reading the input one byte at a time.
+             * @throws Exception
+             */
+            private void readBlocks() throws Exception {
+                final byte[] blk = new byte[0x4000];
+                FrameDecoder decoder = new FrameDecoder(new FrameDecoder.Handler() {
+                    public void onMessage(Message msg) {
+                        onInputMessage(msg);
+                        int delay = local_congestion_level;
+                        if (delay > 0) {
+                            try {
+                                sleep(delay);
+                            }
+                            catch (InterruptedException x) {
+                                interrupt();
+                            }
+                        }
+                    }
+                    public void onEndOfStream(byte[] err_report) {
+                        eos_err_report = err_report;
+                    }
+                });
+                boolean compressed = false;
+                while (!decoder.isDone()) {
+                    int n = readBlock(blk);
+                    if (n < 0) break;
+                    int pos = decoder.decode(blk, 0, n);
+                    if (!compressed && decoder.isCompressed()) {
+                        /* Compressed stream marker: rest of the input is compressed,
+                         * the marker can be the last byte of the block */
+                        compressed = true;
+                        onInputCompressionStart(blk, pos, n - pos);
+                    }
+                }
+                onInputEndOfStream(eos_err_report);
+            }
+
             @Override
             public void run() {
                 try {
+                    if (isBlockInputSupported()) {
+                        readBlocks();
+                        return;
+                    }
                     while (true) {
                         int n = read();
                         if (n == EOM) continue;
@@ -362,50 +658,14 @@ public abstract class AbstractChannel implements IChannel {
                         default:
                             error();
                         }
-                        /*
-                         * Message handling is done in the dispatch thread
-                         */
-                        Protocol.invokeLater(new Runnable() {
-                            public void run() {
-                                handleInput(msg);
-                            }
-                        });
+                        onInputMessage(msg);
                         int delay = local_congestion_level;
                         if (delay > 0) sleep(delay);
                     }
-                    Protocol.invokeLater(new Runnable() {
-                        public void run() {
-                            if (out_tokens.isEmpty() && eos_err_report == null && state != STATE_OPENING) {
-                                close();
-                            }
-                            else {
-                                IOException x = new IOException("Communication channel is closed by remote peer");
-                                if (eos_err_report != null) {
-                                    try {
-                                        Object[] args = JSON.parseSequence(eos_err_report);
-                                        if (args.length > 0 && args[0] != null) {
-                                            x.initCause(new Exception(Command.toErrorString(args[0])));
-                                        }
-                                    }
-                                    catch (IOException e) {
-                                    }
-                                }
-                                terminate(x);
-                            }
-                        }
-                    });
+                    onInputEndOfStream(eos_err_report);
                 }
                 catch (final Throwable x) {
-                    try {
-                        Protocol.invokeLater(new Runnable() {
-                            public void run() {
-                                terminate(x);
-                            }
-                        });
-                    }
-                    catch (IllegalStateException y) {
-                        // TCF event dispatcher has shut down
-                    }
+                    onIOError(x);
                 }
             }
         };
@@ -415,129 +675,42 @@ public abstract class AbstractChannel implements IChannel {
          */
         out_thread = new Thread() {
 
-            private final byte[] out_buf = new byte[0x4000];
-            private int out_buf_pos;
-
-            void writeBytes(byte[] buf)  throws IOException {
-                if (buf.length > out_buf.length) {
-                    write(out_buf, 0, out_buf_pos);
-                    out_buf_pos = 0;
-                    write(buf);
-                }
-                else {
-                    int i = 0;
-                    while (i < buf.length) {
-                        if (out_buf_pos >= out_buf.length) {
-                            write(out_buf);
-                            out_buf_pos = 0;
-                        }
-                        int n = buf.length - i;
-                        if (n > out_buf.length - out_buf_pos) n = out_buf.length - out_buf_pos;
-                        System.arraycopy(buf, i, out_buf, out_buf_pos, n);
-                        out_buf_pos += n;
-                        i += n;
-                    }
-                }
-            }
-
-            void writeString(String s) throws IOException {
-                int l = s.length();
-                for (int i = 0; i < l; i++) {
-                    if (out_buf_pos + 4 > out_buf.length) {
-                        write(out_buf, 0, out_buf_pos);
-                        out_buf_pos = 0;
-                    }
-                    int ch = s.charAt(i);
-                    if (ch < 0x80) {
-                        out_buf[out_buf_pos++] = (byte)ch;
-                    }
-                    else if (ch < 0x800) {
-                        out_buf[out_buf_pos++] = (byte)((ch >> 6) | 0xc0);
-                        out_buf[out_buf_pos++] = (byte)(ch & 0x3f | 0x80);
-                    }
-                    else if (ch < 0x10000) {
-                        out_buf[out_buf_pos++] = (byte)((ch >> 12) | 0xe0);
-                        out_buf[out_buf_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
-                        out_buf[out_buf_pos++] = (byte)(ch & 0x3f | 0x80);
-                    }
-                    else {
-                        out_buf[out_buf_pos++] = (byte)((ch >> 18) | 0xf0);
-                        out_buf[out_buf_pos++] = (byte)((ch >> 12) & 0x3f | 0x80);
-                        out_buf[out_buf_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
-                        out_buf[out_buf_pos++] = (byte)(ch & 0x3f | 0x80);
-                    }
-                }
-                if (out_buf_pos >= out_buf.length) {
-                    write(out_buf);
-                    out_buf_pos = 0;
-                }
-                out_buf[out_buf_pos++] = 0;
-            }
+            private final MessageEncoder encoder = new MessageEncoder();
 
             @Override
             public void run() {
                 try {
                     while (true) {
-                        Message msg = null;
-                        boolean last = false;
-                        synchronized (out_queue) {
-                            while (out_queue.size() == 0) out_queue.wait();
-                            msg = out_queue.removeFirst();
+                        Message msg = takeOutMessage();
+                        if (msg == null) break;
+                        long time = 0;
+                        int cnt = 0;
+                        long bytes = 0;
+                        for (;;) {
+                            bytes += encoder.writeMessage(AbstractChannel.this, msg);
+                            cnt++;
+                            if (bytes >= out_flush_size) break;
+                            msg = pollOutMessage();
+                            if (msg != null) continue;
+                            /* Queue is empty: if recent flushes carried several messages,
+                             * wait a little for more of them, within the latency budget */
+                            int delay = out_flush_delay;
+                            if (delay <= 0 || out_avg_batch < 32) break;
+                            if (time == 0) time = System.nanoTime() + delay * 1000L;
+                            msg = waitOutMessage(time);
                             if (msg == null) break;
-                            last = out_queue.isEmpty();
-                            if (msg.is_canceled) {
-                                if (last) flush();
-                                continue;
-                            }
-                            msg.is_sent = true;
-                        }
-                        if (msg.trace != null) {
-                            final Message m = msg;
-                            Protocol.invokeLater(new Runnable() {
-                                public void run() {
-                                    for (TraceListener l : m.trace) {
-                                        try {
-                                            l.onMessageSent(m.type, m.token == null ? null : m.token.getID(),
-                                                    m.service, m.name, m.data);
-                                        }
-                                        catch (Throwable x) {
-                                            Protocol.log("Exception in channel listener", x);
-                                        }
-                                    }
-                                }
-                            });
                         }
-                        out_buf_pos = 0;
-                        out_buf[out_buf_pos++] = (byte)msg.type;
-                        out_buf[out_buf_pos++] = 0;
-                        if (msg.token != null) writeString(msg.token.getID());
-                        if (msg.service != null) writeString(msg.service);
-                        if (msg.name != null) writeString(msg.name);
-                        if (msg.data != null) writeBytes(msg.data);
-                        write(out_buf, 0, out_buf_pos);
-                        write(EOM);
-                        int delay = 0;
+                        flushOutput();
+                        onOutputFlushed(cnt, bytes);
                         int level = remote_congestion_level;
-                        if (level > 0) delay = level * 10;
-                        if (last || delay > 0) flush();
-                        if (delay > 0) sleep(delay);
-                        else yield();
+                        if (level > 0) sleep(level * 10);
                     }
                     write(EOS);
                     write(EOM);
-                    flush();
+                    flushOutput();
                 }
                 catch (final Throwable x) {
-                    try {
-                        Protocol.invokeLater(new Runnable() {
-                            public void run() {
-                                terminate(x);
-                            }
-                        });
-                    }
-                    catch (IllegalStateException y) {
-                        // TCF event dispatcher has shut down
-                    }
+                    onIOError(x);
                 }
             }
         };
@@ -547,12 +720,20 @@ public abstract class AbstractChannel implements IChannel {
 
     protected void start() {
         assert Protocol.isDispatchThread();
+        started = true;
         Protocol.invokeLater(new Runnable() {
             public void run() {
                 try {
                     if (proxy != null) return;
                     if (state == STATE_CLOSED) return;
                     ServiceManager.onChannelCreated(AbstractChannel.this, local_service_by_name);
+                    if (isCompressionSupported()) {
+                        local_service_by_name.put(COMPRESSION_SERVICE, new IService() {
+                            public String getName() {
+                                return COMPRESSION_SERVICE;
+                            }
+                        });
+                    }
                     makeServiceByClassMap(local_service_by_name, local_service_by_class);
                     Object[] args = new Object[]{ local_service_by_name.keySet() };
                     sendEvent(Protocol.getLocator(), "Hello", JSON.toJSONSequence(args));
@@ -562,8 +743,419 @@ public abstract class AbstractChannel implements IChannel {
                 }
             }
         });
-        inp_thread.start();
-        out_thread.start();
+        if (inp_thread != null) {
+            inp_thread.start();
+            out_thread.start();
+        }
+    }
+
+    /**
+     * Encodes outgoing messages into the channel output stream.
+     * The encoder only keeps a staging buffer between write() calls,
+     * so a non-blocking transport can share one encoder between many channels.
+     */
+    static final class MessageEncoder {
+
+        private final byte[] out_buf = new byte[0x4000];
+        private int out_buf_pos;
+        private int out_bytes;
+        private AbstractChannel channel;
+
+        private void writeBuf(int len) throws IOException {
+            channel.write(out_buf, 0, len);
+            out_bytes += len;
+        }
+
+        private void writeBytes(byte[] buf) throws IOException {
+            if (buf.length > out_buf.length) {
+                writeBuf(out_buf_pos);
+                out_buf_pos = 0;
+                channel.write(buf);
+                out_bytes += buf.length;
+            }
+            else {
+                int i = 0;
+                while (i < buf.length) {
+                    if (out_buf_pos >= out_buf.length) {
+                        writeBuf(out_buf_pos);
+                        out_buf_pos = 0;
+                    }
+                    int n = buf.length - i;
+                    if (n > out_buf.length - out_buf_pos) n = out_buf.length - out_buf_pos;
+                    System.arraycopy(buf, i, out_buf, out_buf_pos, n);
+                    out_buf_pos += n;
+                    i += n;
+                }
+            }
+        }
+
+        private void writeString(String s) throws IOException {
+            int l = s.length();
+            for (int i = 0; i < l; i++) {
+                if (out_buf_pos + 4 > out_buf.length) {
+                    writeBuf(out_buf_pos);
+                    out_buf_pos = 0;
+                }
+                int ch = s.charAt(i);
+                if (ch < 0x80) {
+                    out_buf[out_buf_pos++] = (byte)ch;
+                }
+                else if (ch < 0x800) {
+                    out_buf[out_buf_pos++] = (byte)((ch >> 6) | 0xc0);
+                    out_buf[out_buf_pos++] = (byte)(ch & 0x3f | 0x80);
+                }
+                else if (ch < 0x10000) {
+                    out_buf[out_buf_pos++] = (byte)((ch >> 12) | 0xe0);
+                    out_buf[out_buf_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
+                    out_buf[out_buf_pos++] = (byte)(ch & 0x3f | 0x80);
+                }
+                else {
+                    out_buf[out_buf_pos++] = (byte)((ch >> 18) | 0xf0);
+                    out_buf[out_buf_pos++] = (byte)((ch >> 12) & 0x3f | 0x80);
+                    out_buf[out_buf_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
+                    out_buf[out_buf_pos++] = (byte)(ch & 0x3f | 0x80);
+                }
+            }
+            if (out_buf_pos >= out_buf.length) {
+                writeBuf(out_buf_pos);
+                out_buf_pos = 0;
+            }
+            out_buf[out_buf_pos++] = 0;
+        }
+
+        /**
+         * Write a message, including end of message marker, into the channel output stream.
+         * @param channel - the channel that owns the message
+         * @param msg - the message
+         * @return number of message bytes written, not including transport framing
+         * @throws IOException
+         */
+        int writeMessage(AbstractChannel channel, Message msg) throws IOException {
+            this.channel = channel;
+            try {
+                out_bytes = 0;
+                out_buf_pos = 0;
+                out_buf[out_buf_pos++] = (byte)msg.type;
+                out_buf[out_buf_pos++] = 0;
+                if (msg.token != null) writeString(msg.token.getID());
+                if (msg.service != null) writeString(msg.service);
+                if (msg.name != null) writeString(msg.name);
+                if (msg.data != null) writeBytes(msg.data);
+                writeBuf(out_buf_pos);
+                channel.write(EOM);
+                return out_bytes;
+            }
+            finally {
+                this.channel = null;
+            }
+        }
+    }
+
+    /**
+     * Pass a message read by the receiver to the dispatch thread.
+     * Can be called from any thread.
+     * @param msg - the message
+     */
+    void onInputMessage(Message msg) {
+        addToInpQueue(msg);
+    }
+
+    /**
+     * Add a message or a task to the inbound queue.
+     * Message handling is done in the dispatch thread: instead of posting an event for every message,
+     * the receiver fills the queue and a single drain task, posted only when the queue was idle,
+     * handles queued messages in batches. Tasks are queued together with messages to preserve ordering.
+     * @param obj - a Message or a Runnable
+     */
+    private void addToInpQueue(Object obj) {
+        boolean post = false;
+        synchronized (inp_queue_lock) {
+            if (inp_queue_cnt >= inp_queue.length) {
+                Object[] tmp = new Object[inp_queue.length * 2];
+                for (int i = 0; i < inp_queue_cnt; i++) {
+                    tmp[i] = inp_queue[(inp_queue_pos + i) % inp_queue.length];
+                }
+                inp_queue = tmp;
+                inp_queue_pos = 0;
+            }
+            inp_queue[(inp_queue_pos + inp_queue_cnt) % inp_queue.length] = obj;
+            inp_queue_cnt++;
+            if (inp_queue_cnt > inp_stats_max_depth) inp_stats_max_depth = inp_queue_cnt;
+            if (!inp_drain_posted) {
+                inp_drain_posted = true;
+                post = true;
+            }
+        }
+        if (post) Protocol.invokeLater(inp_drain);
+    }
+
+    private final Runnable inp_drain = new Runnable() {
+        public void run() {
+            int max = inp_batch_size;
+            Object[] batch = inp_batch;
+            if (batch.length < max) batch = inp_batch = new Object[max];
+            int cnt = 0;
+            boolean more = false;
+            synchronized (inp_queue_lock) {
+                while (cnt < max && inp_queue_cnt > 0) {
+                    batch[cnt++] = inp_queue[inp_queue_pos];
+                    inp_queue[inp_queue_pos] = null;
+                    inp_queue_pos = (inp_queue_pos + 1) % inp_queue.length;
+                    inp_queue_cnt--;
+                }
+                if (inp_queue_cnt > 0) more = true;
+                else inp_drain_posted = false;
+                if (inp_queue_cnt == 0 && inp_queue.length > INP_QUEUE_SIZE * 16) {
+                    inp_queue = new Object[INP_QUEUE_SIZE];
+                    inp_queue_pos = 0;
+                }
+                inp_stats_messages += cnt;
+                inp_stats_batches++;
+                if (cnt > inp_stats_max_batch) inp_stats_max_batch = cnt;
+                inp_stats_histogram[31 - Integer.numberOfLeadingZeros(cnt | 1)]++;
+            }
+            /* Re-post remaining messages as a new event, to let other events run in between */
+            if (more) Protocol.invokeLater(this);
+            for (int i = 0; i < cnt; i++) {
+                Object obj = batch[i];
+                batch[i] = null;
+                if (obj instanceof Message) handleInput((Message)obj);
+                else ((Runnable)obj).run();
+            }
+        }
+    };
+
+    /**
+     * Set maximum number of inbound messages handled by a single dispatch thread event.
+     * Bigger batches reduce dispatch overhead, smaller batches reduce latency of other events,
+     * e.g. UI updates, when a lot of messages is received.
+     * The default is set by system property "org.eclipse.tcf.core.channel.batch", 64 if not set.
+     * @param size - maximum batch size
+     * @since 1.8
+     */
+    public void setMaxInputBatchSize(int size) {
+        assert Protocol.isDispatchThread();
+        if (size < 1) throw new IllegalArgumentException("Invalid batch size: " + size);
+        inp_batch_size = size;
+    }
+
+    /**
+     * Get statistics of inbound message dispatch.
+     * Can be called from any thread.
+     * @return snapshot of the statistics
+     * @since 1.8
+     */
+    public DispatchStatistics getDispatchStatistics() {
+        synchronized (inp_queue_lock) {
+            return new DispatchStatistics(inp_stats_messages, inp_stats_batches, inp_stats_max_batch,
+                    inp_queue_cnt, inp_stats_max_depth, inp_stats_histogram.clone());
+        }
+    }
+
+    /**
+     * Notify the channel that the receiver has reached end of stream.
+     * Can be called from any thread.
+     * @param eos_err_report - error report sent by remote peer together with end of stream marker, or null
+     */
+    void onInputEndOfStream(final byte[] eos_err_report) {
+        addToInpQueue(new Runnable() {
+            public void run() {
+                if (out_tokens.isEmpty() && eos_err_report == null && state != STATE_OPENING) {
+                    close();
+                }
+                else {
+                    IOException x = new IOException("Communication channel is closed by remote peer");
+                    if (eos_err_report != null) {
+                        try {
+                            Object[] args = JSON.parseSequence(eos_err_report);
+                            if (args.length > 0 && args[0] != null) {
+                                x.initCause(new Exception(Command.toErrorString(args[0])));
+                            }
+                        }
+                        catch (IOException e) {
+                        }
+                    }
+                    terminate(x);
+                }
+            }
+        });
+    }
+
+    /**
+     * Notify the channel about communication error.
+     * Can be called from any thread.
+     * @param x - the error
+     */
+    void onIOError(final Throwable x) {
+        try {
+            addToInpQueue(new Runnable() {
+                public void run() {
+                    terminate(x);
+                }
+            });
+        }
+        catch (IllegalStateException y) {
+            // TCF event dispatcher has shut down
+        }
+    }
+
+    private void onMessageSent(final Message m) {
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                for (TraceListener l : m.trace) {
+                    try {
+                        l.onMessageSent(m.type, m.token == null ? null : m.token.getID(),
+                                m.service, m.name, m.data);
+                    }
+                    catch (Throwable x) {
+                        Protocol.log("Exception in channel listener", x);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Called when a message is added to the output queue.
+     * Non-blocking transports override it to schedule output.
+     */
+    void onOutputQueued() {
+    }
+
+    /**
+     * Remove next message from the output queue.
+     * Used by non-blocking transports, instead of the transmitter thread.
+     * Canceled messages are skipped. If the end of stream is reached,
+     * the method sets eos[0] and returns null.
+     * @param eos - single element array that receives end of stream flag
+     * @return next message to transmit, or null if the queue is empty
+     */
+    Message pollOutQueue(boolean[] eos) {
+        Message msg = pollOutMessage();
+        if (msg == null && out_eos) eos[0] = true;
+        return msg;
+    }
+
+    /**
+     * Remove next message from the output queue, skipping canceled messages.
+     * Flow control message, if any, is sent before other queued messages.
+     * @return next message to transmit, or null if the queue is empty or the channel is sending end of stream.
+     */
+    private Message pollOutMessage() {
+        for (;;) {
+            if (out_eos) return null;
+            Message msg = out_flow_control.getAndSet(null);
+            if (msg == null) msg = out_queue.poll();
+            if (msg == null) return null;
+            if (!msg.markSent()) continue;
+            if (msg.trace != null) onMessageSent(msg);
+            return msg;
+        }
+    }
+
+    /**
+     * Wait until a message is queued or end of stream is requested.
+     * Called by the transmitter thread only.
+     * @return next message to transmit, or null if end of stream should be sent
+     * @throws InterruptedException
+     */
+    private Message takeOutMessage() throws InterruptedException {
+        for (;;) {
+            Message msg = pollOutMessage();
+            if (msg != null || out_eos) return msg;
+            out_waiting = true;
+            if (out_queue.isEmpty() && out_flow_control.get() == null && !out_eos) LockSupport.park(this);
+            out_waiting = false;
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Wait until a message is queued, end of stream is requested or the deadline is reached.
+     * Called by the transmitter thread only.
+     * @param deadline - System.nanoTime() value
+     * @return next message to transmit, or null
+     */
+    private Message waitOutMessage(long deadline) {
+        for (;;) {
+            Message msg = pollOutMessage();
+            if (msg != null || out_eos) return msg;
+            long delay = deadline - System.nanoTime();
+            if (delay <= 0) return null;
+            out_waiting = true;
+            if (out_queue.isEmpty() && out_flow_control.get() == null && !out_eos) LockSupport.parkNanos(this, delay);
+            out_waiting = false;
+        }
+    }
+
+    /**
+     * Wake up the transmitter after a message is queued.
+     */
+    private void signalOutput() {
+        if (out_waiting) {
+            out_waiting = false;
+            LockSupport.unpark(out_thread);
+        }
+        onOutputQueued();
+    }
+
+    /**
+     * Update output statistics after the transmitter has flushed the output stream.
+     * @param cnt - number of messages written since previous flush
+     * @param bytes - number of message bytes written since previous flush
+     */
+    void onOutputFlushed(int cnt, long bytes) {
+        if (cnt == 0) return;
+        out_avg_batch += cnt - out_avg_batch / 16;
+        synchronized (out_stats_lock) {
+            out_stats_messages += cnt;
+            out_stats_bytes += bytes;
+            out_stats_flushes++;
+            if (cnt > out_stats_max_messages) out_stats_max_messages = cnt;
+            if (bytes > out_stats_max_bytes) out_stats_max_bytes = bytes;
+            out_stats_histogram[31 - Integer.numberOfLeadingZeros(cnt)]++;
+        }
+    }
+
+    /**
+     * Set limits of output batching.
+     * The transmitter writes all queued messages, up to max_bytes, before flushing the output stream.
+     * If max_delay is greater than zero and recent flushes carried more than one message on average,
+     * the transmitter also waits up to max_delay microseconds for more messages before flushing.
+     * Defaults are set by system properties "org.eclipse.tcf.core.channel.flush_size" and
+     * "org.eclipse.tcf.core.channel.flush_delay".
+     * @param max_bytes - maximal number of message bytes per flush
+     * @param max_delay - maximal delay of first message of a batch, in microseconds, 0 disables the delay
+     * @since 1.8
+     */
+    public void setOutputBatching(int max_bytes, int max_delay) {
+        if (max_bytes < 1) throw new IllegalArgumentException("Invalid batch size: " + max_bytes);
+        if (max_delay < 0) throw new IllegalArgumentException("Invalid batch delay: " + max_delay);
+        out_flush_size = max_bytes;
+        out_flush_delay = max_delay;
+    }
+
+    /**
+     * Get statistics of outbound message transmission.
+     * Can be called from any thread.
+     * @return snapshot of the statistics
+     * @since 1.8
+     */
+    public OutputStatistics getOutputStatistics() {
+        synchronized (out_stats_lock) {
+            return new OutputStatistics(out_stats_messages, out_stats_bytes, out_stats_flushes,
+                    out_stats_max_messages, out_stats_max_bytes, out_stats_histogram.clone());
+        }
+    }
+
+    /**
+     * Notify the channel that a non-blocking transport has transmitted end of stream marker.
+     */
+    void onOutputEndOfStream() {
+        synchronized (out_eos_lock) {
+            out_eos_sent = true;
+            out_eos_lock.notifyAll();
+        }
     }
 
     /**
@@ -786,12 +1378,23 @@ public abstract class AbstractChannel implements IChannel {
     }
 
     private void sendEndOfStream(long timeout) throws Exception {
-        synchronized (out_queue) {
-            out_queue.clear();
-            out_queue.add(null);
-            out_queue.notifyAll();
+        out_eos = true;
+        out_queue.clear();
+        if (out_thread != null) {
+            LockSupport.unpark(out_thread);
+            out_thread.join(timeout);
+            return;
+        }
+        if (!started) return;
+        onOutputQueued();
+        long time = System.currentTimeMillis() + timeout;
+        synchronized (out_eos_lock) {
+            while (!out_eos_sent) {
+                long delay = time - System.currentTimeMillis();
+                if (delay <= 0) break;
+                out_eos_lock.wait(delay);
+            }
         }
-        out_thread.join(timeout);
     }
 
     private void close(final Throwable error) {
@@ -850,6 +1453,8 @@ public abstract class AbstractChannel implements IChannel {
                     }
                     out_tokens.clear();
                 }
+                for (CommandWindow w : command_windows.values()) w.dispose();
+                command_windows.clear();
                 if (channel_listeners.size() > 0) {
                     for (IChannelListener l : channel_listeners.toArray(
                             new IChannelListener[channel_listeners.size()])) {
@@ -886,6 +1491,46 @@ public abstract class AbstractChannel implements IChannel {
         return level;
     }
 
+    private CommandWindow getCommandWindow(String service) {
+        CommandWindow w = command_windows.get(service);
+        if (w == null) command_windows.put(service, w = new CommandWindow());
+        return w;
+    }
+
+    public int getCommandWindow(IService service) {
+        assert Protocol.isDispatchThread();
+        return getCommandWindow(service.getName()).getSize();
+    }
+
+    public int getPendingCommandCount(IService service) {
+        assert Protocol.isDispatchThread();
+        CommandWindow w = command_windows.get(service.getName());
+        return w == null ? 0 : w.getPending();
+    }
+
+    public boolean waitForCommandWindow(IService service, Runnable done) {
+        assert Protocol.isDispatchThread();
+        if (state == STATE_CLOSED) return true;
+        return getCommandWindow(service.getName()).waitForWindow(done);
+    }
+
+    /**
+     * Get per service and command metrics of the channel.
+     * Metrics are collected only while CommandMetrics.isEnabled() returns true.
+     * @return metrics object, or null if metrics were never enabled for this channel.
+     * @since 1.8
+     */
+    public CommandMetrics getCommandMetrics() {
+        assert Protocol.isDispatchThread();
+        return metrics;
+    }
+
+    private CommandMetrics.Entry getMetricsEntry(String service, String name) {
+        if (!CommandMetrics.isEnabled()) return null;
+        if (metrics == null) metrics = new CommandMetrics();
+        return metrics.getEntry(service, name);
+    }
+
     public IPeer getLocalPeer() {
         assert Protocol.isDispatchThread();
         return local_peer;
@@ -958,10 +1603,8 @@ public abstract class AbstractChannel implements IChannel {
 
     private void addToOutQueue(Message msg) {
         msg.trace = trace_listeners;
-        synchronized (out_queue) {
-            out_queue.add(msg);
-            out_queue.notifyAll();
-        }
+        out_queue.add(msg);
+        signalOutput();
     }
 
     public IToken sendCommand(IService service, String name, byte[] args, ICommandListener listener) {
@@ -978,16 +1621,22 @@ public abstract class AbstractChannel implements IChannel {
                 assert msg.token == this;
                 assert Protocol.isDispatchThread();
                 if (state != STATE_OPEN) return false;
-                synchronized (out_queue) {
-                    if (msg.is_sent) return false;
-                    msg.is_canceled = true;
-                }
+                if (!msg.markCanceled()) return false;
                 out_tokens.remove(getID());
+                getCommandWindow(msg.service).onCommandCanceled();
+                if (msg.metrics != null) msg.metrics.canceled++;
                 return true;
             }
         };
         msg.token = token;
+        msg.send_time = System.nanoTime();
+        msg.metrics = getMetricsEntry(msg.service, name);
+        if (msg.metrics != null) {
+            msg.metrics.commands++;
+            if (args != null) msg.metrics.bytes_sent += args.length;
+        }
         out_tokens.put(token.getID(), msg);
+        getCommandWindow(msg.service).onCommandSent();
         addToOutQueue(msg);
         return token;
     }
@@ -1053,6 +1702,11 @@ public abstract class AbstractChannel implements IChannel {
         msg.service = service.getName();
         msg.name = name;
         msg.data = args;
+        CommandMetrics.Entry m = getMetricsEntry(msg.service, name);
+        if (m != null) {
+            m.events_sent++;
+            if (args != null) m.bytes_sent += args.length;
+        }
         addToOutQueue(msg);
     }
 
@@ -1060,6 +1714,24 @@ public abstract class AbstractChannel implements IChannel {
         return zero_copy;
     }
 
+    /**
+     * @return JSON reader that parses command results, reused for every result.
+     */
+    JSONReader getJSONReader() {
+        assert Protocol.isDispatchThread();
+        if (json_reader == null) json_reader = new JSONReader();
+        return json_reader;
+    }
+
+    /**
+     * @return JSON writer that encodes command arguments, reused for every command.
+     */
+    JSONWriter getJSONWriter() {
+        assert Protocol.isDispatchThread();
+        if (json_writer == null) json_writer = new JSONWriter();
+        return json_writer;
+    }
+
     /**
      * Handles the message received from the channel
      * @param msg
@@ -1076,7 +1748,7 @@ public abstract class AbstractChannel implements IChannel {
                 try {
                     l.onMessageReceived(msg.type,
                             msg.token != null ? msg.token.getID() : null,
-                            msg.service, msg.name, msg.data);
+                            msg.service, msg.name, msg.getData());
                 }
                 catch (Throwable x) {
                     Protocol.log("Exception in trace listener", x);
@@ -1095,6 +1767,15 @@ public abstract class AbstractChannel implements IChannel {
                 if (cmd == null) {
                     throw new Exception("Invalid token received: " + token_id);
                 }
+                long rtt = msg.type == 'P' ? 0 : System.nanoTime() - cmd.send_time;
+                if (msg.type != 'P') getCommandWindow(cmd.service).onCommandDone(rtt, remote_congestion_level);
+                if (cmd.metrics != null) {
+                    cmd.metrics.bytes_received += msg.getDataSize();
+                    if (msg.type == 'P') cmd.metrics.progress++;
+                    else if (msg.type == 'R') cmd.metrics.results++;
+                    else cmd.metrics.rejected++;
+                    if (msg.type != 'P') cmd.metrics.addLatency(rtt);
+                }
                 token = cmd.token;
                 break;
             }
@@ -1124,7 +1805,14 @@ public abstract class AbstractChannel implements IChannel {
                 sendCongestionLevel();
                 break;
             case 'R':
-                token.getListener().result(token, msg.data);
+                IChannel.ICommandListener listener = token.getListener();
+                if (msg.data_buf != null && listener instanceof Command) {
+                    /* Pass the payload slice, the command decides if it needs a copy */
+                    ((Command)listener).parseResult(msg.data_buf, msg.data_pos, msg.data_len);
+                }
+                else {
+                    listener.result(token, msg.getData());
+                }
                 sendCongestionLevel();
                 break;
             case 'N':
@@ -1142,6 +1830,11 @@ public abstract class AbstractChannel implements IChannel {
             case 'E':
                 assert msg.service != null;
                 assert msg.name != null;
+                CommandMetrics.Entry m = getMetricsEntry(msg.service, msg.name);
+                if (m != null) {
+                    m.events_received++;
+                    if (msg.data != null) m.bytes_received += msg.data.length;
+                }
                 boolean hello = msg.service.equals(ILocator.NAME) && msg.name.equals("Hello");
                 if (hello) {
                     remote_service_by_name.clear();
@@ -1149,6 +1842,15 @@ public abstract class AbstractChannel implements IChannel {
                     ServiceManager.onChannelOpened(this, (Collection<String>)JSON.parseSequence(msg.data)[0], remote_service_by_name);
                     makeServiceByClassMap(remote_service_by_name, remote_service_by_class);
                     zero_copy = remote_service_by_name.containsKey("ZeroCopy");
+                    if (!hello_received) {
+                        /* Byte stream compression is negotiated with directly connected peer only,
+                         * Hello messages of redirected channels come from peers behind a proxy */
+                        hello_received = true;
+                        if (remote_service_by_name.containsKey(COMPRESSION_SERVICE) &&
+                                local_service_by_name.containsKey(COMPRESSION_SERVICE)) {
+                            onCompressionNegotiated();
+                        }
+                    }
                 }
                 if (proxy != null && state == STATE_OPEN) {
                     proxy.onEvent(msg.service, msg.name, msg.data);
@@ -1239,29 +1941,173 @@ public abstract class AbstractChannel implements IChannel {
         int i = (level - local_congestion_level) / 8;
         if (i != 0) level = local_congestion_level + i;
         local_congestion_time = time;
-        synchronized (out_queue) {
-            Message msg = out_queue.isEmpty() ? null : out_queue.get(0);
-            if (msg == null || msg.type != 'F') {
-                msg = new Message('F');
-                out_queue.add(0, msg);
-                out_queue.notify();
-            }
-            StringBuilder buffer = new StringBuilder();
-            buffer.append(local_congestion_level);
-            buffer.append((char)0); // 0 terminate
-            msg.data = buffer.toString().getBytes("ASCII");
-            msg.trace = trace_listeners;
-            local_congestion_level = level;
-        }
+        // Flow control message is sent ahead of other queued messages,
+        // a pending one is replaced with the latest level
+        Message msg = new Message('F');
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(local_congestion_level);
+        buffer.append((char)0); // 0 terminate
+        msg.data = buffer.toString().getBytes("ASCII");
+        msg.trace = trace_listeners;
+        local_congestion_level = level;
+        out_flow_control.set(msg);
+        signalOutput();
+    }
+
+    /**
+     * Check if the channel has been started.
+     * @return true if start() has been called.
+     */
+    boolean isStarted() {
+        return started;
     }
 
     /**
      * Read one byte from the channel input stream.
+     * The method is used by the receiver thread of channels that don't support block input.
+     * Default implementation decodes framed input returned by readBlock(),
+     * channels that don't have a receiver thread, like ChannelNIO, don't need to override it.
      * @return next data byte or EOS (-1) if end of stream is reached,
      * or EOM (-2) if end of message is reached.
      * @throws IOException
      */
-    protected abstract int read() throws IOException;
+    protected int read() throws IOException {
+        for (;;) {
+            int res = readBlockByte();
+            if (res < 0) return EOS;
+            if (blk_bin_size > 0) {
+                blk_bin_size--;
+                return res;
+            }
+            if (res != StreamChannel.ESC) return res;
+            int n = readBlockByte();
+            if (n < 0) return EOS;
+            switch (n) {
+            case 0: return StreamChannel.ESC;
+            case 1: return EOM;
+            case 2: return EOS;
+            case 3:
+                for (int i = 0;; i += 7) {
+                    int m = readBlockByte();
+                    if (m < 0) return EOS;
+                    blk_bin_size |= (m & 0x7f) << i;
+                    if ((m & 0x80) == 0) break;
+                }
+                break;
+            case 4:
+                onInputCompressionStart(blk_buf, blk_pos, blk_len - blk_pos);
+                blk_pos = blk_len = 0;
+                break;
+            default:
+                throw new IOException("Invalid escape sequence: " + StreamChannel.ESC + " " + n);
+            }
+        }
+    }
+
+    private int readBlockByte() throws IOException {
+        if (blk_buf == null) blk_buf = new byte[0x4000];
+        while (blk_pos >= blk_len) {
+            int n = readBlock(blk_buf);
+            if (n < 0) return -1;
+            blk_pos = 0;
+            blk_len = n;
+        }
+        return blk_buf[blk_pos++] & 0xff;
+    }
+
+    /**
+     * Check if the channel supports block input by readBlock().
+     * Channels that use StreamChannel framing support block input,
+     * in that case the receiver thread decodes whole blocks instead of calling read() for every byte.
+     * @return true if block input is supported.
+     */
+    boolean isBlockInputSupported() {
+        return false;
+    }
+
+    /**
+     * Read a block of raw channel input that still contains framing escape sequences.
+     * Default implementation reads bytes by read() and escapes them,
+     * a channel must override at least one of read() and readBlock().
+     * @param buf - buffer to read into
+     * @return number of bytes read, or -1 if end of stream is reached.
+     * @throws IOException
+     */
+    int readBlock(byte[] buf) throws IOException {
+        if (blk_fallback) throw new IOException("Channel input is not implemented");
+        if (blk_end) return -1;
+        int pos = 0;
+        blk_fallback = true;
+        try {
+            while (pos < buf.length - 1) {
+                int n = read();
+                if (n == EOS) {
+                    if (blk_eos) {
+                        /* End of input without error report */
+                        blk_end = true;
+                        break;
+                    }
+                    blk_eos = true;
+                    buf[pos++] = StreamChannel.ESC;
+                    buf[pos++] = 2;
+                }
+                else if (n == EOM) {
+                    /* Return complete messages without waiting for more input */
+                    buf[pos++] = StreamChannel.ESC;
+                    buf[pos++] = 1;
+                    if (blk_eos) blk_end = true;
+                    break;
+                }
+                else if (n == StreamChannel.ESC) {
+                    buf[pos++] = StreamChannel.ESC;
+                    buf[pos++] = 0;
+                }
+                else {
+                    buf[pos++] = (byte)n;
+                }
+            }
+        }
+        finally {
+            blk_fallback = false;
+        }
+        if (pos == 0 && blk_end) return -1;
+        return pos;
+    }
+
+    /**
+     * Check if the channel can compress its byte stream.
+     * If true, the channel advertises COMPRESSION_SERVICE in its Hello message.
+     * @return true if compression is supported.
+     */
+    boolean isCompressionSupported() {
+        return false;
+    }
+
+    /**
+     * Called on the dispatch thread when both peers have advertised COMPRESSION_SERVICE.
+     */
+    void onCompressionNegotiated() {
+    }
+
+    /**
+     * Called by the receiver thread when compressed stream marker is decoded.
+     * @param buf - buffer that contains input that follows the marker
+     * @param pos - offset of the input
+     * @param len - length of the input
+     * @throws IOException
+     */
+    void onInputCompressionStart(byte[] buf, int pos, int len) throws IOException {
+        throw new IOException("Unexpected compressed stream marker");
+    }
+
+    /**
+     * Flush the channel output at the end of a batch of messages.
+     * Channels that transform the byte stream override it to complete the transformed data.
+     * @throws IOException
+     */
+    void flushOutput() throws IOException {
+        flush();
+    }
 
     /**
      * Write one byte into the channel output stream.
@@ -1296,7 +2142,7 @@ public abstract class AbstractChannel implements IChannel {
      * @throws IOException
      */
     protected void write(byte[] buf) throws IOException {
-        assert Thread.currentThread() == out_thread;
+        assert out_thread == null || Thread.currentThread() == out_thread;
         for (int i = 0; i < buf.length; i++) {
             write(buf[i] & 0xff);
         }
@@ -1312,7 +2158,7 @@ public abstract class AbstractChannel implements IChannel {
      * @since 1.3
      */
     protected void write(byte[] buf, int pos, int len) throws IOException {
-        assert Thread.currentThread() == out_thread;
+        assert out_thread == null || Thread.currentThread() == out_thread;
         for (int i = pos; i < pos + len; i++) {
             write(buf[i] & 0xff);
         }
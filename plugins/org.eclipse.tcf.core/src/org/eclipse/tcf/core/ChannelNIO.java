@@ -0,0 +1,426 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.tcf.internal.services.local.LocatorService;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * ChannelNIO is a TCP channel that uses non-blocking sockets.
+ *
+ * Unlike ChannelTCP, the channel does not own receiver and transmitter threads:
+ * a small fixed pool of selector threads multiplexes I/O of all NIO channels,
+ * decodes incoming messages directly from socket buffers and passes complete messages
+ * to the dispatch thread. Number of threads and memory usage stay flat as number of channels grows.
+ *
+ * Since selector threads are shared, the channel does not throttle itself by sleeping
+ * when congestion is reported, congestion level is still propagated to clients by getCongestion().
+ * SSL is not supported, use ChannelTCP for SSL connections.
+ * @since 1.8
+ */
+public class ChannelNIO extends AbstractChannel {
+
+    private static final int OUT_BUF_SIZE = 0x1000;
+    private static final int OUT_BATCH_SIZE = 0x10000;
+
+    private static ExecutorService resolver;
+
+    private final SelectorThread io;
+    private final FrameDecoder decoder;
+    private final AtomicBoolean out_scheduled = new AtomicBoolean();
+    private final boolean[] out_eos = new boolean[1];
+
+    private SocketChannel socket;
+    private int timeout;
+    private volatile boolean closed;
+
+    /* Accessed only by the selector thread */
+    private SelectionKey key;
+    private ByteBuffer out_buf = ByteBuffer.allocate(OUT_BUF_SIZE);
+    private boolean out_done;
+
+    private final SelectorThread.Handler handler = new SelectorThread.Handler() {
+
+        public void onSelected(SelectionKey key) throws IOException {
+            if (key.isConnectable()) {
+                if (!socket.finishConnect()) return;
+                key.interestOps(0);
+                onSocketConnected(null);
+            }
+            if (key.isValid() && key.isReadable()) doRead();
+            if (key.isValid() && key.isWritable()) doWrite();
+        }
+
+        public void onError(Throwable x) {
+            if (!isStarted()) onSocketConnected(x);
+            else if (!closed) onIOError(x);
+            onOutputEndOfStream();
+        }
+    };
+
+    /**
+     * Construct a channel and connect it to remote peer.
+     * @param remote_peer Remote Peer to which we want to connect
+     * @param host Hostname or IP Address of the Remote Peer
+     * @param port Port of the Remote Peer
+     */
+    public ChannelNIO(IPeer remote_peer, final String host, final int port) {
+        super(LocatorService.getLocalPeer(), remote_peer, false);
+        io = getSelectorThread();
+        decoder = createDecoder();
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                if (io == null) {
+                    onSocketConnected(new IOException("Cannot open NIO selector"));
+                    return;
+                }
+                try {
+                    socket = SocketChannel.open();
+                    socket.configureBlocking(false);
+                    socket.socket().setTcpNoDelay(true);
+                    socket.socket().setKeepAlive(true);
+                }
+                catch (Exception x) {
+                    onSocketConnected(x);
+                    return;
+                }
+                if (timeout > 0) {
+                    Protocol.invokeLater(timeout, new Runnable() {
+                        public void run() {
+                            if (isStarted() || closed) return;
+                            onSocketConnected(new SocketTimeoutException("Connect timed out"));
+                        }
+                    });
+                }
+                if (isNumericAddress(host)) {
+                    connect(new InetSocketAddress(host, port));
+                }
+                else {
+                    /* Host name resolution can block for a long time, it must not be done by selector thread */
+                    getResolver().execute(new Runnable() {
+                        public void run() {
+                            connect(new InetSocketAddress(host, port));
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Construct a channel for already connected socket, e.g. accepted by ServerNIO.
+     * @param local_peer local peer
+     * @param remote_peer Remote Peer
+     * @param socket connected socket
+     * @throws IOException
+     */
+    public ChannelNIO(IPeer local_peer, IPeer remote_peer, SocketChannel socket) throws IOException {
+        super(local_peer, remote_peer, false);
+        io = SelectorThread.getThread();
+        decoder = createDecoder();
+        this.socket = socket;
+        socket.configureBlocking(false);
+        socket.socket().setTcpNoDelay(true);
+        socket.socket().setKeepAlive(true);
+        onSocketConnected(null);
+    }
+
+    public void setConnectTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    private static SelectorThread getSelectorThread() {
+        try {
+            return SelectorThread.getThread();
+        }
+        catch (IOException x) {
+            Protocol.log("Cannot open NIO selector", x);
+            return null;
+        }
+    }
+
+    private static synchronized ExecutorService getResolver() {
+        if (resolver == null) {
+            ThreadPoolExecutor e = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r);
+                            t.setName("TCF NIO Resolver");
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+            e.allowCoreThreadTimeOut(true);
+            resolver = e;
+        }
+        return resolver;
+    }
+
+    private static boolean isNumericAddress(String host) {
+        if (host.indexOf(':') >= 0) return true;
+        int dots = 0;
+        for (int i = 0; i < host.length(); i++) {
+            char ch = host.charAt(i);
+            if (ch == '.') dots++;
+            else if (ch < '0' || ch > '9') return false;
+        }
+        return dots == 3;
+    }
+
+    private FrameDecoder createDecoder() {
+        return new FrameDecoder(new FrameDecoder.Handler() {
+            public void onMessage(Message msg) {
+                onInputMessage(msg);
+            }
+            public void onEndOfStream(byte[] err_report) {
+                onInputEndOfStream(err_report);
+            }
+        });
+    }
+
+    private void connect(final InetSocketAddress addr) {
+        io.post(new Runnable() {
+            public void run() {
+                try {
+                    if (addr.isUnresolved()) throw new IOException("Unknown host: " + addr.getHostName());
+                    if (closed) return;
+                    key = io.register(socket, SelectionKey.OP_CONNECT, handler);
+                    if (socket.connect(addr)) {
+                        key.interestOps(0);
+                        onSocketConnected(null);
+                    }
+                }
+                catch (Throwable x) {
+                    onSocketConnected(x);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param x exception object, or null if the socket is connected
+     */
+    private void onSocketConnected(final Throwable x) {
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                if (isStarted()) return;
+                if (x != null) {
+                    terminate(x);
+                    closed = true;
+                }
+                if (closed) {
+                    try {
+                        if (socket != null) socket.close();
+                        io.wakeup();
+                    }
+                    catch (IOException y) {
+                        Protocol.log("Cannot close socket", y);
+                    }
+                }
+                else {
+                    /* Mark the channel started before the selector thread can report errors */
+                    start();
+                    io.post(new Runnable() {
+                        public void run() {
+                            try {
+                                if (key == null) key = io.register(socket, SelectionKey.OP_READ, handler);
+                                else key.interestOps(SelectionKey.OP_READ);
+                                doWrite();
+                            }
+                            catch (Throwable x) {
+                                if (key != null) key.cancel();
+                                handler.onError(x);
+                            }
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void doRead() throws IOException {
+        ByteBuffer bb = io.getReadBuffer();
+        bb.clear();
+        int n = socket.read(bb);
+        if (n < 0) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            if (!closed && !decoder.isDone()) onInputEndOfStream(null);
+            return;
+        }
+        bb.flip();
+        decoder.decode(bb);
+        if (decoder.isDone()) key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+    }
+
+    private void doWrite() throws IOException {
+        if (key == null || out_done) return;
+        for (;;) {
+            if (out_buf.position() == 0 && !fillOutput()) break;
+            out_buf.flip();
+            socket.write(out_buf);
+            boolean all = !out_buf.hasRemaining();
+            out_buf.compact();
+            if (!all) {
+                /* Socket send buffer is full, wait until it is writable again */
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        if (out_buf.capacity() > OUT_BATCH_SIZE) out_buf = ByteBuffer.allocate(OUT_BUF_SIZE);
+        if (out_eos[0]) {
+            out_done = true;
+            onOutputEndOfStream();
+        }
+    }
+
+    /**
+     * Encode queued messages into the output buffer, up to OUT_BATCH_SIZE bytes.
+     * @return true if the buffer contains data to send.
+     */
+    private boolean fillOutput() throws IOException {
+        MessageEncoder encoder = io.getEncoder();
+        int cnt = 0;
+        long bytes = 0;
+        while (!out_eos[0] && out_buf.position() < OUT_BATCH_SIZE) {
+            Message msg = pollOutQueue(out_eos);
+            if (out_eos[0]) {
+                write(EOS);
+                write(EOM);
+                break;
+            }
+            if (msg == null) break;
+            bytes += encoder.writeMessage(this, msg);
+            cnt++;
+        }
+        onOutputFlushed(cnt, bytes);
+        return out_buf.position() > 0;
+    }
+
+    private void reserve(int n) {
+        if (out_buf.remaining() >= n) return;
+        int size = out_buf.capacity() * 2;
+        while (size - out_buf.position() < n) size *= 2;
+        ByteBuffer bb = ByteBuffer.allocate(size);
+        out_buf.flip();
+        bb.put(out_buf);
+        out_buf = bb;
+    }
+
+    @Override
+    void onOutputQueued() {
+        if (io == null || !out_scheduled.compareAndSet(false, true)) return;
+        io.post(new Runnable() {
+            public void run() {
+                out_scheduled.set(false);
+                try {
+                    if (key != null && key.isValid()) doWrite();
+                }
+                catch (Throwable x) {
+                    key.cancel();
+                    handler.onError(x);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void write(int n) throws IOException {
+        reserve(2);
+        switch (n) {
+        case StreamChannel.ESC:
+            out_buf.put((byte)StreamChannel.ESC);
+            out_buf.put((byte)0);
+            break;
+        case EOM:
+            out_buf.put((byte)StreamChannel.ESC);
+            out_buf.put((byte)1);
+            break;
+        case EOS:
+            out_buf.put((byte)StreamChannel.ESC);
+            out_buf.put((byte)2);
+            break;
+        default:
+            assert n >= 0 && n <= 0xff;
+            out_buf.put((byte)n);
+            break;
+        }
+    }
+
+    @Override
+    protected void write(byte[] buf) throws IOException {
+        write(buf, 0, buf.length);
+    }
+
+    @Override
+    protected void write(byte[] buf, int pos, int len) throws IOException {
+        if (len > 32 && isZeroCopySupported()) {
+            reserve(len + 7);
+            out_buf.put((byte)StreamChannel.ESC);
+            out_buf.put((byte)3);
+            int n = len;
+            for (;;) {
+                if (n <= 0x7f) {
+                    out_buf.put((byte)n);
+                    break;
+                }
+                out_buf.put((byte)((n & 0x7f) | 0x80));
+                n = n >> 7;
+            }
+            out_buf.put(buf, pos, len);
+        }
+        else {
+            int end = pos + len;
+            int i = pos;
+            while (i < end) {
+                /* Copy runs of bytes that don't need escaping */
+                int j = i;
+                while (j < end && buf[j] != StreamChannel.ESC) j++;
+                reserve(j - i + 2);
+                out_buf.put(buf, i, j - i);
+                if (j < end) {
+                    out_buf.put((byte)StreamChannel.ESC);
+                    out_buf.put((byte)0);
+                    j++;
+                }
+                i = j;
+            }
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        /* Output buffer is written to the socket by the selector thread after each batch of messages */
+    }
+
+    @Override
+    protected void stop() throws IOException {
+        closed = true;
+        if (socket != null) {
+            socket.close();
+            if (io != null) io.wakeup();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * ChannelTraceReader reads messages saved by ChannelTraceRecorder, oldest first.
+ * The reader does not need the file to be closed by the recorder, so a trace can be read
+ * after the application crashed or was killed.
+ *
+ * @since 1.8
+ */
+public class ChannelTraceReader {
+
+    /** Record type of channel closed record */
+    public static final char TYPE_CLOSED = 0;
+
+    /**
+     * Recorded message.
+     */
+    public static final class Record {
+        /** Time since recording start, in nanoseconds */
+        public final long time;
+        /** true if the message was received, false if sent */
+        public final boolean received;
+        /** Message type: 'C', 'R', 'P', 'N', 'E', 'F' or TYPE_CLOSED */
+        public final char type;
+        public final String token;
+        public final String service;
+        public final String name;
+        /** Message data, or error report if the record type is TYPE_CLOSED */
+        public final byte[] data;
+
+        Record(long time, boolean received, char type, String token, String service, String name, byte[] data) {
+            this.time = time;
+            this.received = received;
+            this.type = type;
+            this.token = token;
+            this.service = service;
+            this.name = name;
+            this.data = data;
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer bf = new StringBuffer();
+            bf.append(time / 1000).append(' ');
+            bf.append(received ? "<- " : "-> ");
+            if (type == TYPE_CLOSED) bf.append("closed");
+            else bf.append(type);
+            if (token != null) bf.append(' ').append(token);
+            if (service != null) bf.append(' ').append(service);
+            if (name != null) bf.append(' ').append(name);
+            if (data != null) bf.append(" [").append(data.length).append(" bytes]");
+            return bf.toString();
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final long ring_size;
+    private final long start_time;
+    private final long head;
+    private long pos;
+    private byte[] buf = new byte[0x1000];
+    private int buf_pos;
+
+    public ChannelTraceReader(File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        try {
+            byte[] hdr = new byte[ChannelTraceRecorder.HEADER_SIZE];
+            this.file.readFully(hdr);
+            buf = hdr;
+            if (getInt() != ChannelTraceRecorder.MAGIC) throw new IOException("Invalid channel trace file: " + file);
+            int version = getInt();
+            if (version != ChannelTraceRecorder.VERSION) throw new IOException("Unsupported channel trace file version: " + version);
+            buf_pos = ChannelTraceRecorder.OFFS_RING_SIZE;
+            ring_size = getLong();
+            head = getLong();
+            pos = getLong();
+            start_time = getLong();
+            if (ring_size <= 0 || pos > head || head - pos > ring_size) throw new IOException("Invalid channel trace file: " + file);
+        }
+        catch (IOException x) {
+            this.file.close();
+            throw x;
+        }
+    }
+
+    /**
+     * @return recording start time, milliseconds since the epoch.
+     */
+    public long getStartTime() {
+        return start_time;
+    }
+
+    /**
+     * Read next record.
+     * @return the record, or null if no more records.
+     * @throws IOException
+     */
+    public Record next() throws IOException {
+        if (pos + 4 > head) return null;
+        read(pos, 4);
+        int len = getInt();
+        if (len < 4 || pos + len > head) throw new IOException("Invalid channel trace record size");
+        read(pos + 4, len - 4);
+        pos += len;
+        long time = getLong();
+        boolean received = buf[buf_pos++] == 'I';
+        char type = (char)(buf[buf_pos++] & 0xff);
+        String token = getString();
+        String service = getString();
+        String name = getString();
+        byte[] data = null;
+        int n = getInt();
+        if (n >= 0) {
+            data = new byte[n];
+            System.arraycopy(buf, buf_pos, data, 0, n);
+            buf_pos += n;
+        }
+        return new Record(time, received, type, token, service, name, data);
+    }
+
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private void read(long p, int len) throws IOException {
+        if (buf.length < len) buf = new byte[Math.max(buf.length * 2, len)];
+        int off = (int)(p % ring_size);
+        int n = (int)Math.min(len, ring_size - off);
+        file.seek(ChannelTraceRecorder.HEADER_SIZE + off);
+        file.readFully(buf, 0, n);
+        if (n < len) {
+            file.seek(ChannelTraceRecorder.HEADER_SIZE);
+            file.readFully(buf, n, len - n);
+        }
+        buf_pos = 0;
+    }
+
+    private int getInt() {
+        int n = 0;
+        for (int i = 0; i < 4; i++) n = n << 8 | buf[buf_pos++] & 0xff;
+        return n;
+    }
+
+    private long getLong() {
+        long n = getInt();
+        return n << 32 | getInt() & 0xffffffffL;
+    }
+
+    private String getString() throws IOException {
+        int n = (buf[buf_pos] & 0xff) << 8 | buf[buf_pos + 1] & 0xff;
+        buf_pos += 2;
+        if (n == 0xffff) return null;
+        String s = new String(buf, buf_pos, n, "UTF-8");
+        buf_pos += n;
+        return s;
+    }
+}
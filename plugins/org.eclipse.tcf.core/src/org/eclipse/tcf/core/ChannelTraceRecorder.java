@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * ChannelTraceRecorder is a channel trace listener that saves raw channel messages
+ * in a binary ring file of bounded size. When the file is full, oldest messages are overwritten.
+ *
+ * Messages are not formatted or parsed, recording only copies message bytes into
+ * the file with positional writes, so the recorder can stay attached to a busy channel.
+ * Recorded files can be read with ChannelTraceReader, replayed with ChannelTraceReplay,
+ * and summarized with ChannelTraceSummary.
+ *
+ * File layout: header, then ring buffer of records.
+ * Header: magic, version, ring size, logical write position, logical position of oldest record,
+ * recording start time (milliseconds since the epoch).
+ * Record: record size, time (nanoseconds since recording start), direction ('I' or 'O'),
+ * message type (0 if the channel is closed), token, service, name and data.
+ * Strings are UTF-8 with 16-bit length prefix, data has 32-bit length prefix, -1 length means null.
+ *
+ * @since 1.8
+ */
+public class ChannelTraceRecorder implements AbstractChannel.TraceListener {
+
+    static final int MAGIC = 0x54434652;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    static final int OFFS_RING_SIZE = 8;
+    static final int OFFS_HEAD = 16;
+    static final int OFFS_TAIL = 24;
+    static final int OFFS_START_TIME = 32;
+
+    /** Default size of a trace file */
+    public static final long DEFAULT_SIZE = 0x4000000;
+
+    private final AbstractChannel channel;
+    private final File file;
+    private final long start_nanos = System.nanoTime();
+    private final Map<String,byte[]> str_cache = new HashMap<String,byte[]>();
+
+    private RandomAccessFile raf;
+    private FileChannel ch;
+    private final long ring_size;
+    private long head;
+    private long tail;
+    private byte[] rec = new byte[0x1000];
+    private int rec_len;
+    private final ByteBuffer hdr = ByteBuffer.allocate(16);
+
+    /* Sizes of records in the ring, oldest first, so the tail can move without reading the file */
+    private int[] sizes = new int[0x100];
+    private int sizes_first;
+    private int sizes_cnt;
+
+    /**
+     * Create a recorder and attach it to a channel.
+     * Existing file is overwritten.
+     * Must be called on the dispatch thread.
+     * @param channel - the channel to record.
+     * @param file - trace file.
+     * @param size - maximal size of the file in bytes.
+     * @throws IOException
+     */
+    public ChannelTraceRecorder(AbstractChannel channel, File file, long size) throws IOException {
+        assert Protocol.isDispatchThread();
+        if (size < HEADER_SIZE + 0x1000 || size > Integer.MAX_VALUE) throw new IOException("Invalid trace file size: " + size);
+        this.channel = channel;
+        this.file = file;
+        ring_size = size - HEADER_SIZE;
+        raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            raf.setLength(size);
+            ch = raf.getChannel();
+            ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE);
+            b.putInt(0, MAGIC);
+            b.putInt(4, VERSION);
+            b.putLong(OFFS_RING_SIZE, ring_size);
+            b.putLong(OFFS_HEAD, 0);
+            b.putLong(OFFS_TAIL, 0);
+            b.putLong(OFFS_START_TIME, System.currentTimeMillis());
+            write(b, 0);
+        }
+        catch (IOException x) {
+            raf.close();
+            throw x;
+        }
+        channel.addTraceListener(this);
+    }
+
+    /**
+     * @return the trace file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return number of bytes recorded since the recorder was created.
+     */
+    public synchronized long getRecordedSize() {
+        return head;
+    }
+
+    /**
+     * Detach the recorder from the channel and close the file.
+     * Must be called on the dispatch thread.
+     */
+    public void close() {
+        assert Protocol.isDispatchThread();
+        channel.removeTraceListener(this);
+        closeFile();
+    }
+
+    public void onMessageReceived(char type, String token, String service, String name, byte[] data) {
+        record('I', type, token, service, name, data);
+    }
+
+    public void onMessageSent(char type, String token, String service, String name, byte[] data) {
+        record('O', type, token, service, name, data);
+    }
+
+    public void onChannelClosed(Throwable error) {
+        byte[] data = null;
+        if (error != null) {
+            try {
+                data = error.toString().getBytes("UTF-8");
+            }
+            catch (UnsupportedEncodingException x) {
+                // Cannot happen
+            }
+        }
+        record('O', (char)0, null, null, null, data);
+        closeFile();
+    }
+
+    private synchronized void closeFile() {
+        if (raf == null) return;
+        try {
+            raf.close();
+        }
+        catch (IOException x) {
+            Protocol.log("Cannot close channel trace file", x);
+        }
+        raf = null;
+        ch = null;
+    }
+
+    private void write(ByteBuffer b, long pos) throws IOException {
+        int start = b.position();
+        while (b.hasRemaining()) ch.write(b, pos + b.position() - start);
+    }
+
+    private synchronized void record(char dir, char type, String token, String service, String name, byte[] data) {
+        if (ch == null) return;
+        rec_len = 4;
+        putLong(System.nanoTime() - start_nanos);
+        putByte(dir);
+        putByte(type);
+        putString(token, false);
+        putString(service, true);
+        putString(name, true);
+        if (data == null || rec_len + 4 + data.length > ring_size) {
+            putInt(-1);
+        }
+        else {
+            putInt(data.length);
+            ensure(data.length);
+            System.arraycopy(data, 0, rec, rec_len, data.length);
+            rec_len += data.length;
+        }
+        int n = rec_len;
+        rec_len = 0;
+        putInt(n);
+        if (n > ring_size) return;
+        while (head + n - tail > ring_size) {
+            tail += sizes[sizes_first];
+            sizes_first = (sizes_first + 1) % sizes.length;
+            sizes_cnt--;
+        }
+        addSize(n);
+        int pos = (int)(head % ring_size);
+        int len = (int)Math.min(n, ring_size - pos);
+        try {
+            write(ByteBuffer.wrap(rec, 0, len), HEADER_SIZE + pos);
+            if (len < n) write(ByteBuffer.wrap(rec, len, n - len), HEADER_SIZE);
+            head += n;
+            /* Head and tail are adjacent in the header, update both with one write */
+            hdr.clear();
+            hdr.putLong(0, head);
+            hdr.putLong(8, tail);
+            write(hdr, OFFS_HEAD);
+        }
+        catch (IOException x) {
+            Protocol.log("Cannot write channel trace file", x);
+            closeFile();
+        }
+    }
+
+    private void addSize(int n) {
+        if (sizes_cnt == sizes.length) {
+            int[] tmp = new int[sizes.length * 2];
+            for (int i = 0; i < sizes_cnt; i++) tmp[i] = sizes[(sizes_first + i) % sizes.length];
+            sizes = tmp;
+            sizes_first = 0;
+        }
+        sizes[(sizes_first + sizes_cnt) % sizes.length] = n;
+        sizes_cnt++;
+    }
+
+    private void ensure(int n) {
+        if (rec_len + n <= rec.length) return;
+        byte[] tmp = new byte[Math.max(rec.length * 2, rec_len + n)];
+        System.arraycopy(rec, 0, tmp, 0, rec_len);
+        rec = tmp;
+    }
+
+    private void putByte(int n) {
+        ensure(1);
+        rec[rec_len++] = (byte)n;
+    }
+
+    private void putInt(int n) {
+        ensure(4);
+        rec[rec_len++] = (byte)(n >> 24);
+        rec[rec_len++] = (byte)(n >> 16);
+        rec[rec_len++] = (byte)(n >> 8);
+        rec[rec_len++] = (byte)n;
+    }
+
+    private void putLong(long n) {
+        putInt((int)(n >> 32));
+        putInt((int)n);
+    }
+
+    private void putString(String s, boolean cache) {
+        if (s == null) {
+            putByte(0xff);
+            putByte(0xff);
+            return;
+        }
+        /* Tokens are unique, only service and command names are worth caching */
+        byte[] b = cache ? str_cache.get(s) : null;
+        if (b == null) {
+            try {
+                b = s.getBytes("UTF-8");
+            }
+            catch (UnsupportedEncodingException x) {
+                throw new Error(x);
+            }
+            if (b.length >= 0xffff) {
+                byte[] t = new byte[0xfffe];
+                System.arraycopy(b, 0, t, 0, t.length);
+                b = t;
+            }
+            if (cache && str_cache.size() < 0x1000) str_cache.put(s, b);
+        }
+        putByte(b.length >> 8);
+        putByte(b.length);
+        ensure(b.length);
+        System.arraycopy(b, 0, rec, rec_len, b.length);
+        rec_len += b.length;
+    }
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.tcf.internal.core.Token;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IService;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.ILocator;
+
+/**
+ * ChannelTraceReplay is a channel that replays a session recorded by ChannelTraceRecorder.
+ * Instead of a remote peer, the channel input is generated from the recorded received messages.
+ * Recorded commands are sent again, in same order, so responses of the recording match
+ * tokens of the replayed commands. Output of the channel is discarded.
+ *
+ * Clients can attach listeners, services and trace listeners to the channel same way as to a real
+ * connection, which allows to reproduce performance problems of message handling
+ * without access to the target that was used to make the recording.
+ *
+ * Remote Hello message is replayed without "CompressedStream" service, since the recording contains
+ * uncompressed messages. If the Hello was overwritten in the ring file, it is replaced by a message
+ * that lists services seen in the recording.
+ *
+ * @since 1.8
+ */
+public class ChannelTraceReplay extends StreamChannel {
+
+    private final File file;
+    private final ChannelTraceReader reader;
+    private final boolean real_time;
+    private final Map<String,String> tokens = new HashMap<String,String>();
+    private final ICommandListener cmd_listener = new ICommandListener() {
+        public void progress(IToken token, byte[] data) {
+        }
+        public void result(IToken token, byte[] data) {
+        }
+        public void terminated(IToken token, Exception error) {
+        }
+    };
+
+    private byte[] inp_buf = new byte[0x1000];
+    private int inp_pos;
+    private int inp_len;
+    private boolean hello_sent;
+    private boolean eos_sent;
+    private ChannelTraceReader.Record pending;
+    private long start_time = -1;
+    private long start_nanos;
+
+    /* Channel state, shared with the dispatch thread */
+    private boolean open;
+    private boolean closed;
+
+    /**
+     * Create a replay channel and start the replay.
+     * Must be called on the dispatch thread.
+     * @param file - trace file created by ChannelTraceRecorder.
+     * @param real_time - if true, received messages are delivered with same timing as in the recording,
+     * otherwise as fast as possible.
+     * @throws IOException
+     */
+    public ChannelTraceReplay(File file, boolean real_time) throws IOException {
+        this(file, new ChannelTraceReader(file), real_time);
+    }
+
+    private ChannelTraceReplay(File file, ChannelTraceReader reader, boolean real_time) {
+        super(createPeer(file));
+        this.file = file;
+        this.reader = reader;
+        this.real_time = real_time;
+        addChannelListener(new IChannel.IChannelListener() {
+            public void onChannelOpened() {
+                setState(true, false);
+            }
+            public void congestionLevel(int level) {
+            }
+            public void onChannelClosed(Throwable error) {
+                setState(false, true);
+            }
+        });
+        start();
+    }
+
+    private static IPeer createPeer(File file) {
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "Replay:" + file.getAbsolutePath());
+        attrs.put(IPeer.ATTR_NAME, "Replay " + file.getName());
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "Replay");
+        return new TransientPeer(attrs);
+    }
+
+    private synchronized void setState(boolean open, boolean closed) {
+        this.open = open;
+        this.closed = closed;
+        notifyAll();
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized boolean waitOpen() throws IOException {
+        while (!open && !closed) {
+            try {
+                wait();
+            }
+            catch (InterruptedException x) {
+                throw new IOException("Interrupted");
+            }
+        }
+        return open;
+    }
+
+    @Override
+    protected int get() throws IOException {
+        while (inp_pos >= inp_len) {
+            if (!nextMessage()) return -1;
+        }
+        return inp_buf[inp_pos++] & 0xff;
+    }
+
+    @Override
+    protected int get(byte[] buf) throws IOException {
+        /* Return at most one message, so sending of a recorded command is not reordered with
+         * delivery of messages received before it */
+        while (inp_pos >= inp_len) {
+            if (!nextMessage()) return -1;
+        }
+        int n = Math.min(buf.length, inp_len - inp_pos);
+        System.arraycopy(inp_buf, inp_pos, buf, 0, n);
+        inp_pos += n;
+        return n;
+    }
+
+    @Override
+    protected void put(int n) throws IOException {
+    }
+
+    @Override
+    protected void put(byte[] buf, int pos, int len) throws IOException {
+    }
+
+    @Override
+    protected void flush() throws IOException {
+    }
+
+    @Override
+    protected void stop() throws IOException {
+        reader.close();
+    }
+
+    private boolean nextMessage() throws IOException {
+        inp_pos = 0;
+        inp_len = 0;
+        if (eos_sent) return false;
+        ChannelTraceReader.Record r = pending;
+        pending = null;
+        if (r == null && !isClosed()) r = reader.next();
+        if (r == null || r.type == ChannelTraceReader.TYPE_CLOSED) {
+            eos_sent = true;
+            putByte(ESC);
+            putByte(2);
+            putByte(ESC);
+            putByte(1);
+            return true;
+        }
+        boolean hello = r.type == 'E' && ILocator.NAME.equals(r.service) && "Hello".equals(r.name);
+        if (!hello_sent && !hello && (r.received || r.type == 'C')) {
+            /* The Hello was overwritten in the ring file */
+            putHello(null, getRecordedServices());
+            pending = r;
+            return true;
+        }
+        if (real_time) delay(r.time);
+        if (!r.received) {
+            if (r.type == 'C') sendCommand(r);
+            return true;
+        }
+        String token = r.token;
+        switch (r.type) {
+        case 'P':
+        case 'R':
+        case 'N':
+            synchronized (tokens) {
+                token = r.type == 'P' ? tokens.get(r.token) : tokens.remove(r.token);
+            }
+            /* Response to a command that was sent before the recorded part of the session */
+            if (token == null) return true;
+            break;
+        case 'E':
+            if (hello) {
+                if (!hello_sent) putHello(r.data, null);
+                return true;
+            }
+            break;
+        case 'F':
+            /* Congestion level of the recorded session is not relevant for the replay */
+            return true;
+        }
+        putMessage(r.type, token, r.service, r.name, r.data);
+        return true;
+    }
+
+    private Collection<String> getRecordedServices() throws IOException {
+        Set<String> services = new LinkedHashSet<String>();
+        services.add(ILocator.NAME);
+        ChannelTraceReader x = new ChannelTraceReader(file);
+        try {
+            for (;;) {
+                ChannelTraceReader.Record r = x.next();
+                if (r == null) break;
+                if (r.service != null) services.add(r.service);
+            }
+        }
+        finally {
+            x.close();
+        }
+        return services;
+    }
+
+    private void delay(long time) throws IOException {
+        if (start_time < 0) {
+            start_time = time;
+            start_nanos = System.nanoTime();
+            return;
+        }
+        long ms = (time - start_time - (System.nanoTime() - start_nanos)) / 1000000;
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        }
+        catch (InterruptedException x) {
+            throw new IOException("Interrupted");
+        }
+    }
+
+    private void sendCommand(final ChannelTraceReader.Record r) throws IOException {
+        if (!waitOpen()) return;
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                if (getState() != STATE_OPEN) return;
+                IService service = getRemoteService(r.service);
+                if (service == null) return;
+                IToken token = ChannelTraceReplay.this.sendCommand(service, r.name, r.data, cmd_listener);
+                synchronized (tokens) {
+                    tokens.put(r.token, ((Token)token).getID());
+                }
+            }
+        });
+    }
+
+    /**
+     * Generate remote Hello message.
+     * @param data - recorded Hello message data, or null.
+     * @param services - service names to use if the recorded message is not available.
+     */
+    private void putHello(final byte[] data, final Collection<String> services) throws IOException {
+        /* JSON can be used on the dispatch thread only */
+        final Object[] res = new Object[1];
+        Protocol.invokeAndWait(new Runnable() {
+            @SuppressWarnings("unchecked")
+            public void run() {
+                try {
+                    Set<String> set = new LinkedHashSet<String>();
+                    if (data != null) set.addAll((Collection<String>)JSON.parseSequence(data)[0]);
+                    else set.addAll(services);
+                    set.remove(COMPRESSION_SERVICE);
+                    res[0] = JSON.toJSONSequence(new Object[]{ set });
+                }
+                catch (IOException x) {
+                    res[0] = x;
+                }
+            }
+        });
+        if (res[0] instanceof IOException) throw (IOException)res[0];
+        hello_sent = true;
+        putMessage('E', null, ILocator.NAME, "Hello", (byte[])res[0]);
+    }
+
+    private void putMessage(char type, String token, String service, String name, byte[] data) throws IOException {
+        putByte(type);
+        putByte(0);
+        if (token != null) putString(token);
+        if (service != null) putString(service);
+        if (name != null) putString(name);
+        if (data != null) {
+            for (byte b : data) {
+                putByte(b & 0xff);
+                if (b == ESC) putByte(0);
+            }
+        }
+        putByte(ESC);
+        putByte(1);
+    }
+
+    private void putString(String s) throws UnsupportedEncodingException {
+        for (byte b : s.getBytes("UTF-8")) {
+            putByte(b & 0xff);
+            if (b == ESC) putByte(0);
+        }
+        putByte(0);
+    }
+
+    private void putByte(int b) {
+        if (inp_len >= inp_buf.length) {
+            byte[] tmp = new byte[inp_buf.length * 2];
+            System.arraycopy(inp_buf, 0, tmp, 0, inp_len);
+            inp_buf = tmp;
+        }
+        inp_buf[inp_len++] = (byte)b;
+    }
+}
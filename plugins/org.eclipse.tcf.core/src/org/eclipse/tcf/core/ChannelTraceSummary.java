@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChannelTraceSummary computes per-command latency statistics of a session recorded by ChannelTraceRecorder.
+ * Latency is time between a command and its result ('R') or rejection ('N'), both for commands
+ * sent by the recording side and for commands received from the remote peer.
+ * Commands without a response in the recording are counted as pending.
+ *
+ * The class can be run as a command line tool: ChannelTraceSummary &lt;trace file&gt;...
+ *
+ * @since 1.8
+ */
+public class ChannelTraceSummary {
+
+    /**
+     * Latency statistics of a command.
+     */
+    public static final class Statistics {
+        public final String service;
+        public final String name;
+        /** true if the commands were received from the remote peer */
+        public final boolean received;
+        /** Number of commands with a response */
+        public final int count;
+        /** Number of commands without a response */
+        public final int pending;
+        /** Number of rejected commands */
+        public final int rejected;
+        /** Latencies in microseconds */
+        public final long avg;
+        public final long min;
+        public final long max;
+        public final long p50;
+        public final long p90;
+        public final long p99;
+
+        Statistics(String service, String name, boolean received, long[] rtt, int count, int pending, int rejected) {
+            this.service = service;
+            this.name = name;
+            this.received = received;
+            this.count = count;
+            this.pending = pending;
+            this.rejected = rejected;
+            Arrays.sort(rtt, 0, count);
+            long sum = 0;
+            for (int i = 0; i < count; i++) sum += rtt[i];
+            avg = count > 0 ? sum / count : 0;
+            min = count > 0 ? rtt[0] : 0;
+            max = count > 0 ? rtt[count - 1] : 0;
+            p50 = getPercentile(rtt, count, 50);
+            p90 = getPercentile(rtt, count, 90);
+            p99 = getPercentile(rtt, count, 99);
+        }
+
+        private static long getPercentile(long[] rtt, int count, int p) {
+            if (count == 0) return 0;
+            return rtt[(int)((long)(count - 1) * p / 100)];
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer bf = new StringBuffer();
+            bf.append(received ? "<- " : "-> ");
+            bf.append(service).append('.').append(name);
+            bf.append(" cmds=").append(count);
+            if (rejected > 0) bf.append(" rejected=").append(rejected);
+            if (pending > 0) bf.append(" pending=").append(pending);
+            if (count > 0) {
+                bf.append(" rtt_us: avg=").append(avg);
+                bf.append(" min=").append(min);
+                bf.append(" p50=").append(p50);
+                bf.append(" p90=").append(p90);
+                bf.append(" p99=").append(p99);
+                bf.append(" max=").append(max);
+            }
+            return bf.toString();
+        }
+    }
+
+    private static class Entry {
+        final String service;
+        final String name;
+        final boolean received;
+        long[] rtt = new long[16];
+        int count;
+        int pending;
+        int rejected;
+
+        Entry(String service, String name, boolean received) {
+            this.service = service;
+            this.name = name;
+            this.received = received;
+        }
+
+        void add(long time) {
+            if (count == rtt.length) {
+                long[] tmp = new long[count * 2];
+                System.arraycopy(rtt, 0, tmp, 0, count);
+                rtt = tmp;
+            }
+            rtt[count++] = time;
+        }
+    }
+
+    private static class Command {
+        final Entry entry;
+        final long time;
+
+        Command(Entry entry, long time) {
+            this.entry = entry;
+            this.time = time;
+        }
+    }
+
+    private final Map<String,Entry> entries = new HashMap<String,Entry>();
+    private final Map<String,Command> out_cmds = new HashMap<String,Command>();
+    private final Map<String,Command> inp_cmds = new HashMap<String,Command>();
+
+    /**
+     * Add records of a trace file to the summary.
+     * @param file - trace file created by ChannelTraceRecorder.
+     * @throws IOException
+     */
+    public void add(File file) throws IOException {
+        ChannelTraceReader reader = new ChannelTraceReader(file);
+        try {
+            for (;;) {
+                ChannelTraceReader.Record r = reader.next();
+                if (r == null) break;
+                add(r);
+            }
+        }
+        finally {
+            reader.close();
+        }
+        /* Tokens are not unique across files */
+        out_cmds.clear();
+        inp_cmds.clear();
+    }
+
+    private void add(ChannelTraceReader.Record r) {
+        Map<String,Command> cmds = r.received == (r.type == 'C') ? inp_cmds : out_cmds;
+        switch (r.type) {
+        case 'C':
+            {
+                String id = (r.received ? "<" : ">") + r.service + '.' + r.name;
+                Entry e = entries.get(id);
+                if (e == null) entries.put(id, e = new Entry(r.service, r.name, r.received));
+                e.pending++;
+                cmds.put(r.token, new Command(e, r.time));
+            }
+            break;
+        case 'R':
+        case 'N':
+            {
+                Command c = cmds.remove(r.token);
+                if (c == null) break;
+                c.entry.pending--;
+                if (r.type == 'N') c.entry.rejected++;
+                c.entry.add((r.time - c.time) / 1000);
+            }
+            break;
+        }
+    }
+
+    /**
+     * @return latency statistics, sorted by total time spent waiting for responses.
+     */
+    public List<Statistics> getStatistics() {
+        List<Statistics> res = new ArrayList<Statistics>();
+        for (Entry e : entries.values()) {
+            res.add(new Statistics(e.service, e.name, e.received, e.rtt.clone(), e.count, e.pending, e.rejected));
+        }
+        Collections.sort(res, new Comparator<Statistics>() {
+            public int compare(Statistics x, Statistics y) {
+                long tx = x.avg * x.count;
+                long ty = y.avg * y.count;
+                if (tx > ty) return -1;
+                if (tx < ty) return +1;
+                return (x.service + '.' + x.name).compareTo(y.service + '.' + y.name);
+            }
+        });
+        return res;
+    }
+
+    /**
+     * Write the summary.
+     * @param out - output writer
+     * @throws IOException
+     */
+    public void dump(Writer out) throws IOException {
+        for (Statistics s : getStatistics()) out.write(s + "\n");
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ChannelTraceSummary <trace file>...");
+            System.exit(2);
+        }
+        ChannelTraceSummary summary = new ChannelTraceSummary();
+        for (String fnm : args) summary.add(new File(fnm));
+        summary.dump(new OutputStreamWriter(System.out));
+    }
+}
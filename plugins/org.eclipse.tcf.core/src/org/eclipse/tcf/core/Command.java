@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,7 @@ import org.eclipse.tcf.protocol.IErrorReport;
 import org.eclipse.tcf.protocol.IService;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.JSONReader;
 import org.eclipse.tcf.protocol.Protocol;
 
 
@@ -61,6 +62,7 @@ public abstract class Command implements IChannel.ICommandListener {
     private final IService service;
     private final String command;
     private final Object[] args;
+    private final AbstractChannel channel;
 
     public final IToken token;
 
@@ -80,10 +82,11 @@ public abstract class Command implements IChannel.ICommandListener {
         this.service = service;
         this.command = command;
         this.args = args;
+        this.channel = channel instanceof AbstractChannel ? (AbstractChannel)channel : null;
         IToken t = null;
         try {
-            boolean zero_copy = ((AbstractChannel)channel).isZeroCopySupported();
-            t = channel.sendCommand(service, command, JSON.toJSONSequence(args, zero_copy), this);
+            AbstractChannel c = (AbstractChannel)channel;
+            t = channel.sendCommand(service, command, c.getJSONWriter().toJSONSequence(args, c.isZeroCopySupported()), this);
         }
         catch (Throwable y) {
             t = new Token();
@@ -111,7 +114,14 @@ public abstract class Command implements IChannel.ICommandListener {
         Exception error = null;
         Object[] args = null;
         try {
-            args = JSON.parseSequence(data);
+            if (data == null) {
+                args = new Object[0];
+            }
+            else {
+                JSONReader reader = channel != null ? channel.getJSONReader() : new JSONReader();
+                reader.reset(data, 0, data.length);
+                args = reader.nextSequence();
+            }
         }
         catch (Exception e) {
             error = e;
@@ -121,6 +131,21 @@ public abstract class Command implements IChannel.ICommandListener {
         done(error, args);
     }
 
+    /**
+     * Handle command result that is a slice of the channel input buffer.
+     * The channel calls this method instead of result(IToken, byte[]).
+     * Default implementation copies the slice and calls result(IToken, byte[]),
+     * so subclasses that override that method receive the data as before.
+     * Subclasses can override this method to parse the slice in place.
+     * @param buf - buffer that contains the result.
+     * @param pos - offset of the result in the buffer.
+     * @param len - size of the result in bytes.
+     * @since 1.8
+     */
+    protected void parseResult(byte[] buf, int pos, int len) {
+        result(token, FrameDecoder.toByteArray(buf, pos, len));
+    }
+
     public void terminated(IToken token, Exception error) {
         assert this.token == token;
         assert !done;
@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * CommandMetrics collects per service and command statistics of a channel:
+ * number of commands, results and events, bytes sent and received,
+ * and histogram of command round trip time.
+ *
+ * Collection is disabled by default, it is enabled by setEnabled() or by system property
+ * "org.eclipse.tcf.core.metrics". When disabled, channels only check a flag per message.
+ * Recording a message does not allocate memory, except when a command or event name is seen first time.
+ *
+ * If system property "org.eclipse.tcf.core.metrics.file" is set, metrics of all open channels
+ * are appended to the file every "org.eclipse.tcf.core.metrics.period" milliseconds (default 60000).
+ * The file is written only if the metrics have changed since last write, the timer stops when
+ * nothing has changed or no open channel has metrics, and starts again with next recorded message.
+ *
+ * All methods, except setEnabled() and isEnabled(), must be called on the dispatch thread.
+ * @since 1.8
+ */
+public final class CommandMetrics {
+
+    private static volatile boolean enabled = Boolean.getBoolean("org.eclipse.tcf.core.metrics");
+
+    private static final String DUMP_FILE = System.getProperty("org.eclipse.tcf.core.metrics.file");
+    private static final long DUMP_PERIOD = Long.getLong("org.eclipse.tcf.core.metrics.period", 60000);
+
+    private static boolean dump_started;
+    private static long dump_state;
+
+    /* Histogram precision: 2^SUB_BITS buckets per power of two, about 6% relative error */
+    private static final int SUB_BITS = 4;
+    private static final int SUB_CNT = 1 << SUB_BITS;
+    private static final int HISTOGRAM_SIZE = (64 - SUB_BITS + 1) * SUB_CNT;
+
+    /**
+     * Counters of a single command or event.
+     */
+    static final class Entry {
+        final String service;
+        final String name;
+
+        long commands;
+        long results;
+        long progress;
+        long rejected;
+        long canceled;
+        long events_sent;
+        long events_received;
+        long bytes_sent;
+        long bytes_received;
+
+        /* Round trip time histogram, microseconds, log-linear buckets */
+        final long[] histogram = new long[HISTOGRAM_SIZE];
+        long latency_cnt;
+        long latency_sum;
+        long latency_max;
+
+        Entry(String service, String name) {
+            this.service = service;
+            this.name = name;
+        }
+
+        void addLatency(long time) {
+            startDump();
+            long us = time / 1000;
+            if (us < 0) us = 0;
+            histogram[bucket(us)]++;
+            latency_cnt++;
+            latency_sum += us;
+            if (us > latency_max) latency_max = us;
+        }
+    }
+
+    /**
+     * Snapshot of statistics of a single command or event.
+     */
+    public static final class Statistics {
+        /** Service name */
+        public final String service;
+        /** Command or event name */
+        public final String name;
+        /** Number of commands sent */
+        public final long commands;
+        /** Number of results received */
+        public final long results;
+        /** Number of progress messages received */
+        public final long progress;
+        /** Number of commands rejected by remote peer as unknown */
+        public final long rejected;
+        /** Number of commands canceled before they were sent */
+        public final long canceled;
+        /** Number of events sent */
+        public final long events_sent;
+        /** Number of events received */
+        public final long events_received;
+        /** Number of payload bytes sent with commands and events */
+        public final long bytes_sent;
+        /** Number of payload bytes received with results and events */
+        public final long bytes_received;
+        /** Average round trip time in microseconds */
+        public final long avg_latency;
+        /** Largest round trip time in microseconds */
+        public final long max_latency;
+
+        private final long[] histogram;
+        private final long latency_cnt;
+
+        Statistics(Entry e) {
+            service = e.service;
+            name = e.name;
+            commands = e.commands;
+            results = e.results;
+            progress = e.progress;
+            rejected = e.rejected;
+            canceled = e.canceled;
+            events_sent = e.events_sent;
+            events_received = e.events_received;
+            bytes_sent = e.bytes_sent;
+            bytes_received = e.bytes_received;
+            latency_cnt = e.latency_cnt;
+            avg_latency = e.latency_cnt == 0 ? 0 : e.latency_sum / e.latency_cnt;
+            max_latency = e.latency_max;
+            histogram = e.histogram.clone();
+        }
+
+        /**
+         * Get round trip time percentile.
+         * @param p - percentile, 0..100
+         * @return round trip time in microseconds, 0 if no results were received.
+         */
+        public long getLatencyPercentile(double p) {
+            if (latency_cnt == 0) return 0;
+            long n = (long)Math.ceil(latency_cnt * p / 100);
+            if (n < 1) n = 1;
+            long cnt = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                cnt += histogram[i];
+                if (cnt >= n) return Math.min(bucketMax(i), max_latency);
+            }
+            return max_latency;
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer bf = new StringBuffer();
+            bf.append(service).append('.').append(name);
+            if (commands > 0) {
+                bf.append(" cmds=").append(commands);
+                bf.append(" results=").append(results);
+                if (progress > 0) bf.append(" progress=").append(progress);
+                if (rejected > 0) bf.append(" rejected=").append(rejected);
+                if (canceled > 0) bf.append(" canceled=").append(canceled);
+            }
+            if (events_sent > 0) bf.append(" events_sent=").append(events_sent);
+            if (events_received > 0) bf.append(" events_received=").append(events_received);
+            bf.append(" bytes_sent=").append(bytes_sent);
+            bf.append(" bytes_received=").append(bytes_received);
+            if (latency_cnt > 0) {
+                bf.append(" rtt_us: avg=").append(avg_latency);
+                bf.append(" p50=").append(getLatencyPercentile(50));
+                bf.append(" p90=").append(getLatencyPercentile(90));
+                bf.append(" p99=").append(getLatencyPercentile(99));
+                bf.append(" max=").append(max_latency);
+            }
+            return bf.toString();
+        }
+    }
+
+    private final Map<String,Map<String,Entry>> entries = new HashMap<String,Map<String,Entry>>();
+
+    CommandMetrics() {
+    }
+
+    private static void startDump() {
+        if (dump_started || DUMP_FILE == null) return;
+        dump_started = true;
+        Protocol.invokeLater(DUMP_PERIOD, new Runnable() {
+            public void run() {
+                long state = getDumpState();
+                if (state == 0 || state == dump_state) {
+                    /* No data or no changes, next recorded message restarts the timer */
+                    dump_started = false;
+                    return;
+                }
+                dump_state = state;
+                dump(DUMP_FILE);
+                Protocol.invokeLater(DUMP_PERIOD, this);
+            }
+        });
+    }
+
+    /*
+     * Get a value that changes when metrics of open channels change.
+     * Returns 0 if no open channel has recorded any messages.
+     */
+    private static long getDumpState() {
+        long state = 0;
+        for (IChannel c : Protocol.getOpenChannels()) {
+            if (!(c instanceof AbstractChannel)) continue;
+            CommandMetrics m = ((AbstractChannel)c).getCommandMetrics();
+            if (m == null) continue;
+            for (Map<String,Entry> map : m.entries.values()) {
+                for (Entry e : map.values()) {
+                    state += e.commands + e.results + e.progress + e.rejected + e.canceled +
+                            e.events_sent + e.events_received;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Enable or disable collection of metrics.
+     * Channels start recording with next message after metrics are enabled.
+     * @param on - true to enable
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * @return true if collection of metrics is enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    private static int bucket(long v) {
+        if (v < SUB_CNT) return (int)v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (e - SUB_BITS + 1) * SUB_CNT + (int)((v >> (e - SUB_BITS)) & (SUB_CNT - 1));
+    }
+
+    private static long bucketMax(int i) {
+        if (i < SUB_CNT) return i;
+        int e = i / SUB_CNT + SUB_BITS - 1;
+        long sub = i % SUB_CNT;
+        return ((SUB_CNT + sub + 1) << (e - SUB_BITS)) - 1;
+    }
+
+    Entry getEntry(String service, String name) {
+        startDump();
+        Map<String,Entry> m = entries.get(service);
+        if (m == null) entries.put(service, m = new HashMap<String,Entry>());
+        Entry e = m.get(name);
+        if (e == null) m.put(name, e = new Entry(service, name));
+        return e;
+    }
+
+    /**
+     * Get snapshot of the metrics, sorted by total round trip time.
+     * @return list of statistics objects, one per command or event.
+     */
+    public List<Statistics> getStatistics() {
+        assert Protocol.isDispatchThread();
+        List<Statistics> list = new ArrayList<Statistics>();
+        for (Map<String,Entry> m : entries.values()) {
+            for (Entry e : m.values()) list.add(new Statistics(e));
+        }
+        Collections.sort(list, new Comparator<Statistics>() {
+            public int compare(Statistics x, Statistics y) {
+                long tx = x.avg_latency * x.results;
+                long ty = y.avg_latency * y.results;
+                if (tx > ty) return -1;
+                if (tx < ty) return +1;
+                int n = x.service.compareTo(y.service);
+                if (n != 0) return n;
+                return x.name.compareTo(y.name);
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Clear all counters.
+     */
+    public void reset() {
+        assert Protocol.isDispatchThread();
+        entries.clear();
+    }
+
+    /**
+     * Write metrics of all open channels.
+     * @param out - output writer
+     * @throws IOException
+     */
+    public static void dump(Writer out) throws IOException {
+        assert Protocol.isDispatchThread();
+        out.write("TCF channel metrics " + new Date() + "\n");
+        for (IChannel c : Protocol.getOpenChannels()) {
+            if (!(c instanceof AbstractChannel)) continue;
+            CommandMetrics m = ((AbstractChannel)c).getCommandMetrics();
+            if (m == null) continue;
+            IPeer peer = c.getRemotePeer();
+            out.write("Channel " + (peer != null ? peer.getID() : "?") + "\n");
+            for (Statistics s : m.getStatistics()) out.write("  " + s + "\n");
+        }
+        out.flush();
+    }
+
+    private static void dump(String file_name) {
+        try {
+            Writer out = new OutputStreamWriter(new FileOutputStream(file_name, true), "UTF-8");
+            try {
+                dump(out);
+            }
+            finally {
+                out.close();
+            }
+        }
+        catch (IOException x) {
+            Protocol.log("Cannot write TCF channel metrics to " + file_name, x);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.util.LinkedList;
+
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * CommandWindow limits number of outstanding commands of one service on a channel.
+ *
+ * The window size follows bandwidth-delay product of the link: it is tuned once per round
+ * (one window worth of replies) by comparing the round's minimal round trip time with
+ * the lowest one ever observed, similar to TCP Vegas. If replies come back as fast as on an idle link,
+ * more commands can be kept in flight and the window grows; if round trip time grows with
+ * the window, commands are queuing somewhere on the way and the window shrinks.
+ * Positive congestion level reported by the remote peer halves the window.
+ *
+ * All methods must be called on the dispatch thread.
+ */
+final class CommandWindow {
+
+    private static final int INIT_SIZE = Integer.getInteger("org.eclipse.tcf.core.channel.window", 8);
+    private static final int MAX_SIZE = Integer.getInteger("org.eclipse.tcf.core.channel.max_window", 256);
+    private static final int MIN_SIZE = 2;
+
+    /* Estimated number of commands queued beyond bandwidth-delay product, scaled by 16 */
+    private static final int ALPHA = 2 * 16;
+    private static final int BETA = 6 * 16;
+
+    private int size = INIT_SIZE < MIN_SIZE ? MIN_SIZE : INIT_SIZE;
+    private int pending;
+    private boolean slow_start = true;
+
+    private long srtt;
+    private long base_rtt = Long.MAX_VALUE;
+    private long round_min_rtt = Long.MAX_VALUE;
+    private int round_cnt;
+    private boolean round_limited;
+
+    private final LinkedList<Runnable> waiters = new LinkedList<Runnable>();
+
+    int getSize() {
+        return size;
+    }
+
+    int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return smoothed round trip time in nanoseconds, 0 if not measured yet.
+     */
+    long getRoundTripTime() {
+        return srtt;
+    }
+
+    void onCommandSent() {
+        pending++;
+        if (pending >= size) round_limited = true;
+    }
+
+    void onCommandCanceled() {
+        pending--;
+        notifyWaiters();
+    }
+
+    /**
+     * Update the window after a command is done.
+     * @param rtt - command round trip time in nanoseconds
+     * @param remote_congestion - congestion level reported by remote peer
+     */
+    void onCommandDone(long rtt, int remote_congestion) {
+        pending--;
+        if (rtt < 1) rtt = 1;
+        srtt = srtt == 0 ? rtt : srtt + (rtt - srtt) / 8;
+        if (rtt < round_min_rtt) round_min_rtt = rtt;
+        if (++round_cnt >= size) {
+            if (round_min_rtt < base_rtt) base_rtt = round_min_rtt;
+            if (remote_congestion > 0) {
+                size /= 2;
+                slow_start = false;
+            }
+            else {
+                long queued = size * 16 * (round_min_rtt - base_rtt) / round_min_rtt;
+                if (queued > BETA) {
+                    size--;
+                    slow_start = false;
+                }
+                else if (queued < ALPHA && round_limited) {
+                    size = slow_start ? size * 2 : size + 1;
+                }
+            }
+            if (size < MIN_SIZE) size = MIN_SIZE;
+            if (size > MAX_SIZE) size = MAX_SIZE;
+            round_cnt = 0;
+            round_min_rtt = Long.MAX_VALUE;
+            round_limited = pending >= size;
+        }
+        notifyWaiters();
+    }
+
+    /**
+     * Check if the window allows to send a command, register a call-back if not.
+     * @param done - call-back to invoke when the window is available
+     * @return true if a command can be sent now.
+     */
+    boolean waitForWindow(Runnable done) {
+        if (pending < size) return true;
+        round_limited = true;
+        if (!waiters.contains(done)) waiters.add(done);
+        return false;
+    }
+
+    private void notifyWaiters() {
+        int n = size - pending;
+        while (n > 0 && waiters.size() > 0) {
+            Protocol.invokeLater(waiters.removeFirst());
+            n--;
+        }
+    }
+
+    /**
+     * Release all waiting clients, called when the channel is closed.
+     */
+    void dispose() {
+        while (waiters.size() > 0) Protocol.invokeLater(waiters.removeFirst());
+        pending = 0;
+    }
+}
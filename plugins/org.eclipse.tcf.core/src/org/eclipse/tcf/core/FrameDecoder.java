@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.eclipse.tcf.internal.core.Token;
+
+/**
+ * FrameDecoder splits a stream of bytes into TCF messages.
+ * It implements same ESC/EOM/EOS framing as StreamChannel.read(),
+ * but consumes whole input buffers instead of reading one byte at a time:
+ * runs of bytes between escape sequences are located by a tight scan and copied in bulk,
+ * binary blocks that follow "ESC 3" are copied without scanning, and a message
+ * that is entirely contained in the input buffer and has no escapes is parsed in place.
+ *
+ * Service and message names are interned by NameTable. A large Command Result payload
+ * that is assembled in the decoder buffer is passed as a slice of the buffer, the buffer is handed off
+ * to the message and the payload is parsed in place by the dispatch thread, other payloads are copied once.
+ *
+ * The decoder is not thread safe, each channel must have its own instance.
+ */
+final class FrameDecoder {
+
+    interface Handler {
+
+        /**
+         * Called when a complete message is decoded.
+         * The message payload is owned by the message, the decoder does not reuse it.
+         * @param msg - the message
+         */
+        void onMessage(AbstractChannel.Message msg);
+
+        /**
+         * Called when end of stream marker is decoded.
+         * @param err_report - error report that follows the marker, or null
+         */
+        void onEndOfStream(byte[] err_report);
+    }
+
+    private static final int INITIAL_BUF_SIZE = 0x100;
+    private static final int MAX_IDLE_BUF_SIZE = 0x10000;
+
+    private static final int
+        STATE_DATA = 0,
+        STATE_ESC = 1,
+        STATE_BIN_SIZE = 2;
+
+    private static final byte ESC = StreamChannel.ESC;
+
+    private static final byte[] empty_byte_array = new byte[0];
+
+    private final Handler handler;
+
+    /* Unescaped bytes of current message, used when the message spans input buffers or contains escapes */
+    private byte[] buf = new byte[INITIAL_BUF_SIZE];
+    private int buf_len;
+
+    private int state = STATE_DATA;
+    private int bin_data_size;
+    private int bin_size_shift;
+    private boolean eos;
+    private boolean done;
+    private boolean compressed;
+
+    FrameDecoder(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Copy a slice of a buffer into a new array.
+     * @param buf - the buffer
+     * @param pos - offset of the slice
+     * @param len - length of the slice
+     * @return array of bytes
+     */
+    static byte[] toByteArray(byte[] buf, int pos, int len) {
+        if (len == 0) return empty_byte_array;
+        byte[] res = new byte[len];
+        System.arraycopy(buf, pos, res, 0, len);
+        return res;
+    }
+
+    /**
+     * @return true if end of stream marker has been decoded.
+     */
+    boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return true if compressed stream marker has been decoded.
+     */
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Decode all remaining bytes of the buffer.
+     * @param bb - input buffer backed by an array, its position is advanced to its limit.
+     * @throws IOException if the input is not a valid TCF message stream.
+     */
+    void decode(ByteBuffer bb) throws IOException {
+        int pos = bb.arrayOffset() + bb.position();
+        int end = bb.arrayOffset() + bb.limit();
+        bb.position(bb.limit());
+        boolean c = compressed;
+        decode(bb.array(), pos, end);
+        if (!c && compressed) throw new IOException("Compressed stream is not supported by the transport");
+    }
+
+    /**
+     * Decode a block of input bytes.
+     * Complete messages are passed to the handler, a partial message is kept until more data arrives.
+     * Decoding stops after compressed stream marker, the rest of the input must be decompressed
+     * before it is passed to the decoder.
+     * @param arr - input bytes
+     * @param pos - start offset
+     * @param end - end offset
+     * @return offset of first byte that is not decoded, 'end' unless the stream marker is found.
+     * @throws IOException if the input is not a valid TCF message stream.
+     */
+    int decode(byte[] arr, int pos, int end) throws IOException {
+        while (pos < end && !done) {
+            switch (state) {
+            case STATE_DATA:
+                if (bin_data_size > 0) {
+                    /* Binary data block: copy as is, no escapes inside */
+                    int n = end - pos;
+                    if (n > bin_data_size) n = bin_data_size;
+                    append(arr, pos, n);
+                    pos += n;
+                    bin_data_size -= n;
+                    break;
+                }
+                int i = pos;
+                while (i < end && arr[i] != ESC) i++;
+                if (buf_len == 0 && !eos && i + 1 < end && arr[i + 1] == 1 && i > pos) {
+                    /* Whole message without escapes: parse it in place */
+                    parseMessage(arr, pos, i);
+                    pos = i + 2;
+                    break;
+                }
+                append(arr, pos, i - pos);
+                pos = i;
+                if (pos < end) {
+                    state = STATE_ESC;
+                    pos++;
+                }
+                break;
+            case STATE_ESC:
+                int b = arr[pos++] & 0xff;
+                state = STATE_DATA;
+                switch (b) {
+                case 0:
+                    if (buf_len >= buf.length) grow(1);
+                    buf[buf_len++] = ESC;
+                    break;
+                case 1:
+                    endOfMessage();
+                    break;
+                case 2:
+                    if (buf_len > 0) throw new IOException("Protocol syntax error");
+                    eos = true;
+                    break;
+                case 3:
+                    state = STATE_BIN_SIZE;
+                    bin_size_shift = 0;
+                    break;
+                case 4:
+                    if (buf_len > 0 || compressed) throw new IOException("Protocol syntax error");
+                    compressed = true;
+                    return pos;
+                default:
+                    throw new IOException("Invalid escape sequence: " + ESC + " " + b);
+                }
+                break;
+            case STATE_BIN_SIZE:
+                int m = arr[pos++] & 0xff;
+                if (bin_size_shift > 28) throw new IOException("Invalid binary data size");
+                bin_data_size |= (m & 0x7f) << bin_size_shift;
+                bin_size_shift += 7;
+                if ((m & 0x80) == 0) state = STATE_DATA;
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private void grow(int n) {
+        int size = buf.length * 2;
+        while (size < buf_len + n) size *= 2;
+        byte[] tmp = new byte[size];
+        System.arraycopy(buf, 0, tmp, 0, buf_len);
+        buf = tmp;
+    }
+
+    private void append(byte[] arr, int pos, int len) {
+        if (len == 0) return;
+        if (buf_len + len > buf.length) grow(len);
+        System.arraycopy(arr, pos, buf, buf_len, len);
+        buf_len += len;
+    }
+
+    private void endOfMessage() throws IOException {
+        try {
+            if (eos) {
+                done = true;
+                byte[] err_report = null;
+                if (buf_len > 1 || buf_len == 1 && buf[0] != 0) err_report = toByteArray(buf, 0, buf_len);
+                handler.onEndOfStream(err_report);
+            }
+            else if (buf_len > 0) {
+                parseMessage(buf, 0, buf_len);
+            }
+        }
+        finally {
+            buf_len = 0;
+            if (buf.length > MAX_IDLE_BUF_SIZE) buf = new byte[INITIAL_BUF_SIZE];
+        }
+    }
+
+    private void parseMessage(byte[] arr, int pos, int end) throws IOException {
+        if (end - pos < 2 || arr[pos + 1] != 0) throw new IOException("Protocol syntax error");
+        AbstractChannel.Message msg = new AbstractChannel.Message((char)(arr[pos] & 0xff));
+        pos += 2;
+        int i;
+        switch (msg.type) {
+        case 'C':
+            i = indexOfZero(arr, pos, end);
+            msg.token = new Token(toByteArray(arr, pos, i - pos));
+            pos = i + 1;
+            i = indexOfZero(arr, pos, end);
+            msg.service = NameTable.get(arr, pos, i - pos);
+            pos = i + 1;
+            i = indexOfZero(arr, pos, end);
+            msg.name = NameTable.get(arr, pos, i - pos);
+            pos = i + 1;
+            break;
+        case 'P':
+        case 'R':
+        case 'N':
+            i = indexOfZero(arr, pos, end);
+            msg.token = new Token(toByteArray(arr, pos, i - pos));
+            pos = i + 1;
+            break;
+        case 'E':
+            i = indexOfZero(arr, pos, end);
+            msg.service = NameTable.get(arr, pos, i - pos);
+            pos = i + 1;
+            i = indexOfZero(arr, pos, end);
+            msg.name = NameTable.get(arr, pos, i - pos);
+            pos = i + 1;
+            break;
+        case 'F':
+            break;
+        default:
+            throw new IOException("Protocol syntax error");
+        }
+        int len = end - pos;
+        if (arr == buf && msg.type == 'R' && len >= buf.length / 2) {
+            /* Hand the buffer off instead of copying the payload, Command parses it in place */
+            msg.data_buf = buf;
+            msg.data_pos = pos;
+            msg.data_len = len;
+            buf = new byte[buf.length > MAX_IDLE_BUF_SIZE ? INITIAL_BUF_SIZE : buf.length];
+        }
+        else {
+            msg.data = toByteArray(arr, pos, len);
+        }
+        handler.onMessage(msg);
+    }
+
+    private static int indexOfZero(byte[] arr, int pos, int end) throws IOException {
+        while (pos < end) {
+            if (arr[pos] == 0) return pos;
+            pos++;
+        }
+        throw new IOException("Unexpected end of message");
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * LZBlock implements fast LZ77 compression of independent blocks, using LZ4 block layout:
+ * a block is a sequence of (token, literals, offset, match length) records,
+ * the last record has literals only. The compressor is greedy with a single entry hash table,
+ * it trades compression ratio for speed, which is what a transport layer needs.
+ */
+final class LZBlock {
+
+    private static final int HASH_LOG = 12;
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xffff;
+
+    /* Same limits as LZ4: last 5 bytes are always literals, last match starts 12 bytes before the end */
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+
+    private final int[] table = new int[1 << HASH_LOG];
+
+    /**
+     * @param len - size of input data
+     * @return maximal size of compressed data
+     */
+    static int maxCompressedSize(int len) {
+        return len + len / 255 + 16;
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | b[i + 3] << 24;
+    }
+
+    private static int hash(int seq) {
+        return (seq * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int writeLength(byte[] dst, int op, int n) {
+        while (n >= 0xff) {
+            dst[op++] = (byte)0xff;
+            n -= 0xff;
+        }
+        dst[op++] = (byte)n;
+        return op;
+    }
+
+    private static int writeLiterals(byte[] dst, int op, byte[] src, int pos, int len, int match_token) {
+        dst[op++] = (byte)((len < 15 ? len : 15) << 4 | match_token);
+        if (len >= 15) op = writeLength(dst, op, len - 15);
+        System.arraycopy(src, pos, dst, op, len);
+        return op + len;
+    }
+
+    /**
+     * Compress a block.
+     * @param src - input data
+     * @param pos - offset of input data
+     * @param len - size of input data
+     * @param dst - output buffer, at least maxCompressedSize(len) bytes
+     * @return size of compressed data
+     */
+    int compress(byte[] src, int pos, int len, byte[] dst) {
+        int end = pos + len;
+        int anchor = pos;
+        int ip = pos;
+        int op = 0;
+        if (len > MF_LIMIT) {
+            Arrays.fill(table, -1);
+            int mf_limit = end - MF_LIMIT;
+            int match_limit = end - LAST_LITERALS;
+            while (ip < mf_limit) {
+                int seq = readInt(src, ip);
+                int h = hash(seq);
+                int ref = table[h];
+                table[h] = ip;
+                if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != seq) {
+                    /* Skip faster over data that does not compress */
+                    ip += 1 + ((ip - anchor) >> 6);
+                    continue;
+                }
+                int mlen = MIN_MATCH;
+                while (ip + mlen < match_limit && src[ref + mlen] == src[ip + mlen]) mlen++;
+                int m = mlen - MIN_MATCH;
+                op = writeLiterals(dst, op, src, anchor, ip - anchor, m < 15 ? m : 15);
+                int offs = ip - ref;
+                dst[op++] = (byte)offs;
+                dst[op++] = (byte)(offs >> 8);
+                if (m >= 15) op = writeLength(dst, op, m - 15);
+                ip += mlen;
+                anchor = ip;
+            }
+        }
+        return writeLiterals(dst, op, src, anchor, end - anchor, 0);
+    }
+
+    /**
+     * Decompress a block.
+     * @param src - compressed data
+     * @param pos - offset of compressed data
+     * @param len - size of compressed data
+     * @param dst - output buffer
+     * @param dst_len - expected size of decompressed data
+     * @throws IOException if the data is not a valid compressed block
+     */
+    static void decompress(byte[] src, int pos, int len, byte[] dst, int dst_len) throws IOException {
+        int ip = pos;
+        int end = pos + len;
+        int op = 0;
+        while (ip < end) {
+            int token = src[ip++] & 0xff;
+            int lit = token >>> 4;
+            if (lit == 15) {
+                int b;
+                do {
+                    if (ip >= end) throw new IOException("Invalid compressed block");
+                    b = src[ip++] & 0xff;
+                    lit += b;
+                }
+                while (b == 0xff);
+            }
+            if (lit > end - ip || lit > dst_len - op) throw new IOException("Invalid compressed block");
+            System.arraycopy(src, ip, dst, op, lit);
+            ip += lit;
+            op += lit;
+            if (ip >= end) break;
+            if (ip + 2 > end) throw new IOException("Invalid compressed block");
+            int offs = (src[ip] & 0xff) | (src[ip + 1] & 0xff) << 8;
+            ip += 2;
+            if (offs == 0 || offs > op) throw new IOException("Invalid compressed block");
+            int mlen = token & 15;
+            if (mlen == 15) {
+                int b;
+                do {
+                    if (ip >= end) throw new IOException("Invalid compressed block");
+                    b = src[ip++] & 0xff;
+                    mlen += b;
+                }
+                while (b == 0xff);
+            }
+            mlen += MIN_MATCH;
+            if (mlen > dst_len - op) throw new IOException("Invalid compressed block");
+            int ref = op - offs;
+            if (offs >= mlen) {
+                System.arraycopy(dst, ref, dst, op, mlen);
+                op += mlen;
+            }
+            else {
+                /* Overlapping match repeats last 'offs' bytes */
+                for (int i = 0; i < mlen; i++) dst[op++] = dst[ref++];
+            }
+        }
+        if (op != dst_len) throw new IOException("Invalid compressed block size");
+    }
+}
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.tcf.protocol.IEventQueue;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * High throughput implementation of TCF event queue.
+ *
+ * Producers add events to a lock-free multiple-producer/single-consumer linked queue,
+ * the dispatch thread is parked when the queue is empty and unparked by producers,
+ * so invokeLater() never blocks and does not contend on a monitor.
+ *
+ * The queue records queue depth, histogram of enqueue-to-run latency and, optionally,
+ * execution time per Runnable class. Congestion level is computed from the measured
+ * latency, so getCongestion() reports when the dispatch thread is saturated.
+ *
+ * Stand-alone clients can pass an instance to Protocol.setEventQueue() and call start().
+ * @since 1.8
+ */
+public class LockFreeEventQueue implements IEventQueue, Runnable {
+
+    /**
+     * Target enqueue-to-run latency in microseconds, latency at the target is reported as congestion level 0.
+     */
+    private static final long TARGET_LATENCY = Long.getLong("org.eclipse.tcf.core.event_queue.latency", 20000);
+
+    private static final int HISTOGRAM_SIZE = 32;
+
+    private static final class Node {
+        Runnable runnable;
+        long time;
+        volatile Node next;
+    }
+
+    /**
+     * Execution time statistics of events of a particular Runnable class.
+     */
+    public static final class ClassStatistics {
+        /** Runnable class name */
+        public final String name;
+        /** Number of executed events */
+        public final long count;
+        /** Total execution time in nanoseconds */
+        public final long total_time;
+        /** Maximal execution time in nanoseconds */
+        public final long max_time;
+
+        ClassStatistics(String name, long count, long total_time, long max_time) {
+            this.name = name;
+            this.count = count;
+            this.total_time = total_time;
+            this.max_time = max_time;
+        }
+    }
+
+    /**
+     * Snapshot of event queue statistics.
+     */
+    public static final class Statistics {
+        /** Number of executed events */
+        public final long events;
+        /** Current number of queued events */
+        public final int queue_depth;
+        /** Largest number of queued events */
+        public final int max_queue_depth;
+        /** Average enqueue-to-run latency in microseconds, exponentially weighted */
+        public final long avg_latency;
+        /** Largest enqueue-to-run latency in microseconds */
+        public final long max_latency;
+        /** Histogram of enqueue-to-run latency, element N is number of events with latency in range 2^N..2^(N+1)-1 microseconds,
+         * the last element also counts all events with larger latency */
+        public final long[] latency_histogram;
+        /** Fraction of time, in percent, the dispatch thread was busy since previous call of getStatistics() */
+        public final int utilization;
+        /** Execution time per Runnable class, sorted by total time, empty if profiling is disabled */
+        public final List<ClassStatistics> classes;
+
+        Statistics(long events, int queue_depth, int max_queue_depth, long avg_latency, long max_latency,
+                long[] latency_histogram, int utilization, List<ClassStatistics> classes) {
+            this.events = events;
+            this.queue_depth = queue_depth;
+            this.max_queue_depth = max_queue_depth;
+            this.avg_latency = avg_latency;
+            this.max_latency = max_latency;
+            this.latency_histogram = latency_histogram;
+            this.utilization = utilization;
+            this.classes = classes;
+        }
+    }
+
+    private static final class ClassCounters {
+        volatile long count;
+        volatile long total_time;
+        volatile long max_time;
+    }
+
+    private final AtomicReference<Node> tail;
+    private Node head;
+    private final AtomicInteger queue_depth = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean waiting;
+    private volatile boolean shutdown;
+    private volatile boolean profiling = Boolean.getBoolean("org.eclipse.tcf.core.event_queue.profiling");
+
+    /* Maximal queue depth, updated by producer threads */
+    private final AtomicInteger stat_max_depth = new AtomicInteger();
+
+    /* Statistics, updated by the dispatch thread only */
+    private volatile long stat_events;
+    private volatile long stat_avg_latency;
+    private volatile long stat_max_latency;
+    private volatile long stat_busy_time;
+    private final long[] stat_histogram = new long[HISTOGRAM_SIZE];
+    private final ConcurrentHashMap<Class<?>,ClassCounters> stat_classes = new ConcurrentHashMap<Class<?>,ClassCounters>();
+
+    /* Utilization sampling, guarded by 'this' */
+    private long util_time = System.nanoTime();
+    private long util_busy;
+
+    public LockFreeEventQueue() {
+        this("TCF Event Dispatcher");
+    }
+
+    public LockFreeEventQueue(String name) {
+        head = new Node();
+        tail = new AtomicReference<Node>(head);
+        thread = new Thread(this);
+        thread.setDaemon(true);
+        thread.setName(name);
+    }
+
+    /**
+     * Start the dispatch thread.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop the dispatch thread after all queued events are executed.
+     */
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(thread);
+        try {
+            if (thread.isAlive() && Thread.currentThread() != thread) thread.join();
+        }
+        catch (InterruptedException e) {
+        }
+    }
+
+    /**
+     * Enable or disable measurement of execution time per Runnable class.
+     * The default is set by system property "org.eclipse.tcf.core.event_queue.profiling".
+     * @param on - true to enable
+     */
+    public void setProfiling(boolean on) {
+        profiling = on;
+        if (!on) stat_classes.clear();
+    }
+
+    public void invokeLater(Runnable runnable) {
+        assert runnable != null;
+        if (shutdown) throw new IllegalStateException("TCF event dispatcher has shut down");
+        Node n = new Node();
+        n.runnable = runnable;
+        n.time = System.nanoTime();
+        int depth = queue_depth.incrementAndGet();
+        for (;;) {
+            int max = stat_max_depth.get();
+            if (depth <= max || stat_max_depth.compareAndSet(max, depth)) break;
+        }
+        Node prev = tail.getAndSet(n);
+        prev.next = n;
+        if (waiting) {
+            waiting = false;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public boolean isDispatchThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    public int getCongestion() {
+        if (queue_depth.get() == 0) return -100;
+        long level = stat_avg_latency * 100 / TARGET_LATENCY - 100;
+        if (level > 100) level = 100;
+        if (level < -100) level = -100;
+        return (int)level;
+    }
+
+    /**
+     * Get queue statistics. Can be called from any thread.
+     * @return statistics snapshot
+     */
+    public Statistics getStatistics() {
+        int utilization;
+        synchronized (this) {
+            long time = System.nanoTime();
+            long busy = stat_busy_time;
+            long period = time - util_time;
+            utilization = period > 0 ? (int)((busy - util_busy) * 100 / period) : 0;
+            util_time = time;
+            util_busy = busy;
+        }
+        List<ClassStatistics> classes = new ArrayList<ClassStatistics>();
+        for (Class<?> c : stat_classes.keySet()) {
+            ClassCounters s = stat_classes.get(c);
+            if (s != null) classes.add(new ClassStatistics(c.getName(), s.count, s.total_time, s.max_time));
+        }
+        Collections.sort(classes, new Comparator<ClassStatistics>() {
+            public int compare(ClassStatistics x, ClassStatistics y) {
+                if (x.total_time > y.total_time) return -1;
+                if (x.total_time < y.total_time) return +1;
+                return 0;
+            }
+        });
+        return new Statistics(stat_events, queue_depth.get(), stat_max_depth.get(),
+                stat_avg_latency, stat_max_latency, stat_histogram.clone(), utilization, classes);
+    }
+
+    private Node poll() {
+        Node n = head.next;
+        if (n == null) return null;
+        head = n;
+        return n;
+    }
+
+    private void execute(Node n) {
+        Runnable r = n.runnable;
+        n.runnable = null;
+        queue_depth.decrementAndGet();
+        long start = System.nanoTime();
+        long latency = (start - n.time) / 1000;
+        if (latency < 0) latency = 0;
+        stat_avg_latency += (latency - stat_avg_latency) / 16;
+        if (latency > stat_max_latency) stat_max_latency = latency;
+        stat_histogram[Math.min(63 - Long.numberOfLeadingZeros(latency | 1), HISTOGRAM_SIZE - 1)]++;
+        /* Count the event before running it, so the count matches the histogram
+         * in a snapshot taken as soon as the event has done its work */
+        stat_events++;
+        try {
+            r.run();
+        }
+        catch (Throwable x) {
+            Protocol.log("Unhandled exception in TCF event dispatch", x);
+        }
+        long time = System.nanoTime() - start;
+        stat_busy_time += time;
+        if (profiling) {
+            Class<?> c = r.getClass();
+            ClassCounters s = stat_classes.get(c);
+            if (s == null) {
+                s = new ClassCounters();
+                stat_classes.put(c, s);
+            }
+            s.count++;
+            s.total_time += time;
+            if (time > s.max_time) s.max_time = time;
+        }
+    }
+
+    public void run() {
+        for (;;) {
+            Node n = poll();
+            if (n != null) {
+                execute(n);
+                continue;
+            }
+            if (shutdown) return;
+            waiting = true;
+            if (head.next == null && !shutdown) LockSupport.park(this);
+            waiting = false;
+        }
+    }
+}
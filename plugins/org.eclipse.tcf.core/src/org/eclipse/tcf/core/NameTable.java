@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * NameTable interns service, command and event names received by channels.
+ * Number of distinct names used by TCF services is small, so the table has fixed capacity
+ * and lookup of a name that is already in the table does not allocate any objects.
+ *
+ * Lookups are lock free and can be done by any thread, the table is copied on update.
+ */
+final class NameTable {
+
+    private static final int CAPACITY = 0x1000;
+    private static final int MAX_NAME_LEN = 0x40;
+
+    private static final class Entry {
+        final byte[] bytes;
+        final String name;
+        final int hash;
+        final Entry next;
+
+        Entry(byte[] bytes, String name, int hash, Entry next) {
+            this.bytes = bytes;
+            this.name = name;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private static volatile Entry[] table = new Entry[CAPACITY];
+    private static int size;
+
+    private static int hash(byte[] buf, int pos, int len) {
+        int h = 0;
+        for (int i = 0; i < len; i++) h = h * 31 + buf[pos + i];
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Get a string for UTF-8 encoded name.
+     * @param buf - bytes array
+     * @param pos - offset of the name in the array
+     * @param len - length of the name in bytes
+     * @return interned name
+     * @throws UnsupportedEncodingException
+     */
+    static String get(byte[] buf, int pos, int len) throws UnsupportedEncodingException {
+        if (len > MAX_NAME_LEN) return new String(buf, pos, len, "UTF-8");
+        int h = hash(buf, pos, len);
+        Entry[] t = table;
+        for (Entry e = t[h & (t.length - 1)]; e != null; e = e.next) {
+            if (e.hash == h && equals(e.bytes, buf, pos, len)) return e.name;
+        }
+        return add(h, buf, pos, len, new String(buf, pos, len, "UTF-8"));
+    }
+
+    private static boolean equals(byte[] bytes, byte[] buf, int pos, int len) {
+        if (bytes.length != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (bytes[i] != buf[pos + i]) return false;
+        }
+        return true;
+    }
+
+    private static synchronized String add(int h, byte[] buf, int pos, int len, String name) {
+        if (size >= CAPACITY) return name;
+        Entry[] t = table;
+        int i = h & (t.length - 1);
+        for (Entry e = t[i]; e != null; e = e.next) {
+            if (e.hash == h && equals(e.bytes, buf, pos, len)) return e.name;
+        }
+        byte[] bytes = new byte[len];
+        System.arraycopy(buf, pos, bytes, 0, len);
+        Entry[] n = new Entry[t.length];
+        System.arraycopy(t, 0, n, 0, t.length);
+        name = name.intern();
+        n[i] = new Entry(bytes, name, h, t[i]);
+        size++;
+        table = n;
+        return name;
+    }
+}
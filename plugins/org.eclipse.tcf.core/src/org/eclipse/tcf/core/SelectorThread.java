@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * SelectorThread multiplexes I/O of many non-blocking channels.
+ * A small fixed pool of selector threads is shared by all ChannelNIO and ServerNIO instances,
+ * so number of threads does not grow with number of open channels.
+ *
+ * Selection keys can only be created and modified by the selector thread itself,
+ * other threads use post() to schedule such operations.
+ */
+final class SelectorThread extends Thread {
+
+    interface Handler {
+
+        /**
+         * Called by the selector thread when the channel is ready for I/O.
+         * @param key - selection key of the channel
+         * @throws IOException
+         */
+        void onSelected(SelectionKey key) throws IOException;
+
+        /**
+         * Called by the selector thread when onSelected() has thrown an exception.
+         * The selection key is already canceled.
+         * @param x - the exception
+         */
+        void onError(Throwable x);
+    }
+
+    private static final int THREAD_CNT = Math.max(1, Integer.getInteger("org.eclipse.tcf.core.nio.threads",
+            Math.min(2, Runtime.getRuntime().availableProcessors())));
+
+    private static SelectorThread[] threads;
+    private static int next_thread;
+
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    private final ByteBuffer read_buf = ByteBuffer.allocate(0x10000);
+    private final AbstractChannel.MessageEncoder encoder = new AbstractChannel.MessageEncoder();
+
+    private SelectorThread(int id) throws IOException {
+        selector = Selector.open();
+        setName("TCF NIO Selector " + id);
+        setDaemon(true);
+    }
+
+    /**
+     * Get a selector thread for a new channel.
+     * Channels are assigned to threads in round-robin order.
+     * @return selector thread
+     * @throws IOException if the selector cannot be opened
+     */
+    static synchronized SelectorThread getThread() throws IOException {
+        if (threads == null) {
+            SelectorThread[] arr = new SelectorThread[THREAD_CNT];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = new SelectorThread(i);
+                arr[i].start();
+            }
+            threads = arr;
+        }
+        SelectorThread t = threads[next_thread];
+        next_thread = (next_thread + 1) % threads.length;
+        return t;
+    }
+
+    /**
+     * Schedule a task to be executed by the selector thread.
+     * Can be called from any thread.
+     * @param r - the task
+     */
+    void post(Runnable r) {
+        tasks.add(r);
+        if (Thread.currentThread() != this) selector.wakeup();
+    }
+
+    /**
+     * Register a channel with the selector.
+     * Must be called by the selector thread.
+     * @param channel - non-blocking channel
+     * @param ops - interest set
+     * @param handler - I/O handler
+     * @return selection key
+     * @throws IOException
+     */
+    SelectionKey register(SelectableChannel channel, int ops, Handler handler) throws IOException {
+        assert Thread.currentThread() == this;
+        return channel.register(selector, ops, handler);
+    }
+
+    /**
+     * Wake up the selector, for example after a channel was closed by another thread.
+     */
+    void wakeup() {
+        selector.wakeup();
+    }
+
+    /**
+     * @return read buffer shared by all channels of this thread.
+     */
+    ByteBuffer getReadBuffer() {
+        assert Thread.currentThread() == this;
+        return read_buf;
+    }
+
+    /**
+     * @return message encoder shared by all channels of this thread.
+     */
+    AbstractChannel.MessageEncoder getEncoder() {
+        assert Thread.currentThread() == this;
+        return encoder;
+    }
+
+    @Override
+    public void run() {
+        for (;;) {
+            try {
+                Runnable r;
+                while ((r = tasks.poll()) != null) {
+                    try {
+                        r.run();
+                    }
+                    catch (Throwable x) {
+                        Protocol.log("Unhandled exception in TCF NIO selector thread", x);
+                    }
+                }
+                selector.select();
+                Iterator<SelectionKey> i = selector.selectedKeys().iterator();
+                while (i.hasNext()) {
+                    SelectionKey key = i.next();
+                    i.remove();
+                    if (!key.isValid()) continue;
+                    Handler h = (Handler)key.attachment();
+                    try {
+                        h.onSelected(key);
+                    }
+                    catch (Throwable x) {
+                        key.cancel();
+                        h.onError(x);
+                    }
+                }
+            }
+            catch (Throwable x) {
+                Protocol.log("Unhandled exception in TCF NIO selector thread", x);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * ServerNIO is a TCP server that is listening for incoming connection requests
+ * and creates ChannelNIO communication channels for such requests.
+ *
+ * Unlike ServerTCP, the server does not own a thread, connection requests are accepted
+ * by a shared selector thread.
+ *
+ * Clients may create objects of this class to become a TCF server.
+ * @since 1.8
+ */
+public class ServerNIO {
+
+    private final ServerSocketChannel server;
+    private final SelectorThread io;
+    private ServerPeerList peers;
+
+    private final SelectorThread.Handler handler = new SelectorThread.Handler() {
+
+        public void onSelected(SelectionKey key) throws IOException {
+            for (;;) {
+                final SocketChannel channel = server.accept();
+                if (channel == null) break;
+                Protocol.invokeLater(new Runnable() {
+                    public void run() {
+                        try {
+                            if (peers == null) {
+                                channel.close();
+                                return;
+                            }
+                            Socket socket = channel.socket();
+                            new ChannelNIO(
+                                    peers.getServerPeer(socket.getLocalAddress()),
+                                    peers.getTransientPeer(socket.getInetAddress()),
+                                    channel);
+                        }
+                        catch (final Throwable x) {
+                            Protocol.log("TCF Server: failed to create a channel", x);
+                        }
+                    }
+                });
+            }
+        }
+
+        public void onError(final Throwable x) {
+            if (!server.isOpen()) return;
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    Protocol.log("TCF Server aborted", x);
+                }
+            });
+        }
+    };
+
+    public ServerNIO(String name, int port) throws IOException {
+        server = ServerSocketChannel.open();
+        server.socket().bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        peers = new ServerPeerList(name, getLocalPort());
+        io = SelectorThread.getThread();
+        io.post(new Runnable() {
+            public void run() {
+                try {
+                    io.register(server, SelectionKey.OP_ACCEPT, handler);
+                }
+                catch (Throwable x) {
+                    handler.onError(x);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the port number on which this server is listening.
+     */
+    public int getLocalPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Stop accepting connection requests.
+     * Channels that are already open are not affected.
+     * Must be called from the dispatch thread.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        assert Protocol.isDispatchThread();
+        if (peers != null) {
+            peers.dispose();
+            peers = null;
+        }
+        server.close();
+        io.wakeup();
+    }
+}
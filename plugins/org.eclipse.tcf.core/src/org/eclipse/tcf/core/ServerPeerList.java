@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2008-2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.internal.core.ServiceManager;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * List of peers that represent a TCP server on each local network address.
+ * Shared by ServerTCP and ServerNIO.
+ */
+class ServerPeerList {
+
+    private static class ServerPeer extends AbstractPeer {
+        ServerPeer(Map<String,String> attrs) {
+            super(attrs);
+        }
+    }
+
+    private final String name;
+    private final int port;
+    private List<ServerPeer> peers = new ArrayList<ServerPeer>();
+
+    ServerPeerList(String name, int port) throws IOException {
+        this.name = name;
+        this.port = port;
+        Enumeration<NetworkInterface> e = NetworkInterface.getNetworkInterfaces();
+        while (e.hasMoreElements()) {
+            NetworkInterface f = e.nextElement();
+            Enumeration<InetAddress> n = f.getInetAddresses();
+            while (n.hasMoreElements()) getServerPeer(n.nextElement());
+        }
+    }
+
+    IPeer getServerPeer(InetAddress addr) {
+        if (addr.isAnyLocalAddress()) return getTransientPeer(addr);
+        if (addr.isMulticastAddress()) return getTransientPeer(addr);
+        if (addr.isLinkLocalAddress()) return getTransientPeer(addr);
+        String host = addr.getHostAddress();
+        for (ServerPeer p : peers) {
+            if (host.equals(p.getAttributes().get(IPeer.ATTR_IP_HOST))) return p;
+        }
+        String port = Integer.toString(this.port);
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "TCP:" + host + ":" + port);
+        attrs.put(IPeer.ATTR_SERVICE_MANGER_ID, ServiceManager.getID());
+        attrs.put(IPeer.ATTR_AGENT_ID, Protocol.getAgentID());
+        attrs.put(IPeer.ATTR_NAME, name);
+        attrs.put(IPeer.ATTR_OS_NAME, System.getProperty("os.name"));
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "TCP");
+        attrs.put(IPeer.ATTR_IP_HOST, host);
+        attrs.put(IPeer.ATTR_IP_PORT, port);
+        attrs.put(IPeer.ATTR_PROXY, "");
+        ServerPeer p = new ServerPeer(attrs);
+        peers.add(p);
+        return p;
+    }
+
+    IPeer getTransientPeer(InetAddress addr) {
+        String host = addr.getHostAddress();
+        Map<String,String> attrs = new HashMap<String,String>();
+        attrs.put(IPeer.ATTR_ID, "TCP:Transient:" + host + ":" + port);
+        attrs.put(IPeer.ATTR_TRANSPORT_NAME, "TCP");
+        attrs.put(IPeer.ATTR_IP_HOST, host);
+        return new TransientPeer(attrs);
+    }
+
+    void dispose() {
+        if (peers != null) {
+            for (ServerPeer s : peers) s.dispose();
+            peers = null;
+        }
+    }
+}
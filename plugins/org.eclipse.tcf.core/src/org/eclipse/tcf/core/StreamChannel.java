@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2019 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,13 @@ import org.eclipse.tcf.protocol.IPeer;
  *
  * StreamChannel uses escape sequences to represent End-Of-Message and End-Of-Stream markers.
  *
+ * If isCompressionEnabled() returns true (by default, when system property
+ * "org.eclipse.tcf.core.compression" is true), the channel advertises
+ * "CompressedStream" pseudo-service in its Hello message. When both peers advertise it,
+ * each side sends "ESC 4" marker and then compresses the rest of its output stream,
+ * one block per batch of messages. Compression is below message framing, so it is
+ * transparent to message handling.
+ *
  * Clients can subclass StreamChannel to support particular stream oriented transport (wire) protocol.
  * Also, see ChannelTCP for a concrete IChannel implementation that works on top of TCP sockets as a transport.
  */
@@ -29,11 +36,70 @@ public abstract class StreamChannel extends AbstractChannel {
 
     public static final int ESC = 3;
 
+    private static final boolean COMPRESSION = Boolean.getBoolean("org.eclipse.tcf.core.compression");
+
+    /* Maximal size of uncompressed data in a compressed block */
+    private static final int BLOCK_SIZE = 0x10000;
+    private static final int MAX_BLOCK_SIZE = 0x100000;
+
+    /**
+     * Statistics of compressed output.
+     * @since 1.8
+     */
+    public static final class CompressionStatistics {
+        /** Number of compressed blocks */
+        public final long blocks;
+        /** Number of bytes before compression */
+        public final long raw_bytes;
+        /** Number of bytes after compression, including block headers */
+        public final long compressed_bytes;
+        /** Time spent compressing, in nanoseconds */
+        public final long time;
+
+        CompressionStatistics(long blocks, long raw_bytes, long compressed_bytes, long time) {
+            this.blocks = blocks;
+            this.raw_bytes = raw_bytes;
+            this.compressed_bytes = compressed_bytes;
+            this.time = time;
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer bf = new StringBuffer();
+            bf.append("[blocks=").append(blocks);
+            bf.append(", raw_bytes=").append(raw_bytes);
+            bf.append(", compressed_bytes=").append(compressed_bytes);
+            if (raw_bytes > 0) bf.append(", ratio=").append(compressed_bytes * 100 / raw_bytes).append('%');
+            bf.append(", time_us=").append(time / 1000);
+            bf.append(']');
+            return bf.toString();
+        }
+    }
+
     private int bin_data_size;
 
     private final byte[] esc_buf = new byte[0x1000];
 
-    private final byte[] inp_buf = new byte[0x4000];
+    /* Output compression state, used by the transmitter thread */
+    private volatile boolean out_compress_requested;
+    private LZBlock out_lz;
+    private byte[] out_blk;
+    private int out_blk_len;
+    private byte[] out_zbuf;
+    private final byte[] out_hdr = new byte[10];
+    private volatile CompressionStatistics out_stats = new CompressionStatistics(0, 0, 0, 0);
+
+    /* Input decompression state, used by the receiver thread */
+    private boolean inp_compressed;
+    private byte[] inp_zbuf;
+    private int inp_zbuf_pos;
+    private int inp_zbuf_len;
+    private byte[] inp_raw;
+    private byte[] inp_blk;
+    private int inp_blk_pos;
+    private int inp_blk_len;
+
+    private byte[] inp_buf;
     private int inp_buf_pos;
     private int inp_buf_len;
 
@@ -77,11 +143,216 @@ public abstract class StreamChannel extends AbstractChannel {
         while (pos < end) put(buf[pos++] & 0xff);
     }
 
+    /**
+     * Get statistics of output compression.
+     * @return statistics snapshot, all zeros if compression is not used.
+     * @since 1.8
+     */
+    public CompressionStatistics getCompressionStatistics() {
+        return out_stats;
+    }
+
+    @Override
+    final boolean isBlockInputSupported() {
+        return true;
+    }
+
+    @Override
+    final int readBlock(byte[] buf) throws IOException {
+        for (;;) {
+            int n = input(buf);
+            if (n != 0) return n;
+        }
+    }
+
+    /**
+     * Check if the channel should offer byte stream compression to the remote peer.
+     * The method is called on the dispatch thread before the channel sends its Hello message.
+     * Default implementation returns value of "org.eclipse.tcf.core.compression" system property.
+     * @return true if compression is enabled.
+     * @since 1.8
+     */
+    protected boolean isCompressionEnabled() {
+        return COMPRESSION;
+    }
+
+    @Override
+    final boolean isCompressionSupported() {
+        return isCompressionEnabled();
+    }
+
+    @Override
+    final void onCompressionNegotiated() {
+        out_compress_requested = true;
+    }
+
+    @Override
+    final void onInputCompressionStart(byte[] buf, int pos, int len) throws IOException {
+        if (inp_compressed) throw new IOException("Unexpected compressed stream marker");
+        inp_compressed = true;
+        inp_zbuf = new byte[BLOCK_SIZE + 0x100];
+        inp_raw = new byte[0x4000];
+        inp_blk = new byte[BLOCK_SIZE];
+        if (len > inp_zbuf.length) inp_zbuf = new byte[len];
+        System.arraycopy(buf, pos, inp_zbuf, 0, len);
+        inp_zbuf_len = len;
+    }
+
+    @Override
+    final void flushOutput() throws IOException {
+        if (out_lz != null) writeBlock();
+        flush();
+        if (out_compress_requested && out_lz == null) {
+            /* Everything after the marker is compressed, the marker itself is sent with next batch */
+            esc_buf[0] = ESC;
+            esc_buf[1] = 4;
+            put(esc_buf, 0, 2);
+            out_lz = new LZBlock();
+            out_blk = new byte[BLOCK_SIZE];
+            out_zbuf = new byte[LZBlock.maxCompressedSize(BLOCK_SIZE) + 10];
+        }
+    }
+
+    /**
+     * Read input bytes, decompress them if the input is compressed.
+     * @param buf - buffer to read into
+     * @return number of bytes, or -1 at end of stream
+     * @throws IOException
+     */
+    private int input(byte[] buf) throws IOException {
+        if (!inp_compressed) return get(buf);
+        while (inp_blk_pos >= inp_blk_len) {
+            if (readBlockHeader()) continue;
+            if (inp_zbuf_pos > 0) {
+                System.arraycopy(inp_zbuf, inp_zbuf_pos, inp_zbuf, 0, inp_zbuf_len - inp_zbuf_pos);
+                inp_zbuf_len -= inp_zbuf_pos;
+                inp_zbuf_pos = 0;
+            }
+            int n = get(inp_raw);
+            if (n < 0) return -1;
+            if (inp_zbuf_len + n > inp_zbuf.length) {
+                byte[] tmp = new byte[Math.max(inp_zbuf.length * 2, inp_zbuf_len + n)];
+                System.arraycopy(inp_zbuf, 0, tmp, 0, inp_zbuf_len);
+                inp_zbuf = tmp;
+            }
+            System.arraycopy(inp_raw, 0, inp_zbuf, inp_zbuf_len, n);
+            inp_zbuf_len += n;
+        }
+        int n = inp_blk_len - inp_blk_pos;
+        if (n > buf.length) n = buf.length;
+        System.arraycopy(inp_blk, inp_blk_pos, buf, 0, n);
+        inp_blk_pos += n;
+        return n;
+    }
+
+    /**
+     * Decode next compressed block if it is entirely in the input buffer.
+     * Block layout: uncompressed size, compressed size (0 if the block is stored as is), data.
+     * Sizes are encoded same way as binary data size of "ESC 3" sequence.
+     * @return true if a block was decoded.
+     * @throws IOException
+     */
+    private boolean readBlockHeader() throws IOException {
+        int pos = inp_zbuf_pos;
+        int raw_size = 0;
+        int z_size = 0;
+        for (int k = 0; k < 2; k++) {
+            int v = 0;
+            for (int i = 0;; i += 7) {
+                if (pos >= inp_zbuf_len) return false;
+                if (i > 28) throw new IOException("Invalid compressed block header");
+                int m = inp_zbuf[pos++] & 0xff;
+                v |= (m & 0x7f) << i;
+                if ((m & 0x80) == 0) break;
+            }
+            if (k == 0) raw_size = v;
+            else z_size = v;
+        }
+        if (raw_size <= 0 || raw_size > MAX_BLOCK_SIZE || z_size < 0 || z_size > LZBlock.maxCompressedSize(raw_size)) {
+            throw new IOException("Invalid compressed block header");
+        }
+        int data_size = z_size == 0 ? raw_size : z_size;
+        if (inp_zbuf_len - pos < data_size) {
+            if (pos + data_size > inp_zbuf.length) {
+                byte[] tmp = new byte[pos + data_size];
+                System.arraycopy(inp_zbuf, 0, tmp, 0, inp_zbuf_len);
+                inp_zbuf = tmp;
+            }
+            return false;
+        }
+        if (raw_size > inp_blk.length) inp_blk = new byte[raw_size];
+        if (z_size == 0) System.arraycopy(inp_zbuf, pos, inp_blk, 0, raw_size);
+        else LZBlock.decompress(inp_zbuf, pos, z_size, inp_blk, raw_size);
+        inp_zbuf_pos = pos + data_size;
+        inp_blk_pos = 0;
+        inp_blk_len = raw_size;
+        return true;
+    }
+
+    private static int writeSize(byte[] buf, int pos, int n) {
+        for (;;) {
+            if (n <= 0x7f) {
+                buf[pos++] = (byte)n;
+                return pos;
+            }
+            buf[pos++] = (byte)((n & 0x7f) | 0x80);
+            n = n >> 7;
+        }
+    }
+
+    /**
+     * Compress and send pending output block.
+     * @throws IOException
+     */
+    private void writeBlock() throws IOException {
+        if (out_blk_len == 0) return;
+        long time = System.nanoTime();
+        int z_size = out_lz.compress(out_blk, 0, out_blk_len, out_zbuf);
+        byte[] hdr = out_hdr;
+        int hdr_len = writeSize(hdr, 0, out_blk_len);
+        if (z_size >= out_blk_len) {
+            /* Data does not compress, send it as is */
+            hdr_len = writeSize(hdr, hdr_len, 0);
+            put(hdr, 0, hdr_len);
+            put(out_blk, 0, out_blk_len);
+            z_size = out_blk_len;
+        }
+        else {
+            hdr_len = writeSize(hdr, hdr_len, z_size);
+            put(hdr, 0, hdr_len);
+            put(out_zbuf, 0, z_size);
+        }
+        CompressionStatistics s = out_stats;
+        out_stats = new CompressionStatistics(s.blocks + 1, s.raw_bytes + out_blk_len,
+                s.compressed_bytes + hdr_len + z_size, s.time + System.nanoTime() - time);
+        out_blk_len = 0;
+    }
+
+    /**
+     * Write output bytes, collect them into a block if the output is compressed.
+     */
+    private void output(byte[] buf, int pos, int len) throws IOException {
+        if (out_lz == null) {
+            put(buf, pos, len);
+            return;
+        }
+        while (len > 0) {
+            if (out_blk_len >= BLOCK_SIZE) writeBlock();
+            int n = BLOCK_SIZE - out_blk_len;
+            if (n > len) n = len;
+            System.arraycopy(buf, pos, out_blk, out_blk_len, n);
+            out_blk_len += n;
+            pos += n;
+            len -= n;
+        }
+    }
+
     @Override
     protected final int read() throws IOException {
+        if (inp_buf == null) inp_buf = new byte[0x4000];
         for (;;) {
             while (inp_buf_pos >= inp_buf_len) {
-                inp_buf_len = get(inp_buf);
+                inp_buf_len = input(inp_buf);
                 inp_buf_pos = 0;
                 if (inp_buf_len < 0) return EOS;
             }
@@ -92,7 +363,7 @@ public abstract class StreamChannel extends AbstractChannel {
             }
             if (res != ESC) return res;
             while (inp_buf_pos >= inp_buf_len) {
-                inp_buf_len = get(inp_buf);
+                inp_buf_len = input(inp_buf);
                 inp_buf_pos = 0;
                 if (inp_buf_len < 0) return EOS;
             }
@@ -104,7 +375,7 @@ public abstract class StreamChannel extends AbstractChannel {
             case 3:
                 for (int i = 0;; i += 7) {
                     while (inp_buf_pos >= inp_buf_len) {
-                        inp_buf_len = get(inp_buf);
+                        inp_buf_len = input(inp_buf);
                         inp_buf_pos = 0;
                         if (inp_buf_len < 0) return EOS;
                     }
@@ -113,6 +384,10 @@ public abstract class StreamChannel extends AbstractChannel {
                     if ((m & 0x80) == 0) break;
                 }
                 break;
+            case 4:
+                onInputCompressionStart(inp_buf, inp_buf_pos, inp_buf_len - inp_buf_pos);
+                inp_buf_pos = inp_buf_len = 0;
+                break;
             default:
                 throw new IOException("Invalid escape sequence: " + ESC + " " + n);
             }
@@ -125,21 +400,27 @@ public abstract class StreamChannel extends AbstractChannel {
         case ESC:
             esc_buf[0] = ESC;
             esc_buf[1] = 0;
-            put(esc_buf, 0, 2);
+            output(esc_buf, 0, 2);
             break;
         case EOM:
             esc_buf[0] = ESC;
             esc_buf[1] = 1;
-            put(esc_buf, 0, 2);
+            output(esc_buf, 0, 2);
             break;
         case EOS:
             esc_buf[0] = ESC;
             esc_buf[1] = 2;
-            put(esc_buf, 0, 2);
+            output(esc_buf, 0, 2);
             break;
         default:
             assert n >= 0 && n <= 0xff;
-            put(n);
+            if (out_lz == null) {
+                put(n);
+            }
+            else {
+                esc_buf[0] = (byte)n;
+                output(esc_buf, 0, 1);
+            }
             break;
         }
     }
@@ -164,22 +445,22 @@ public abstract class StreamChannel extends AbstractChannel {
                 esc_buf[esc_buf_pos++] = (byte)((n & 0x7f) | 0x80);
                 n = n >> 7;
             }
-            put(esc_buf, 0, esc_buf_pos);
-            put(buf, pos, len);
+            output(esc_buf, 0, esc_buf_pos);
+            output(buf, pos, len);
         }
         else {
             int esc_buf_pos = 0;
             int end = pos + len;
             for (int i = pos; i < end; i++) {
                 if (esc_buf_pos + 2 > esc_buf.length) {
-                    put(esc_buf, 0, esc_buf_pos);
+                    output(esc_buf, 0, esc_buf_pos);
                     esc_buf_pos = 0;
                 }
                 byte b = buf[i];
                 esc_buf[esc_buf_pos++] = b;
                 if (b == ESC) esc_buf[esc_buf_pos++] = 0;
             }
-            put(esc_buf, 0, esc_buf_pos);
+            output(esc_buf, 0, esc_buf_pos);
         }
     }
 }
@@ -55,6 +55,30 @@ public class ChannelLoop extends StreamChannel {
         }
     }
 
+    @Override
+    protected synchronized int get(byte[] b) throws IOException {
+        try {
+            while (buf_inp == buf_out) {
+                if (closed) return -1;
+                waiting = true;
+                wait();
+            }
+            int n = 0;
+            while (n < b.length && buf_inp != buf_out) {
+                b[n++] = buf[buf_out];
+                buf_out = (buf_out + 1) % buf.length;
+            }
+            if (waiting) {
+                waiting = false;
+                notifyAll();
+            }
+            return n;
+        }
+        catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
     @Override
     protected synchronized void put(int b) throws IOException {
         assert b >=0  && b <= 0xff;
@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+import org.eclipse.tcf.protocol.ITimer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Hierarchical timing wheel that dispatches delayed TCF events.
+ *
+ * The wheel has LEVELS levels of SLOTS slots each, slot of level N spans SLOTS^N ticks.
+ * A timer is put into the lowest level that covers its deadline, and timers of a higher level
+ * slot are cascaded down when the wheel reaches the slot. Both scheduling and canceling
+ * a timer is O(1): slots are intrusive doubly linked lists.
+ *
+ * All timers that expire during one wake up of the timer thread are posted to the
+ * dispatch thread as a single event.
+ */
+public final class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /** Tick length in nanoseconds */
+    private static final long TICK = Long.getLong("org.eclipse.tcf.core.timer.tick", 1) * 1000000;
+
+    private static final class Timer implements ITimer {
+
+        final long tick;
+        final long seq;
+        Runnable run;
+        Timer prev;
+        Timer next;
+        int level = -1;
+        int slot;
+
+        Timer(long tick, long seq, Runnable run) {
+            this.tick = tick;
+            this.seq = seq;
+            this.run = run;
+        }
+
+        public boolean cancel() {
+            return cancelTimer(this);
+        }
+    }
+
+    private static final Comparator<Timer> timer_order = new Comparator<Timer>() {
+        public int compare(Timer x, Timer y) {
+            if (x.tick < y.tick) return -1;
+            if (x.tick > y.tick) return +1;
+            if (x.seq < y.seq) return -1;
+            if (x.seq > y.seq) return +1;
+            return 0;
+        }
+    };
+
+    private static final Object lock = new Object();
+    private static final long origin = System.nanoTime();
+
+    /* Slot list heads, wheel[level][slot] */
+    private static final Timer[][] wheel = new Timer[LEVELS][SLOTS];
+    /* Slot list tails */
+    private static final Timer[][] tails = new Timer[LEVELS][SLOTS];
+
+    /* Last processed tick */
+    private static long current_tick = -1;
+    /* Tick at which the timer thread is going to wake up, Long.MAX_VALUE if waiting for a new timer */
+    private static long wake_tick = Long.MAX_VALUE;
+    private static long timer_seq;
+    private static int timer_cnt;
+
+    private static final ArrayList<Timer> expired = new ArrayList<Timer>();
+
+    private static final Thread thread = new Thread() {
+        public void run() {
+            try {
+                for (;;) {
+                    Timer[] batch = null;
+                    synchronized (lock) {
+                        long now = currentTick();
+                        if (timer_cnt == 0) {
+                            current_tick = now;
+                        }
+                        else {
+                            while (current_tick < now) step();
+                        }
+                        if (expired.size() > 0) {
+                            batch = expired.toArray(new Timer[expired.size()]);
+                            expired.clear();
+                        }
+                        else {
+                            wake_tick = timer_cnt == 0 ? Long.MAX_VALUE : nextTick();
+                            if (wake_tick == Long.MAX_VALUE) {
+                                lock.wait();
+                            }
+                            else {
+                                long ns = wake_tick * TICK - (System.nanoTime() - origin);
+                                if (ns > 0) lock.wait(ns / 1000000, (int)(ns % 1000000));
+                            }
+                            wake_tick = Long.MAX_VALUE;
+                        }
+                    }
+                    if (batch != null) dispatch(batch);
+                }
+            }
+            catch (IllegalStateException x) {
+                // Dispatch is shut down, exit this thread
+            }
+            catch (Throwable x) {
+                Protocol.log("Exception in TCF timer dispatch loop", x);
+            }
+        }
+    };
+
+    private TimerWheel() {
+    }
+
+    /**
+     * Start the timer thread.
+     */
+    public static void start() {
+        thread.setName("TCF Timer Dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Schedule a delayed event.
+     * This method can be invoked from any thread.
+     * @param delay - delay in milliseconds.
+     * @param run - the event.
+     * @return timer handle.
+     */
+    public static ITimer schedule(long delay, Runnable run) {
+        assert run != null;
+        long deadline = System.nanoTime() - origin + delay * 1000000;
+        long tick = (deadline + TICK - 1) / TICK;
+        synchronized (lock) {
+            Timer t = new Timer(tick, timer_seq++, run);
+            /* The wheel is empty, the timer thread might not have advanced it for a while */
+            if (timer_cnt++ == 0) current_tick = currentTick();
+            insert(t, current_tick + 1);
+            if (tick < wake_tick) lock.notify();
+            return t;
+        }
+    }
+
+    private static long currentTick() {
+        return (System.nanoTime() - origin) / TICK;
+    }
+
+    private static void link(Timer t, int level, int slot) {
+        Timer tail = tails[level][slot];
+        t.level = level;
+        t.slot = slot;
+        t.prev = tail;
+        t.next = null;
+        if (tail == null) wheel[level][slot] = t;
+        else tail.next = t;
+        tails[level][slot] = t;
+    }
+
+    private static void unlink(Timer t) {
+        if (t.prev == null) wheel[t.level][t.slot] = t.next;
+        else t.prev.next = t.next;
+        if (t.next == null) tails[t.level][t.slot] = t.prev;
+        else t.next.prev = t.prev;
+        t.level = -1;
+        t.prev = null;
+        t.next = null;
+    }
+
+    /**
+     * Put a timer into the wheel.
+     * @param t - the timer.
+     * @param base - next tick to be processed.
+     */
+    private static void insert(Timer t, long base) {
+        long tick = t.tick;
+        if (tick < base) {
+            /* Already expired: process on next tick */
+            tick = base;
+        }
+        long delta = tick - base;
+        if (delta > MAX_DELTA) {
+            tick = base + MAX_DELTA;
+            delta = MAX_DELTA;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) level++;
+        link(t, level, (int)(tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static void cascade(int level, int slot) {
+        Timer t = wheel[level][slot];
+        wheel[level][slot] = null;
+        tails[level][slot] = null;
+        while (t != null) {
+            Timer n = t.next;
+            t.level = -1;
+            t.prev = null;
+            t.next = null;
+            insert(t, current_tick);
+            t = n;
+        }
+    }
+
+    /**
+     * Advance the wheel by one tick, move expired timers into 'expired' list.
+     */
+    private static void step() {
+        long tick = ++current_tick;
+        int slot = (int)tick & SLOT_MASK;
+        for (int level = 1; level < LEVELS; level++) {
+            if (((tick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) != 0) break;
+            cascade(level, (int)(tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        Timer t = wheel[0][slot];
+        if (t == null) return;
+        wheel[0][slot] = null;
+        tails[0][slot] = null;
+        int n = expired.size();
+        while (t != null) {
+            Timer next = t.next;
+            t.level = -1;
+            t.prev = null;
+            t.next = null;
+            expired.add(t);
+            timer_cnt--;
+            t = next;
+        }
+        /* Timers cascaded from different levels can be out of order */
+        if (expired.size() - n > 1) Collections.sort(expired.subList(n, expired.size()), timer_order);
+    }
+
+    /**
+     * @return lower bound of the tick when the wheel has work to do: expire or cascade timers.
+     */
+    private static long nextTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long pos = (current_tick >>> shift) + 1;
+            for (int i = 0; i < SLOTS; i++, pos++) {
+                if (wheel[level][(int)pos & SLOT_MASK] != null) {
+                    long tick = pos << shift;
+                    if (tick < next) next = tick;
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    private static boolean cancelTimer(Timer t) {
+        synchronized (lock) {
+            if (t.run == null) return false;
+            t.run = null;
+            if (t.level >= 0) {
+                unlink(t);
+                timer_cnt--;
+            }
+            return true;
+        }
+    }
+
+    private static void dispatch(final Timer[] batch) {
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                for (Timer t : batch) {
+                    Runnable r;
+                    synchronized (lock) {
+                        r = t.run;
+                        t.run = null;
+                    }
+                    if (r == null) continue;
+                    try {
+                        r.run();
+                    }
+                    catch (Throwable x) {
+                        Protocol.log("Unhandled exception in TCF event dispatch", x);
+                    }
+                }
+            }
+        });
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Set;
 import org.eclipse.tcf.core.AbstractChannel;
 import org.eclipse.tcf.core.ChannelHTTP;
 import org.eclipse.tcf.core.ChannelMQTT;
+import org.eclipse.tcf.core.ChannelNIO;
 import org.eclipse.tcf.core.ChannelPIPE;
 import org.eclipse.tcf.core.ChannelTCP;
 import org.eclipse.tcf.protocol.IChannel;
@@ -55,6 +56,11 @@ public class TransportManager {
      */
     private static final HashMap<String, ITransportProvider> transports = new HashMap<String, ITransportProvider>();
 
+    /**
+     * Use non-blocking ChannelNIO instead of ChannelTCP for TCP connections
+     */
+    private static final boolean USE_NIO = Boolean.getBoolean("org.eclipse.tcf.core.nio");
+
     static {
         addTransportProvider(new ITransportProvider() {
 
@@ -68,6 +74,7 @@ public class TransportManager {
                 String host = attrs.get(IPeer.ATTR_IP_HOST);
                 String port = attrs.get(IPeer.ATTR_IP_PORT);
                 if (host == null) throw new IllegalArgumentException("No host name");
+                if (USE_NIO) return new ChannelNIO(peer, host, parsePort(port));
                 return new ChannelTCP(peer, host, parsePort(port), false);
             }
         });
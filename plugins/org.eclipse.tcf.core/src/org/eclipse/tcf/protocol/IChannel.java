@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -125,6 +125,51 @@ public interface IChannel {
      */
     int getCongestion();
 
+    /**
+     * Get current size of outstanding command window of a remote service.
+     * The window is the number of commands a client should keep in flight
+     * to utilize the link without flooding it. The channel tunes the size
+     * using measured round trip times of the service commands, so it grows
+     * on high latency links and stays small on fast local ones.
+     * Clients that send long sequences of commands, like file or memory transfers,
+     * should use the window instead of a fixed limit of pending commands.
+     *
+     * @param service - remote service proxy
+     * @return number of commands
+     * @since 1.8
+     */
+    int getCommandWindow(IService service);
+
+    /**
+     * Get number of commands of a remote service that are sent but not answered yet.
+     * The count includes commands sent by all clients of the channel.
+     *
+     * @param service - remote service proxy
+     * @return number of pending commands
+     * @since 1.8
+     */
+    int getPendingCommandCount(IService service);
+
+    /**
+     * Check if the service command window allows to send a command.
+     * If the window is full, 'done' is invoked later, when a command of the service is done
+     * and the window has room again, or when the channel is closed.
+     * Registering same call-back more than once has no effect.
+     *
+     * Typical usage:
+     * <pre>
+     *     while (more_data && channel.waitForCommandWindow(service, this)) {
+     *         ... send next command ...
+     *     }
+     * </pre>
+     *
+     * @param service - remote service proxy
+     * @param done - call-back to invoke when the window is available
+     * @return true if a command can be sent now, false if 'done' will be invoked later.
+     * @since 1.8
+     */
+    boolean waitForCommandWindow(IService service, Runnable done);
+
     /**
      * Channel listener interface.
      */
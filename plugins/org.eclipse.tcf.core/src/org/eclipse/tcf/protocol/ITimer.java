@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.protocol;
+
+/**
+ * ITimer is a handle of a delayed event created by Protocol.schedule().
+ * It is used to cancel the event before it is dispatched.
+ *
+ * @noextend This interface is not intended to be extended by clients.
+ * @noimplement This interface is not intended to be implemented by clients.
+ * @since 1.8
+ */
+public interface ITimer {
+
+    /**
+     * Try to cancel the delayed event. The event can be canceled by this method
+     * only if it was not dispatched yet. Successfully canceled event is not dispatched.
+     *
+     * This method can be invoked from any thread.
+     *
+     * @return true if successful.
+     */
+    boolean cancel();
+}
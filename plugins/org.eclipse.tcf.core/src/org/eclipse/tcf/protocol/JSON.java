@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2018 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -74,6 +74,7 @@ public final class JSON {
 
     private static byte[] inp;
     private static int inp_pos;
+    private static int inp_end;
     private static int cur_ch;
 
     // This buffer is used to create nice error reports
@@ -131,7 +132,7 @@ public final class JSON {
     }
 
     private static int readUTF8Char() {
-        if (inp_pos >= inp.length) return -1;
+        if (inp_pos >= inp_end) return -1;
         int ch = inp[inp_pos++];
         if (ch < 0) {
             int n = 0;
@@ -156,7 +157,7 @@ public final class JSON {
                 n = 5;
             }
             while (n > 0) {
-                if (inp_pos >= inp.length || (inp[inp_pos] & 0xc0) != 0x80) break;
+                if (inp_pos >= inp_end || (inp[inp_pos] & 0xc0) != 0x80) break;
                 ch = (ch << 6) | (inp[inp_pos++] & 0x3f);
                 n--;
             }
@@ -280,6 +281,7 @@ public final class JSON {
                 read();
             }
             if (cur_ch != ')') error();
+            if (len > inp_end - inp_pos) error();
             byte[] res = new byte[len];
             System.arraycopy(inp, inp_pos, res, 0, len);
             inp_pos += len;
@@ -344,7 +346,7 @@ public final class JSON {
                 else {
                     tmp_buf[tmp_buf_pos++] = (char)cur_ch;
                 }
-                if (inp_pos >= inp.length || inp[inp_pos] < 0) {
+                if (inp_pos >= inp_end || inp[inp_pos] < 0) {
                     cur_ch = readUTF8Char();
                 }
                 else {
@@ -757,6 +759,7 @@ public final class JSON {
         if (b.length == 0) return null;
         inp = b;
         inp_pos = 0;
+        inp_end = b.length;
         err_buf_pos = 0;
         err_buf_cnt = 0;
         read();
@@ -774,10 +777,25 @@ public final class JSON {
      * @throws IOException
      */
     public static Object[] parseSequence(byte[] b) throws IOException {
-        assert Protocol.isDispatchThread();
         if (b == null) return new Object[0];
+        return parseSequence(b, 0, b.length);
+    }
+
+    /**
+     * Convert a slice of byte array that contains sequence of zero terminated UTF-8 encoded JSON string
+     * to array of Java objects. The slice is parsed in place, it is not copied.
+     * @param b - array of bytes
+     * @param offs - offset of the sequence in the array
+     * @param size - size of the sequence in bytes
+     * @return array of Java objects that represents data in the sequence of JSON strings
+     * @throws IOException
+     * @since 1.8
+     */
+    public static Object[] parseSequence(byte[] b, int offs, int size) throws IOException {
+        assert Protocol.isDispatchThread();
         inp = b;
-        inp_pos = 0;
+        inp_pos = offs;
+        inp_end = offs + size;
         err_buf_pos = 0;
         err_buf_cnt = 0;
         read();
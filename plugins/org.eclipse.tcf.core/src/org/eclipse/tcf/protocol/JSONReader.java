@@ -0,0 +1,764 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.protocol;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.core.Base64;
+
+/**
+ * JSONReader is a pull parser for TCF JSON messages: a sequence of zero terminated UTF-8 encoded JSON values,
+ * including "zero copy" binary blocks.
+ *
+ * Unlike static methods of JSON class, a reader keeps all its state in the instance, so it can be used
+ * by any thread, for example, a channel receiver thread. A reader is not thread safe, each thread must use its own instance.
+ *
+ * Values can be read one token at a time, so large arrays can be walked without creating
+ * List and Map objects for every element. Numbers can be read as primitive int or long values.
+ * nextValue() creates same objects as JSON.parseSequence().
+ *
+ * Example:
+ * <pre>
+ * JSONReader r = new JSONReader(data, 0, data.length);
+ * r.beginArray();
+ * while (r.hasNext()) ids.add(r.nextString());
+ * r.endArray();
+ * r.nextSeparator();
+ * </pre>
+ * @since 1.8
+ */
+public final class JSONReader {
+
+    /** Token types returned by peek() */
+    public static final int
+        NULL = 0,
+        BOOLEAN = 1,
+        NUMBER = 2,
+        STRING = 3,
+        BINARY = 4,
+        BEGIN_ARRAY = 5,
+        END_ARRAY = 6,
+        BEGIN_OBJECT = 7,
+        END_OBJECT = 8,
+        SEPARATOR = 9,
+        END_OF_INPUT = 10;
+
+    private static final int
+        SCOPE_VALUE = 0,
+        SCOPE_ARRAY = 1,
+        SCOPE_OBJECT = 2;
+
+    private byte[] inp;
+    private int pos;
+    private int end;
+
+    /* Nesting stack: scope type and number of values read in the scope */
+    private int[] scope = new int[32];
+    private int[] count = new int[32];
+    private int depth;
+
+    private char[] str_buf = new char[0x100];
+
+    public JSONReader() {
+        this(new byte[0], 0, 0);
+    }
+
+    public JSONReader(byte[] b, int offs, int size) {
+        reset(b, offs, size);
+    }
+
+    /**
+     * Start reading a new input. Allows to reuse the reader.
+     * @param b - array of bytes
+     * @param offs - offset of the input in the array
+     * @param size - size of the input in bytes
+     */
+    public void reset(byte[] b, int offs, int size) {
+        inp = b;
+        pos = offs;
+        end = offs + size;
+        depth = 0;
+        scope[0] = SCOPE_VALUE;
+        count[0] = 0;
+    }
+
+    /**
+     * @return offset of next unread byte.
+     */
+    public int getPosition() {
+        return pos;
+    }
+
+    private IOException error(String msg) {
+        StringBuffer bf = new StringBuffer();
+        bf.append("JSON ");
+        bf.append(msg);
+        bf.append(" at offset ");
+        bf.append(pos);
+        int s = Math.max(0, pos - 40);
+        int e = Math.min(end, pos + 20);
+        bf.append(": ");
+        for (int i = s; i < e; i++) {
+            int ch = inp[i] & 0xff;
+            if (i == pos) bf.append(" >>> ");
+            bf.append(ch < ' ' || ch >= 0x7f ? '.' : (char)ch);
+        }
+        return new IOException(bf.toString());
+    }
+
+    private void skipWS() {
+        while (pos < end) {
+            switch (inp[pos]) {
+            case '\r':
+            case '\n':
+            case '\t':
+            case ' ':
+                pos++;
+                break;
+            default:
+                return;
+            }
+        }
+    }
+
+    /**
+     * Skip a comma or a colon that is expected before next value in current scope.
+     */
+    private void beforeValue() throws IOException {
+        skipWS();
+        switch (scope[depth]) {
+        case SCOPE_ARRAY:
+            if (count[depth] > 0) {
+                if (pos >= end || inp[pos] != ',') throw error("syntax error, ',' expected");
+                pos++;
+                skipWS();
+            }
+            break;
+        case SCOPE_OBJECT:
+            if ((count[depth] & 1) != 0) {
+                if (pos >= end || inp[pos] != ':') throw error("syntax error, ':' expected");
+                pos++;
+                skipWS();
+            }
+            else if (count[depth] > 0) {
+                if (pos >= end || inp[pos] != ',') throw error("syntax error, ',' expected");
+                pos++;
+                skipWS();
+            }
+            break;
+        default:
+            if (count[depth] > 0) throw error("missing \\0 terminator");
+            break;
+        }
+    }
+
+    private void afterValue() {
+        count[depth]++;
+    }
+
+    /**
+     * Get type of next token without consuming it.
+     * @return token type.
+     * @throws IOException
+     */
+    public int peek() throws IOException {
+        skipWS();
+        if (pos >= end) return END_OF_INPUT;
+        int ch = inp[pos];
+        if (ch == ']' && scope[depth] == SCOPE_ARRAY) return END_ARRAY;
+        if (ch == '}' && scope[depth] == SCOPE_OBJECT) return END_OBJECT;
+        if (ch == 0 && depth == 0) return SEPARATOR;
+        int p = pos;
+        beforeValue();
+        int type = peekValue();
+        pos = p;
+        return type;
+    }
+
+    private int peekValue() throws IOException {
+        if (pos >= end) throw error("unexpected end of input");
+        switch (inp[pos]) {
+        case 0:
+            return depth == 0 ? SEPARATOR : NULL;
+        case 'n':
+            return NULL;
+        case 't':
+        case 'f':
+            return BOOLEAN;
+        case '"':
+            return STRING;
+        case '(':
+            return BINARY;
+        case '[':
+            return BEGIN_ARRAY;
+        case '{':
+            return BEGIN_OBJECT;
+        case ']':
+            return END_ARRAY;
+        case '}':
+            return END_OBJECT;
+        default:
+            return NUMBER;
+        }
+    }
+
+    /**
+     * @return true if current array or object has more elements.
+     * @throws IOException
+     */
+    public boolean hasNext() throws IOException {
+        int t = peek();
+        return t != END_ARRAY && t != END_OBJECT && t != SEPARATOR && t != END_OF_INPUT;
+    }
+
+    private void push(int s) {
+        if (++depth >= scope.length) {
+            int[] s1 = new int[scope.length * 2];
+            int[] c1 = new int[scope.length * 2];
+            System.arraycopy(scope, 0, s1, 0, scope.length);
+            System.arraycopy(count, 0, c1, 0, scope.length);
+            scope = s1;
+            count = c1;
+        }
+        scope[depth] = s;
+        count[depth] = 0;
+    }
+
+    public void beginArray() throws IOException {
+        beforeValue();
+        if (pos >= end || inp[pos] != '[') throw error("syntax error, '[' expected");
+        pos++;
+        push(SCOPE_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        closeArray();
+        afterValue();
+    }
+
+    private void closeArray() throws IOException {
+        skipWS();
+        if (scope[depth] != SCOPE_ARRAY || pos >= end || inp[pos] != ']') throw error("syntax error, ']' expected");
+        pos++;
+        depth--;
+    }
+
+    public void beginObject() throws IOException {
+        beforeValue();
+        if (pos >= end || inp[pos] != '{') throw error("syntax error, '{' expected");
+        pos++;
+        push(SCOPE_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        closeObject();
+        afterValue();
+    }
+
+    private void closeObject() throws IOException {
+        skipWS();
+        if (scope[depth] != SCOPE_OBJECT || (count[depth] & 1) != 0 ||
+                pos >= end || inp[pos] != '}') throw error("syntax error, '}' expected");
+        pos++;
+        depth--;
+    }
+
+    /**
+     * Read name of next object property.
+     * @return property name.
+     * @throws IOException
+     */
+    public String nextName() throws IOException {
+        if (scope[depth] != SCOPE_OBJECT || (count[depth] & 1) != 0) throw error("unexpected property name");
+        return nextString();
+    }
+
+    /**
+     * Consume zero terminator that follows each value in a message.
+     * @throws IOException
+     */
+    public void nextSeparator() throws IOException {
+        skipWS();
+        if (depth != 0 || pos >= end || inp[pos] != 0) throw error("missing \\0 terminator");
+        pos++;
+        count[0] = 0;
+    }
+
+    public void nextNull() throws IOException {
+        beforeValue();
+        if (pos < end && inp[pos] == 0 && depth == 0) {
+            /* Empty value in a sequence */
+            afterValue();
+            return;
+        }
+        expect("null");
+        afterValue();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        beforeValue();
+        boolean res;
+        if (pos < end && inp[pos] == 't') {
+            expect("true");
+            res = true;
+        }
+        else {
+            expect("false");
+            res = false;
+        }
+        afterValue();
+        return res;
+    }
+
+    private void expect(String s) throws IOException {
+        int l = s.length();
+        if (end - pos < l) throw error("syntax error");
+        for (int i = 0; i < l; i++) {
+            if (inp[pos + i] != s.charAt(i)) throw error("syntax error");
+        }
+        pos += l;
+    }
+
+    /**
+     * Read an integer number.
+     * @return the number.
+     * @throws IOException if the value is not a number or it does not fit into int.
+     */
+    public int nextInt() throws IOException {
+        long n = nextLong();
+        if (n < Integer.MIN_VALUE || n > Integer.MAX_VALUE) throw error("number out of range");
+        return (int)n;
+    }
+
+    /**
+     * Read an integer number.
+     * @return the number.
+     * @throws IOException if the value is not a number or it does not fit into long.
+     */
+    public long nextLong() throws IOException {
+        beforeValue();
+        int p = pos;
+        boolean neg = p < end && inp[p] == '-';
+        if (neg) p++;
+        if (p >= end || inp[p] < '0' || inp[p] > '9') throw error("syntax error, number expected");
+        long v = 0;
+        while (p < end && inp[p] >= '0' && inp[p] <= '9') {
+            if (v > (Long.MAX_VALUE - 9) / 10) throw error("number out of range");
+            v = v * 10 + (inp[p++] - '0');
+        }
+        if (p < end && (inp[p] == '.' || inp[p] == 'e' || inp[p] == 'E')) {
+            throw error("integer number expected");
+        }
+        pos = p;
+        afterValue();
+        return neg ? -v : v;
+    }
+
+    /**
+     * Read a number. Same as JSON class, the method returns Integer or Long if the number is an integer
+     * that fits into the type, BigInteger for larger integer numbers and BigDecimal for other numbers.
+     * @return the number.
+     * @throws IOException
+     */
+    public Number nextNumber() throws IOException {
+        beforeValue();
+        Number n = readNumber();
+        afterValue();
+        return n;
+    }
+
+    private Number readNumber() throws IOException {
+        int p = pos;
+        if (p < end && inp[p] == 'N') {
+            expect("NaN");
+            return Float.NaN;
+        }
+        boolean neg = p < end && inp[p] == '-';
+        if (neg) p++;
+        int s = p;
+        if (p >= end || inp[p] < '0' || inp[p] > '9') throw error("syntax error");
+        long v = 0;
+        boolean big = false;
+        while (p < end && inp[p] >= '0' && inp[p] <= '9') {
+            if (v >= 0x7fffffffffffffffl / 10 - 1) big = true;
+            else v = v * 10 + (inp[p] - '0');
+            p++;
+        }
+        boolean flt = p < end && (inp[p] == '.' || inp[p] == 'e' || inp[p] == 'E');
+        if (!big && !flt) {
+            pos = p;
+            /* Same number types as JSON.parseSequence() */
+            boolean int_range = v / 10 <= 0x7fffffff / 10 - 1;
+            if (neg) v = -v;
+            if (int_range) return Integer.valueOf((int)v);
+            return Long.valueOf(v);
+        }
+        BigInteger val = new BigInteger(new String(inp, s, p - s, "ISO-8859-1"));
+        if (!flt) {
+            pos = p;
+            return neg ? val.negate() : val;
+        }
+        int fraction = 0;
+        int scale = 0;
+        if (inp[p] == '.') {
+            p++;
+            int f = p;
+            while (p < end && inp[p] >= '0' && inp[p] <= '9') p++;
+            fraction = p - f;
+            if (fraction > 0) {
+                val = val.multiply(BigInteger.TEN.pow(fraction)).add(new BigInteger(new String(inp, f, fraction, "ISO-8859-1")));
+            }
+        }
+        if (p < end && (inp[p] == 'e' || inp[p] == 'E')) {
+            p++;
+            boolean eneg = p < end && inp[p] == '-';
+            if (p < end && (eneg || inp[p] == '+')) p++;
+            while (p < end && inp[p] >= '0' && inp[p] <= '9') scale = scale * 10 + (inp[p++] - '0');
+            if (eneg) scale = -scale;
+        }
+        pos = p;
+        if (neg) val = val.negate();
+        return new BigDecimal(val, fraction - scale);
+    }
+
+    /**
+     * Read a string.
+     * @return the string.
+     * @throws IOException
+     */
+    public String nextString() throws IOException {
+        beforeValue();
+        String s = readString();
+        afterValue();
+        return s;
+    }
+
+    private void putChar(int n, int ch) {
+        if (n >= str_buf.length) {
+            char[] tmp = new char[str_buf.length * 2];
+            System.arraycopy(str_buf, 0, tmp, 0, n);
+            str_buf = tmp;
+        }
+        str_buf[n] = (char)ch;
+    }
+
+    private String readString() throws IOException {
+        if (pos >= end || inp[pos] != '"') throw error("syntax error, string expected");
+        int p = pos + 1;
+        /* Fast path: ASCII string without escapes */
+        int s = p;
+        while (p < end) {
+            int ch = inp[p];
+            if (ch == '"') {
+                pos = p + 1;
+                return new String(inp, s, p - s, "ISO-8859-1");
+            }
+            if (ch < 0 || ch == '\\') break;
+            p++;
+        }
+        int n = p - s;
+        if (n > str_buf.length) str_buf = new char[n * 2];
+        for (int i = 0; i < n; i++) str_buf[i] = (char)inp[s + i];
+        for (;;) {
+            if (p >= end) throw error("unterminated string");
+            int ch = inp[p++];
+            if (ch == '"') break;
+            if (ch == '\\') {
+                if (p >= end) throw error("unterminated string");
+                ch = inp[p++];
+                switch (ch) {
+                case '"':
+                case '\\':
+                case '/':
+                    break;
+                case 'b':
+                    ch = '\b';
+                    break;
+                case 'f':
+                    ch = '\f';
+                    break;
+                case 'n':
+                    ch = '\n';
+                    break;
+                case 'r':
+                    ch = '\r';
+                    break;
+                case 't':
+                    ch = '\t';
+                    break;
+                case 'u':
+                    if (end - p < 4) throw error("unterminated string");
+                    ch = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int d = inp[p++];
+                        if (d >= '0' && d <= '9') d -= '0';
+                        else if (d >= 'A' && d <= 'F') d -= 'A' - 10;
+                        else if (d >= 'a' && d <= 'f') d -= 'a' - 10;
+                        else throw error("invalid escape sequence");
+                        ch = (ch << 4) | d;
+                    }
+                    break;
+                default:
+                    throw error("invalid escape sequence");
+                }
+                putChar(n++, ch);
+                continue;
+            }
+            if (ch < 0) {
+                int k = 0;
+                if ((ch & 0xe0) == 0xc0) {
+                    ch &= 0x1f;
+                    k = 1;
+                }
+                else if ((ch & 0xf0) == 0xe0) {
+                    ch &= 0x0f;
+                    k = 2;
+                }
+                else if ((ch & 0xf8) == 0xf0) {
+                    ch &= 0x07;
+                    k = 3;
+                }
+                else if ((ch & 0xfc) == 0xf8) {
+                    ch &= 0x03;
+                    k = 4;
+                }
+                else if ((ch & 0xfe) == 0xfc) {
+                    ch &= 0x01;
+                    k = 5;
+                }
+                while (k > 0) {
+                    if (p >= end || (inp[p] & 0xc0) != 0x80) break;
+                    ch = (ch << 6) | (inp[p++] & 0x3f);
+                    k--;
+                }
+                while (k > 0) {
+                    ch = ch << 6;
+                    k--;
+                }
+                if (ch < 0) ch = 0;
+                if (ch >= 0x11d800 && ch <= 0x11dfff) {
+                    /* Unpaired surrogate, see JSON.toJSONSequence() */
+                    ch -= 0x110000;
+                }
+                else if (ch >= 0x10000) {
+                    int m = ch - 0x10000;
+                    putChar(n++, 0xd800 + ((m >> 10) & 0x3ff));
+                    ch = 0xdc00 + (m & 0x3ff);
+                }
+            }
+            putChar(n++, ch);
+        }
+        pos = p;
+        return new String(str_buf, 0, n);
+    }
+
+    /**
+     * Read binary data. The data can be a "zero copy" binary block or a Base64 encoded string.
+     * @return array of bytes.
+     * @throws IOException
+     */
+    public byte[] nextBinary() throws IOException {
+        beforeValue();
+        byte[] res = null;
+        if (pos < end && inp[pos] == '(') {
+            res = readBinary();
+        }
+        else if (pos < end && inp[pos] == 'n') {
+            expect("null");
+        }
+        else {
+            res = Base64.toByteArray(readString().toCharArray());
+        }
+        afterValue();
+        return res;
+    }
+
+    private int readBinarySize() throws IOException {
+        int p = pos + 1;
+        int len = 0;
+        while (p < end && inp[p] >= '0' && inp[p] <= '9') {
+            if (len > 0x7fffffff / 10 - 1) throw error("invalid binary data size");
+            len = len * 10 + (inp[p++] - '0');
+        }
+        if (p >= end || inp[p] != ')') throw error("syntax error");
+        p++;
+        if (len > end - p) throw error("invalid binary data size");
+        pos = p;
+        return len;
+    }
+
+    private byte[] readBinary() throws IOException {
+        int len = readBinarySize();
+        byte[] res = new byte[len];
+        System.arraycopy(inp, pos, res, 0, len);
+        pos += len;
+        return res;
+    }
+
+    /**
+     * Skip next value, including all nested values, without creating any objects.
+     * @throws IOException
+     */
+    public void skipValue() throws IOException {
+        beforeValue();
+        skip();
+        afterValue();
+    }
+
+    private void skip() throws IOException {
+        if (pos >= end) throw error("unexpected end of input");
+        int n = 0;
+        do {
+            skipWS();
+            if (pos >= end) throw error("unexpected end of input");
+            switch (inp[pos]) {
+            case '[':
+            case '{':
+                n++;
+                pos++;
+                break;
+            case ']':
+            case '}':
+                n--;
+                pos++;
+                break;
+            case ',':
+            case ':':
+                pos++;
+                break;
+            case '"':
+                skipString();
+                break;
+            case '(':
+                int len = readBinarySize();
+                pos += len;
+                break;
+            case 0:
+                if (n > 0) throw error("unexpected end of value");
+                /* Empty value in a sequence */
+                return;
+            default:
+                int p = pos;
+                while (p < end) {
+                    int ch = inp[p];
+                    if (ch == ',' || ch == ']' || ch == '}' || ch == 0 ||
+                            ch == ' ' || ch == '\t' || ch == '\r' || ch == '\n') break;
+                    p++;
+                }
+                if (p == pos) throw error("syntax error");
+                pos = p;
+                break;
+            }
+        }
+        while (n > 0);
+    }
+
+    private void skipString() throws IOException {
+        int p = pos + 1;
+        while (p < end) {
+            int ch = inp[p++];
+            if (ch == '"') {
+                pos = p;
+                return;
+            }
+            if (ch == '\\') p++;
+        }
+        throw error("unterminated string");
+    }
+
+    /**
+     * Read next value and convert it to Java objects, same as JSON.parseSequence() does:
+     * unmodifiable List for arrays, unmodifiable Map for objects, byte[] for binary blocks.
+     * @return the value.
+     * @throws IOException
+     */
+    public Object nextValue() throws IOException {
+        beforeValue();
+        Object o = readValue();
+        afterValue();
+        return o;
+    }
+
+    private Object readValue() throws IOException {
+        switch (peekValue()) {
+        case SEPARATOR:
+            return null;
+        case NULL:
+            expect("null");
+            return null;
+        case BOOLEAN:
+            if (inp[pos] == 't') {
+                expect("true");
+                return Boolean.TRUE;
+            }
+            expect("false");
+            return Boolean.FALSE;
+        case STRING:
+            return readString();
+        case BINARY:
+            return readBinary();
+        case BEGIN_ARRAY:
+            pos++;
+            push(SCOPE_ARRAY);
+            List<Object> l = new ArrayList<Object>();
+            skipWS();
+            if (pos >= end || inp[pos] != ']') {
+                for (;;) {
+                    l.add(nextValue());
+                    skipWS();
+                    if (pos >= end || inp[pos] == ']') break;
+                }
+            }
+            closeArray();
+            return Collections.unmodifiableList(l);
+        case BEGIN_OBJECT:
+            pos++;
+            push(SCOPE_OBJECT);
+            Map<String,Object> m = new HashMap<String,Object>();
+            skipWS();
+            if (pos >= end || inp[pos] != '}') {
+                for (;;) {
+                    String key = nextString();
+                    m.put(key, nextValue());
+                    skipWS();
+                    if (pos >= end || inp[pos] == '}') break;
+                }
+            }
+            closeObject();
+            return Collections.unmodifiableMap(m);
+        case NUMBER:
+            return readNumber();
+        default:
+            throw error("syntax error");
+        }
+    }
+
+    /**
+     * Read all remaining values of a message, same as JSON.parseSequence().
+     * @return array of Java objects.
+     * @throws IOException
+     */
+    public Object[] nextSequence() throws IOException {
+        List<Object> l = new ArrayList<Object>();
+        while (peek() != END_OF_INPUT) {
+            l.add(nextValue());
+            nextSeparator();
+        }
+        return l.toArray();
+    }
+}
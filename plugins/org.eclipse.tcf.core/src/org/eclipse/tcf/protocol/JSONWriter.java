@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.protocol;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.tcf.core.Base64;
+
+/**
+ * JSONWriter generates TCF JSON messages: a sequence of zero terminated UTF-8 encoded JSON values.
+ * Output is same as JSON.toJSONSequence(), but it is encoded directly into UTF-8 bytes,
+ * without intermediate character buffer.
+ *
+ * Unlike static methods of JSON class, a writer keeps all its state in the instance, so it can be used
+ * by any thread. A writer is not thread safe, each thread must use its own instance.
+ *
+ * Objects of classes registered by JSON.addObjectWriter() can only be written on the dispatch thread.
+ * @since 1.8
+ */
+public final class JSONWriter {
+
+    private byte[] buf = new byte[0x1000];
+    private int buf_pos;
+    private boolean zero_copy;
+
+    /* Pending high surrogate of UTF-16 pair */
+    private int surrogate = -1;
+
+    /**
+     * Discard the output and start a new message.
+     * @param zero_copy - true to enable "zero copy" JSON extension for JSON.Binary objects.
+     */
+    public void reset(boolean zero_copy) {
+        buf_pos = 0;
+        surrogate = -1;
+        this.zero_copy = zero_copy;
+    }
+
+    /**
+     * @return size of the output in bytes.
+     */
+    public int size() {
+        return buf_pos;
+    }
+
+    /**
+     * @return copy of the output.
+     */
+    public byte[] toByteArray() {
+        flushSurrogate();
+        byte[] res = new byte[buf_pos];
+        System.arraycopy(buf, 0, res, 0, buf_pos);
+        return res;
+    }
+
+    /**
+     * Convert multiple Java object to array of bytes that contains
+     * a sequence of zero terminate UTF-8 encoded JSON strings, same as JSON.toJSONSequence().
+     * @param o - array of Java objects
+     * @param zero_copy - true to enable "zero copy" JSON extension.
+     * @return array of bytes
+     * @throws IOException
+     */
+    public byte[] toJSONSequence(Object[] o, boolean zero_copy) throws IOException {
+        if (o == null || o.length == 0) return null;
+        reset(zero_copy);
+        for (int i = 0; i < o.length; i++) {
+            writeObject(o[i]);
+            writeSeparator();
+        }
+        return toByteArray();
+    }
+
+    private void grow(int n) {
+        int size = buf.length * 2;
+        while (size < buf_pos + n) size *= 2;
+        byte[] tmp = new byte[size];
+        System.arraycopy(buf, 0, tmp, 0, buf_pos);
+        buf = tmp;
+    }
+
+    private void flushSurrogate() {
+        if (surrogate < 0) return;
+        int ch = surrogate;
+        surrogate = -1;
+        putCodePoint(ch + 0x110000);
+    }
+
+    private void putCodePoint(int ch) {
+        if (buf_pos > buf.length - 4) grow(4);
+        if (ch < 0x80) {
+            buf[buf_pos++] = (byte)ch;
+        }
+        else if (ch < 0x800) {
+            buf[buf_pos++] = (byte)((ch >> 6) | 0xc0);
+            buf[buf_pos++] = (byte)(ch & 0x3f | 0x80);
+        }
+        else if (ch < 0x10000) {
+            buf[buf_pos++] = (byte)((ch >> 12) | 0xe0);
+            buf[buf_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
+            buf[buf_pos++] = (byte)(ch & 0x3f | 0x80);
+        }
+        else {
+            buf[buf_pos++] = (byte)((ch >> 18) | 0xf0);
+            buf[buf_pos++] = (byte)((ch >> 12) & 0x3f | 0x80);
+            buf[buf_pos++] = (byte)((ch >> 6) & 0x3f | 0x80);
+            buf[buf_pos++] = (byte)(ch & 0x3f | 0x80);
+        }
+    }
+
+    /**
+     * Write a character. Surrogate pairs are combined, unpaired surrogates are encoded
+     * same way as JSON class does it.
+     * @param ch - a character
+     */
+    public void write(char ch) {
+        if (surrogate >= 0) {
+            if (ch >= 0xdc00 && ch <= 0xdfff) {
+                int h = surrogate;
+                surrogate = -1;
+                putCodePoint(0x10000 + ((h - 0xd800) << 10) + (ch - 0xdc00));
+                return;
+            }
+            flushSurrogate();
+        }
+        if (ch < 0x80) {
+            if (buf_pos >= buf.length) grow(1);
+            buf[buf_pos++] = (byte)ch;
+        }
+        else if (ch >= 0xd800 && ch <= 0xdbff) {
+            surrogate = ch;
+        }
+        else if (ch >= 0xdc00 && ch <= 0xdfff) {
+            putCodePoint(ch + 0x110000);
+        }
+        else {
+            putCodePoint(ch);
+        }
+    }
+
+    /**
+     * Write a string "as-is". Call writeObject() to convert a String into JSON string.
+     * @param s - a string
+     */
+    public void write(String s) {
+        int l = s.length();
+        for (int i = 0; i < l; i++) write(s.charAt(i));
+    }
+
+    /**
+     * Write zero terminator that follows each value in a message.
+     */
+    public void writeSeparator() {
+        write((char)0);
+    }
+
+    /**
+     * Write an integer number.
+     * @param n - a number
+     */
+    public void writeLong(long n) {
+        if (n < 0) {
+            if (n == Long.MIN_VALUE) {
+                write(Long.toString(n));
+                return;
+            }
+            write('-');
+            n = -n;
+        }
+        flushSurrogate();
+        if (buf_pos > buf.length - 20) grow(20);
+        int s = buf_pos;
+        do {
+            buf[buf_pos++] = (byte)('0' + n % 10);
+            n /= 10;
+        }
+        while (n > 0);
+        for (int i = s, j = buf_pos - 1; i < j; i++, j--) {
+            byte b = buf[i];
+            buf[i] = buf[j];
+            buf[j] = b;
+        }
+    }
+
+    /**
+     * Write a string as JSON string literal.
+     * @param s - a string
+     */
+    public void writeString(String s) {
+        flushSurrogate();
+        write('"');
+        int l = s.length();
+        for (int i = 0; i < l; i++) {
+            char ch = s.charAt(i);
+            if (ch >= 0x20 && ch < 0x80 && ch != '"' && ch != '\\' && surrogate < 0) {
+                if (buf_pos >= buf.length) grow(1);
+                buf[buf_pos++] = (byte)ch;
+                continue;
+            }
+            switch (ch) {
+            case 0:
+                write("\\u0000");
+                break;
+            case 1:
+                write("\\u0001");
+                break;
+            case '\r':
+                write("\\r");
+                break;
+            case '\n':
+                write("\\n");
+                break;
+            case '\t':
+                write("\\t");
+                break;
+            case '\b':
+                write("\\b");
+                break;
+            case '\f':
+                write("\\f");
+                break;
+            case '"':
+            case '\\':
+                write('\\');
+                write(ch);
+                break;
+            default:
+                write(ch);
+                break;
+            }
+        }
+        write('"');
+    }
+
+    /**
+     * Write binary data. If zero copy is enabled, the data is inserted as is,
+     * otherwise it is written as Base64 encoded string.
+     * @param b - byte array
+     * @param offs - offset of the data
+     * @param size - size of the data
+     */
+    public void writeBinary(byte[] b, int offs, int size) {
+        if (zero_copy) {
+            write('(');
+            writeLong(size);
+            write(')');
+            if (buf_pos > buf.length - size) grow(size);
+            System.arraycopy(b, offs, buf, buf_pos, size);
+            buf_pos += size;
+        }
+        else {
+            write('"');
+            char[] arr = Base64.toBase64(b, offs, size);
+            for (int i = 0; i < arr.length; i++) write(arr[i]);
+            write('"');
+        }
+    }
+
+    /**
+     * Write an object. Supported types are same as in JSON.toJSONSequence().
+     * @param o - an object to write
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public void writeObject(Object o) throws IOException {
+        if (o == null) {
+            write("null");
+        }
+        else if (o instanceof Boolean) {
+            write(o.toString());
+        }
+        else if (o instanceof Integer || o instanceof Long || o instanceof Short || o instanceof Byte) {
+            writeLong(((Number)o).longValue());
+        }
+        else if (o instanceof Number) {
+            write(o.toString());
+        }
+        else if (o instanceof String) {
+            writeString((String)o);
+        }
+        else if (o instanceof char[]) {
+            writeString(new String((char[])o));
+        }
+        else if (o instanceof JSON.Binary) {
+            JSON.Binary b = (JSON.Binary)o;
+            writeBinary(b.bytes, b.offs, b.size);
+        }
+        else if (o instanceof byte[]) {
+            write('[');
+            byte[] arr = (byte[])o;
+            for (int i = 0; i < arr.length; i++) {
+                if (i > 0) write(',');
+                writeLong(arr[i] & 0xff);
+            }
+            write(']');
+        }
+        else if (o instanceof Object[]) {
+            write('[');
+            Object[] arr = (Object[])o;
+            for (int i = 0; i < arr.length; i++) {
+                if (i > 0) write(',');
+                writeObject(arr[i]);
+            }
+            write(']');
+        }
+        else if (o instanceof Collection) {
+            write('[');
+            boolean comma = false;
+            for (Iterator<Object> i = ((Collection<Object>)o).iterator(); i.hasNext();) {
+                if (comma) write(',');
+                writeObject(i.next());
+                comma = true;
+            }
+            write(']');
+        }
+        else if (o instanceof Map) {
+            Map<String,Object> map = (Map<String,Object>)o;
+            write('{');
+            boolean comma = false;
+            for (Iterator<Map.Entry<String,Object>> i = map.entrySet().iterator(); i.hasNext();) {
+                if (comma) write(',');
+                Map.Entry<String,Object> e = i.next();
+                writeObject(e.getKey());
+                write(':');
+                writeObject(e.getValue());
+                comma = true;
+            }
+            write('}');
+        }
+        else if (Protocol.isDispatchThread()) {
+            /* Objects with registered ObjectWriter */
+            write(JSON.toJSON(o));
+        }
+        else {
+            throw new IOException("JSON: unsupported object type:" + o.getClass());
+        }
+    }
+}
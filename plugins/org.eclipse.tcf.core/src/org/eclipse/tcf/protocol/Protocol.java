@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -11,10 +11,10 @@
 package org.eclipse.tcf.protocol;
 
 import java.util.ArrayList;
-import java.util.TreeSet;
 import java.util.UUID;
 
 import org.eclipse.tcf.internal.core.ServiceManager;
+import org.eclipse.tcf.internal.core.TimerWheel;
 import org.eclipse.tcf.internal.core.TransportManager;
 import org.eclipse.tcf.internal.services.local.LocatorService;
 import org.eclipse.tcf.services.ILocator;
@@ -44,91 +44,10 @@ public final class Protocol {
      * Main Logger instance used by the TCF Framework
      */
     private static ILogger logger;
-    /**
-     * Set that holds the Timer objects for dispatch by the timer_dispatcher thread
-     */
-    private static final TreeSet<Timer> timer_queue = new TreeSet<Timer>();
     /**
      * Agent ID constant generated pseudorandomly by UUID
      */
     private static final String agent_id = UUID.randomUUID().toString();
-    /**
-     * Static variable that is incremented for every new Timer object added to the timer_queue, and whose value is used as ID of the Timer object,
-     * for resolving a time in the timestamps of different Timer objects
-     */
-    private static int timer_cnt;
-
-    /**
-     * Class used for by the timer_dispatcher thread, that binds a Timestamp and a Runnable, and that enables the ordering of objects, according the Time
-     */
-    private static class Timer implements Comparable<Timer> {
-        final int id;
-        final long time;
-        final Runnable run;
-
-        Timer(long time, Runnable run) {
-            this.id = timer_cnt++;
-            this.time = time;
-            this.run = run;
-        }
-
-        @Override
-        public int compareTo(Timer x) {
-            if (x == this) return 0;
-            if (time < x.time) return -1;
-            if (time > x.time) return +1;
-            if (id < x.id) return -1;
-            if (id > x.id) return +1;
-            assert false;
-            return 0;
-        }
-
-        @Override
-        public boolean equals(Object y) {
-            return (y instanceof Timer) && compareTo((Timer)y) == 0;
-        }
-
-        @Override
-        public int hashCode() {
-            return id;
-        }
-    }
-
-    /**
-     * Thread used for dispatching Runnables which must wait for a certain delay to be dispatched in the dispatch thread.
-     * @see #invokeLater(long delay, Runnable runnable)
-     */
-    private static final Thread timer_dispatcher = new Thread() {
-        public void run() {
-            try {
-                synchronized (timer_queue) {
-                    while (true) {
-                        if (timer_queue.isEmpty()) {
-                            timer_queue.wait();
-                        }
-                        else {
-                            long time = System.currentTimeMillis();
-                            Timer t = timer_queue.first();
-                            if (t.time > time) {
-                                timer_queue.wait(t.time - time);
-                            }
-                            else {
-                                timer_queue.remove(t);
-                                invokeLater(t.run);
-                            }
-                        }
-                    }
-                }
-            }
-            catch (IllegalStateException x) {
-                // Dispatch is shut down, exit this thread
-            }
-            catch (Throwable x) {
-                log("Exception in TCF dispatch loop", x);
-            }
-        }
-    };
-
     private static final ArrayList<CongestionMonitor> congestion_monitors = new ArrayList<CongestionMonitor>();
 
     /**
@@ -154,9 +73,7 @@ public final class Protocol {
                 LocatorService.createLocalInstance();
             }
         });
-        timer_dispatcher.setName("TCF Timer Dispatcher");
-        timer_dispatcher.setDaemon(true);
-        timer_dispatcher.start();
+        TimerWheel.start();
     }
 
     /**
@@ -212,13 +129,30 @@ public final class Protocol {
             event_queue.invokeLater(runnable);
         }
         else {
-            synchronized (timer_queue) {
-                timer_queue.add(new Timer(System.currentTimeMillis() + delay, runnable));
-                timer_queue.notify();
-            }
+            TimerWheel.schedule(delay, runnable);
         }
     }
 
+    /**
+     * Causes <code>runnable</code> event to have its <code>run</code>
+     * method called in the dispatch thread of the framework.
+     * The event is dispatched after the given delay, unless it is canceled
+     * by calling <code>cancel()</code> method of returned handle.
+     * Events that expire at same time are dispatched together in a single
+     * dispatch thread event, in same order as scheduled.
+     *
+     * This method can be invoked from any thread.
+     *
+     * @param delay     milliseconds to delay event dispatch.
+     * @param runnable  the <code>Runnable</code> whose <code>run</code>
+     *                  method should be executed asynchronously.
+     * @return handle that can be used to cancel the event.
+     * @since 1.8
+     */
+    public static ITimer schedule(long delay, Runnable runnable) {
+        return TimerWheel.schedule(delay, runnable);
+    }
+
     /**
      * Causes <code>runnable</code> to have its <code>run</code>
      * method called in the dispatch thread of the framework.
@@ -315,6 +249,20 @@ public final class Protocol {
         return TransportManager.getOpenChannels();
     }
 
+    /**
+     * Find open channel that provides given remote service proxy.
+     * @param service - remote service proxy object
+     * @return the channel, or null if the proxy does not belong to an open channel.
+     * @since 1.8
+     */
+    public static IChannel getChannel(IService service) {
+        assert isDispatchThread();
+        for (IChannel c : TransportManager.getOpenChannels()) {
+            if (c.getState() == IChannel.STATE_OPEN && c.getRemoteService(service.getName()) == service) return c;
+        }
+        return null;
+    }
+
     /**
      * Interface to be implemented by clients willing to be notified when
      * new TCF communication channel is opened.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.io.InputStream;
 import java.util.Iterator;
 import java.util.LinkedList;
 
+import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IFileSystem;
@@ -24,9 +25,11 @@ import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 /**
  * TCFFileInputStream is high performance InputStream implementation over TCF FileSystem service.
  * The class uses read-ahead buffers to achieve maximum throughput.
+ * Number of read-ahead buffers follows the channel command window, see IChannel.getCommandWindow().
  */
 public final class TCFFileInputStream extends InputStream {
 
+    /* Read-ahead limit when the service channel is not known */
     private static final int MAX_READ_AHEAD = 8;
 
     private static class Buffer {
@@ -50,6 +53,7 @@ public final class TCFFileInputStream extends InputStream {
     private final IFileHandle handle;
     private final IFileSystem fs;
     private final int buf_size;
+    private IChannel channel;
     private long mark = 0;
     private long offset = 0;
     private Buffer buf;
@@ -76,7 +80,8 @@ public final class TCFFileInputStream extends InputStream {
         }
         if (prv.eof) return;
         long pos = prv.offset + (prv.buf == null ? buf_size : prv.buf.length);
-        while (read_ahead_buffers.size() < MAX_READ_AHEAD) {
+        if (channel == null) channel = Protocol.getChannel(fs);
+        while (canReadAhead()) {
             final Buffer buf = new Buffer(pos);
             buf.token = fs.read(handle, pos, buf_size, new IFileSystem.DoneRead() {
                 public void doneRead(IToken token, FileSystemException error,
@@ -109,6 +114,13 @@ public final class TCFFileInputStream extends InputStream {
         }
     }
 
+    private boolean canReadAhead() {
+        int n = read_ahead_buffers.size();
+        if (channel == null || channel.getState() != IChannel.STATE_OPEN) return n < MAX_READ_AHEAD;
+        int window = channel.getCommandWindow(fs);
+        return n < window && channel.getPendingCommandCount(fs) < window;
+    }
+
     private boolean stopReadAhead(Runnable done) {
         suspend_read_ahead = true;
         for (Iterator<Buffer> i = read_ahead_buffers.iterator(); i.hasNext();) {
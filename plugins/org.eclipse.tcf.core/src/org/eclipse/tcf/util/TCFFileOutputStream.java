@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -17,7 +17,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
+import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IFileSystem;
 import org.eclipse.tcf.services.IFileSystem.FileSystemException;
 import org.eclipse.tcf.services.IFileSystem.IFileHandle;
@@ -25,9 +27,11 @@ import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 /**
  * TCFFileOutputStream is high performance OutputStream implementation over TCF FileSystem service.
  * The class uses write-back buffers to achieve maximum throughput.
+ * Number of write-back buffers follows the channel command window, see IChannel.getCommandWindow().
  */
 public final class TCFFileOutputStream extends OutputStream {
 
+    /* Write-back limit when the service channel is not known */
     private static final int MAX_WRITE_BACK = 8;
 
     private final IFileHandle handle;
@@ -35,6 +39,8 @@ public final class TCFFileOutputStream extends OutputStream {
     private final int buf_size;
     private final Set<IToken> write_commands = new HashSet<IToken>();
     private final int[] dirty = new int[1];
+    private int write_back = MAX_WRITE_BACK;
+    private IChannel channel;
     private final byte[] buf;
     private int buf_pos = 0;
     private long offset = 0;
@@ -91,7 +97,7 @@ public final class TCFFileOutputStream extends OutputStream {
     private void flush(final byte[] buf, final int off, final int len) throws IOException {
         synchronized (dirty) {
             if (flush_error != null) throw flush_error;
-            while (dirty[0] >= MAX_WRITE_BACK) {
+            while (dirty[0] >= write_back) {
                 try {
                     dirty.wait();
                 }
@@ -102,6 +108,15 @@ public final class TCFFileOutputStream extends OutputStream {
         }
         new TCFTask<Object>() {
             public void run() {
+                if (channel == null) channel = Protocol.getChannel(fs);
+                if (channel != null) {
+                    /* The task is invoked again when the window has room or the channel is closed */
+                    if (channel.getState() != IChannel.STATE_OPEN) {
+                        error(new IOException("Channel is closed"));
+                        return;
+                    }
+                    if (!channel.waitForCommandWindow(fs, this)) return;
+                }
                 write_commands.add(fs.write(handle, offset, buf, off, len, new IFileSystem.DoneWrite() {
                     public void doneWrite(IToken token, FileSystemException error) {
                         assert write_commands.contains(token);
@@ -120,6 +135,7 @@ public final class TCFFileOutputStream extends OutputStream {
                 }));
                 synchronized (dirty) {
                     dirty[0] = write_commands.size();
+                    if (channel != null) write_back = channel.getCommandWindow(fs);
                 }
                 done(this);
             }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Xilinx, Inc. and others.
+ * Copyright (c) 2013, 2026 Xilinx, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -56,6 +56,7 @@ class DownloadFileDialog extends Dialog {
     private Button load_syms_button;
     private Button relocate_button;
     private Button download_button;
+    private Button skip_unchanged_button;
     private Button set_pc_button;
     private Button osa_button;
 
@@ -209,6 +210,15 @@ class DownloadFileDialog extends Dialog {
         });
         download_button.setEnabled(true);
 
+        skip_unchanged_button = new Button(composite, SWT.CHECK);
+        skip_unchanged_button.setText("Skip memory that already contains the file data");
+        gd = new GridData(GridData.FILL_HORIZONTAL);
+        gd.horizontalSpan = 3;
+        gd.horizontalIndent = 16;
+        skip_unchanged_button.setLayoutData(gd);
+        skip_unchanged_button.setFont(font);
+        skip_unchanged_button.setEnabled(true);
+
         set_pc_button = new Button(composite, SWT.CHECK);
         set_pc_button.setText("Set PC to program entry address");
         gd = new GridData(GridData.FILL_HORIZONTAL);
@@ -314,6 +324,7 @@ class DownloadFileDialog extends Dialog {
         setBoolean(load_syms_button, TCFLaunchDelegate.FILES_LOAD_SYMBOLS);
         setBoolean(relocate_button, TCFLaunchDelegate.FILES_RELOCATE);
         setBoolean(download_button, TCFLaunchDelegate.FILES_DOWNLOAD);
+        setBoolean(skip_unchanged_button, TCFLaunchDelegate.FILES_SKIP_UNCHANGED);
         setBoolean(set_pc_button, TCFLaunchDelegate.FILES_SET_PC);
         setBoolean(osa_button, TCFLaunchDelegate.FILES_ENABLE_OSA);
         setNumber(addr_text, TCFLaunchDelegate.FILES_ADDRESS);
@@ -361,6 +372,7 @@ class DownloadFileDialog extends Dialog {
         getBoolean(load_syms_button, TCFLaunchDelegate.FILES_LOAD_SYMBOLS);
         getBoolean(relocate_button, TCFLaunchDelegate.FILES_RELOCATE);
         getBoolean(download_button, TCFLaunchDelegate.FILES_DOWNLOAD);
+        getBoolean(skip_unchanged_button, TCFLaunchDelegate.FILES_SKIP_UNCHANGED);
         getBoolean(set_pc_button, TCFLaunchDelegate.FILES_SET_PC);
         getBoolean(osa_button, TCFLaunchDelegate.FILES_ENABLE_OSA);
         getNumber(addr_text, TCFLaunchDelegate.FILES_ADDRESS);
@@ -381,6 +393,9 @@ class DownloadFileDialog extends Dialog {
             size_text.setEnabled(reloc);
             offs_text.setEnabled(reloc);
         }
+        if (download_button != null) {
+            skip_unchanged_button.setEnabled(download_button.getSelection());
+        }
     }
 
     @Override
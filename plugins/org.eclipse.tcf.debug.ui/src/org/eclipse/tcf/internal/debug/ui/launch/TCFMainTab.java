@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008-2020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -57,6 +57,7 @@ public class TCFMainTab extends AbstractLaunchConfigurationTab {
     private Text project_text;
     private Text local_program_text;
     private Text remote_program_text;
+    private Button incremental_download_button;
     private Text working_dir_text;
     private Button disable_build;
     private Button workspace_build;
@@ -279,6 +280,14 @@ public class TCFMainTab extends AbstractLaunchConfigurationTab {
                 updateLaunchConfigurationDialog();
             }
         });
+
+        incremental_download_button = createCheckButton(comp, "Download only blocks changed since last launch");
+        incremental_download_button.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent evt) {
+                updateLaunchConfigurationDialog();
+            }
+        });
     }
 
     private void createWorkingDirGroup(Composite comp) {
@@ -415,6 +424,7 @@ public class TCFMainTab extends AbstractLaunchConfigurationTab {
             workspace_build.setSelection(build == TCFLaunchDelegate.BUILD_BEFORE_LAUNCH_USE_WORKSPACE_SETTING);
             local_program_text.setText(config.getAttribute(TCFLaunchDelegate.ATTR_LOCAL_PROGRAM_FILE, ""));
             if (remote_program_text != null) remote_program_text.setText(config.getAttribute(TCFLaunchDelegate.ATTR_REMOTE_PROGRAM_FILE, ""));
+            if (incremental_download_button != null) incremental_download_button.setSelection(config.getAttribute(TCFLaunchDelegate.ATTR_INCREMENTAL_DOWNLOAD, true));
             working_dir_text.setText(config.getAttribute(TCFLaunchDelegate.ATTR_WORKING_DIRECTORY, ""));
             default_dir_button.setSelection(!config.hasAttribute(TCFLaunchDelegate.ATTR_WORKING_DIRECTORY));
             attach_children_button.setSelection(config.getAttribute(TCFLaunchDelegate.ATTR_ATTACH_CHILDREN, true));
@@ -464,9 +474,16 @@ public class TCFMainTab extends AbstractLaunchConfigurationTab {
             config.setAttribute(TCFLaunchDelegate.ATTR_RUN_LOCAL_AGENT, true);
             config.setAttribute(TCFLaunchDelegate.ATTR_USE_LOCAL_AGENT, true);
             config.removeAttribute(TCFLaunchDelegate.ATTR_REMOTE_PROGRAM_FILE);
+            config.removeAttribute(TCFLaunchDelegate.ATTR_INCREMENTAL_DOWNLOAD);
         }
         else {
             config.setAttribute(TCFLaunchDelegate.ATTR_REMOTE_PROGRAM_FILE, remote_program_text.getText());
+            if (incremental_download_button.getSelection()) {
+                config.removeAttribute(TCFLaunchDelegate.ATTR_INCREMENTAL_DOWNLOAD);
+            }
+            else {
+                config.setAttribute(TCFLaunchDelegate.ATTR_INCREMENTAL_DOWNLOAD, false);
+            }
         }
         if (default_dir_button.getSelection()) {
             config.removeAttribute(TCFLaunchDelegate.ATTR_WORKING_DIRECTORY);
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.model;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TCFAddressRangeCache maps non-overlapping address ranges to values.
+ * It is used to answer address lookups locally when a previous reply
+ * already covered the address. A range can map to null value, which means
+ * the address is known to have no data. Number of ranges is limited,
+ * least recently used ranges are discarded first.
+ *
+ * The class is not thread safe, it is used on the dispatch thread only.
+ */
+public class TCFAddressRangeCache<V> {
+
+    public static class Range<V> {
+        public final BigInteger lo;
+        public final BigInteger hi;
+        public final V value;
+
+        Range(BigInteger lo, BigInteger hi, V value) {
+            this.lo = lo;
+            this.hi = hi;
+            this.value = value;
+        }
+    }
+
+    private final int max_size;
+    private final TreeMap<BigInteger,Range<V>> ranges = new TreeMap<BigInteger,Range<V>>();
+    private final LinkedHashMap<BigInteger,Range<V>> lru = new LinkedHashMap<BigInteger,Range<V>>(64, 0.75f, true);
+
+    public TCFAddressRangeCache(int max_size) {
+        this.max_size = max_size;
+    }
+
+    /**
+     * Find a range that contains given address.
+     * @param addr - the address.
+     * @return the range or null if the address is not cached.
+     */
+    public Range<V> find(BigInteger addr) {
+        Map.Entry<BigInteger,Range<V>> e = ranges.floorEntry(addr);
+        if (e == null) return null;
+        Range<V> r = e.getValue();
+        if (r.hi.compareTo(addr) <= 0) return null;
+        lru.get(r.lo);
+        return r;
+    }
+
+    /**
+     * Add a range, replacing cached ranges that overlap it.
+     * @param lo - range start address.
+     * @param hi - range end address, exclusive.
+     * @param value - value for addresses in the range, can be null.
+     */
+    public void put(BigInteger lo, BigInteger hi, V value) {
+        if (lo.compareTo(hi) >= 0) return;
+        Map.Entry<BigInteger,Range<V>> e = ranges.lowerEntry(lo);
+        if (e != null && e.getValue().hi.compareTo(lo) > 0) remove(e.getKey());
+        while ((e = ranges.ceilingEntry(lo)) != null && e.getKey().compareTo(hi) < 0) remove(e.getKey());
+        Range<V> r = new Range<V>(lo, hi, value);
+        ranges.put(lo, r);
+        lru.put(lo, r);
+        if (lru.size() > max_size) {
+            Iterator<BigInteger> i = lru.keySet().iterator();
+            while (lru.size() > max_size) {
+                ranges.remove(i.next());
+                i.remove();
+            }
+        }
+    }
+
+    private void remove(BigInteger lo) {
+        ranges.remove(lo);
+        lru.remove(lo);
+    }
+
+    public int size() {
+        return ranges.size();
+    }
+
+    public void clear() {
+        ranges.clear();
+        lru.clear();
+    }
+}
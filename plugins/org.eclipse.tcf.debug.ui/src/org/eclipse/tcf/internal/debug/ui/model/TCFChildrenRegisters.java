@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -19,10 +19,29 @@ import org.eclipse.tcf.services.IRegisters;
 
 public class TCFChildrenRegisters extends TCFChildren {
 
+    private TCFRegisterValueBatch value_batch;
+
     TCFChildrenRegisters(TCFNode node) {
         super(node, 128);
     }
 
+    /**
+     * Add a register to the batch of registers which values are going to be read with single command.
+     * @param ctx - register context, must be a child of this node.
+     * @return the batch, or null if the agent does not support IRegisters.getm command
+     * or the register is not readable.
+     */
+    TCFRegisterValueBatch addToValueBatch(IRegisters.RegistersContext ctx) {
+        if (node.model.no_getm) return null;
+        // A register that cannot be read would fail the whole command
+        if (!ctx.isReadable()) return null;
+        if (value_batch == null || !value_batch.add(ctx.getID(), ctx.getSize())) {
+            value_batch = new TCFRegisterValueBatch(node.channel, node.model.getLaunch().getService(IRegisters.class));
+            value_batch.add(ctx.getID(), ctx.getSize());
+        }
+        return value_batch;
+    }
+
     void onSuspended(boolean func_call) {
         for (TCFNode n : getNodes()) ((TCFNodeRegister)n).onSuspended(func_call);
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008-22020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IChildrenUpdate;
 import org.eclipse.tcf.debug.ui.ITCFPrettyExpressionProvider;
 import org.eclipse.tcf.protocol.JSON;
 import org.eclipse.tcf.services.IExpressions;
@@ -29,6 +30,9 @@ public class TCFChildrenSubExpressions extends TCFChildren {
     private final int par_offs;
     private final int par_size;
 
+    /* Rows last requested by presentation contexts */
+    private final TCFViewport viewport = new TCFViewport();
+
     TCFChildrenSubExpressions(TCFNode node, int par_level, int par_offs, int par_size) {
         super(node, 128);
         this.par_level = par_level;
@@ -36,6 +40,39 @@ public class TCFChildrenSubExpressions extends TCFChildren {
         this.par_size = par_size;
     }
 
+    /**
+     * Return requested children and remember the range as the visible part of the list.
+     * Rows next to the range are prefetched, rows far from it have their pending evaluations canceled,
+     * so that scrolling through a large array or structure does not leave thousands of outstanding commands.
+     */
+    @Override
+    boolean getData(IChildrenUpdate update, Runnable done) {
+        if (!super.getData(update, done)) return false;
+        viewport.setRange(update.getPresentationContext().getId(), update.getOffset(), update.getLength());
+        TCFNode[] arr = toArray();
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i] instanceof TCFNodeExpression) {
+                TCFNodeExpression e = (TCFNodeExpression)arr[i];
+                if (viewport.isCancel(i)) e.cancelPendingEvaluation();
+                else if (viewport.isPrefetch(i)) e.prefetchValue();
+            }
+            else if (arr[i] instanceof TCFNodeArrayPartition) {
+                if (viewport.getDistance(i) > 0) ((TCFNodeArrayPartition)arr[i]).cancelPendingEvaluation();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cancel pending evaluations of all children, used when the parent is scrolled out of view.
+     */
+    void cancelPendingEvaluation() {
+        for (TCFNode n : getNodes()) {
+            if (n instanceof TCFNodeExpression) ((TCFNodeExpression)n).cancelPendingEvaluation();
+            if (n instanceof TCFNodeArrayPartition) ((TCFNodeArrayPartition)n).cancelPendingEvaluation();
+        }
+    }
+
     void onSuspended(boolean func_call) {
         reset();
         for (TCFNode n : getNodes()) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -86,21 +86,6 @@ import org.xml.sax.helpers.DefaultHandler;
  */
 class TCFMemoryBlock extends PlatformObject implements IMemoryBlockExtension, IModelProxyFactory {
 
-    private static class MemData {
-
-        final BigInteger addr;
-        final MemoryByte[] data;
-        final byte[] bytes;
-
-        MemData(BigInteger addr, MemoryByte[] data) {
-            int i = 0;
-            this.addr = addr;
-            this.data = data;
-            this.bytes = new byte[data.length];
-            for (MemoryByte b : data) bytes[i++] = b.getValue();
-        }
-    }
-
     private static class ModelProxy extends AbstractModelProxy implements Runnable {
 
         final TCFMemoryBlock mem_block;
@@ -174,9 +159,8 @@ class TCFMemoryBlock extends PlatformObject implements IMemoryBlockExtension, IM
     private final TCFDataCache<IExpressions.Value> expression_value;
     private final LinkedList<ModelProxy> model_proxies = new LinkedList<ModelProxy>();
 
-    private MemData mem_data; // current memory block data
-    private MemData mem_prev; // previous data - before last suspend
-    private MemData mem_last; // last retrieved memory block data
+    private byte[] mem_bytes; // last retrieved memory block data
+    private BigInteger mem_addr; // address of last retrieved data, used to detect scroll direction
 
     private boolean disposed;
 
@@ -398,23 +382,8 @@ class TCFMemoryBlock extends PlatformObject implements IMemoryBlockExtension, IM
     @Override
     public MemoryByte[] getBytesFromAddress(final BigInteger address, final long units) throws DebugException {
         return new TCFDebugTask<MemoryByte[]>(model.getChannel()) {
-            int offs = 0;
             @Override
             public void run() {
-                if (mem_data != null &&
-                        address.compareTo(mem_data.addr) >= 0 &&
-                        address.add(BigInteger.valueOf(units)).compareTo(
-                                mem_data.addr.add(BigInteger.valueOf(mem_data.data.length))) <= 0) {
-                    offs = address.subtract(mem_data.addr).intValue();
-                    MemoryByte[] res = mem_data.data;
-                    if (units < mem_data.data.length) {
-                        res = new MemoryByte[(int)units];
-                        System.arraycopy(mem_data.data, offs, res, 0, res.length);
-                    }
-                    setHistoryFlags();
-                    done(res);
-                    return;
-                }
                 TCFNode node = model.getNode(ctx_id);
                 if (node == null) {
                     error("Context is disposed");
@@ -430,83 +399,29 @@ class TCFMemoryBlock extends PlatformObject implements IMemoryBlockExtension, IM
                     error(cache.getError());
                     return;
                 }
-                final IMemory.MemoryContext mem = cache.getData();
+                IMemory.MemoryContext mem = cache.getData();
                 if (mem == null) {
                     error("Context does not provide memory access");
                     return;
                 }
-                final int size = (int)units;
-                final int mode = IMemory.MODE_CONTINUEONERROR | IMemory.MODE_VERIFY;
-                final byte[] buf = new byte[size];
-                final MemoryByte[] res = new MemoryByte[size];
-                mem.get(address, 1, buf, 0, size, mode, new IMemory.DoneMemory() {
-                    @Override
-                    public void doneMemory(IToken token, MemoryError error) {
-                        int big_endian = 0;
-                        if (mem.getProperties().get(IMemory.PROP_BIG_ENDIAN) != null) {
-                            big_endian |= MemoryByte.ENDIANESS_KNOWN;
-                            if (mem.isBigEndian()) big_endian |= MemoryByte.BIG_ENDIAN;
-                        }
-                        int cnt = 0;
-                        while (offs < size) {
-                            int flags = big_endian;
-                            if (error instanceof IMemory.ErrorOffset) {
-                                IMemory.ErrorOffset ofs = (IMemory.ErrorOffset)error;
-                                int status = ofs.getStatus(cnt);
-                                if (status == IMemory.ErrorOffset.BYTE_VALID) {
-                                    flags |= MemoryByte.READABLE | MemoryByte.WRITABLE;
-                                }
-                                else if ((status & IMemory.ErrorOffset.BYTE_UNKNOWN) != 0) {
-                                    if (cnt > 0) break;
-                                }
-                            }
-                            else if (error == null) {
-                                flags |= MemoryByte.READABLE | MemoryByte.WRITABLE;
-                            }
-                            res[offs] = new MemoryByte(buf[offs], (byte)flags);
-                            offs++;
-                            cnt++;
-                        }
-                        if (offs < size) {
-                            mem.get(address.add(BigInteger.valueOf(offs)), 1, buf, offs, size - offs, mode, this);
-                        }
-                        else {
-                            mem_last = mem_data = new MemData(address, res);
-                            setHistoryFlags();
-                            done(res);
-                        }
-                    }
-                });
+                int size = (int)units;
+                TCFMemoryCache mem_cache = model.getMemoryCache(ctx_id);
+                if (!mem_cache.load(mem, address, size, this)) return;
+                MemoryByte[] res = mem_cache.getMemoryBytes(mem, address, size);
+                if (mem_addr != null && !mem_addr.equals(address)) {
+                    // Prefetch next screen in the scroll direction
+                    BigInteger next = address.compareTo(mem_addr) > 0 ?
+                            address.add(BigInteger.valueOf(size)) : address.subtract(BigInteger.valueOf(size));
+                    if (next.signum() >= 0) mem_cache.load(mem, next, size, null);
+                }
+                mem_addr = address;
+                mem_bytes = new byte[size];
+                for (int i = 0; i < size; i++) mem_bytes[i] = res[i].getValue();
+                done(res);
             }
         }.getD();
     }
 
-    private void setHistoryFlags() {
-        if (mem_data == null) return;
-        BigInteger addr = mem_data.addr;
-        BigInteger his_start = null;
-        BigInteger his_end = null;
-        if (mem_prev != null) {
-            his_start = mem_prev.addr;
-            his_end = mem_prev.addr.add(BigInteger.valueOf(mem_prev.data.length));
-        }
-        for (MemoryByte b : mem_data.data) {
-            int flags = b.getFlags();
-            if (mem_prev != null && addr.compareTo(his_start) >= 0 && addr.compareTo(his_end) < 0) {
-                flags |= MemoryByte.HISTORY_KNOWN;
-                int offs = addr.subtract(his_start).intValue();
-                if (b.getValue() != mem_prev.data[offs].getValue()) {
-                    flags |= MemoryByte.CHANGED;
-                }
-            }
-            else {
-                flags &= ~(MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED);
-            }
-            b.setFlags((byte)flags);
-            addr = addr.add(BigInteger.valueOf(1));
-        }
-    }
-
     @Override
     public MemoryByte[] getBytesFromOffset(BigInteger offset, long units) throws DebugException {
         return getBytesFromAddress(getBigBaseAddress().add(offset), units);
@@ -605,8 +520,7 @@ class TCFMemoryBlock extends PlatformObject implements IMemoryBlockExtension, IM
 
     @Override
     public byte[] getBytes() throws DebugException {
-        if (mem_data == null) return null;
-        return mem_data.bytes;
+        return mem_bytes;
     }
 
     @Override
@@ -653,15 +567,14 @@ class TCFMemoryBlock extends PlatformObject implements IMemoryBlockExtension, IM
     }
 
     void flushAllCaches() {
-        mem_data = null;
+        model.getMemoryCache(ctx_id).invalidateAll(false);
     }
 
-    void onMemoryChanged(boolean suspended) {
+    void onMemoryChanged(boolean suspended, boolean flush) {
         assert Protocol.isDispatchThread();
         remote_expression.reset();
         expression_value.reset();
-        if (suspended) mem_prev = mem_last;
-        mem_data = null;
+        if (suspended || flush) model.getMemoryCache(ctx_id).invalidateAll(suspended);
         synchronized (model_proxies) {
             for (ModelProxy p : model_proxies) {
                 p.onMemoryChanged(suspended);
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.model;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IMemory;
+import org.eclipse.tcf.services.IMemory.MemoryError;
+import org.eclipse.tcf.util.TCFTask;
+
+/**
+ * TCFMemoryCache holds memory contents of a memory context for memory blocks.
+ *
+ * Memory is cached in fixed size pages: bytes are kept in a byte array,
+ * "loaded" and "readable" status of each byte is kept in bit maps.
+ * Requests that are covered by loaded pages are served locally, missing pages are read
+ * with one command per contiguous run of pages. When the context is suspended,
+ * current page contents become history, which is used to set MemoryByte.CHANGED flags.
+ * MemoryByte objects are created only for the range requested by a client.
+ *
+ * All methods must be called on the dispatch thread.
+ */
+class TCFMemoryCache {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int MAX_PAGES = 512;
+    private static final int MAX_READ_PAGES = 64;
+
+    private static final int MODE = IMemory.MODE_CONTINUEONERROR | IMemory.MODE_VERIFY;
+
+    private static class Page {
+        final BigInteger addr;
+        final byte[] data = new byte[PAGE_SIZE];
+        final long[] loaded = new long[PAGE_SIZE / 64];
+        final long[] readable = new long[PAGE_SIZE / 64];
+
+        /* Page contents before last suspend */
+        byte[] prev_data;
+        long[] prev_loaded;
+
+        /* Incremented when page data is invalidated, replies of older reads are discarded */
+        int gen;
+        boolean pending;
+        List<Runnable> waiters;
+
+        Page(BigInteger addr) {
+            this.addr = addr;
+        }
+
+        void addWaiter(Runnable done) {
+            if (waiters == null) waiters = new ArrayList<Runnable>();
+            if (!waiters.contains(done)) waiters.add(done);
+        }
+    }
+
+    private final LinkedHashMap<BigInteger,Page> pages = new LinkedHashMap<BigInteger,Page>(64, 0.75f, true);
+
+    private static boolean testBit(long[] bits, int i) {
+        return (bits[i >> 6] & (1L << i)) != 0;
+    }
+
+    private static void setBit(long[] bits, int i, boolean on) {
+        if (on) bits[i >> 6] |= 1L << i;
+        else bits[i >> 6] &= ~(1L << i);
+    }
+
+    private static boolean testRange(long[] bits, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((i & 63) == 0 && i + 64 <= to) {
+                if (bits[i >> 6] != -1L) return false;
+                i += 63;
+            }
+            else if (!testBit(bits, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void clearRange(long[] bits, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((i & 63) == 0 && i + 64 <= to) {
+                bits[i >> 6] = 0;
+                i += 63;
+            }
+            else {
+                setBit(bits, i, false);
+            }
+        }
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long l : bits) {
+            if (l != 0) return false;
+        }
+        return true;
+    }
+
+    private Page getPage(BigInteger index) {
+        Page page = pages.get(index);
+        if (page == null) pages.put(index, page = new Page(index.shiftLeft(PAGE_BITS)));
+        return page;
+    }
+
+    private void trim(int max) {
+        Iterator<Page> i = pages.values().iterator();
+        while (pages.size() > max && i.hasNext()) {
+            if (i.next().pending) continue;
+            i.remove();
+        }
+    }
+
+    /**
+     * Check if memory range is loaded into the cache, start reading missing pages if not.
+     * @param mem - memory context.
+     * @param addr - range start address.
+     * @param size - range size in bytes.
+     * @param done - call-back to run when reading is done, can be null.
+     * @return true if whole range is loaded.
+     */
+    boolean load(IMemory.MemoryContext mem, BigInteger addr, int size, Runnable done) {
+        assert Protocol.isDispatchThread();
+        if (size <= 0) return true;
+        BigInteger end = addr.add(BigInteger.valueOf(size));
+        BigInteger p0 = addr.shiftRight(PAGE_BITS);
+        BigInteger p1 = end.subtract(BigInteger.ONE).shiftRight(PAGE_BITS).add(BigInteger.ONE);
+        int cnt = p1.subtract(p0).intValue();
+        int offs = addr.intValue() & (PAGE_SIZE - 1);
+        boolean ok = true;
+        List<Page> run = new ArrayList<Page>();
+        for (int n = 0; n < cnt; n++) {
+            Page page = getPage(p0.add(BigInteger.valueOf(n)));
+            int from = n == 0 ? offs : 0;
+            int to = Math.min(PAGE_SIZE, offs + size - n * PAGE_SIZE);
+            boolean missing = !testRange(page.loaded, from, to);
+            if (missing) {
+                ok = false;
+                if (done != null) page.addWaiter(done);
+            }
+            if (missing && !page.pending) {
+                run.add(page);
+                if (run.size() < MAX_READ_PAGES) continue;
+            }
+            if (run.size() > 0) {
+                read(mem, run);
+                run = new ArrayList<Page>();
+            }
+        }
+        if (run.size() > 0) read(mem, run);
+        /* Pages of the range are most recently used, keep all of them even if the range is larger than the cache */
+        trim(Math.max(MAX_PAGES, cnt));
+        return ok;
+    }
+
+    private void read(final IMemory.MemoryContext mem, final List<Page> run) {
+        final int[] gen = new int[run.size()];
+        for (int i = 0; i < gen.length; i++) {
+            Page page = run.get(i);
+            page.pending = true;
+            gen[i] = page.gen;
+        }
+        final BigInteger addr = run.get(0).addr;
+        final int size = run.size() * PAGE_SIZE;
+        final byte[] buf = new byte[size];
+        mem.get(addr, 1, buf, 0, size, MODE, new IMemory.DoneMemory() {
+            int offs = 0;
+            @Override
+            public void doneMemory(IToken token, MemoryError error) {
+                int cnt = 0;
+                while (offs < size) {
+                    boolean readable = false;
+                    if (error instanceof IMemory.ErrorOffset) {
+                        int status = ((IMemory.ErrorOffset)error).getStatus(cnt);
+                        if (status == IMemory.ErrorOffset.BYTE_VALID) {
+                            readable = true;
+                        }
+                        else if ((status & IMemory.ErrorOffset.BYTE_UNKNOWN) != 0) {
+                            if (cnt > 0) break;
+                        }
+                    }
+                    else if (error == null) {
+                        readable = true;
+                    }
+                    int n = offs >> PAGE_BITS;
+                    Page page = run.get(n);
+                    if (page.gen == gen[n]) {
+                        int i = offs & (PAGE_SIZE - 1);
+                        page.data[i] = buf[offs];
+                        setBit(page.loaded, i, true);
+                        setBit(page.readable, i, readable);
+                    }
+                    offs++;
+                    cnt++;
+                }
+                if (offs < size) {
+                    mem.get(addr.add(BigInteger.valueOf(offs)), 1, buf, offs, size - offs, MODE, this);
+                    return;
+                }
+                List<Runnable> waiters = new ArrayList<Runnable>();
+                for (Page page : run) {
+                    page.pending = false;
+                    if (page.waiters == null) continue;
+                    for (Runnable r : page.waiters) {
+                        if (!waiters.contains(r)) waiters.add(r);
+                    }
+                    page.waiters = null;
+                }
+                for (Runnable r : waiters) {
+                    if (r instanceof TCFTask<?> && ((TCFTask<?>)r).isDone()) continue;
+                    r.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Create MemoryByte objects for a memory range.
+     * The range must be loaded, see load().
+     * @param mem - memory context.
+     * @param addr - range start address.
+     * @param size - range size in bytes.
+     * @return array of memory bytes.
+     */
+    MemoryByte[] getMemoryBytes(IMemory.MemoryContext mem, BigInteger addr, int size) {
+        assert Protocol.isDispatchThread();
+        int big_endian = 0;
+        if (mem.getProperties().get(IMemory.PROP_BIG_ENDIAN) != null) {
+            big_endian |= MemoryByte.ENDIANESS_KNOWN;
+            if (mem.isBigEndian()) big_endian |= MemoryByte.BIG_ENDIAN;
+        }
+        MemoryByte[] res = new MemoryByte[size];
+        BigInteger index = addr.shiftRight(PAGE_BITS);
+        int i = addr.intValue() & (PAGE_SIZE - 1);
+        Page page = pages.get(index);
+        for (int n = 0; n < size; n++) {
+            if (i == PAGE_SIZE) {
+                index = index.add(BigInteger.ONE);
+                page = pages.get(index);
+                i = 0;
+            }
+            int flags = big_endian;
+            if (testBit(page.readable, i)) flags |= MemoryByte.READABLE | MemoryByte.WRITABLE;
+            if (page.prev_data != null && testBit(page.prev_loaded, i)) {
+                flags |= MemoryByte.HISTORY_KNOWN;
+                if (page.prev_data[i] != page.data[i]) flags |= MemoryByte.CHANGED;
+            }
+            res[n] = new MemoryByte(page.data[i], (byte)flags);
+            i++;
+        }
+        return res;
+    }
+
+    /**
+     * Invalidate memory ranges reported by Memory service memoryChanged event.
+     * @param addr - range addresses, null means all memory.
+     * @param size - range sizes.
+     */
+    void invalidate(Number[] addr, long[] size) {
+        assert Protocol.isDispatchThread();
+        if (addr == null || size == null) {
+            invalidateAll(false);
+            return;
+        }
+        for (int n = 0; n < addr.length && n < size.length; n++) {
+            if (addr[n] == null || size[n] <= 0) continue;
+            BigInteger start = addr[n] instanceof BigInteger ? (BigInteger)addr[n] : BigInteger.valueOf(addr[n].longValue());
+            BigInteger end = start.add(BigInteger.valueOf(size[n]));
+            for (Page page : pages.values()) {
+                BigInteger page_end = page.addr.add(BigInteger.valueOf(PAGE_SIZE));
+                if (page.addr.compareTo(end) >= 0 || page_end.compareTo(start) <= 0) continue;
+                int from = start.compareTo(page.addr) <= 0 ? 0 : start.subtract(page.addr).intValue();
+                int to = end.compareTo(page_end) >= 0 ? PAGE_SIZE : end.subtract(page.addr).intValue();
+                clearRange(page.loaded, from, to);
+                page.gen++;
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached memory.
+     * @param suspended - true if the context is suspended, current data becomes history.
+     */
+    void invalidateAll(boolean suspended) {
+        assert Protocol.isDispatchThread();
+        for (Page page : pages.values()) {
+            page.gen++;
+            if (isEmpty(page.loaded)) continue;
+            if (suspended) {
+                page.prev_data = page.data.clone();
+                page.prev_loaded = page.loaded.clone();
+            }
+            clearRange(page.loaded, 0, PAGE_SIZE);
+        }
+    }
+}
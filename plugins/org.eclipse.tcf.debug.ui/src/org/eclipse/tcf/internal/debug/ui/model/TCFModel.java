@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2021 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.debug.ui.model;
 
+import java.io.File;
 import java.math.BigInteger;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
@@ -20,6 +21,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.WeakHashMap;
 
 import org.eclipse.core.runtime.CoreException;
@@ -102,6 +104,7 @@ import org.eclipse.tcf.internal.debug.model.ITCFConstants;
 import org.eclipse.tcf.internal.debug.model.TCFContextState;
 import org.eclipse.tcf.internal.debug.model.TCFLaunch;
 import org.eclipse.tcf.internal.debug.model.TCFSourceRef;
+import org.eclipse.tcf.internal.debug.model.TCFSymFileRef;
 import org.eclipse.tcf.internal.debug.ui.Activator;
 import org.eclipse.tcf.internal.debug.ui.adapters.TCFNodePropertySource;
 import org.eclipse.tcf.internal.debug.ui.commands.BackIntoCommand;
@@ -119,8 +122,10 @@ import org.eclipse.tcf.internal.debug.ui.commands.TerminateCommand;
 import org.eclipse.tcf.internal.debug.ui.preferences.TCFPreferences;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IPeer;
 import org.eclipse.tcf.protocol.IService;
 import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.JSON;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IDisassembly;
 import org.eclipse.tcf.services.ILineNumbers;
@@ -173,6 +178,7 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
 
     boolean no_incremental_trace;
     boolean no_min_state;
+    boolean no_getm;
 
     /**
      * A dummy editor input to open the disassembly view as editor.
@@ -251,6 +257,7 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
     private boolean qualified_type_names_enabled;
     private boolean filter_variants_by_discriminant;
     private boolean suspend_after_reset;
+    private boolean persistent_symbol_cache;
 
     private final Map<String,String> action_results = new HashMap<String,String>();
     private final HashMap<String,TCFAction> active_actions = new HashMap<String,TCFAction>();
@@ -262,6 +269,9 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
     private final Map<Class<?>,Object> adapters = new HashMap<Class<?>,Object>();
 
     private final List<TCFMemoryBlock> mem_blocks = new ArrayList<TCFMemoryBlock>();
+    private final Map<String,TCFMemoryCache> mem_caches = new HashMap<String,TCFMemoryCache>();
+    private final Map<String,TCFSymbolDiskCache> sym_disk_caches = new HashMap<String,TCFSymbolDiskCache>();
+    private final Map<String,Runnable> sym_disk_cache_open = new HashMap<String,Runnable>();
     private final Map<String,IMemoryBlockRetrievalExtension> mem_retrieval = new HashMap<String,IMemoryBlockRetrievalExtension>();
     private final IMemoryBlockRetrievalExtension mem_not_supported = new IMemoryBlockRetrievalExtension() {
         @Override
@@ -284,6 +294,7 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
 
         final Set<String> changeset = new HashSet<String>();
         final Set<String> suspended = new HashSet<String>();
+        final Set<String> flush = new HashSet<String>();
 
         MemoryBlocksUpdate() {
             mem_blocks_update = this;
@@ -293,9 +304,10 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             }
         }
 
-        void add(String id, boolean suspended) {
+        void add(String id, boolean suspended, boolean flush) {
             changeset.add(id);
             if (suspended) this.suspended.add(id);
+            if (flush) this.flush.add(id);
         }
 
         public void run() {
@@ -314,12 +326,16 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
                         for (TCFMemoryBlock b : mem_blocks) {
                             if (b.getMemoryID().equals(node.id)) {
                                 if (suspended.contains(id)) suspended.add(node.id);
+                                if (flush.contains(id)) flush.add(node.id);
                                 set.add(b);
                             }
                         }
                     }
                 }
-                for (TCFMemoryBlock b : set) b.onMemoryChanged(suspended.contains(b.getMemoryID()));
+                for (TCFMemoryBlock b : set) {
+                    String mem_id = b.getMemoryID();
+                    b.onMemoryChanged(suspended.contains(mem_id), flush.contains(mem_id));
+                }
             }
             launch.removePendingClient(this);
             mem_blocks_update = null;
@@ -394,7 +410,10 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             if (node instanceof TCFNodeExecContext) {
                 ((TCFNodeExecContext)node).onMemoryChanged(addr, size);
             }
-            onMemoryChanged(id, true, false, false);
+            // Only changed ranges of the memory cache need to be invalidated
+            TCFMemoryCache cache = mem_caches.get(id);
+            if (cache != null) cache.invalidate(addr, size);
+            onMemoryChanged(id, true, false, false, cache == null);
         }
     };
 
@@ -778,6 +797,7 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             qualified_type_names_enabled = prefs_store.getBoolean(TCFPreferences.PREF_SHOW_QUALIFIED_TYPE_NAMES);
             filter_variants_by_discriminant = prefs_store.getBoolean(TCFPreferences.PREF_FILTER_VARIANTS_BY_DISCRIMINANT);
             suspend_after_reset = prefs_store.getBoolean(TCFPreferences.PREF_SUSPEND_AFTER_RESET);
+            persistent_symbol_cache = prefs_store.getBoolean(TCFPreferences.PREF_PERSISTENT_SYMBOL_CACHE);
             final boolean affectsExpressionsOnly = event != null && (
                     TCFPreferences.PREF_SHOW_QUALIFIED_TYPE_NAMES.equals(event.getProperty()) ||
                     TCFPreferences.PREF_FILTER_VARIANTS_BY_DISCRIMINANT.equals(event.getProperty()));
@@ -887,6 +907,148 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
         return b;
     }
 
+    /**
+     * Get memory cache of a memory context.
+     * The cache is shared by all memory blocks of the context.
+     * @param id - memory context ID.
+     * @return the memory cache.
+     */
+    TCFMemoryCache getMemoryCache(String id) {
+        assert Protocol.isDispatchThread();
+        TCFMemoryCache cache = mem_caches.get(id);
+        if (cache == null) mem_caches.put(id, cache = new TCFMemoryCache());
+        return cache;
+    }
+
+    /**
+     * Open persistent symbol cache for a memory context.
+     * The cache is identified by the target and the symbol files loaded into the context,
+     * a file is identified by its path, size and modification time.
+     * Symbol files must be accessible on the host, otherwise no cache is opened.
+     * Called when the context is created and every time its memory map changes.
+     * @param node - memory context node.
+     */
+    void openSymbolDiskCache(final TCFNodeExecContext node) {
+        assert Protocol.isDispatchThread();
+        final String id = node.id;
+        closeSymbolDiskCache(id);
+        if (!persistent_symbol_cache) return;
+        if (launch.getService(ISymbols.class) == null) return;
+        Runnable r = new Runnable() {
+            public void run() {
+                if (sym_disk_cache_open.get(id) != this) return;
+                if (node.isDisposed()) {
+                    sym_disk_cache_open.remove(id);
+                    return;
+                }
+                TCFDataCache<IMemory.MemoryContext> mem_cache = node.getMemoryContext();
+                if (!mem_cache.validate(this)) return;
+                TCFDataCache<TCFNodeExecContext.MemoryRegion[]> map_cache = node.getMemoryMap();
+                if (!map_cache.validate(this)) return;
+                IMemory.MemoryContext mem = mem_cache.getData();
+                TCFNodeExecContext.MemoryRegion[] map = map_cache.getData();
+                Set<String> files = new TreeSet<String>();
+                if (mem != null && map != null) {
+                    for (TCFNodeExecContext.MemoryRegion m : map) {
+                        String file_name = m.region.getFileName();
+                        Number addr = m.region.getAddress();
+                        if (file_name == null || addr == null) continue;
+                        TCFDataCache<TCFSymFileRef> sym_cache = node.getSymFileInfo(JSON.toBigInteger(addr));
+                        if (sym_cache == null) continue;
+                        if (!sym_cache.validate(this)) return;
+                        TCFSymFileRef sym_data = sym_cache.getData();
+                        if (sym_data != null && sym_data.props != null) {
+                            String sym_file_name = (String)sym_data.props.get("FileName");
+                            if (sym_file_name != null) file_name = sym_file_name;
+                        }
+                        File file = new File(file_name);
+                        if (!file.isFile()) {
+                            files = null;
+                            break;
+                        }
+                        files.add(file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified());
+                    }
+                }
+                sym_disk_cache_open.remove(id);
+                if (files == null || files.size() == 0) return;
+                IPeer peer = channel.getRemotePeer();
+                StringBuffer bf = new StringBuffer();
+                bf.append(peer.getName()).append('\n');
+                bf.append(peer.getOSName()).append('\n');
+                bf.append(id).append('\n');
+                for (String s : files) bf.append(s).append('\n');
+                TCFSymbolDiskCache cache = TCFSymbolDiskCache.open(bf.toString());
+                if (cache != null) sym_disk_caches.put(id, cache);
+            }
+        };
+        sym_disk_cache_open.put(id, r);
+        Protocol.invokeLater(r);
+    }
+
+    private void closeSymbolDiskCache(String id) {
+        sym_disk_cache_open.remove(id);
+        TCFSymbolDiskCache cache = sym_disk_caches.remove(id);
+        if (cache != null) cache.close();
+    }
+
+    /**
+     * Get symbol properties from persistent symbol caches.
+     * @param id - symbol ID.
+     * @return the symbol or null if not found.
+     */
+    ISymbols.Symbol getCachedSymbol(String id) {
+        for (TCFSymbolDiskCache cache : sym_disk_caches.values()) {
+            ISymbols.Symbol sym = cache.getContext(id);
+            if (sym != null) return sym;
+        }
+        return null;
+    }
+
+    /**
+     * Get symbol children from persistent symbol caches.
+     * @param id - symbol ID.
+     * @return children IDs or null if not found.
+     */
+    String[] getCachedSymbolChildren(String id) {
+        for (TCFSymbolDiskCache cache : sym_disk_caches.values()) {
+            String[] ids = cache.getChildren(id);
+            if (ids != null) return ids;
+        }
+        return null;
+    }
+
+    /**
+     * Store symbol properties in the persistent cache of the symbol owner.
+     * @param sym - the symbol.
+     */
+    void cacheSymbol(ISymbols.Symbol sym) {
+        if (sym_disk_caches.isEmpty()) return;
+        if (!TCFSymbolDiskCache.isCacheable(sym)) return;
+        TCFNode n = getNode(sym.getOwnerID());
+        while (n != null) {
+            TCFSymbolDiskCache cache = sym_disk_caches.get(n.id);
+            if (cache != null) {
+                cache.putContext(sym);
+                return;
+            }
+            n = n.parent;
+        }
+    }
+
+    /**
+     * Store symbol children in a persistent cache that already contains the symbol.
+     * @param id - symbol ID.
+     * @param ids - children IDs.
+     */
+    void cacheSymbolChildren(String id, String[] ids) {
+        for (TCFSymbolDiskCache cache : sym_disk_caches.values()) {
+            if (cache.hasContext(id)) {
+                cache.putChildren(id, ids);
+                return;
+            }
+        }
+    }
+
     private IMemoryBlockRetrievalExtension getMemoryBlockRetrieval(final String id) {
         /*
          * Note: platform uses MemoryBlockRetrieval objects to link memory blocks with selection in the Debug view.
@@ -1001,6 +1163,10 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
         TCFMemoryBlock.onModelDisconnected(this);
         mem_retrieval.clear();
         mem_blocks.clear();
+        mem_caches.clear();
+        for (TCFSymbolDiskCache cache : sym_disk_caches.values()) cache.close();
+        sym_disk_caches.clear();
+        sym_disk_cache_open.clear();
         // Refresh the Debug view - cannot be done through ModelProxy since it is disposed
         refreshLaunchView();
         assert id2node.size() == 0;
@@ -1055,6 +1221,10 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
     }
 
     void onMemoryChanged(String id, boolean notify_references, boolean context_suspended, boolean mem_map) {
+        onMemoryChanged(id, notify_references, context_suspended, mem_map, true);
+    }
+
+    private void onMemoryChanged(String id, boolean notify_references, boolean context_suspended, boolean mem_map, boolean flush) {
         if (channel == null) return;
         if (notify_references) {
             String prs_id = id;
@@ -1079,7 +1249,7 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             }
         }
         if (mem_blocks_update == null) new MemoryBlocksUpdate();
-        mem_blocks_update.add(id, context_suspended);
+        mem_blocks_update.add(id, context_suspended, flush);
     }
 
     public TCFAction getActiveAction(String id) {
@@ -1172,6 +1342,8 @@ public class TCFModel implements ITCFModel, IElementContentProvider, IElementLab
             }
             action_results.remove(id);
             if (mem_blocks_update != null) mem_blocks_update.changeset.remove(id);
+            mem_caches.remove(id);
+            closeSymbolDiskCache(id);
             set.add(id);
         }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -118,6 +118,10 @@ public class TCFNodeArrayPartition extends TCFNode {
         children.onMemoryMapChanged();
     }
 
+    void cancelPendingEvaluation() {
+        children.cancelPendingEvaluation();
+    }
+
     @Override
     public int compareTo(TCFNode n) {
         TCFNodeArrayPartition p = (TCFNodeArrayPartition)n;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2021 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.Path;
@@ -82,61 +83,38 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
     private final TCFData<String> full_name;
     private final TCFData<Collection<Map<String,Object>>> reset_capabilities;
 
-    private LinkedHashMap<BigInteger,TCFDataCache<TCFSymFileRef>> syms_info_lookup_cache;
-    private LinkedHashMap<BigInteger,TCFDataCache<TCFSourceRef>> line_info_lookup_cache;
-    private LinkedHashMap<BigInteger,TCFDataCache<TCFFunctionRef>> func_info_lookup_cache;
-    private LookupCacheTimer lookup_cache_timer;
-
-    private int mem_seq_no;
-    private int exe_seq_no;
-
-    private static final TCFNode[] empty_node_array = new TCFNode[0];
+    private final LinkedHashMap<BigInteger,TCFDataCache<TCFSymFileRef>> syms_info_lookup_cache =
+            new LinkedHashMap<BigInteger,TCFDataCache<TCFSymFileRef>>(11, 0.75f, true);
+    private final LinkedHashMap<BigInteger,TCFDataCache<TCFSourceRef>> line_info_lookup_cache =
+            new LinkedHashMap<BigInteger,TCFDataCache<TCFSourceRef>>(11, 0.75f, true);
+    private final LinkedHashMap<BigInteger,TCFDataCache<TCFFunctionRef>> func_info_lookup_cache =
+            new LinkedHashMap<BigInteger,TCFDataCache<TCFFunctionRef>>(11, 0.75f, true);
 
     /*
-     * LookupCacheTimer is executed periodically to dispose least-recently
-     * accessed entries in line_info_lookup_cache and func_info_lookup_cache.
-     * The timer disposes itself when both caches become empty.
+     * Address ranges covered by previous lookup replies. Lookup of an address inside a known range
+     * is answered without sending a command. Line info is requested for whole aligned blocks of
+     * LINE_INFO_BLOCK_BITS address bits, so neighbor code areas are fetched with a single command.
+     * Function info is cached for line number table rows: all addresses of a row belong to
+     * the same innermost scope. Symbol file info is cached for memory map regions.
      */
-    private class LookupCacheTimer implements Runnable {
+    private final TCFAddressRangeCache<Map<String,Object>> syms_info_ranges =
+            new TCFAddressRangeCache<Map<String,Object>>(256);
+    private final TCFAddressRangeCache<ILineNumbers.CodeArea> line_info_ranges =
+            new TCFAddressRangeCache<ILineNumbers.CodeArea>(4096);
+    private final TCFAddressRangeCache<String> func_info_ranges =
+            new TCFAddressRangeCache<String>(4096);
+    private final Map<BigInteger,TCFDataCache<TCFSourceRef>> line_info_blocks =
+            new HashMap<BigInteger,TCFDataCache<TCFSourceRef>>();
+    private int lookup_cache_gen;
+    private boolean lookup_cache_trim;
+
+    private static final int LINE_INFO_BLOCK_BITS = 8;
+    private static final int MAX_LOOKUP_CACHE_SIZE = 256;
 
-        LookupCacheTimer() {
-            Protocol.invokeLater(4000, this);
-        }
+    private int mem_seq_no;
+    private int exe_seq_no;
 
-        public void run() {
-            if (isDisposed()) return;
-            if (syms_info_lookup_cache != null) {
-                BigInteger addr = syms_info_lookup_cache.keySet().iterator().next();
-                TCFDataCache<?> cache = syms_info_lookup_cache.get(addr);
-                if (!cache.isPending()) {
-                    syms_info_lookup_cache.remove(addr).dispose();
-                    if (syms_info_lookup_cache.size() == 0) syms_info_lookup_cache = null;
-                }
-            }
-            if (line_info_lookup_cache != null) {
-                BigInteger addr = line_info_lookup_cache.keySet().iterator().next();
-                TCFDataCache<?> cache = line_info_lookup_cache.get(addr);
-                if (!cache.isPending()) {
-                    line_info_lookup_cache.remove(addr).dispose();
-                    if (line_info_lookup_cache.size() == 0) line_info_lookup_cache = null;
-                }
-            }
-            if (func_info_lookup_cache != null) {
-                BigInteger addr = func_info_lookup_cache.keySet().iterator().next();
-                TCFDataCache<?> cache = func_info_lookup_cache.get(addr);
-                if (!cache.isPending()) {
-                    func_info_lookup_cache.remove(addr).dispose();
-                    if (func_info_lookup_cache.size() == 0) func_info_lookup_cache = null;
-                }
-            }
-            if (syms_info_lookup_cache == null && line_info_lookup_cache == null && func_info_lookup_cache == null) {
-                lookup_cache_timer = null;
-            }
-            else {
-                Protocol.invokeLater(2500, this);
-            }
-        }
-    }
+    private static final TCFNode[] empty_node_array = new TCFNode[0];
 
     public static class ChildrenStateInfo {
         public boolean running;
@@ -568,6 +546,7 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
             }
         };
         TCFMemoryBlock.onMemoryNodeCreated(this);
+        model.openSymbolDiskCache(this);
         updateTerminal();
     }
 
@@ -631,62 +610,63 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
 
     public TCFDataCache<TCFSymFileRef> getSymFileInfo(final BigInteger addr) {
         if (addr == null || isDisposed()) return null;
-        TCFDataCache<TCFSymFileRef> ref_cache;
-        if (syms_info_lookup_cache != null) {
-            ref_cache = syms_info_lookup_cache.get(addr);
-            if (ref_cache != null) return ref_cache;
-        }
+        TCFDataCache<TCFSymFileRef> ref_cache = syms_info_lookup_cache.get(addr);
+        if (ref_cache != null) return ref_cache;
         final ISymbols syms = launch.getService(ISymbols.class);
         if (syms == null) return null;
-        if (syms_info_lookup_cache == null) {
-            syms_info_lookup_cache = new LinkedHashMap<BigInteger,TCFDataCache<TCFSymFileRef>>(11, 0.75f, true);
-            if (lookup_cache_timer == null) lookup_cache_timer = new LookupCacheTimer();
-        }
         syms_info_lookup_cache.put(addr, ref_cache = new TCFData<TCFSymFileRef>(channel) {
             @Override
             protected boolean startDataRetrieval() {
                 if (!memory_node.validate(this)) return false;
                 IMemory.MemoryContext mem_data = null;
+                MemoryRegion region = null;
                 TCFNodeExecContext mem = memory_node.getData();
                 if (mem != null) {
                     TCFDataCache<IMemory.MemoryContext> mem_cache = mem.mem_context;
                     if (!mem_cache.validate(this)) return false;
                     mem_data = mem_cache.getData();
+                    if (!mem.memory_map.validate(this)) return false;
+                    region = findMemoryRegion(mem.memory_map.getData(), addr);
                 }
                 final TCFSymFileRef ref_data = new TCFSymFileRef();
                 if (mem_data != null) {
                     ref_data.context_id = mem_data.getID();
                     ref_data.address_size = mem_data.getAddressSize();
                 }
+                ref_data.address = addr;
+                if (region != null) {
+                    TCFAddressRangeCache.Range<Map<String,Object>> r = syms_info_ranges.find(addr);
+                    if (r != null) {
+                        ref_data.props = r.value;
+                        set(null, null, ref_data);
+                        return true;
+                    }
+                }
+                final MemoryRegion sym_region = region;
+                final int gen = lookup_cache_gen;
                 command = syms.getSymFileInfo(ref_data.context_id, addr, new ISymbols.DoneGetSymFileInfo() {
                     public void doneGetSymFileInfo(IToken token, Exception error, Map<String,Object> props) {
-                        ref_data.address = addr;
                         ref_data.error = error;
                         ref_data.props = props;
+                        if (error == null && props != null && sym_region != null && gen == lookup_cache_gen) {
+                            syms_info_ranges.put(sym_region.addr_start, sym_region.addr_end, props);
+                        }
                         set(token, null, ref_data);
                     }
                 });
                 return false;
             }
         });
+        trimLookupCaches();
         return ref_cache;
     }
 
     public TCFDataCache<TCFSourceRef> getLineInfo(final BigInteger addr) {
         if (isDisposed()) return null;
-        TCFDataCache<TCFSourceRef> ref_cache;
-        if (line_info_lookup_cache != null) {
-            ref_cache = line_info_lookup_cache.get(addr);
-            if (ref_cache != null) return ref_cache;
-        }
+        TCFDataCache<TCFSourceRef> ref_cache = line_info_lookup_cache.get(addr);
+        if (ref_cache != null) return ref_cache;
         final ILineNumbers ln = launch.getService(ILineNumbers.class);
         if (ln == null) return null;
-        final BigInteger n0 = addr;
-        final BigInteger n1 = n0.add(BigInteger.valueOf(1));
-        if (line_info_lookup_cache == null) {
-            line_info_lookup_cache = new LinkedHashMap<BigInteger,TCFDataCache<TCFSourceRef>>(11, 0.75f, true);
-            if (lookup_cache_timer == null) lookup_cache_timer = new LookupCacheTimer();
-        }
         line_info_lookup_cache.put(addr, ref_cache = new TCFData<TCFSourceRef>(channel) {
             @Override
             protected boolean startDataRetrieval() {
@@ -703,33 +683,39 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
                     ref_data.context_id = mem_data.getID();
                     ref_data.address_size = mem_data.getAddressSize();
                 }
+                ref_data.address = addr;
+                TCFAddressRangeCache.Range<ILineNumbers.CodeArea> r = line_info_ranges.find(addr);
+                if (r != null) {
+                    ref_data.area = r.value;
+                    set(null, null, ref_data);
+                    return true;
+                }
+                final BigInteger n0 = addr.shiftRight(LINE_INFO_BLOCK_BITS).shiftLeft(LINE_INFO_BLOCK_BITS);
+                BigInteger n1 = n0.add(BigInteger.ONE.shiftLeft(LINE_INFO_BLOCK_BITS));
+                if (ref_data.address_size > 0) {
+                    BigInteger max = BigInteger.ONE.shiftLeft(ref_data.address_size * 8);
+                    if (n1.compareTo(max) > 0) n1 = max;
+                }
+                if (n1.compareTo(addr) <= 0) n1 = addr.add(BigInteger.ONE);
+                TCFDataCache<TCFSourceRef> block = line_info_blocks.get(n0);
+                if (block != null && block != this) {
+                    /* Another lookup is already reading the block, wait for it and then check the ranges again */
+                    if (!block.validate(this)) return false;
+                }
+                line_info_blocks.put(n0, this);
+                final TCFDataCache<TCFSourceRef> cache = this;
+                final BigInteger block_end = n1;
+                final int gen = lookup_cache_gen;
                 command = ln.mapToSource(id, n0, n1, new ILineNumbers.DoneMapToSource() {
                     public void doneMapToSource(IToken token, Exception error, ILineNumbers.CodeArea[] areas) {
-                        ref_data.address = addr;
+                        if (line_info_blocks.get(n0) == cache) line_info_blocks.remove(n0);
                         if (error == null && areas != null && areas.length > 0) {
-                            for (ILineNumbers.CodeArea area : areas) {
-                                BigInteger a0 = JSON.toBigInteger(area.start_address);
-                                BigInteger a1 = JSON.toBigInteger(area.end_address);
-                                if (n0.compareTo(a0) >= 0 && n0.compareTo(a1) < 0) {
-                                    boolean add = true;
-                                    if (ref_data.area != null) {
-                                        BigInteger b0 = JSON.toBigInteger(ref_data.area.start_address);
-                                        BigInteger b1 = JSON.toBigInteger(ref_data.area.end_address);
-                                        add = a1.subtract(a0).compareTo(b1.subtract(b0)) < 0;
-                                    }
-                                    if (add) {
-                                        if (area.start_address != a0 || area.end_address != a1) {
-                                            area = new ILineNumbers.CodeArea(area.directory, area.file,
-                                                    area.start_line, area.start_column,
-                                                    area.end_line, area.end_column,
-                                                    a0, a1, area.isa,
-                                                    area.is_statement, area.basic_block,
-                                                    area.prologue_end, area.epilogue_begin);
-                                        }
-                                        ref_data.area = area;
-                                    }
-                                }
-                            }
+                            ILineNumbers.CodeArea[] arr = normalizeCodeAreas(areas);
+                            if (gen == lookup_cache_gen) addLineInfoRanges(n0, block_end, arr);
+                            ref_data.area = findCodeArea(arr, addr);
+                        }
+                        else if (error == null && gen == lookup_cache_gen) {
+                            line_info_ranges.put(n0, block_end, null);
                         }
                         ref_data.error = error;
                         set(token, null, ref_data);
@@ -738,22 +724,16 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
                 return false;
             }
         });
+        trimLookupCaches();
         return ref_cache;
     }
 
     public TCFDataCache<TCFFunctionRef> getFuncInfo(final BigInteger addr) {
         if (isDisposed()) return null;
-        TCFDataCache<TCFFunctionRef> ref_cache;
-        if (func_info_lookup_cache != null) {
-            ref_cache = func_info_lookup_cache.get(addr);
-            if (ref_cache != null) return ref_cache;
-        }
+        TCFDataCache<TCFFunctionRef> ref_cache = func_info_lookup_cache.get(addr);
+        if (ref_cache != null) return ref_cache;
         final ISymbols syms = launch.getService(ISymbols.class);
         if (syms == null) return null;
-        if (func_info_lookup_cache == null) {
-            func_info_lookup_cache = new LinkedHashMap<BigInteger,TCFDataCache<TCFFunctionRef>>(11, 0.75f, true);
-            if (lookup_cache_timer == null) lookup_cache_timer = new LookupCacheTimer();
-        }
         func_info_lookup_cache.put(addr, ref_cache = new TCFData<TCFFunctionRef>(channel) {
             @Override
             protected boolean startDataRetrieval() {
@@ -771,52 +751,167 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
                     ref_data.address_size = mem_data.getAddressSize();
                 }
                 ref_data.address = addr;
+                TCFAddressRangeCache.Range<String> r = func_info_ranges.find(addr);
+                if (r != null) {
+                    ref_data.symbol_id = r.value;
+                    set(null, null, ref_data);
+                    return true;
+                }
+                final int gen = lookup_cache_gen;
                 command = syms.findByAddr(id, addr, new ISymbols.DoneFind() {
                     public void doneFind(IToken token, Exception error, String symbol_id) {
                         ref_data.error = error;
                         ref_data.symbol_id = symbol_id;
+                        if (error == null && symbol_id != null && gen == lookup_cache_gen) {
+                            TCFAddressRangeCache.Range<ILineNumbers.CodeArea> row = line_info_ranges.find(addr);
+                            if (row != null && row.value != null) func_info_ranges.put(row.lo, row.hi, symbol_id);
+                        }
                         set(token, null, ref_data);
                     }
                 });
                 return false;
             }
         });
+        trimLookupCaches();
         return ref_cache;
     }
 
-    private void clearLookupCaches() {
-        if (syms_info_lookup_cache != null) {
-            Iterator<TCFDataCache<TCFSymFileRef>> i = syms_info_lookup_cache.values().iterator();
-            while (i.hasNext()) {
-                TCFDataCache<TCFSymFileRef> cache = i.next();
-                if (cache.isPending()) continue;
-                cache.dispose();
-                i.remove();
+    /*
+     * Find memory map region that contains given address.
+     * Returns null if the region is overlapped by another region,
+     * since then the region does not identify a single symbol file.
+     */
+    private static MemoryRegion findMemoryRegion(MemoryRegion[] map, BigInteger addr) {
+        if (map == null) return null;
+        MemoryRegion region = null;
+        for (MemoryRegion r : map) {
+            if (r.contains(addr)) {
+                region = r;
+                break;
             }
-            if (syms_info_lookup_cache.size() == 0) syms_info_lookup_cache = null;
-        }
-        if (line_info_lookup_cache != null) {
-            Iterator<TCFDataCache<TCFSourceRef>> i = line_info_lookup_cache.values().iterator();
-            while (i.hasNext()) {
-                TCFDataCache<TCFSourceRef> cache = i.next();
-                if (cache.isPending()) continue;
-                cache.dispose();
-                i.remove();
+        }
+        if (region == null) return null;
+        for (MemoryRegion r : map) {
+            if (r == region || r.addr_start == null || r.addr_end == null) continue;
+            if (r.addr_start.compareTo(region.addr_end) < 0 && r.addr_end.compareTo(region.addr_start) > 0) return null;
+        }
+        return region;
+    }
+
+    private static ILineNumbers.CodeArea[] normalizeCodeAreas(ILineNumbers.CodeArea[] areas) {
+        ILineNumbers.CodeArea[] arr = new ILineNumbers.CodeArea[areas.length];
+        for (int i = 0; i < areas.length; i++) {
+            ILineNumbers.CodeArea area = areas[i];
+            BigInteger a0 = JSON.toBigInteger(area.start_address);
+            BigInteger a1 = JSON.toBigInteger(area.end_address);
+            if (area.start_address != a0 || area.end_address != a1) {
+                area = new ILineNumbers.CodeArea(area.directory, area.file,
+                        area.start_line, area.start_column,
+                        area.end_line, area.end_column,
+                        a0, a1, area.isa,
+                        area.is_statement, area.basic_block,
+                        area.prologue_end, area.epilogue_begin);
+            }
+            arr[i] = area;
+        }
+        return arr;
+    }
+
+    /*
+     * Find the smallest code area that contains given address.
+     * The areas must be normalized by normalizeCodeAreas().
+     */
+    private static ILineNumbers.CodeArea findCodeArea(ILineNumbers.CodeArea[] areas, BigInteger addr) {
+        ILineNumbers.CodeArea res = null;
+        BigInteger res_size = null;
+        for (ILineNumbers.CodeArea area : areas) {
+            BigInteger a0 = (BigInteger)area.start_address;
+            BigInteger a1 = (BigInteger)area.end_address;
+            if (addr.compareTo(a0) < 0 || addr.compareTo(a1) >= 0) continue;
+            BigInteger size = a1.subtract(a0);
+            if (res == null || size.compareTo(res_size) < 0) {
+                res = area;
+                res_size = size;
+            }
+        }
+        return res;
+    }
+
+    /*
+     * Split reply of mapToSource(n0, n1) into address ranges that map to the same code area.
+     * Addresses inside [n0, n1) that are not covered by any area are cached as having no line info.
+     */
+    private void addLineInfoRanges(BigInteger n0, BigInteger n1, ILineNumbers.CodeArea[] areas) {
+        TreeSet<BigInteger> bounds = new TreeSet<BigInteger>();
+        bounds.add(n0);
+        bounds.add(n1);
+        for (ILineNumbers.CodeArea area : areas) {
+            bounds.add((BigInteger)area.start_address);
+            bounds.add((BigInteger)area.end_address);
+        }
+        BigInteger lo = null;
+        BigInteger prev = null;
+        ILineNumbers.CodeArea val = null;
+        for (BigInteger p : bounds) {
+            if (prev != null) {
+                ILineNumbers.CodeArea area = findCodeArea(areas, prev);
+                boolean known = area != null || (prev.compareTo(n0) >= 0 && p.compareTo(n1) <= 0);
+                if (lo != null && (!known || area != val)) {
+                    line_info_ranges.put(lo, prev, val);
+                    lo = null;
+                }
+                if (known && lo == null) {
+                    lo = prev;
+                    val = area;
+                }
             }
-            if (line_info_lookup_cache.size() == 0) line_info_lookup_cache = null;
-        }
-        if (func_info_lookup_cache != null) {
-            Iterator<TCFDataCache<TCFFunctionRef>> i = func_info_lookup_cache.values().iterator();
-            while (i.hasNext()) {
-                TCFDataCache<TCFFunctionRef> cache = i.next();
-                if (cache.isPending()) continue;
-                cache.dispose();
-                i.remove();
+            prev = p;
+        }
+        if (lo != null) line_info_ranges.put(lo, prev, val);
+    }
+
+    /*
+     * Dispose least recently used lookup caches when there are too many of them.
+     * Trimming is done later, because callers keep using a cache for a while after getting it.
+     */
+    private void trimLookupCaches() {
+        if (lookup_cache_trim) return;
+        if (syms_info_lookup_cache.size() <= MAX_LOOKUP_CACHE_SIZE &&
+                line_info_lookup_cache.size() <= MAX_LOOKUP_CACHE_SIZE &&
+                func_info_lookup_cache.size() <= MAX_LOOKUP_CACHE_SIZE) return;
+        lookup_cache_trim = true;
+        Protocol.invokeLater(new Runnable() {
+            public void run() {
+                lookup_cache_trim = false;
+                if (isDisposed()) return;
+                trimLookupCache(syms_info_lookup_cache, MAX_LOOKUP_CACHE_SIZE);
+                trimLookupCache(line_info_lookup_cache, MAX_LOOKUP_CACHE_SIZE);
+                trimLookupCache(func_info_lookup_cache, MAX_LOOKUP_CACHE_SIZE);
             }
-            if (func_info_lookup_cache.size() == 0) func_info_lookup_cache = null;
+        });
+    }
+
+    private static <V> void trimLookupCache(LinkedHashMap<BigInteger,TCFDataCache<V>> map, int max) {
+        Iterator<TCFDataCache<V>> i = map.values().iterator();
+        while (map.size() > max && i.hasNext()) {
+            TCFDataCache<V> cache = i.next();
+            if (cache.isPending()) continue;
+            cache.dispose();
+            i.remove();
         }
     }
 
+    private void clearLookupCaches() {
+        lookup_cache_gen++;
+        syms_info_ranges.clear();
+        line_info_ranges.clear();
+        func_info_ranges.clear();
+        line_info_blocks.clear();
+        trimLookupCache(syms_info_lookup_cache, 0);
+        trimLookupCache(line_info_lookup_cache, 0);
+        trimLookupCache(func_info_lookup_cache, 0);
+    }
+
     private void updateTerminal() {
         new Runnable() {
             @Override
@@ -1725,6 +1820,7 @@ public class TCFNodeExecContext extends TCFNode implements ISymbolOwner, ITCFExe
     void onMemoryMapChanged() {
         clearLookupCaches();
         memory_map.reset();
+        model.openSymbolDiskCache(this);
         children_modules.onMemoryMapChanged();
         children_stack.onMemoryMapChanged();
         children_exps.onMemoryMapChanged();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008-2021 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.eclipse.tcf.internal.debug.ui.model;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,6 +30,7 @@ import org.eclipse.debug.internal.ui.viewers.model.provisional.IHasChildrenUpdat
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
 import org.eclipse.debug.ui.IDebugModelPresentation;
 import org.eclipse.debug.ui.IDebugUIConstants;
 import org.eclipse.jface.viewers.CellEditor;
@@ -87,6 +89,9 @@ public class TCFNodeExpression extends TCFNode implements IElementEditor, ICastT
     private String remote_expression_id;
     private Object update_generation;
 
+    /* Viewer updates waiting for data of this node, used to decide if pending evaluation can be canceled */
+    private final Set<IViewerUpdate> viewer_updates = new HashSet<IViewerUpdate>();
+
     private static int expr_cnt;
 
     private final static int max_type_chain_length = 256;
@@ -914,6 +919,31 @@ public class TCFNodeExpression extends TCFNode implements IElementEditor, ICastT
         return value;
     }
 
+    /**
+     * Start evaluation of the expression value ahead of a viewer request.
+     * Used for rows that are close to the visible part of a view.
+     */
+    void prefetchValue() {
+        if (is_empty || !enabled) return;
+        value.validate();
+    }
+
+    /**
+     * Cancel pending evaluation of the expression if no active viewer update is waiting for it,
+     * for example, when the node is scrolled out of view.
+     * The evaluation is restarted next time the data is requested.
+     */
+    void cancelPendingEvaluation() {
+        Iterator<IViewerUpdate> i = viewer_updates.iterator();
+        while (i.hasNext()) {
+            if (i.next().isCanceled()) i.remove();
+        }
+        if (viewer_updates.size() > 0) return;
+        if (string.isPending()) string.cancel();
+        if (value.isPending()) value.cancel();
+        if (rem_expression.isPending()) rem_expression.cancel();
+    }
+
     /**
      * Get expression type cache.
      * @return The expression type cache.
@@ -1316,6 +1346,15 @@ public class TCFNodeExpression extends TCFNode implements IElementEditor, ICastT
 
     @Override
     protected boolean getData(ILabelUpdate result, Runnable done) {
+        if (!getLabelData(result, done)) {
+            viewer_updates.add(result);
+            return false;
+        }
+        viewer_updates.remove(result);
+        return true;
+    }
+
+    private boolean getLabelData(ILabelUpdate result, Runnable done) {
         if (is_empty) {
             result.setLabel("Add new expression", 0);
             result.setImageDescriptor(ImageCache.getImageDescriptor(ImageCache.IMG_NEW_EXPRESSION), 0);
@@ -2131,7 +2170,11 @@ public class TCFNodeExpression extends TCFNode implements IElementEditor, ICastT
     @Override
     protected boolean getData(IHasChildrenUpdate result, Runnable done) {
         if (!is_empty && enabled) {
-            if (!children.validate(done)) return false;
+            if (!children.validate(done)) {
+                viewer_updates.add(result);
+                return false;
+            }
+            viewer_updates.remove(result);
             result.setHasChilren(children.size() > 0);
         }
         else {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -136,6 +136,18 @@ public class TCFNodeRegister extends TCFNode implements IElementEditor, IWatchIn
             }
         };
         value = new TCFData<byte[]>(channel) {
+            TCFRegisterValueBatch batch;
+            @Override
+            public void reset() {
+                // Values read by a batch sent before the reset are outdated
+                batch = null;
+                super.reset();
+            }
+            @Override
+            public void reset(byte[] data) {
+                batch = null;
+                super.reset(data);
+            }
             @Override
             protected boolean startDataRetrieval() {
                 Boolean b = usePrevValue(this);
@@ -174,6 +186,20 @@ public class TCFNodeRegister extends TCFNode implements IElementEditor, IWatchIn
                         set(null, context.getError(), null);
                         return true;
                     }
+                    if (batch == null) {
+                        TCFChildrenRegisters siblings = getSiblings();
+                        if (siblings != null) batch = siblings.addToValueBatch(ctx);
+                    }
+                    if (batch != null) {
+                        if (!batch.validate(this)) return false;
+                        Map<String,byte[]> values = batch.getData();
+                        if (batch.isRejected()) model.no_getm = true;
+                        batch = null;
+                        if (values != null && values.get(id) != null) {
+                            set(null, null, values.get(id));
+                            return true;
+                        }
+                    }
                     final TCFDataCache<?> cache = this;
                     command = ctx.get(new IRegisters.DoneGet() {
                         public void doneGet(IToken token, Exception error, byte[] value) {
@@ -213,6 +239,13 @@ public class TCFNodeRegister extends TCFNode implements IElementEditor, IWatchIn
         return expression_text;
     }
 
+    private TCFChildrenRegisters getSiblings() {
+        if (parent instanceof TCFNodeRegister) return ((TCFNodeRegister)parent).children;
+        if (parent instanceof TCFNodeStackFrame) return (TCFChildrenRegisters)((TCFNodeStackFrame)parent).getRegisters();
+        if (parent instanceof TCFNodeExecContext) return (TCFChildrenRegisters)((TCFNodeExecContext)parent).getRegisters();
+        return null;
+    }
+
     void setIndex(int index) {
         this.index = index;
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2010-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -44,11 +44,22 @@ public class TCFNodeSymbol extends TCFNode {
                     set(null, null, null);
                     return true;
                 }
+                ISymbols.Symbol cached = model.getCachedSymbol(id);
+                if (cached != null) {
+                    set(null, null, cached);
+                    setUpdatePolicy(cached.getOwnerID(), cached.getUpdatePolicy());
+                    return true;
+                }
                 command = syms.getContext(id, new ISymbols.DoneGetContext() {
                     public void doneGetContext(IToken token, Exception error, ISymbols.Symbol sym) {
                         set(token, error, sym);
-                        if (error != null || sym == null) setUpdatePolicy(null, 0);
-                        else setUpdatePolicy(sym.getOwnerID(), sym.getUpdatePolicy());
+                        if (error != null || sym == null) {
+                            setUpdatePolicy(null, 0);
+                        }
+                        else {
+                            setUpdatePolicy(sym.getOwnerID(), sym.getUpdatePolicy());
+                            model.cacheSymbol(sym);
+                        }
                     }
                 });
                 return false;
@@ -62,9 +73,15 @@ public class TCFNodeSymbol extends TCFNode {
                     set(null, null, null);
                     return true;
                 }
+                String[] cached = model.getCachedSymbolChildren(id);
+                if (cached != null) {
+                    set(null, null, cached);
+                    return true;
+                }
                 command = syms.getChildren(id, new ISymbols.DoneGetChildren() {
                     public void doneGetChildren(IToken token, Exception error, String[] ids) {
                         set(token, error, ids);
+                        if (error == null && ids != null) model.cacheSymbolChildren(id, ids);
                     }
                 });
                 return false;
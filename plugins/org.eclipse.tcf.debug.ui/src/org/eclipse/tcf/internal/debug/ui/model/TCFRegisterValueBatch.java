@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IRegisters;
+import org.eclipse.tcf.util.TCFDataCache;
+
+/**
+ * TCFRegisterValueBatch reads values of sibling registers with single IRegisters.getm command.
+ * Registers are added to the batch until the end of current dispatch cycle,
+ * then the command is sent. If the command fails, data is null and
+ * register nodes fall back to reading their values one by one.
+ */
+public class TCFRegisterValueBatch extends TCFDataCache<Map<String,byte[]>> {
+
+    private final IRegisters service;
+    private final List<IRegisters.Location> locs = new ArrayList<IRegisters.Location>();
+    private boolean started;
+    private boolean sent;
+    private boolean rejected;
+
+    /**
+     * @param channel - communication channel.
+     * @param service - Registers service, null if not available.
+     */
+    public TCFRegisterValueBatch(IChannel channel, IRegisters service) {
+        super(channel);
+        this.service = service;
+    }
+
+    /**
+     * Add a register to the batch.
+     * @param id - register context ID.
+     * @param size - register size in bytes.
+     * @return false if the command is already sent, and the register must be added to a new batch.
+     */
+    public boolean add(String id, int size) {
+        if (sent) return false;
+        locs.add(new IRegisters.Location(id, 0, size));
+        return true;
+    }
+
+    /**
+     * @return true if the agent does not support IRegisters.getm command.
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    @Override
+    protected boolean startDataRetrieval() {
+        if (!started) {
+            started = true;
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    sent = true;
+                    sendCommand();
+                }
+            });
+        }
+        return false;
+    }
+
+    private void sendCommand() {
+        if (isDisposed() || isValid()) return;
+        if (service == null) {
+            set(null, null, null);
+            return;
+        }
+        final IRegisters.Location[] arr = locs.toArray(new IRegisters.Location[locs.size()]);
+        command = service.getm(arr, new IRegisters.DoneGet() {
+            public void doneGet(IToken token, Exception error, byte[] value) {
+                Map<String,byte[]> data = null;
+                if (error instanceof IErrorReport && ((IErrorReport)error).getErrorCode() == IErrorReport.TCF_ERROR_INV_COMMAND) {
+                    rejected = true;
+                }
+                else if (error == null && value != null) {
+                    int offs = 0;
+                    data = new HashMap<String,byte[]>();
+                    for (IRegisters.Location l : arr) {
+                        if (offs + l.size > value.length) {
+                            data = null;
+                            break;
+                        }
+                        byte[] buf = new byte[l.size];
+                        System.arraycopy(value, offs, buf, 0, l.size);
+                        data.put(l.id, buf);
+                        offs += l.size;
+                    }
+                }
+                set(token, null, data);
+            }
+        });
+    }
+}
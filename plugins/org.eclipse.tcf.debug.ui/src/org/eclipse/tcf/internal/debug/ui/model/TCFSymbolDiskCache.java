@@ -0,0 +1,555 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.tcf.internal.debug.ui.Activator;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.services.ISymbols;
+
+/**
+ * TCFSymbolDiskCache is a persistent cache of symbol properties and children lists.
+ *
+ * A cache belongs to a memory context and is identified by the list of symbol files
+ * loaded into the context - file path, size and modification time. If any file changes,
+ * the context gets a different cache, old caches are deleted when their number exceeds MAX_CACHES.
+ * Caches that are currently open are never deleted.
+ * Only symbols that don't depend on execution state and don't have an address are cached:
+ * types, structure fields and constants.
+ *
+ * A cache is a directory with two files: append-only data file and memory mapped index.
+ * The index is an open addressing hash table that maps a symbol ID to a data file offset.
+ * The index can be rebuilt from the data file at any time.
+ *
+ * All methods must be called on the dispatch thread.
+ */
+public class TCFSymbolDiskCache {
+
+    private static final String DIR_NAME = "symbols";
+    private static final String DATA_FILE = "data";
+    private static final String INDEX_FILE = "index";
+
+    private static final int MAGIC = 0x54534331;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 16;
+    private static final int INIT_CAPACITY = 1024;
+
+    private static final int MAX_CACHES = 16;
+    private static final long MAX_DATA_SIZE = 64 * 1024 * 1024;
+
+    private static final byte
+        KIND_CONTEXT = 'C',
+        KIND_CHILDREN = 'H';
+
+    /* Open caches: directory -> number of open instances */
+    private static final Map<File,Integer> open_dirs = new HashMap<File,Integer>();
+
+    private final File dir;
+    private final RandomAccessFile data;
+    private final RandomAccessFile index_file;
+
+    private MappedByteBuffer index;
+    private int capacity;
+    private int count;
+    private boolean failed;
+
+    private TCFSymbolDiskCache(File dir) throws IOException {
+        this.dir = dir;
+        data = new RandomAccessFile(new File(dir, DATA_FILE), "rw");
+        index_file = new RandomAccessFile(new File(dir, INDEX_FILE), "rw");
+        if (!loadIndex()) rebuildIndex();
+    }
+
+    /**
+     * Open persistent cache for given set of symbol files.
+     * @param identity - string that identifies the target and the symbol files.
+     * @return the cache, or null if the cache cannot be opened.
+     */
+    static TCFSymbolDiskCache open(String identity) {
+        File root = null;
+        try {
+            root = Activator.getDefault().getStateLocation().append(DIR_NAME).toFile();
+        }
+        catch (Exception x) {
+            Activator.log("Cannot open symbol cache", x);
+            return null;
+        }
+        return open(root, identity);
+    }
+
+    /**
+     * Open persistent cache for given set of symbol files.
+     * @param root - directory that contains the caches.
+     * @param identity - string that identifies the target and the symbol files.
+     * @return the cache, or null if the cache cannot be opened.
+     */
+    public static TCFSymbolDiskCache open(File root, String identity) {
+        try {
+            File dir = new File(root, getKey(identity));
+            if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+            dir.setLastModified(System.currentTimeMillis());
+            deleteOldCaches(root);
+            TCFSymbolDiskCache cache = new TCFSymbolDiskCache(dir);
+            Integer n = open_dirs.get(dir);
+            open_dirs.put(dir, n == null ? 1 : n + 1);
+            return cache;
+        }
+        catch (Exception x) {
+            Activator.log("Cannot open symbol cache", x);
+            return null;
+        }
+    }
+
+    private static String getKey(String identity) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-1");
+        byte[] digest = md.digest(identity.getBytes("UTF-8"));
+        StringBuffer bf = new StringBuffer();
+        for (byte b : digest) {
+            bf.append(Character.forDigit((b >> 4) & 0xf, 16));
+            bf.append(Character.forDigit(b & 0xf, 16));
+        }
+        return bf.toString();
+    }
+
+    private static void deleteOldCaches(File root) {
+        File[] dirs = root.listFiles();
+        if (dirs == null || dirs.length <= MAX_CACHES) return;
+        Arrays.sort(dirs, new Comparator<File>() {
+            public int compare(File x, File y) {
+                long tx = x.lastModified();
+                long ty = y.lastModified();
+                if (tx > ty) return -1;
+                if (tx < ty) return +1;
+                return 0;
+            }
+        });
+        for (int i = MAX_CACHES; i < dirs.length; i++) {
+            if (open_dirs.containsKey(dirs[i])) continue;
+            File[] files = dirs[i].listFiles();
+            if (files != null) {
+                for (File f : files) f.delete();
+            }
+            dirs[i].delete();
+        }
+    }
+
+    /**
+     * Check if symbol properties can be reused in other debug sessions.
+     * @param sym - the symbol.
+     * @return true if the symbol can be cached.
+     */
+    public static boolean isCacheable(ISymbols.Symbol sym) {
+        if (sym.getID() == null) return false;
+        if (sym.getUpdatePolicy() != ISymbols.UPDATE_ON_MEMORY_MAP_CHANGES) return false;
+        if (sym.getAddress() != null || sym.getRegisterID() != null) return false;
+        switch (sym.getSymbolClass()) {
+        case type:
+        case reference:
+        case value:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static long hash(byte kind, String id) {
+        long h = 0xcbf29ce484222325L ^ kind;
+        int l = id.length();
+        for (int i = 0; i < l; i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    private boolean loadIndex() throws IOException {
+        long size = index_file.length();
+        if (size < HEADER_SIZE) return false;
+        index_file.seek(0);
+        if (index_file.readInt() != MAGIC) return false;
+        int n = index_file.readInt();
+        if (n < INIT_CAPACITY || (n & (n - 1)) != 0) return false;
+        if (size != HEADER_SIZE + (long)n * SLOT_SIZE) return false;
+        capacity = n;
+        index = index_file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        count = index.getInt(8);
+        return true;
+    }
+
+    private void mapIndex(int n) throws IOException {
+        capacity = n;
+        count = 0;
+        long size = HEADER_SIZE + (long)n * SLOT_SIZE;
+        /* The file is never truncated while mapped, some platforms don't allow that */
+        if (index == null) index_file.setLength(0);
+        else unmap(index);
+        index_file.setLength(size);
+        index = index_file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        for (int p = 0; p < size; p += 8) index.putLong(p, 0);
+        index.putInt(0, MAGIC);
+        index.putInt(4, capacity);
+        index.putInt(8, count);
+    }
+
+    /*
+     * Rebuild the index by scanning the data file.
+     * A truncated record at the end of the file is discarded.
+     */
+    private void rebuildIndex() throws IOException {
+        mapIndex(INIT_CAPACITY);
+        long pos = 0;
+        long end = data.length();
+        while (pos < end) {
+            try {
+                data.seek(pos);
+                byte kind = data.readByte();
+                String id = data.readUTF();
+                int len = data.readInt();
+                if (len < 0 || data.getFilePointer() + len > end) break;
+                insert(hash(kind, id), pos);
+                pos = data.getFilePointer() + len;
+            }
+            catch (IOException x) {
+                break;
+            }
+        }
+        if (pos < end) data.setLength(pos);
+    }
+
+    private void insert(long h, long offs) throws IOException {
+        if ((count + 1) * 2 > capacity) {
+            long[] hs = new long[count];
+            long[] os = new long[count];
+            int k = 0;
+            for (int i = 0; i < capacity; i++) {
+                int p = HEADER_SIZE + i * SLOT_SIZE;
+                long sh = index.getLong(p);
+                if (sh == 0) continue;
+                hs[k] = sh;
+                os[k] = index.getLong(p + 8);
+                k++;
+            }
+            mapIndex(capacity * 2);
+            for (int i = 0; i < k; i++) put(hs[i], os[i]);
+        }
+        put(h, offs + 1);
+    }
+
+    private void put(long h, long offs) {
+        int i = (int)h & (capacity - 1);
+        for (;;) {
+            int p = HEADER_SIZE + i * SLOT_SIZE;
+            if (index.getLong(p) == 0) {
+                index.putLong(p + 8, offs);
+                index.putLong(p, h);
+                index.putInt(8, ++count);
+                return;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+    }
+
+    /*
+     * Find a record, return its payload or null.
+     */
+    private byte[] find(byte kind, String id) {
+        if (failed) return null;
+        try {
+            long h = hash(kind, id);
+            int i = (int)h & (capacity - 1);
+            long end = data.length();
+            for (;;) {
+                int p = HEADER_SIZE + i * SLOT_SIZE;
+                long sh = index.getLong(p);
+                if (sh == 0) return null;
+                long offs = index.getLong(p + 8) - 1;
+                if (sh == h && offs >= 0 && offs < end) {
+                    data.seek(offs);
+                    if (data.readByte() == kind && data.readUTF().equals(id)) {
+                        int len = data.readInt();
+                        if (len < 0 || data.getFilePointer() + len > end) return null;
+                        byte[] buf = new byte[len];
+                        data.readFully(buf);
+                        return buf;
+                    }
+                }
+                i = (i + 1) & (capacity - 1);
+            }
+        }
+        catch (IOException x) {
+            onError(x);
+            return null;
+        }
+    }
+
+    private void append(byte kind, String id, Object obj) {
+        if (failed) return;
+        try {
+            if (data.length() > MAX_DATA_SIZE) return;
+            byte[] payload = JSON.toJSON(obj).getBytes("UTF-8");
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(payload.length + id.length() + 16);
+            DataOutputStream out = new DataOutputStream(buf);
+            out.writeByte(kind);
+            out.writeUTF(id);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+            long offs = data.length();
+            data.seek(offs);
+            data.write(buf.toByteArray());
+            insert(hash(kind, id), offs);
+        }
+        catch (IOException x) {
+            onError(x);
+        }
+    }
+
+    private void onError(IOException x) {
+        failed = true;
+        Activator.log("Symbol cache I/O error: " + dir, x);
+    }
+
+    /**
+     * Get cached symbol properties.
+     * @param id - symbol ID.
+     * @return the symbol or null if not cached.
+     */
+    public ISymbols.Symbol getContext(String id) {
+        byte[] buf = find(KIND_CONTEXT, id);
+        if (buf == null) return null;
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String,Object> props = (Map<String,Object>)JSON.parseOne(buf);
+            return new CachedSymbol(props);
+        }
+        catch (Exception x) {
+            return null;
+        }
+    }
+
+    /**
+     * Get cached symbol children.
+     * @param id - symbol ID.
+     * @return children IDs or null if not cached.
+     */
+    public String[] getChildren(String id) {
+        byte[] buf = find(KIND_CHILDREN, id);
+        if (buf == null) return null;
+        try {
+            @SuppressWarnings("unchecked")
+            Collection<String> c = (Collection<String>)JSON.parseOne(buf);
+            return c.toArray(new String[c.size()]);
+        }
+        catch (Exception x) {
+            return null;
+        }
+    }
+
+    public boolean hasContext(String id) {
+        return find(KIND_CONTEXT, id) != null;
+    }
+
+    public void putContext(ISymbols.Symbol sym) {
+        if (find(KIND_CONTEXT, sym.getID()) != null) return;
+        append(KIND_CONTEXT, sym.getID(), sym.getProperties());
+    }
+
+    public void putChildren(String id, String[] children) {
+        if (find(KIND_CHILDREN, id) != null) return;
+        append(KIND_CHILDREN, id, children);
+    }
+
+    public void close() {
+        if (failed && index == null) return;
+        try {
+            if (index != null) {
+                index.force();
+                unmap(index);
+            }
+            index_file.close();
+            data.close();
+        }
+        catch (IOException x) {
+            Activator.log("Cannot close symbol cache: " + dir, x);
+        }
+        index = null;
+        failed = true;
+        Integer n = open_dirs.get(dir);
+        if (n != null) {
+            if (n > 1) open_dirs.put(dir, n - 1);
+            else open_dirs.remove(dir);
+        }
+    }
+
+    /*
+     * Release a mapped buffer without waiting for garbage collection,
+     * a file cannot be deleted on Windows while it is mapped.
+     * The buffer must not be used after the call.
+     */
+    private static void unmap(MappedByteBuffer buf) {
+        try {
+            /* Java 9 and later */
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Method m = c.getMethod("invokeCleaner", ByteBuffer.class);
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            m.invoke(f.get(null), buf);
+            return;
+        }
+        catch (Throwable x) {
+        }
+        try {
+            /* Java 8 and earlier */
+            Method m = buf.getClass().getMethod("cleaner");
+            m.setAccessible(true);
+            Object cleaner = m.invoke(buf);
+            if (cleaner != null) cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+        catch (Throwable x) {
+            /* The buffer is released by garbage collector */
+        }
+    }
+
+    /*
+     * Symbol object created from cached properties, same as one created by Symbols service proxy.
+     */
+    private static class CachedSymbol implements ISymbols.Symbol {
+
+        private final Map<String,Object> props;
+        private final byte[] value;
+
+        CachedSymbol(Map<String,Object> props) {
+            this.props = props;
+            value = JSON.toByteArray(props.get(ISymbols.PROP_VALUE));
+        }
+
+        public String getOwnerID() {
+            return (String)props.get(ISymbols.PROP_OWNER_ID);
+        }
+
+        public int getUpdatePolicy() {
+            return getInt(ISymbols.PROP_UPDATE_POLICY);
+        }
+
+        public Number getAddress() {
+            return (Number)props.get(ISymbols.PROP_ADDRESS);
+        }
+
+        public String getBaseTypeID() {
+            return (String)props.get(ISymbols.PROP_BASE_TYPE_ID);
+        }
+
+        public String getID() {
+            return (String)props.get(ISymbols.PROP_ID);
+        }
+
+        public String getIndexTypeID() {
+            return (String)props.get(ISymbols.PROP_INDEX_TYPE_ID);
+        }
+
+        public String getContainerID() {
+            return (String)props.get(ISymbols.PROP_CONTAINER_ID);
+        }
+
+        public int getLength() {
+            return getInt(ISymbols.PROP_LENGTH);
+        }
+
+        public Number getLowerBound() {
+            return (Number)props.get(ISymbols.PROP_LOWER_BOUND);
+        }
+
+        public Number getUpperBound() {
+            return (Number)props.get(ISymbols.PROP_UPPER_BOUND);
+        }
+
+        public Number getBitStride() {
+            return (Number)props.get(ISymbols.PROP_BIT_STRIDE);
+        }
+
+        public String getName() {
+            return (String)props.get(ISymbols.PROP_NAME);
+        }
+
+        public int getOffset() {
+            return getInt(ISymbols.PROP_OFFSET);
+        }
+
+        public Map<String,Object> getProperties() {
+            return props;
+        }
+
+        public int getSize() {
+            return getInt(ISymbols.PROP_SIZE);
+        }
+
+        public ISymbols.SymbolClass getSymbolClass() {
+            int n = getInt(ISymbols.PROP_SYMBOL_CLASS);
+            ISymbols.SymbolClass[] arr = ISymbols.SymbolClass.values();
+            if (n > 0 && n < arr.length) return arr[n];
+            return ISymbols.SymbolClass.unknown;
+        }
+
+        public ISymbols.TypeClass getTypeClass() {
+            int n = getInt(ISymbols.PROP_TYPE_CLASS);
+            ISymbols.TypeClass[] arr = ISymbols.TypeClass.values();
+            if (n > 0 && n < arr.length) return arr[n];
+            return ISymbols.TypeClass.unknown;
+        }
+
+        public String getTypeID() {
+            return (String)props.get(ISymbols.PROP_TYPE_ID);
+        }
+
+        public byte[] getValue() {
+            return value;
+        }
+
+        public boolean isBigEndian() {
+            Boolean b = (Boolean)props.get(ISymbols.PROP_BIG_ENDIAN);
+            return b != null && b.booleanValue();
+        }
+
+        public String getRegisterID() {
+            return (String)props.get(ISymbols.PROP_REGISTER);
+        }
+
+        public int getFlags() {
+            return getInt(ISymbols.PROP_FLAGS);
+        }
+
+        public boolean getFlag(int flag) {
+            return (getInt(ISymbols.PROP_FLAGS) & flag) != 0;
+        }
+
+        private int getInt(String name) {
+            Number n = (Number)props.get(name);
+            if (n == null) return 0;
+            return n.intValue();
+        }
+    }
+}
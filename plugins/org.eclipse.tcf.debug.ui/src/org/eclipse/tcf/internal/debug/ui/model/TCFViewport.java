@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TCFViewport keeps track of the range of child rows last requested by each presentation context,
+ * and tells whether a row should be evaluated ahead of viewer requests, or have its pending evaluation canceled.
+ * A row is as close to the view as its nearest range.
+ */
+public class TCFViewport {
+
+    /** Number of rows around requested range that are evaluated ahead of viewer requests */
+    public static final int PREFETCH_MARGIN = 16;
+
+    /* Last range of rows requested by each presentation context */
+    private final Map<String,int[]> ranges = new HashMap<String,int[]>();
+
+    /**
+     * Set range of rows requested by a presentation context.
+     * @param id - presentation context ID.
+     * @param offset - first row.
+     * @param length - number of rows.
+     */
+    public void setRange(String id, int offset, int length) {
+        ranges.put(id, new int[]{ offset, length });
+    }
+
+    /**
+     * Get distance of a row from the nearest requested range.
+     * @param row - row index.
+     * @return 0 if the row is inside a range, Integer.MAX_VALUE if no ranges were set.
+     */
+    public int getDistance(int row) {
+        int min = Integer.MAX_VALUE;
+        for (int[] v : ranges.values()) {
+            int dist = 0;
+            if (row < v[0]) dist = v[0] - row;
+            else if (row >= v[0] + v[1]) dist = row - (v[0] + v[1]) + 1;
+            if (dist < min) min = dist;
+        }
+        return min;
+    }
+
+    /**
+     * @param row - row index.
+     * @return true if the row is outside requested ranges, but close enough to be evaluated ahead of time.
+     */
+    public boolean isPrefetch(int row) {
+        int dist = getDistance(row);
+        return dist > 0 && dist <= PREFETCH_MARGIN;
+    }
+
+    /**
+     * @param row - row index.
+     * @return true if the row is too far from requested ranges to keep its evaluation pending.
+     */
+    public boolean isCancel(int row) {
+        return getDistance(row) > PREFETCH_MARGIN;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2011-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -188,6 +188,14 @@ public class TCFDebugPreferencePage extends FieldEditorPreferencePage implements
         hoverWhileRunning.fillIntoGrid(group, 3);
         addField(hoverWhileRunning);
 
+        BooleanFieldEditor persistentSymbolCache = new BooleanFieldEditor(
+                TCFPreferences.PREF_PERSISTENT_SYMBOL_CACHE,
+                "Keep type information in a persistent cache and reuse it in next debug sessions",
+                group);
+
+        persistentSymbolCache.fillIntoGrid(group, 3);
+        addField(persistentSymbolCache);
+
         group.setLayout(layout);
     }
 }
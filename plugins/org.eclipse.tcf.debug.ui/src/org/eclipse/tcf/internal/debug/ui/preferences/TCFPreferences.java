@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2011-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -33,7 +33,8 @@ public class TCFPreferences {
         PREF_HOVER_WHILE_RUNNING = "HoverWhileRunning",
         PREF_SHOW_QUALIFIED_TYPE_NAMES = "ShowQualifiedTypeNames",
         PREF_FILTER_VARIANTS_BY_DISCRIMINANT = "FilterVariantsByDiscriminant",
-        PREF_SUSPEND_AFTER_RESET = "SuspendAfterReset";
+        PREF_SUSPEND_AFTER_RESET = "SuspendAfterReset",
+        PREF_PERSISTENT_SYMBOL_CACHE = "PersistentSymbolCache";
 
     public static IPreferenceStore getPreferenceStore() {
         return Activator.getDefault().getPreferenceStore();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2011-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -36,5 +36,6 @@ public class TCFPreferencesInitializer extends AbstractPreferenceInitializer {
         prefs.setDefault(TCFPreferences.PREF_HOVER_WHILE_RUNNING, false);
         prefs.setDefault(TCFPreferences.PREF_SHOW_QUALIFIED_TYPE_NAMES, false);
         prefs.setDefault(TCFPreferences.PREF_FILTER_VARIANTS_BY_DISCRIMINANT, false);
+        prefs.setDefault(TCFPreferences.PREF_PERSISTENT_SYMBOL_CACHE, false);
     }
 }
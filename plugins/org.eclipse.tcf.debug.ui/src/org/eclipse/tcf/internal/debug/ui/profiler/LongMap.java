@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Xilinx, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Xilinx - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.profiler;
+
+import java.util.Collection;
+
+/**
+ * Open addressing hash map with primitive long keys.
+ * Profiler keeps a lot of address keyed data, the map avoids boxing of keys and per entry objects.
+ * Null values are not allowed.
+ */
+public class LongMap<V> {
+
+    private long[] keys = new long[8];
+    private Object[] vals = new Object[8];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (;;) {
+            Object v = vals[i];
+            if (v == null) return null;
+            if (keys[i] == key) return (V)v;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(long key, V val) {
+        assert val != null;
+        if ((size + 1) * 4 > keys.length * 3) grow();
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (;;) {
+            if (vals[i] == null) {
+                keys[i] = key;
+                vals[i] = val;
+                size++;
+                return;
+            }
+            if (keys[i] == key) {
+                vals[i] = val;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void clear() {
+        keys = new long[8];
+        vals = new Object[8];
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void getValues(Collection<V> res) {
+        for (Object v : vals) {
+            if (v != null) res.add((V)v);
+        }
+    }
+
+    private void grow() {
+        long[] k = keys;
+        Object[] v = vals;
+        keys = new long[k.length * 2];
+        vals = new Object[v.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < k.length; j++) {
+            if (v[j] == null) continue;
+            int i = hash(k[j]) & mask;
+            while (vals[i] != null) i = (i + 1) & mask;
+            keys[i] = k[j];
+            vals[i] = v[j];
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h >>> 32);
+    }
+}
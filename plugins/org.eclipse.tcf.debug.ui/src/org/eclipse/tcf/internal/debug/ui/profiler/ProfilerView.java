@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 Xilinx, Inc. and others.
+ * Copyright (c) 2013, 2026 Xilinx, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -13,11 +13,13 @@ package org.eclipse.tcf.internal.debug.ui.profiler;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import org.eclipse.debug.ui.DebugUITools;
@@ -72,8 +74,10 @@ import org.eclipse.tcf.internal.debug.ui.model.TCFModel;
 import org.eclipse.tcf.internal.debug.ui.model.TCFModelManager;
 import org.eclipse.tcf.internal.debug.ui.model.TCFNode;
 import org.eclipse.tcf.internal.debug.ui.model.TCFNodeExecContext;
+import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.JSON;
 import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IMemoryMap;
 import org.eclipse.tcf.services.IProfiler;
 import org.eclipse.tcf.services.ISymbols;
 import org.eclipse.tcf.util.TCFDataCache;
@@ -85,58 +89,69 @@ import org.eclipse.ui.part.ViewPart;
 public class ProfilerView extends ViewPart {
 
     private static final int FRAME_COUNT = 8;
+    private static final int MAX_ENTRIES = 1000;
     private static final String PARAM_VIEW_UPDATE_PERIOD = ProfilerSettingsDlg.PARAM_VIEW_UPDATE_PERIOD;
     private static final String PARAM_AGGREGATE = ProfilerSettingsDlg.PARAM_AGGREGATE;
     private static final String PARAM_STACK_TRACE = ProfilerSettingsDlg.PARAM_STACK_TRACE;
 
-    private static class ProfileSample {
-        int cnt;
-        final BigInteger[] trace;
-
-        ProfileSample(BigInteger[] trace) {
-            this.trace = trace;
-        }
-    }
-
     private static class ProfileData {
         final String ctx;
         final Map<String,Object> params;
         final boolean stack_trace;
+        final boolean aggregate;
+        final int frame_cnt;
 
         boolean stopped;
         boolean unsupported;
         Throwable error;
         int sample_count;
 
-        // Samples by frame
-        final Map<BigInteger,List<ProfileSample>>[] map;
+        // Samples, new samples are aggregated by next view update
+        final StackTraceTree samples = new StackTraceTree();
 
         int generation_inp;
         int generation_out;
 
-        ProfileEntry[] entries;
+        // Aggregated data: entries by function address, resolved addresses
+        final LongMap<ProfileEntry> entries = new LongMap<ProfileEntry>();
+        final List<ProfileEntry> entry_list = new ArrayList<ProfileEntry>();
+        final LongMap<ProfileEntry> addr_to_entry = new LongMap<ProfileEntry>();
+        final LongMap<String> addr_to_func_id = new LongMap<String>();
+
+        // Memory context that was used to resolve addresses
+        String mem_id;
+
+        // Top entries, as shown in the view
+        ProfileEntry[] view_entries;
 
-        @SuppressWarnings("unchecked")
         ProfileData(String ctx, Map<String,Object> params) {
             this.ctx = ctx;
             this.params = new HashMap<String,Object>(params);
             Boolean b = (Boolean)params.get(PARAM_STACK_TRACE);
             stack_trace = b != null && b.booleanValue();
-            int frame_cnt = 1;
+            b = (Boolean)params.get(PARAM_AGGREGATE);
+            aggregate = b != null && b.booleanValue();
+            int n = 1;
             if (stack_trace) {
-                Number n = (Number)params.get(IProfiler.PARAM_FRAME_CNT);
-                if (n != null) frame_cnt = n.intValue();
-            }
-            map = new Map[frame_cnt];
-            for (int i = 0; i < frame_cnt; i++) {
-                map[i] = new HashMap<BigInteger,List<ProfileSample>>();
+                Number x = (Number)params.get(IProfiler.PARAM_FRAME_CNT);
+                if (x != null) n = x.intValue();
             }
+            frame_cnt = n;
+        }
+
+        void onMemoryMapChanged() {
+            // Same address can belong to a different function now
+            addr_to_entry.clear();
+            addr_to_func_id.clear();
+            samples.clearData();
+            for (ProfileEntry pe : entry_list) pe.src_info_valid = false;
         }
     }
 
     private static class ProfileEntry {
-        final BigInteger addr;
-        final Set<BigInteger> addr_list = new HashSet<BigInteger>();
+        final long addr;
+        final LongMap<ProfileEntryRef> up_map = new LongMap<ProfileEntryRef>();
+        final LongMap<ProfileEntryRef> dw_map = new LongMap<ProfileEntryRef>();
 
         String name;
         String file_full;
@@ -148,11 +163,17 @@ public class ProfilerView extends ViewPart {
         ProfileEntryRef[] dw;
 
         boolean src_info_valid;
+        boolean changed;
         boolean mark;
 
-        ProfileEntry(BigInteger addr) {
+        ProfileEntry(long addr) {
             this.addr = addr;
         }
+
+        void link(ProfileEntry pe_up) {
+            if (up_map.get(pe_up.addr) == null) up_map.put(pe_up.addr, new ProfileEntryRef(pe_up));
+            if (pe_up.dw_map.get(addr) == null) pe_up.dw_map.put(addr, new ProfileEntryRef(this));
+        }
     }
 
     private static class ProfileEntryRef {
@@ -164,10 +185,35 @@ public class ProfilerView extends ViewPart {
         }
     }
 
-    private class ProfileModel implements TCFModel.ProfilerDataListener {
+    private class ProfileModel implements TCFModel.ProfilerDataListener, IMemoryMap.MemoryMapListener {
 
+        final TCFModel model;
+        final IMemoryMap mmap;
         final Map<String,ProfileData> data = new HashMap<String,ProfileData>();
 
+        ProfileModel(TCFModel model) {
+            this.model = model;
+            mmap = model.getChannel().getRemoteService(IMemoryMap.class);
+            model.addProfilerDataListener(this);
+            if (mmap != null) mmap.addListener(this);
+        }
+
+        void dispose() {
+            model.removeProfilerDataListener(this);
+            if (mmap != null && model.getChannel().getState() == IChannel.STATE_OPEN) mmap.removeListener(this);
+        }
+
+        @Override
+        public void changed(String mem_id) {
+            boolean update = false;
+            for (ProfileData p : data.values()) {
+                if (!mem_id.equals(p.mem_id)) continue;
+                p.onMemoryMapChanged();
+                update = true;
+            }
+            if (update) updateView();
+        }
+
         @Override
         public void onDataReceived(String ctx, Map<String, Object>[] arr) {
             int cnt = 0;
@@ -208,11 +254,19 @@ public class ProfilerView extends ViewPart {
         @Override
         public void onDisconnected(TCFLaunch launch, TCFModel model) {
             ProfileModel prf_model = models.remove(model);
-            if (prf_model != null) model.removeProfilerDataListener(prf_model);
+            if (prf_model != null) prf_model.dispose();
             updateView();
         }
     };
 
+    private static int compareAddr(long x, long y) {
+        x += Long.MIN_VALUE;
+        y += Long.MIN_VALUE;
+        if (x < y) return -1;
+        if (x > y) return +1;
+        return 0;
+    }
+
     private static class ProfileEntryComparator implements Comparator<ProfileEntry> {
         final int sorting;
         ProfileEntryComparator(int sorting) {
@@ -223,7 +277,7 @@ public class ProfilerView extends ViewPart {
             int r = 0;
             switch (sorting) {
             case 0:
-                r = x.addr.compareTo(y.addr);
+                r = compareAddr(x.addr, y.addr);
                 break;
             case 1:
                 break;
@@ -246,7 +300,7 @@ public class ProfilerView extends ViewPart {
             if (r != 0) return r;
             if (x.count > y.count) return -1;
             if (x.count < y.count) return +1;
-            return x.addr.compareTo(y.addr);
+            return compareAddr(x.addr, y.addr);
         }
     };
 
@@ -254,7 +308,7 @@ public class ProfilerView extends ViewPart {
         @Override
         public int compare(ProfileEntryRef x, ProfileEntryRef y) {
             int r = Float.compare(y.total, x.total);
-            if (r == 0) r = x.pe.addr.compareTo(y.pe.addr);
+            if (r == 0) r = compareAddr(x.pe.addr, y.pe.addr);
             return r;
         }
     }
@@ -262,13 +316,10 @@ public class ProfilerView extends ViewPart {
     private class Update implements Runnable {
         final int sorting;
         final TCFNode selection;
-        final Map<BigInteger,ProfileEntry> entries = new HashMap<BigInteger,ProfileEntry>();
-        final Map<BigInteger,BigInteger> addr_to_func_addr = new HashMap<BigInteger,BigInteger>();
-        final Map<BigInteger,String> addr_to_func_id = new HashMap<BigInteger,String>();
+        final List<ProfileEntry> changed = new ArrayList<ProfileEntry>();
         final TCFNodeExecContext node;
         final ProfileData prof_data;
         final TCFModel model;
-        final boolean aggrerate;
         final int generation;
         TCFNodeExecContext mem_node;
         TCFDataCache<?> pending;
@@ -288,23 +339,20 @@ public class ProfilerView extends ViewPart {
                 node = null;
                 model = null;
                 generation = 0;
-                aggrerate = false;
             }
             else {
                 node = (TCFNodeExecContext)selection;
                 model = selection.getModel();
                 generation = p.generation_inp;
-                Boolean b = (Boolean)p.params.get(PARAM_AGGREGATE);
-                aggrerate = b != null && b.booleanValue();
             }
             last_update = this;
         }
 
-        private String getFuncID(BigInteger addr) {
-            String func_id = addr_to_func_id.get(addr);
+        private String getFuncID(long addr) {
+            String func_id = prof_data.addr_to_func_id.get(addr);
             if (func_id == null) {
                 func_id = "";
-                TCFDataCache<TCFFunctionRef> func_cache = mem_node.getFuncInfo(addr);
+                TCFDataCache<TCFFunctionRef> func_cache = mem_node.getFuncInfo(toBigInteger(addr));
                 if (func_cache != null) {
                     if (!func_cache.validate()) {
                         pending = func_cache;
@@ -315,31 +363,45 @@ public class ProfilerView extends ViewPart {
                         func_id = func_data.symbol_id;
                     }
                 }
-                addr_to_func_id.put(addr, func_id);
+                prof_data.addr_to_func_id.put(addr, func_id);
             }
             return func_id;
         }
 
-        private BigInteger getFuncAddress(BigInteger addr) {
-            if (!aggrerate) return addr;
-            BigInteger func_addr = addr_to_func_addr.get(addr);
-            if (func_addr != null) return func_addr;
-            String func_id = getFuncID(addr);
-            if (func_id == null) return null;
-            func_addr = addr;
-            if (func_id.length() > 0) {
-                TCFDataCache<ISymbols.Symbol> sym_cache = model.getSymbolInfoCache(func_id);
-                if (!sym_cache.validate()) {
-                    pending = sym_cache;
-                    return null;
+        private ProfileEntry getEntry(long addr) {
+            ProfileEntry pe = prof_data.addr_to_entry.get(addr);
+            if (pe == null) {
+                long func_addr = addr;
+                if (prof_data.aggregate) {
+                    String func_id = getFuncID(addr);
+                    if (func_id == null) return null;
+                    if (func_id.length() > 0) {
+                        TCFDataCache<ISymbols.Symbol> sym_cache = model.getSymbolInfoCache(func_id);
+                        if (!sym_cache.validate()) {
+                            pending = sym_cache;
+                            return null;
+                        }
+                        ISymbols.Symbol sym_data = sym_cache.getData();
+                        if (sym_data != null && sym_data.getAddress() != null) {
+                            func_addr = JSON.toBigInteger(sym_data.getAddress()).longValue();
+                        }
+                    }
                 }
-                ISymbols.Symbol sym_data = sym_cache.getData();
-                if (sym_data != null && sym_data.getAddress() != null) {
-                    func_addr = JSON.toBigInteger(sym_data.getAddress());
+                pe = prof_data.entries.get(func_addr);
+                if (pe == null) {
+                    pe = new ProfileEntry(func_addr);
+                    prof_data.entries.put(func_addr, pe);
+                    prof_data.entry_list.add(pe);
                 }
+                prof_data.addr_to_entry.put(addr, pe);
+            }
+            if (!pe.src_info_valid) {
+                pe.src_info_valid = true;
+                if (!getFuncName(pe)) pe.src_info_valid = false;
+                if (!getLineInfo(pe)) pe.src_info_valid = false;
+                if (!pe.src_info_valid) return null;
             }
-            addr_to_func_addr.put(addr, func_addr);
-            return func_addr;
+            return pe;
         }
 
         private boolean getFuncName(ProfileEntry pe) {
@@ -360,7 +422,7 @@ public class ProfilerView extends ViewPart {
         }
 
         private boolean getLineInfo(ProfileEntry pe) {
-            TCFDataCache<TCFSourceRef> line_cache = mem_node.getLineInfo(pe.addr);
+            TCFDataCache<TCFSourceRef> line_cache = mem_node.getLineInfo(toBigInteger(pe.addr));
             if (line_cache == null) return true;
             if (!line_cache.validate()) {
                 pending = line_cache;
@@ -381,71 +443,108 @@ public class ProfilerView extends ViewPart {
             return true;
         }
 
-        private void linkEntry(ProfileEntry pe) {
-            Set<ProfileEntry> set_up = new HashSet<ProfileEntry>();
-            Set<ProfileEntry> set_dw = new HashSet<ProfileEntry>();
-            for (int n = 0; n < prof_data.map.length; n++) {
-                for (BigInteger addr : pe.addr_list) {
-                    List<ProfileSample> s0 = prof_data.map[n].get(addr);
-                    if (s0 != null) {
-                        for (ProfileSample x : s0) {
-                            assert addr.equals(x.trace[n]);
-                            if (x.trace.length <= n + 1) continue;
-                            BigInteger addr_up = getFuncAddress(x.trace[n + 1]);
-                            ProfileEntry pe_up = entries.get(addr_up);
-                            set_up.add(pe_up);
-                        }
-                    }
-                    if (n == prof_data.map.length - 1) continue;
-                    List<ProfileSample> s1 = prof_data.map[n + 1].get(addr);
-                    if (s1 != null) {
-                        for (ProfileSample x : s1) {
-                            assert x.trace.length > n + 1;
-                            assert addr.equals(x.trace[n + 1]);
-                            BigInteger addr_dw = getFuncAddress(x.trace[n]);
-                            ProfileEntry pe_dw = entries.get(addr_dw);
-                            set_dw.add(pe_dw);
-                        }
-                    }
-                }
-            }
-            if (set_up.size() > 0) {
-                int n = 0;
-                pe.up = new ProfileEntryRef[set_up.size()];
-                for (ProfileEntry p : set_up) pe.up[n++] = new ProfileEntryRef(p);
-            }
-            if (set_dw.size() > 0) {
-                int n = 0;
-                pe.dw = new ProfileEntryRef[set_dw.size()];
-                for (ProfileEntry p : set_dw) pe.dw[n++] = new ProfileEntryRef(p);
+        private int getTrace(StackTraceTree.Node n, ProfileEntry[] trace) {
+            int len = n.depth + 1;
+            while (n.depth >= 0) {
+                trace[n.depth] = (ProfileEntry)n.data;
+                n = n.parent;
             }
+            return len;
+        }
+
+        private void setChanged(ProfileEntry pe) {
+            if (pe.changed) return;
+            pe.changed = true;
+            changed.add(pe);
         }
 
         private void addUpTotal(ProfileEntry pe, float cnt) {
-            if (cnt <= 0.01f || pe.up == null) return;
+            if (cnt <= 0.01f || pe.up_map.size() == 0) return;
             pe.mark = true;
+            List<ProfileEntryRef> up_list = new ArrayList<ProfileEntryRef>();
+            pe.up_map.getValues(up_list);
             int n = 0;
-            for (ProfileEntryRef up : pe.up) {
+            for (ProfileEntryRef up : up_list) {
                 if (!up.pe.mark) n++;
             }
             if (n != 0) {
                 float m = cnt / n;
-                for (ProfileEntryRef up : pe.up) {
+                for (ProfileEntryRef up : up_list) {
                     if (up.pe.mark) continue;
                     addUpTotal(up.pe, m * 1.0001f);
                     up.pe.total += m;
                     up.total += m;
-                    for (ProfileEntryRef dw : up.pe.dw) {
-                        if (dw.pe == pe) {
-                            dw.total += m;
-                            break;
-                        }
-                    }
+                    up.pe.dw_map.get(pe.addr).total += m;
+                    setChanged(up.pe);
                 }
             }
             pe.mark = false;
         }
 
+        private ProfileEntryRef[] getRefs(LongMap<ProfileEntryRef> map) {
+            if (map.size() == 0) return null;
+            List<ProfileEntryRef> l = new ArrayList<ProfileEntryRef>(map.size());
+            map.getValues(l);
+            ProfileEntryRef[] arr = l.toArray(new ProfileEntryRef[l.size()]);
+            Arrays.sort(arr, new ProfileEntryRefComparator());
+            return arr;
+        }
+
+        private void aggregateSamples(List<StackTraceTree.Node> updates) {
+            ProfileEntry[] trace = new ProfileEntry[prof_data.frame_cnt];
+            // Link all new callers first: counts of truncated stack traces are distributed between known callers
+            for (StackTraceTree.Node n : updates) {
+                int len = getTrace(n, trace);
+                for (int i = 0; i < len - 1; i++) trace[i].link(trace[i + 1]);
+            }
+            for (StackTraceTree.Node n : updates) {
+                int len = getTrace(n, trace);
+                ProfileEntry dw_pe = null;
+                trace[0].count += n.new_count;
+                for (int i = 0; i < len; i++) {
+                    ProfileEntry pe = trace[i];
+                    float cnt = n.new_count * (1.0f + i / 10000f);
+                    if (dw_pe != null) pe.dw_map.get(dw_pe.addr).total += cnt;
+                    if (i < len - 1) pe.up_map.get(trace[i + 1].addr).total += cnt;
+                    else addUpTotal(pe, cnt);
+                    pe.total += cnt;
+                    setChanged(pe);
+                    dw_pe = pe;
+                }
+            }
+            for (ProfileEntry pe : changed) {
+                pe.changed = false;
+                pe.up = getRefs(pe.up_map);
+                pe.dw = getRefs(pe.dw_map);
+            }
+            changed.clear();
+        }
+
+        private ProfileEntry[] getTopEntries() {
+            Comparator<ProfileEntry> c = new ProfileEntryComparator(sorting);
+            List<ProfileEntry> l = prof_data.entry_list;
+            ProfileEntry[] arr = null;
+            if (l.size() <= MAX_ENTRIES) {
+                arr = l.toArray(new ProfileEntry[l.size()]);
+            }
+            else {
+                // Partial selection with a bounded heap, no need to sort all entries
+                PriorityQueue<ProfileEntry> heap = new PriorityQueue<ProfileEntry>(MAX_ENTRIES, Collections.reverseOrder(c));
+                for (ProfileEntry pe : l) {
+                    if (heap.size() < MAX_ENTRIES) {
+                        heap.add(pe);
+                    }
+                    else if (c.compare(pe, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(pe);
+                    }
+                }
+                arr = heap.toArray(new ProfileEntry[heap.size()]);
+            }
+            Arrays.sort(arr, c);
+            return arr;
+        }
+
         @Override
         public void run() {
             pending = null;
@@ -459,96 +558,35 @@ public class ProfilerView extends ViewPart {
                 Map<String,Object> map = cache.getData();
                 capabilities_ok = map == null || map.containsKey("StackTraces");
             }
-            if (prof_data != null && generation != prof_data.generation_out) {
-                if (node.isDisposed()) {
-                    entries.clear();
+            if (prof_data != null && generation != prof_data.generation_out && !node.isDisposed()) {
+                TCFDataCache<TCFNodeExecContext> mem_cache = node.getMemoryNode();
+                if (!mem_cache.validate()) {
+                    pending = mem_cache;
                 }
                 else {
-                    TCFDataCache<TCFNodeExecContext> mem_cache = node.getMemoryNode();
-                    if (!mem_cache.validate()) {
-                        pending = mem_cache;
-                    }
-                    else {
-                        mem_node = mem_cache.getData();
-                    }
-                    if (mem_node != null) {
-                        for (int n = 0; n < prof_data.map.length; n++) {
-                            for (BigInteger addr : prof_data.map[n].keySet()) {
-                                BigInteger func_addr = getFuncAddress(addr);
-                                if (func_addr == null) continue;
-                                ProfileEntry pe = entries.get(func_addr);
-                                if (pe == null) {
-                                    pe = new ProfileEntry(func_addr);
-                                    entries.put(pe.addr, pe);
-                                }
-                                if (!pe.addr_list.contains(addr)) {
-                                    if (n == 0) {
-                                        List<ProfileSample> s = prof_data.map[0].get(addr);
-                                        for (ProfileSample x : s) pe.count += x.cnt;
-                                    }
-                                    pe.addr_list.add(addr);
-                                }
-                                if (!pe.src_info_valid) {
-                                    pe.src_info_valid = true;
-                                    if (!getFuncName(pe)) pe.src_info_valid = false;
-                                    if (!getLineInfo(pe)) pe.src_info_valid = false;
-                                }
-                            }
-                        }
-                    }
-                    if (pending != null) {
-                        pending.wait(this);
-                        return;
-                    }
-                    for (ProfileEntry pe : entries.values()) linkEntry(pe);
-                    for (List<ProfileSample> lps : prof_data.map[0].values()) {
-                        for (ProfileSample ps : lps) {
-                            int n = 0;
-                            ProfileEntry dw_pe = null;
-                            ProfileEntry pe = null;
-                            ProfileEntry up_pe = null;
-                            assert(ps.trace.length <= prof_data.map.length);
-                            while (n < ps.trace.length) {
-                                float cnt = ps.cnt * (1.0f + n / 10000f);
-                                if (pe == null) pe = entries.get(getFuncAddress(ps.trace[n]));
-                                if (dw_pe != null) {
-                                    for (ProfileEntryRef r : pe.dw) {
-                                        if (r.pe == dw_pe) {
-                                            r.total += cnt;
-                                            break;
-                                        }
-                                    }
-                                }
-                                if (n < ps.trace.length - 1) {
-                                    up_pe = entries.get(getFuncAddress(ps.trace[n + 1]));
-                                    for (ProfileEntryRef r : pe.up) {
-                                        if (r.pe == up_pe) {
-                                            r.total += cnt;
-                                            break;
-                                        }
-                                    }
-                                }
-                                else {
-                                    addUpTotal(pe, cnt);
-                                }
-                                pe.total += cnt;
-                                dw_pe = pe;
-                                pe = up_pe;
-                                n++;
-                            }
+                    mem_node = mem_cache.getData();
+                    if (mem_node != null) prof_data.mem_id = mem_node.getID();
+                }
+                List<StackTraceTree.Node> updates = prof_data.samples.getUpdates();
+                if (mem_node != null) {
+                    for (StackTraceTree.Node n : updates) {
+                        for (StackTraceTree.Node x = n; x.depth >= 0; x = x.parent) {
+                            if (x.data == null) x.data = getEntry(x.addr);
                         }
                     }
-                    for (ProfileEntry pe : entries.values()) {
-                        if (pe.up != null) Arrays.sort(pe.up, new ProfileEntryRefComparator());
-                        if (pe.dw != null) Arrays.sort(pe.dw, new ProfileEntryRefComparator());
-                    }
+                }
+                if (pending != null) {
+                    pending.wait(this);
+                    return;
+                }
+                if (mem_node != null) {
+                    aggregateSamples(updates);
+                    prof_data.samples.clearUpdates();
                 }
                 prof_data.generation_out = generation;
-                prof_data.entries = entries.values().toArray(new ProfileEntry[entries.size()]);
-                assert pending == null;
             }
-            if (prof_data != null && prof_data.entries != null) {
-                Arrays.sort(prof_data.entries, new ProfileEntryComparator(sorting));
+            if (prof_data != null) {
+                prof_data.view_entries = node.isDisposed() ? new ProfileEntry[0] : getTopEntries();
             }
             done = true;
             final boolean enable_start = capabilities_ok;
@@ -558,6 +596,8 @@ public class ProfilerView extends ViewPart {
             final boolean unsupported = node != null && prof_data.unsupported;
             final boolean total_count = prof_data != null && prof_data.stack_trace;
             final int sample_count = prof_data == null ? 0 : prof_data.sample_count;
+            final int entry_count = prof_data == null ? 0 : prof_data.entry_list.size();
+            final ProfileEntry[] viewer_input = prof_data != null ? prof_data.view_entries : null;
             final String error_msg = prof_data == null || prof_data.error == null ? null :
                 TCFModel.getErrorMessage(prof_data.error, false);
             asyncExec(new Runnable() {
@@ -569,21 +609,17 @@ public class ProfilerView extends ViewPart {
                     action_stop.setEnabled(enable_stop);
                     profile_node = node;
                     disposeColors();
-                    Object viewer_input = prof_data != null ? prof_data.entries : null;
                     if (viewer_main.getInput() != viewer_input) {
                         ISelection s = viewer_main.getSelection();
                         ProfilerView.this.total_count = total_count;
                         ProfilerView.this.sample_count = sample_count;
                         viewer_main.setInput(viewer_input);
                         List<ProfileEntry> l = new ArrayList<ProfileEntry>();
-                        if (s instanceof IStructuredSelection && entries.size() > 0) {
+                        if (s instanceof IStructuredSelection && viewer_input != null && viewer_input.length > 0) {
                             IStructuredSelection ss = (IStructuredSelection)s;
+                            Set<ProfileEntry> set = new HashSet<ProfileEntry>(Arrays.asList(viewer_input));
                             for (Object obj : ss.toArray()) {
-                                if (obj instanceof ProfileEntry) {
-                                    ProfileEntry pe = (ProfileEntry)obj;
-                                    pe = entries.get(pe.addr);
-                                    if (pe != null) l.add(pe);
-                                }
+                                if (set.contains(obj)) l.add((ProfileEntry)obj);
                             }
                         }
                         setSelection(l, false);
@@ -607,6 +643,10 @@ public class ProfilerView extends ViewPart {
                     else if (error_msg != null) {
                         status.setText("Cannot upload profiling data: " + error_msg);
                     }
+                    else if (entry_count > MAX_ENTRIES) {
+                        status.setText("Profiler running. " + sample_count + " samples, top " +
+                                MAX_ENTRIES + " of " + entry_count + " entries shown");
+                    }
                     else {
                         status.setText("Profiler running. " + sample_count + " samples");
                     }
@@ -1101,8 +1141,14 @@ public class ProfilerView extends ViewPart {
         }
     }
 
-    private String toHex(BigInteger n) {
-        String s = n.toString(16);
+    private static BigInteger toBigInteger(long n) {
+        BigInteger x = BigInteger.valueOf(n);
+        if (n < 0) x = x.add(BigInteger.ONE.shiftLeft(64));
+        return x;
+    }
+
+    private String toHex(long n) {
+        String s = Long.toHexString(n);
         if (s.length() >= 8) return s;
         return "00000000".substring(s.length()) + s;
     }
@@ -1267,8 +1313,7 @@ public class ProfilerView extends ViewPart {
         else {
             ProfileData d = new ProfileData(node.getID(), params);
             if (prf_model == null) {
-                models.put(node.getModel(), prf_model = new ProfileModel());
-                model.addProfilerDataListener(prf_model);
+                models.put(node.getModel(), prf_model = new ProfileModel(model));
             }
             prf_model.data.put(d.ctx, d);
         }
@@ -1285,25 +1330,26 @@ public class ProfilerView extends ViewPart {
         byte[] data = JSON.toByteArray(props.get(IProfiler.PROP_DATA));
         if (data == null || data.length == 0) return;
         int pos = 0;
-        byte[] buf = new byte[size + 1];
-        BigInteger[] trace = new BigInteger[p.map.length];
+        long[] trace = new long[p.frame_cnt];
         for (;;) {
             int c = -1;
             int l = -1;
             int i = 0;
             while (pos + size <= data.length) {
+                long a = 0;
                 for (int j = 0; j < size; j++) {
-                    buf[big_endian ? j + 1: size - j] = data[pos++];
+                    long x = data[pos++] & 0xff;
+                    if (big_endian) a = a << 8 | x;
+                    else if (j < 8) a |= x << (j * 8);
                 }
                 if (i >= trace.length) continue;
-                BigInteger a = new BigInteger(buf);
                 if (c < 0) {
                     /* Count */
-                    c = a.intValue();
+                    c = (int)a;
                 }
                 else if (l < 0) {
                     /* Trace length */
-                    l = a.intValue();
+                    l = (int)a;
                 }
                 else {
                     /* Trace addresses */
@@ -1317,40 +1363,11 @@ public class ProfilerView extends ViewPart {
         updateView();
     }
 
-    private void addSample(ProfileData p, BigInteger[] trace, int len, int cnt) {
+    private void addSample(ProfileData p, long[] trace, int len, int cnt) {
         assert len > 0;
         p.sample_count += cnt;
         p.generation_inp++;
-        ProfileSample ps = null;
-        if (len > p.map.length) len = p.map.length;
-        for (int f = 0; f < p.map.length && f < len; f++) {
-            List<ProfileSample> lp = p.map[f].get(trace[f]);
-            if (lp != null) {
-                boolean ok = false;
-                for (ProfileSample s : lp) {
-                    if (len == s.trace.length) {
-                        int i = 0;
-                        while (i < len && trace[i].equals(s.trace[i])) i++;
-                        if (i == len) {
-                            assert ps == null || ps == s;
-                            ps = s;
-                            ok = true;
-                        }
-                    }
-                }
-                if (ok) continue;
-            }
-            else {
-                p.map[f].put(trace[f], lp = new ArrayList<ProfileSample>());
-            }
-            if (ps == null) {
-                BigInteger[] t = new BigInteger[len];
-                for (int i = 0; i < len; i++) t[i] = trace[i];
-                ps = new ProfileSample(t);
-            }
-            lp.add(ps);
-        }
-        ps.cnt += cnt;
+        p.samples.add(trace, len, cnt);
     }
 
     private void updateView() {
@@ -1365,6 +1382,7 @@ public class ProfilerView extends ViewPart {
             @Override
             public void run() {
                 TCFModelManager.getModelManager().removeListener(launch_listener);
+                for (ProfileModel prf_model : models.values()) prf_model.dispose();
                 models.clear();
             }
         });
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Xilinx, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Xilinx - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.ui.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StackTraceTree keeps profiler samples as a prefix tree of stack traces.
+ * Path from the root to a node is a stack trace, starting from the sampled PC.
+ * All samples with same stack trace are counted in one node, and traces
+ * with common innermost frames share tree branches, so memory use depends on
+ * number of distinct stack traces, not on number or duration of samples.
+ *
+ * The tree also tracks which nodes got new samples, which allows clients
+ * to update aggregated data incrementally.
+ */
+public class StackTraceTree {
+
+    private static final int MAX_CHILD_ARRAY = 8;
+
+    public static class Node {
+
+        public final Node parent;
+        public final long addr;
+        public final int depth;
+
+        /** Number of samples with this stack trace */
+        public int count;
+
+        /** Number of samples added since last call of clearUpdates() */
+        public int new_count;
+
+        /** Client data, e.g. resolved function of the address */
+        public Object data;
+
+        private Node[] children;
+        private int child_cnt;
+        private LongMap<Node> child_map;
+
+        private Node(Node parent, long addr) {
+            this.parent = parent;
+            this.addr = addr;
+            depth = parent == null ? -1 : parent.depth + 1;
+        }
+
+        private Node getChild(long addr) {
+            if (child_map != null) {
+                Node n = child_map.get(addr);
+                if (n == null) child_map.put(addr, n = new Node(this, addr));
+                return n;
+            }
+            for (int i = 0; i < child_cnt; i++) {
+                if (children[i].addr == addr) return children[i];
+            }
+            Node n = new Node(this, addr);
+            if (child_cnt < MAX_CHILD_ARRAY) {
+                if (children == null) children = new Node[2];
+                else if (child_cnt == children.length) {
+                    Node[] arr = new Node[child_cnt * 2];
+                    System.arraycopy(children, 0, arr, 0, child_cnt);
+                    children = arr;
+                }
+                children[child_cnt++] = n;
+            }
+            else {
+                child_map = new LongMap<Node>();
+                for (int i = 0; i < child_cnt; i++) child_map.put(children[i].addr, children[i]);
+                child_map.put(addr, n);
+                children = null;
+                child_cnt = 0;
+            }
+            return n;
+        }
+    }
+
+    private final Node root = new Node(null, 0);
+    private final List<Node> updates = new ArrayList<Node>();
+
+    /**
+     * Add samples.
+     * @param trace - stack trace addresses, the first is sampled PC.
+     * @param len - stack trace length.
+     * @param cnt - number of samples.
+     */
+    public void add(long[] trace, int len, int cnt) {
+        assert len > 0;
+        if (cnt <= 0) return;
+        Node n = root;
+        for (int i = 0; i < len; i++) n = n.getChild(trace[i]);
+        if (n.new_count == 0) updates.add(n);
+        n.count += cnt;
+        n.new_count += cnt;
+    }
+
+    /**
+     * @return list of nodes that got new samples since last call of clearUpdates().
+     */
+    public List<Node> getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Mark new samples as processed.
+     */
+    public void clearUpdates() {
+        for (Node n : updates) n.new_count = 0;
+        updates.clear();
+    }
+
+    /**
+     * Clear client data of all nodes.
+     */
+    public void clearData() {
+        clearData(root);
+    }
+
+    private static void clearData(Node n) {
+        n.data = null;
+        for (int i = 0; i < n.child_cnt; i++) clearData(n.children[i]);
+        if (n.child_map != null) {
+            List<Node> list = new ArrayList<Node>();
+            n.child_map.getValues(list);
+            for (Node x : list) clearData(x);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.debug.ui.trace;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Collection;
 import java.util.HashMap;
@@ -30,18 +32,24 @@ import org.eclipse.swt.custom.CTabFolderEvent;
 import org.eclipse.swt.custom.CTabItem;
 import org.eclipse.swt.events.KeyEvent;
 import org.eclipse.swt.events.KeyListener;
+import org.eclipse.swt.events.MenuEvent;
+import org.eclipse.swt.events.MenuListener;
 import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.MouseListener;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.MenuItem;
+import org.eclipse.swt.widgets.MessageBox;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.ChannelTraceRecorder;
 import org.eclipse.tcf.internal.debug.model.TCFLaunch;
+import org.eclipse.tcf.internal.debug.ui.model.TCFModel;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IPeer;
 import org.eclipse.tcf.protocol.JSON;
@@ -101,6 +109,7 @@ public class TraceView extends ViewPart implements Protocol.ChannelOpenListener
 
         private CTabItem tab;
         private Text text;
+        private ChannelTraceRecorder recorder;
 
         private final StringBuffer bf = new StringBuffer();
         private int bf_line_cnt = 0;
@@ -170,8 +179,41 @@ public class TraceView extends ViewPart implements Protocol.ChannelOpenListener
             }
         }
 
+        void startRecording(final File file) {
+            try {
+                recorder = new TCFTask<ChannelTraceRecorder>() {
+                    public void run() {
+                        try {
+                            done(new ChannelTraceRecorder(channel, file, ChannelTraceRecorder.DEFAULT_SIZE));
+                        }
+                        catch (IOException x) {
+                            error(x);
+                        }
+                    }
+                }.getIO();
+            }
+            catch (IOException x) {
+                MessageBox mb = new MessageBox(parent.getShell(), SWT.ICON_ERROR | SWT.OK);
+                mb.setText("Cannot record channel trace");
+                mb.setMessage(TCFModel.getErrorMessage(x, true));
+                mb.open();
+            }
+        }
+
+        void stopRecording() {
+            if (recorder == null) return;
+            final ChannelTraceRecorder r = recorder;
+            recorder = null;
+            Protocol.invokeAndWait(new Runnable() {
+                public void run() {
+                    r.close();
+                }
+            });
+        }
+
         public void dispose() {
             if (closed) return;
+            stopRecording();
             Protocol.invokeAndWait(new Runnable() {
                 public void run() {
                     channel.removeTraceListener(Page.this);
@@ -552,6 +594,37 @@ public class TraceView extends ViewPart implements Protocol.ChannelOpenListener
                     }
                 }
             });
+            new MenuItem(menu, SWT.SEPARATOR);
+            final MenuItem mi_record = new MenuItem(menu, SWT.NONE);
+            mi_record.setText("Record to File...");
+            mi_record.addSelectionListener(new SelectionListener() {
+                public void widgetDefaultSelected(SelectionEvent e) {
+                }
+                public void widgetSelected(SelectionEvent e) {
+                    if (tabs == null) return;
+                    Page p = tab2page.get(tabs.getSelection());
+                    if (p == null) return;
+                    if (p.recorder != null) {
+                        p.stopRecording();
+                        return;
+                    }
+                    FileDialog dialog = new FileDialog(tabs.getShell(), SWT.SAVE);
+                    dialog.setText("Record Channel Trace");
+                    dialog.setFilterExtensions(new String[]{ "*.tcftrace", "*" });
+                    dialog.setFileName("channel.tcftrace");
+                    String path = dialog.open();
+                    if (path != null) p.startRecording(new File(path));
+                }
+            });
+            menu.addMenuListener(new MenuListener() {
+                public void menuShown(MenuEvent e) {
+                    Page p = tabs == null ? null : tab2page.get(tabs.getSelection());
+                    mi_record.setEnabled(p != null);
+                    mi_record.setText(p != null && p.recorder != null ? "Stop Recording" : "Record to File...");
+                }
+                public void menuHidden(MenuEvent e) {
+                }
+            });
             tabs.setMenu(menu);
             b = true;
         }
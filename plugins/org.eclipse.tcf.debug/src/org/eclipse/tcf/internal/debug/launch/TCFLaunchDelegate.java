@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -61,6 +61,7 @@ public class TCFLaunchDelegate extends LaunchConfigurationDelegate {
         ATTR_LOCAL_PROGRAM_FILE = ITCFConstants.ID_TCF_DEBUG_MODEL + ".LocalProgramFile",
         ATTR_REMOTE_PROGRAM_FILE = ITCFConstants.ID_TCF_DEBUG_MODEL + ".ProgramFile",
         ATTR_COPY_TO_REMOTE_FILE = ITCFConstants.ID_TCF_DEBUG_MODEL + ".CopyToRemote",
+        ATTR_INCREMENTAL_DOWNLOAD = ITCFConstants.ID_TCF_DEBUG_MODEL + ".IncrementalDownload",
         ATTR_PROGRAM_ARGUMENTS = ITCFConstants.ID_TCF_DEBUG_MODEL + ".ProgramArguments",
         ATTR_WORKING_DIRECTORY = ITCFConstants.ID_TCF_DEBUG_MODEL + ".WorkingDirectory",
         ATTR_ATTACH_CHILDREN = ITCFConstants.ID_TCF_DEBUG_MODEL + ".AttachChildren",
@@ -98,7 +99,9 @@ public class TCFLaunchDelegate extends LaunchConfigurationDelegate {
         FILES_SIZE = IMemoryMap.PROP_SIZE,
         FILES_DOWNLOAD = "Download",
         FILES_SET_PC = "SetPC",
-        FILES_ENABLE_OSA = "EnableOSA";
+        FILES_ENABLE_OSA = "EnableOSA",
+        FILES_SKIP_UNCHANGED = "SkipUnchanged",
+        FILES_CHUNK_SIZE = "ChunkSize";
 
     private static Boolean is_headless;
     private static boolean ui_activation_done;
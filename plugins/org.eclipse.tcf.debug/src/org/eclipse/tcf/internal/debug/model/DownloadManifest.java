@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.internal.debug.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.eclipse.tcf.internal.debug.Activator;
+
+/**
+ * DownloadManifest describes contents of a file copied to a remote target:
+ * size and modification time of the remote copy, and MD5 digests of fixed size blocks of the file.
+ *
+ * File System service cannot compute checksums on the target, so the manifest of last download
+ * is saved in the plug-in state location. Next download of same file compares the manifest with
+ * digests of the local file, and only writes blocks that have changed - provided the remote file still has
+ * same size and modification time, that is, it was not changed by somebody else in the meantime.
+ */
+public class DownloadManifest {
+
+    public static final int BLOCK_SIZE = 0x10000;
+
+    private static final int MAGIC = 0x54434644;
+    private static final String DIR_NAME = "downloads";
+
+    /** File size */
+    public final long size;
+    /** Modification time of the remote copy, set by the caller after the file is written */
+    public long mtime;
+
+    final byte[][] digests;
+
+    private DownloadManifest(long size, byte[][] digests) {
+        this.size = size;
+        this.digests = digests;
+    }
+
+    /**
+     * Compute block digests of a local file.
+     * The method reads whole file, it should not be called on the dispatch thread.
+     * @param file - local file.
+     * @return manifest of the file, modification time is not set.
+     * @throws IOException
+     */
+    public static DownloadManifest compute(File file) throws IOException {
+        long size = file.length();
+        int cnt = (int)((size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        byte[][] digests = new byte[cnt][];
+        MessageDigest md = getMessageDigest();
+        DataInputStream inp = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BLOCK_SIZE));
+        try {
+            byte[] buf = new byte[BLOCK_SIZE];
+            for (int i = 0; i < cnt; i++) {
+                int len = (int)Math.min(BLOCK_SIZE, size - (long)i * BLOCK_SIZE);
+                inp.readFully(buf, 0, len);
+                md.update(buf, 0, len);
+                digests[i] = md.digest();
+            }
+        }
+        finally {
+            inp.close();
+        }
+        return new DownloadManifest(size, digests);
+    }
+
+    /**
+     * Check if a block of the file is same as in the remote copy described by another manifest.
+     * @param base - manifest of the remote copy.
+     * @param block - block index.
+     * @return true if the block does not need to be written.
+     */
+    public boolean isUnchanged(DownloadManifest base, int block) {
+        if (block >= digests.length || block >= base.digests.length) return false;
+        return Arrays.equals(digests[block], base.digests[block]);
+    }
+
+    /**
+     * Read manifest of last download of a remote file.
+     * @param key - remote file key: peer ID and remote file path.
+     * @return the manifest or null if not available.
+     */
+    static DownloadManifest load(String key) {
+        return load(getDirectory(), key);
+    }
+
+    /**
+     * Read manifest of last download of a remote file.
+     * @param dir - directory that contains manifests, null if not available.
+     * @param key - remote file key: peer ID and remote file path.
+     * @return the manifest or null if not available.
+     */
+    public static DownloadManifest load(File dir, String key) {
+        if (dir == null) return null;
+        try {
+            File f = getFile(dir, key);
+            if (!f.exists()) return null;
+            DataInputStream inp = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+            try {
+                if (inp.readInt() != MAGIC) return null;
+                if (!inp.readUTF().equals(key)) return null;
+                long size = inp.readLong();
+                long mtime = inp.readLong();
+                int cnt = inp.readInt();
+                if (cnt != (size + BLOCK_SIZE - 1) / BLOCK_SIZE) return null;
+                byte[][] digests = new byte[cnt][];
+                for (int i = 0; i < cnt; i++) {
+                    digests[i] = new byte[inp.readUnsignedByte()];
+                    inp.readFully(digests[i]);
+                }
+                DownloadManifest m = new DownloadManifest(size, digests);
+                m.mtime = mtime;
+                return m;
+            }
+            finally {
+                inp.close();
+            }
+        }
+        catch (Exception x) {
+            Activator.log("Cannot read download manifest", x);
+            return null;
+        }
+    }
+
+    /**
+     * Save manifest of a remote file.
+     * @param key - remote file key: peer ID and remote file path.
+     * @param m - the manifest, null to delete saved manifest.
+     */
+    static void save(String key, DownloadManifest m) {
+        save(getDirectory(), key, m);
+    }
+
+    /**
+     * Save manifest of a remote file.
+     * @param dir - directory that contains manifests, null if not available.
+     * @param key - remote file key: peer ID and remote file path.
+     * @param m - the manifest, null to delete saved manifest.
+     */
+    public static void save(File dir, String key, DownloadManifest m) {
+        if (dir == null) return;
+        try {
+            File f = getFile(dir, key);
+            if (m == null) {
+                if (f.exists() && !f.delete()) throw new IOException("Cannot delete " + f);
+                return;
+            }
+            if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create directory " + dir);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeUTF(key);
+                out.writeLong(m.size);
+                out.writeLong(m.mtime);
+                out.writeInt(m.digests.length);
+                for (byte[] d : m.digests) {
+                    out.writeByte(d.length);
+                    out.write(d);
+                }
+            }
+            finally {
+                out.close();
+            }
+        }
+        catch (Exception x) {
+            Activator.log("Cannot save download manifest", x);
+        }
+    }
+
+    private static File getDirectory() {
+        try {
+            return Activator.getDefault().getStateLocation().append(DIR_NAME).toFile();
+        }
+        catch (Exception x) {
+            Activator.log("Cannot access download manifests", x);
+            return null;
+        }
+    }
+
+    private static File getFile(File dir, String key) throws IOException {
+        byte[] h = getMessageDigest().digest(key.getBytes("UTF-8"));
+        StringBuffer bf = new StringBuffer();
+        for (byte b : h) {
+            bf.append(Character.forDigit((b >> 4) & 0xf, 16));
+            bf.append(Character.forDigit(b & 0xf, 16));
+        }
+        return new File(dir, bf.toString());
+    }
+
+    private static MessageDigest getMessageDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("MD5");
+        }
+        catch (NoSuchAlgorithmException x) {
+            IOException e = new IOException("MD5 is not supported");
+            e.initCause(x);
+            throw e;
+        }
+    }
+}
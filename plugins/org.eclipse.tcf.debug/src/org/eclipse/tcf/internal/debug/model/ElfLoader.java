@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Xilinx, Inc. and others.
+ * Copyright (c) 2013, 2026 Xilinx, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -10,17 +10,26 @@
  *******************************************************************************/
 package org.eclipse.tcf.internal.debug.model;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.tcf.internal.debug.launch.TCFLaunchDelegate;
 import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IToken;
@@ -32,12 +41,16 @@ import org.eclipse.tcf.services.IRunControl;
 
 public class ElfLoader implements Runnable {
 
+    private final TCFLaunch launch;
     private final IChannel channel;
 
     /* Loader parameters */
     private Map<String,Object> args;
     private boolean download;
     private boolean set_pc;
+    private boolean skip_unchanged;
+    private int chunk_size;
+    private IProgressMonitor monitor;
     private Runnable done;
 
     /* Services */
@@ -162,22 +175,20 @@ public class ElfLoader implements Runnable {
             else {
                 assert context != null;
                 mem_ctx = context;
-                File fnm = null;
+                file_name = null;
                 try {
-                    fnm = new File((String)args.get(TCFLaunchDelegate.FILES_FILE_NAME));
+                    File fnm = new File((String)args.get(TCFLaunchDelegate.FILES_FILE_NAME));
+                    file_name = fnm.getName();
                     file = new RandomAccessFile(fnm, "r");
-                    try {
-                        downloadFile(context);
-                    }
-                    finally {
-                        file.close();
-                    }
+                    resume_key = context.getID() + '\n' + fnm.getAbsolutePath() + ':' +
+                            fnm.length() + ':' + fnm.lastModified() + ':' + chunk_size;
+                    downloadFile(context);
                 }
                 catch (Exception e) {
-                    if (fnm != null) e = new Exception("Cannot read '" + fnm.getName() + "'", e);
+                    if (file_name != null) e = new Exception("Cannot read '" + file_name + "'", e);
                     errors.add(e);
                 }
-                file = null;
+                downloadNext();
             }
             run();
         }
@@ -215,12 +226,75 @@ public class ElfLoader implements Runnable {
 
     private static final int PT_LOAD = 1;
 
+    private static final int DEF_CHUNK_SIZE = 0x10000;
+    private static final int MAX_CHUNK_SIZE = 0x1000000;
+    private static final int MAX_RETRIES = 2;
+    private static final int MAX_RESUME_ENTRIES = 8;
+
+    /**
+     * Chunk is a piece of a program segment that is written with single Memory service command.
+     * A chunk either has file data, or is a part of a segment tail that is filled with zeros.
+     */
+    private static class Chunk {
+        int index;
+        long offset;
+        BigInteger addr;
+        int size;
+        boolean fill;
+        boolean verify;
+        int retries;
+    }
+
+    /* Chunks waiting for the Memory service command window */
+    private final LinkedList<Chunk> chunks = new LinkedList<Chunk>();
+
+    /* Chunks written by a download that did not complete */
+    private static class ResumeEntry {
+        final TCFLaunch launch;
+        final BitSet chunks_done = new BitSet();
+
+        ResumeEntry(TCFLaunch launch) {
+            this.launch = launch;
+        }
+    }
+
+    /*
+     * Incomplete downloads by download key, most recently used last.
+     * If same file is downloaded into same context again, chunks written before are
+     * compared with target memory first and only written if different.
+     * The map keeps MAX_RESUME_ENTRIES entries at most, entries of a launch are removed
+     * when the launch is removed. Accessed by the dispatch thread only.
+     */
+    @SuppressWarnings("serial")
+    private static final Map<String,ResumeEntry> resume_map = new LinkedHashMap<String,ResumeEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,ResumeEntry> eldest) {
+            return size() > MAX_RESUME_ENTRIES;
+        }
+    };
+
+    private final Runnable download_next = new Runnable() {
+        @Override
+        public void run() {
+            downloadNext();
+        }
+    };
+
     private boolean listener_ok;
     private boolean started_context_retrieval;
     private boolean started_reginfo_retrieval;
     private boolean disposed;
 
     private RandomAccessFile file;
+    private String file_name;
+    private String resume_key;
+    private BitSet chunks_done;
+    private int chunks_pending;
+    private long bytes_total;
+    private long bytes_done;
+    private long bytes_skipped;
+    private long progress_time;
+    private IMemory.MemoryContext download_ctx;
     private boolean big_endian;
     private boolean elf64;
     private IMemory.MemoryContext mem_ctx;
@@ -228,20 +302,26 @@ public class ElfLoader implements Runnable {
     private RegistersContext reg_pc;
     private long start_time;
 
-    ElfLoader(IChannel channel) {
+    ElfLoader(TCFLaunch launch, IChannel channel) {
+        this.launch = launch;
         this.channel = channel;
         service_rc = channel.getRemoteService(IRunControl.class);
         service_mem = channel.getRemoteService(IMemory.class);
         service_regs = channel.getRemoteService(IRegisters.class);
     }
 
-    void load(Map<String,Object> args, Runnable done) {
+    void load(Map<String,Object> args, IProgressMonitor monitor, Runnable done) {
         this.args = args;
+        this.monitor = monitor;
         this.done = done;
         Boolean b1 = (Boolean)args.get(TCFLaunchDelegate.FILES_DOWNLOAD);
         Boolean b2 = (Boolean)args.get(TCFLaunchDelegate.FILES_SET_PC);
+        Boolean b3 = (Boolean)args.get(TCFLaunchDelegate.FILES_SKIP_UNCHANGED);
+        Number n = (Number)args.get(TCFLaunchDelegate.FILES_CHUNK_SIZE);
         download = b1 != null && b1.booleanValue();
         set_pc = b2 != null && b2.booleanValue();
+        skip_unchanged = b3 != null && b3.booleanValue();
+        chunk_size = n != null && n.intValue() > 0 ? Math.min(n.intValue(), MAX_CHUNK_SIZE) : DEF_CHUNK_SIZE;
         start_time = System.currentTimeMillis();
         started_reginfo_retrieval = false;
         entry_addr = null;
@@ -255,6 +335,18 @@ public class ElfLoader implements Runnable {
         disposed = true;
     }
 
+    /**
+     * Forget incomplete downloads of a launch.
+     * @param launch - the launch that is removed.
+     */
+    static void disposeLaunch(TCFLaunch launch) {
+        assert Protocol.isDispatchThread();
+        Iterator<ResumeEntry> i = resume_map.values().iterator();
+        while (i.hasNext()) {
+            if (i.next().launch == launch) i.remove();
+        }
+    }
+
     private BigInteger readNumberX() throws IOException {
         int size = elf64 ? 8 : 4;
         byte[] buf = new byte[size + 1];
@@ -328,31 +420,145 @@ public class ElfLoader implements Runnable {
                 BigInteger p_paddr = readNumberX();
                 BigInteger p_filesz = readNumberX();
                 BigInteger p_memsz = readNumberX();
-                byte buf[] = new byte[p_filesz.intValue()];
-                file.seek(p_offset.longValue());
-                file.readFully(buf);
-                cmds.add(context.set(p_paddr, 4, buf, 0, buf.length, 0, new IMemory.DoneMemory() {
-                    @Override
-                    public void doneMemory(IToken token, IMemory.MemoryError error) {
-                        cmds.remove(token);
-                        if (error != null) errors.add(error);
-                        run();
+                addChunks(p_offset.longValue(), p_paddr, p_filesz.longValue(), false);
+                addChunks(0, p_paddr.add(p_filesz), p_memsz.subtract(p_filesz).max(BigInteger.ZERO).longValue(), true);
+            }
+            ResumeEntry e = resume_map.get(resume_key);
+            if (e == null) resume_map.put(resume_key, e = new ResumeEntry(launch));
+            chunks_done = e.chunks_done;
+            for (Chunk c : chunks) c.verify = skip_unchanged || chunks_done.get(c.index);
+        }
+        download_ctx = context;
+    }
+
+    private void addChunks(long offset, BigInteger addr, long size, boolean fill) {
+        long pos = 0;
+        while (pos < size) {
+            Chunk c = new Chunk();
+            c.index = chunks.size();
+            c.offset = offset + pos;
+            c.addr = addr.add(BigInteger.valueOf(pos));
+            c.size = (int)Math.min(size - pos, chunk_size);
+            c.fill = fill;
+            chunks.add(c);
+            bytes_total += c.size;
+            pos += c.size;
+        }
+    }
+
+    private byte[] readChunk(Chunk c) throws IOException {
+        byte[] buf = new byte[c.size];
+        if (c.fill) return buf;
+        if (c.offset + c.size > file.length()) throw new EOFException();
+        /* Positional read does not move the file pointer and does not need a mapping */
+        FileChannel ch = file.getChannel();
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        while (bb.hasRemaining()) {
+            if (ch.read(bb, c.offset + bb.position()) < 0) throw new EOFException();
+        }
+        return buf;
+    }
+
+    /**
+     * Send queued chunks while the Memory service command window allows,
+     * close the file when all chunks are written.
+     */
+    private void downloadNext() {
+        if (file == null) return;
+        try {
+            while (chunks.size() > 0 && errors.size() == 0 && !disposed &&
+                    channel.getState() == IChannel.STATE_OPEN) {
+                if (!channel.waitForCommandWindow(service_mem, download_next)) return;
+                sendChunk(chunks.removeFirst());
+            }
+        }
+        catch (Exception e) {
+            errors.add(new Exception("Cannot read '" + file_name + "'", e));
+        }
+        if (chunks.size() > 0 && errors.size() == 0 && (disposed || channel.getState() != IChannel.STATE_OPEN)) {
+            /* The loader is disposed or the channel closed before all chunks were sent */
+            if (disposed) errors.add(new Exception("Download of '" + file_name + "' canceled"));
+            else errors.add(new Exception("Download of '" + file_name + "' aborted: channel closed"));
+        }
+        if (chunks_pending > 0) return;
+        if (errors.size() == 0 && !disposed && chunks.size() == 0) resume_map.remove(resume_key);
+        chunks.clear();
+        try {
+            file.close();
+        }
+        catch (IOException e) {
+            errors.add(e);
+        }
+        file = null;
+        download_ctx = null;
+        run();
+    }
+
+    private void sendChunk(final Chunk c) throws IOException {
+        final byte[] buf = c.fill && !c.verify ? null : readChunk(c);
+        chunks_pending++;
+        if (c.verify) {
+            final byte[] tgt = new byte[c.size];
+            cmds.add(download_ctx.get(c.addr, 4, tgt, 0, c.size, 0, new IMemory.DoneMemory() {
+                @Override
+                public void doneMemory(IToken token, IMemory.MemoryError error) {
+                    cmds.remove(token);
+                    if (error == null && Arrays.equals(buf, tgt)) {
+                        bytes_skipped += c.size;
+                        onChunkDone(c, null);
+                    }
+                    else {
+                        writeChunk(c, buf);
                     }
-                }));
-                BigInteger fill = p_memsz.subtract(p_filesz);
-                if (fill.compareTo(BigInteger.ZERO) > 0) {
-                    buf = new byte[4];
-                    cmds.add(context.fill(p_paddr.add(p_filesz), 4, buf, fill.intValue(), 0, new IMemory.DoneMemory() {
-                        @Override
-                        public void doneMemory(IToken token, IMemory.MemoryError error) {
-                            cmds.remove(token);
-                            if (error != null) errors.add(error);
-                            run();
-                        }
-                    }));
                 }
+            }));
+        }
+        else {
+            writeChunk(c, buf);
+        }
+    }
+
+    private void writeChunk(final Chunk c, byte[] buf) {
+        IMemory.DoneMemory done_memory = new IMemory.DoneMemory() {
+            @Override
+            public void doneMemory(IToken token, IMemory.MemoryError error) {
+                cmds.remove(token);
+                onChunkDone(c, error);
+            }
+        };
+        if (c.fill) cmds.add(download_ctx.fill(c.addr, 4, new byte[4], c.size, 0, done_memory));
+        else cmds.add(download_ctx.set(c.addr, 4, buf, 0, c.size, 0, done_memory));
+    }
+
+    private void onChunkDone(Chunk c, Exception error) {
+        chunks_pending--;
+        if (error != null) {
+            if (c.retries < MAX_RETRIES && !disposed && channel.getState() == IChannel.STATE_OPEN) {
+                /* Retry the chunk, other chunks are not affected */
+                c.retries++;
+                c.verify = false;
+                chunks.addFirst(c);
+            }
+            else {
+                errors.add(new Exception("Cannot write " + c.size + " bytes at 0x" + c.addr.toString(16), error));
             }
         }
+        else {
+            chunks_done.set(c.index);
+            bytes_done += c.size;
+            reportProgress();
+        }
+        downloadNext();
+    }
+
+    private void reportProgress() {
+        if (monitor == null) return;
+        long time = System.currentTimeMillis();
+        if (time - progress_time < 200 && bytes_done < bytes_total) return;
+        progress_time = time;
+        String s = "Downloading '" + file_name + "', " + (bytes_done >> 10) + " of " + (bytes_total >> 10) + " KB done";
+        if (bytes_skipped > 0) s += ", " + (bytes_skipped >> 10) + " KB unchanged";
+        monitor.subTask(s);
     }
 
     private void setEntryAddress() {
@@ -405,8 +611,8 @@ public class ElfLoader implements Runnable {
     }
 
     public void run() {
-        /* Wait for pending commands */
-        if (cmds.size() > 0) return;
+        /* Wait for pending commands and chunks */
+        if (cmds.size() > 0 || file != null) return;
 
         if (disposed) return;
         if (done == null) return;
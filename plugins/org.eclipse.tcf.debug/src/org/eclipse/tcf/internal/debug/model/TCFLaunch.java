@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2021 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -467,7 +468,7 @@ public class TCFLaunch extends Launch {
                 if (s != null) {
                     @SuppressWarnings("unchecked")
                     Collection<Map<String,Object>> c = (Collection<Map<String,Object>>)JSON.parseOne(s.getBytes("UTF-8"));
-                    final ElfLoader loader = new ElfLoader(channel);
+                    final ElfLoader loader = new ElfLoader(this, channel);
                     for (final Map<String,Object> m : c) {
                         Boolean b1 = (Boolean)m.get(TCFLaunchDelegate.FILES_DOWNLOAD);
                         Boolean b2 = (Boolean)m.get(TCFLaunchDelegate.FILES_SET_PC);
@@ -475,7 +476,7 @@ public class TCFLaunch extends Launch {
                             new LaunchStep() {
                                 @Override
                                 void start() throws Exception {
-                                    loader.load(m, this);
+                                    loader.load(m, launch_monitor, this);
                                 }
                             };
                         }
@@ -714,7 +715,8 @@ public class TCFLaunch extends Launch {
         return arr.toArray(new String[arr.size()]);
     }
 
-    private void copyFileToRemoteTarget(String local_file, String remote_file, final Runnable done) {
+    private void copyFileToRemoteTarget(String local_file, final String remote_file,
+            boolean incremental, final Runnable done) {
         if (local_file == null) {
             channel.terminate(new Exception("Program does not exist"));
             return;
@@ -725,18 +727,89 @@ public class TCFLaunch extends Launch {
                     "Cannot download program file: target does not provide File System service"));
             return;
         }
+        final File local_fd = new File(local_file);
+        if (launch_monitor != null) launch_monitor.subTask("Downloading: " + local_fd.getName());
+        if (!incremental) {
+            writeRemoteFile(fs, local_fd, remote_file, null, null, null, done);
+            return;
+        }
+        final String key = channel.getRemotePeer().getID() + ":" + remote_file;
+        new Thread() {
+            DownloadManifest local;
+            DownloadManifest prev;
+            Throwable err;
+            public void run() {
+                try {
+                    local = DownloadManifest.compute(local_fd);
+                    prev = DownloadManifest.load(key);
+                }
+                catch (Throwable x) {
+                    err = x;
+                }
+                Protocol.invokeLater(new Runnable() {
+                    public void run() {
+                        if (channel.getState() != IChannel.STATE_OPEN) return;
+                        if (err != null) {
+                            channel.terminate(err);
+                        }
+                        else if (prev == null) {
+                            writeRemoteFile(fs, local_fd, remote_file, key, local, null, done);
+                        }
+                        else {
+                            // Remote file can be reused only if nobody changed it since last download
+                            fs.stat(remote_file, new IFileSystem.DoneStat() {
+                                public void doneStat(IToken token, FileSystemException error, IFileSystem.FileAttrs attrs) {
+                                    DownloadManifest base = null;
+                                    if (error == null && attrs != null &&
+                                            (attrs.flags & IFileSystem.ATTR_SIZE) != 0 &&
+                                            (attrs.flags & IFileSystem.ATTR_ACMODTIME) != 0 &&
+                                            attrs.size == prev.size && attrs.mtime == prev.mtime) base = prev;
+                                    writeRemoteFile(fs, local_fd, remote_file, key, local, base, done);
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+        }.start();
+    }
+
+    /**
+     * Write a local file to the target.
+     * If manifest of the remote file is given, only blocks that differ from the local file are written.
+     * @param fs - remote File System service.
+     * @param local_fd - local file.
+     * @param remote_file - remote file path.
+     * @param key - download manifest key, null if the manifest should not be saved.
+     * @param local - manifest of the local file, or null.
+     * @param base - manifest of current contents of the remote file, or null.
+     * @param done - call-back to invoke when the file is written.
+     */
+    private void writeRemoteFile(final IFileSystem fs, final File local_fd, final String remote_file,
+            final String key, final DownloadManifest local, final DownloadManifest base, final Runnable done) {
         try {
-            final File local_fd = new File(local_file);
-            final InputStream inp = new FileInputStream(local_fd);
+            final RandomAccessFile inp = new RandomAccessFile(local_fd, "r");
             final String task_name = "Downloading: " + local_fd.getName();
-            int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
-            if (launch_monitor != null) launch_monitor.subTask(task_name);
+            int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT;
+            if (base == null) flags |= IFileSystem.TCF_O_TRUNC;
+            // The manifest is not valid while the remote file is being modified
+            if (key != null) DownloadManifest.save(key, null);
             fs.open(remote_file, flags, null, new IFileSystem.DoneOpen() {
 
                 IFileHandle handle;
+                final long size = local != null ? local.size : inp.length();
                 long offset = 0;
+                long range_end = 0;
+                long skipped = 0;
                 final Set<IToken> cmds = new HashSet<IToken>();
                 final byte[] buf = new byte[0x1000];
+                boolean eof;
+                boolean closed;
+                final Runnable write_more = new Runnable() {
+                    public void run() {
+                        if (channel.getState() == IChannel.STATE_OPEN) write_next();
+                    }
+                };
 
                 public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
                     this.handle = handle;
@@ -750,49 +823,111 @@ public class TCFLaunch extends Launch {
                     }
                 }
 
+                private boolean find_next_change() {
+                    while (offset >= range_end) {
+                        if (offset >= size) return false;
+                        if (base == null) {
+                            range_end = size;
+                            break;
+                        }
+                        int block = (int)(offset / DownloadManifest.BLOCK_SIZE);
+                        long end = Math.min(size, (long)(block + 1) * DownloadManifest.BLOCK_SIZE);
+                        if (local.isUnchanged(base, block)) {
+                            skipped += end - offset;
+                            offset = end;
+                        }
+                        else {
+                            range_end = end;
+                        }
+                    }
+                    return true;
+                }
+
+                private void report_progress() {
+                    if (launch_monitor == null) return;
+                    String s = task_name + ", " + (offset - skipped) / 1024 + " KB done";
+                    if (skipped > 0) s += ", " + skipped / 1024 + " KB unchanged";
+                    launch_monitor.subTask(s);
+                }
+
                 private void write_next() {
                     try {
-                        while (cmds.size() < 8) {
-                            int rd = inp.read(buf);
-                            if (rd < 0) {
-                                close();
+                        while (!eof && channel.waitForCommandWindow(fs, write_more)) {
+                            if (!find_next_change()) {
+                                eof = true;
                                 break;
                             }
-                            final long kb_done = (offset + rd) / 1024;
+                            int rd = (int)Math.min(buf.length, range_end - offset);
+                            inp.seek(offset);
+                            inp.readFully(buf, 0, rd);
                             cmds.add(fs.write(handle, offset, buf, 0, rd, new IFileSystem.DoneWrite() {
 
                                 public void doneWrite(IToken token, FileSystemException error) {
                                     cmds.remove(token);
-                                    if (launch_monitor != null) {
-                                        launch_monitor.subTask(task_name + ", " + kb_done + " KB done");
-                                    }
+                                    report_progress();
                                     if (error != null) channel.terminate(error);
                                     else write_next();
                                 }
                             }));
                             offset += rd;
                         }
+                        if (eof) truncate();
                     }
                     catch (Throwable x) {
                         channel.terminate(x);
                     }
                 }
 
-                private void close() {
-                    if (cmds.size() > 0) return;
+                private void truncate() {
+                    if (cmds.size() > 0 || closed) return;
+                    closed = true;
+                    report_progress();
                     try {
                         inp.close();
-                        fs.close(handle, new IFileSystem.DoneClose() {
-
-                            public void doneClose(IToken token, FileSystemException error) {
-                                if (error != null) channel.terminate(error);
-                                else done.run();
-                            }
-                        });
                     }
-                    catch (Throwable x) {
+                    catch (IOException x) {
                         channel.terminate(x);
+                        return;
+                    }
+                    if (base == null || base.size <= size) {
+                        close();
+                        return;
                     }
+                    IFileSystem.FileAttrs attrs = new IFileSystem.FileAttrs(IFileSystem.ATTR_SIZE, size, 0, 0, 0, 0, 0, null);
+                    fs.fsetstat(handle, attrs, new IFileSystem.DoneSetStat() {
+
+                        public void doneSetStat(IToken token, FileSystemException error) {
+                            if (error != null) channel.terminate(error);
+                            else close();
+                        }
+                    });
+                }
+
+                private void close() {
+                    fs.close(handle, new IFileSystem.DoneClose() {
+
+                        public void doneClose(IToken token, FileSystemException error) {
+                            if (error != null) channel.terminate(error);
+                            else if (key == null) done.run();
+                            else save_manifest();
+                        }
+                    });
+                }
+
+                private void save_manifest() {
+                    fs.stat(remote_file, new IFileSystem.DoneStat() {
+
+                        public void doneStat(IToken token, FileSystemException error, IFileSystem.FileAttrs attrs) {
+                            if (error == null && attrs != null &&
+                                    (attrs.flags & IFileSystem.ATTR_SIZE) != 0 &&
+                                    (attrs.flags & IFileSystem.ATTR_ACMODTIME) != 0 &&
+                                    attrs.size == local.size) {
+                                local.mtime = attrs.mtime;
+                                DownloadManifest.save(key, local);
+                            }
+                            done.run();
+                        }
+                    });
                 }
             });
         }
@@ -805,12 +940,14 @@ public class TCFLaunch extends Launch {
         final String project = cfg.getAttribute(TCFLaunchDelegate.ATTR_PROJECT_NAME, "");
         final String local_file = cfg.getAttribute(TCFLaunchDelegate.ATTR_LOCAL_PROGRAM_FILE, "");
         final String remote_file = cfg.getAttribute(TCFLaunchDelegate.ATTR_REMOTE_PROGRAM_FILE, "");
+        final boolean incremental_download = cfg.getAttribute(TCFLaunchDelegate.ATTR_INCREMENTAL_DOWNLOAD, true);
         if (local_file.length() != 0 && remote_file.length() != 0) {
             // Download executable file
             new LaunchStep() {
                 @Override
                 void start() throws Exception {
-                    copyFileToRemoteTarget(TCFLaunchDelegate.getProgramPath(project, local_file), remote_file, this);
+                    copyFileToRemoteTarget(TCFLaunchDelegate.getProgramPath(project, local_file),
+                            remote_file, incremental_download, this);
                 }
             };
         }
@@ -1218,6 +1355,7 @@ public class TCFLaunch extends Launch {
                 if (channel != null && channel.getState() != IChannel.STATE_CLOSED) {
                     channel.close();
                 }
+                ElfLoader.disposeLaunch(TCFLaunch.this);
             }
         });
     }
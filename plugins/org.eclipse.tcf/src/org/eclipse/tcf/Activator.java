@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -44,7 +44,7 @@ public class Activator extends Plugin {
 
     private static Activator plugin;
     private static boolean debug;
-    private static final EventQueue queue = new EventQueue();
+    private static final DispatchQueue queue = createEventQueue();
     private static final BundleListener bundle_listener = new BundleListener() {
         private boolean started = false;
         public void bundleChanged(BundleEvent event) {
@@ -67,6 +67,19 @@ public class Activator extends Plugin {
         plugin = this;
     }
 
+    /**
+     * Create TCF event queue.
+     * System property "org.eclipse.tcf.event_queue" selects the implementation:
+     * "lockfree" - lock-free queue that collects dispatch latency statistics,
+     * otherwise - default monitor based queue.
+     */
+    private static DispatchQueue createEventQueue() {
+        if ("lockfree".equals(System.getProperty("org.eclipse.tcf.event_queue"))) { //$NON-NLS-1$ //$NON-NLS-2$
+            return new LockFreeJobEventQueue();
+        }
+        return new EventQueue();
+    }
+
     /**
      * Returns the shared instance
      *
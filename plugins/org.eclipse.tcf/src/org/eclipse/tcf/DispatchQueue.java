@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf;
+
+import org.eclipse.tcf.protocol.IEventQueue;
+
+/**
+ * Event queue that owns the TCF dispatch thread and is controlled by the plug-in life cycle.
+ */
+interface DispatchQueue extends IEventQueue {
+
+    void start();
+
+    void shutdown();
+}
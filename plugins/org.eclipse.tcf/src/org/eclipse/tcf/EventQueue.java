@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007-2020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -12,10 +12,6 @@ package org.eclipse.tcf;
 
 import java.util.LinkedList;
 
-import org.eclipse.core.runtime.jobs.IJobChangeEvent;
-import org.eclipse.core.runtime.jobs.IJobChangeListener;
-import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.tcf.protocol.IEventQueue;
 import org.eclipse.tcf.protocol.Protocol;
 
 
@@ -23,48 +19,25 @@ import org.eclipse.tcf.protocol.Protocol;
  * Implementation of Target Communication Framework event queue.
  * This implementation is intended for Eclipse environment.
  */
-class EventQueue implements IEventQueue, Runnable {
+class EventQueue implements DispatchQueue, Runnable {
 
     private final LinkedList<Runnable> queue = new LinkedList<Runnable>();
     private final Thread thread;
     private boolean waiting;
     private boolean shutdown;
-    private int job_cnt;
+    private final JobMonitor jobs = new JobMonitor();
 
     EventQueue() {
         thread = new Thread(this);
         thread.setDaemon(true);
         thread.setName("TCF Event Dispatcher"); //$NON-NLS-1$
-        // Need to monitor jobs to detect congestion
-        Job.getJobManager().addJobChangeListener(new IJobChangeListener() {
-
-            public void aboutToRun(IJobChangeEvent event) {
-            }
-
-            public void awake(IJobChangeEvent event) {
-            }
-
-            public void done(IJobChangeEvent event) {
-                job_cnt--;
-            }
-
-            public void running(IJobChangeEvent event) {
-            }
-
-            public void scheduled(IJobChangeEvent event) {
-                job_cnt++;
-            }
-
-            public void sleeping(IJobChangeEvent event) {
-            }
-        });
     }
 
-    void start() {
+    public void start() {
         thread.start();
     }
 
-    void shutdown() {
+    public void shutdown() {
         try {
             synchronized (this) {
                 shutdown = true;
@@ -117,8 +90,7 @@ class EventQueue implements IEventQueue, Runnable {
     }
 
     public synchronized int getCongestion() {
-        if (Job.getJobManager().isIdle()) job_cnt = 0;
-        int l0 = job_cnt / 10 - 100;
+        int l0 = jobs.getCongestion();
         int l1 = queue.size() / 10 - 100;
         if (l1 > l0) l0 = l1;
         if (l0 > 100) l0 = 100;
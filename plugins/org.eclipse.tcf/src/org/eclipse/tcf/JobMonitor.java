@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2007-2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf;
+
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Counts scheduled Eclipse jobs, event queues use the count to detect congestion.
+ */
+class JobMonitor implements IJobChangeListener {
+
+    private int job_cnt;
+
+    JobMonitor() {
+        Job.getJobManager().addJobChangeListener(this);
+    }
+
+    synchronized int getCongestion() {
+        if (Job.getJobManager().isIdle()) job_cnt = 0;
+        return job_cnt / 10 - 100;
+    }
+
+    public void aboutToRun(IJobChangeEvent event) {
+    }
+
+    public void awake(IJobChangeEvent event) {
+    }
+
+    public synchronized void done(IJobChangeEvent event) {
+        job_cnt--;
+    }
+
+    public void running(IJobChangeEvent event) {
+    }
+
+    public synchronized void scheduled(IJobChangeEvent event) {
+        job_cnt++;
+    }
+
+    public void sleeping(IJobChangeEvent event) {
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf;
+
+import org.eclipse.tcf.core.LockFreeEventQueue;
+
+/**
+ * Lock-free TCF event queue for Eclipse environment.
+ * Congestion level is the maximum of dispatch latency level and Eclipse jobs level.
+ * The queue is selected at startup by system property "org.eclipse.tcf.event_queue=lockfree".
+ */
+class LockFreeJobEventQueue extends LockFreeEventQueue implements DispatchQueue {
+
+    private final JobMonitor jobs = new JobMonitor();
+
+    @Override
+    public int getCongestion() {
+        int l0 = jobs.getCongestion();
+        int l1 = super.getCongestion();
+        if (l1 > l0) l0 = l1;
+        if (l0 > 100) l0 = 100;
+        return l0;
+    }
+}
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.runtime.processes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Bounded byte buffer passing stream data from a producer to a consumer, used in place
+ * of a piped stream pair.
+ * <p>
+ * One side of the buffer uses the blocking streams returned by {@link #getInputStream()}
+ * or {@link #getOutputStream()} from its own thread. The other side uses the non-blocking
+ * {@link #offer(byte[], int, int, Runnable)} and {@link #poll(byte[], int, int, Runnable)}
+ * methods, which register a call back if they cannot complete. The call back is invoked once,
+ * from the thread using the blocking stream, as soon as the state of the buffer changes.
+ * This allows an event driven side to move data without a thread of its own, and the
+ * blocking side is held back while the buffer is full.
+ */
+public class ByteRingBuffer {
+	/** Default capacity of the buffer in bytes */
+	public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+	// The buffer data
+	private final byte[] buffer;
+	// The read position
+	private int head;
+	// The number of buffered bytes
+	private int count;
+	// Flag set when no more data will be written
+	private boolean writerClosed;
+	// Flag set when no more data will be read
+	private boolean readerClosed;
+	// The call back of the non-blocking side, if waiting
+	private Runnable waiter;
+
+	private final Input input = new Input();
+	private final Output output = new Output();
+
+	/**
+	 * Blocking input stream reading from the buffer.
+	 */
+	private class Input extends InputStream {
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int n = read(b, 0, 1);
+			return n < 0 ? -1 : b[0] & 0xff;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+			if (len == 0) return 0;
+			int n;
+			synchronized (ByteRingBuffer.this) {
+				while (count == 0 && !writerClosed && !readerClosed) {
+					try {
+						ByteRingBuffer.this.wait();
+					} catch (InterruptedException e) {
+						throw new InterruptedIOException();
+					}
+				}
+				if (readerClosed) throw new IOException("Stream closed"); //$NON-NLS-1$
+				if (count == 0) return -1;
+				n = take(b, off, len);
+			}
+			changed();
+			return n;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#available()
+		 */
+		@Override
+		public int available() throws IOException {
+			synchronized (ByteRingBuffer.this) {
+				return count;
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			synchronized (ByteRingBuffer.this) {
+				readerClosed = true;
+				count = 0;
+			}
+			changed();
+		}
+
+		/**
+		 * Returns the buffer of the stream.
+		 */
+		ByteRingBuffer getBuffer() {
+			return ByteRingBuffer.this;
+		}
+	}
+
+	/**
+	 * Blocking output stream writing to the buffer.
+	 */
+	private class Output extends OutputStream {
+
+		/* (non-Javadoc)
+		 * @see java.io.OutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte)b }, 0, 1);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.OutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+			while (len > 0) {
+				int n;
+				synchronized (ByteRingBuffer.this) {
+					while (count == buffer.length && !readerClosed && !writerClosed) {
+						try {
+							ByteRingBuffer.this.wait();
+						} catch (InterruptedException e) {
+							throw new InterruptedIOException();
+						}
+					}
+					if (readerClosed || writerClosed) throw new IOException("Pipe closed"); //$NON-NLS-1$
+					n = put(b, off, len);
+				}
+				changed();
+				off += n;
+				len -= n;
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.OutputStream#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			synchronized (ByteRingBuffer.this) {
+				writerClosed = true;
+			}
+			changed();
+		}
+	}
+
+	/**
+	 * Constructor.
+	 */
+	public ByteRingBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity The capacity of the buffer in bytes. Must be greater than 0.
+	 */
+	public ByteRingBuffer(int capacity) {
+		assert capacity > 0;
+		buffer = new byte[capacity];
+	}
+
+	/**
+	 * Returns the blocking input stream reading from the buffer.
+	 * Closing the stream discards buffered and subsequently offered data.
+	 *
+	 * @return The input stream.
+	 */
+	public final InputStream getInputStream() {
+		return input;
+	}
+
+	/**
+	 * Returns the blocking output stream writing to the buffer.
+	 * Closing the stream signals the end of the data to the reader.
+	 *
+	 * @return The output stream.
+	 */
+	public final OutputStream getOutputStream() {
+		return output;
+	}
+
+	/**
+	 * Write as much of the given data as fits into the buffer, without blocking.
+	 * <p>
+	 * If the reader has closed the buffer, the data is discarded as if it was written.
+	 *
+	 * @param b The data.
+	 * @param off The offset of the data.
+	 * @param len The length of the data.
+	 * @param callback The call back to invoke once when space may be available, if not all data fits.
+	 *
+	 * @return The number of bytes written.
+	 */
+	public int offer(byte[] b, int off, int len, Runnable callback) {
+		synchronized (this) {
+			if (readerClosed || writerClosed) return len;
+			int n = put(b, off, len);
+			if (n < len) waiter = callback;
+			if (n == 0) return 0;
+			notifyAll();
+			return n;
+		}
+	}
+
+	/**
+	 * Read the available data from the buffer, without blocking.
+	 *
+	 * @param b The buffer to read into.
+	 * @param off The offset in the buffer.
+	 * @param len The maximal number of bytes to read.
+	 * @param callback The call back to invoke once when data may be available, if the buffer is empty.
+	 *
+	 * @return The number of bytes read, or <code>-1</code> if the writer has closed the buffer and all data has been read.
+	 */
+	public int poll(byte[] b, int off, int len, Runnable callback) {
+		synchronized (this) {
+			if (count == 0) {
+				if (writerClosed || readerClosed) return -1;
+				waiter = callback;
+				return 0;
+			}
+			int n = take(b, off, len);
+			notifyAll();
+			return n;
+		}
+	}
+
+	/**
+	 * Returns if or if not the writer has closed the buffer and all data has been read.
+	 *
+	 * @return <code>True</code> if the end of the data has been reached, <code>false</code> otherwise.
+	 */
+	public synchronized boolean isEOF() {
+		return writerClosed && count == 0;
+	}
+
+	/**
+	 * Returns if or if not the given stream reads from a ring buffer that has reached the end of the data.
+	 *
+	 * @param stream The input stream. Must not be <code>null</code>.
+	 * @return <code>True</code> if the stream reads from a ring buffer at the end of the data, <code>false</code> otherwise.
+	 */
+	public static boolean isEOF(InputStream stream) {
+		return stream instanceof Input && ((Input)stream).getBuffer().isEOF();
+	}
+
+	// Copy data into the buffer, must be called with the lock held
+	private int put(byte[] b, int off, int len) {
+		int n = Math.min(len, buffer.length - count);
+		int tail = (head + count) % buffer.length;
+		int first = Math.min(n, buffer.length - tail);
+		System.arraycopy(b, off, buffer, tail, first);
+		System.arraycopy(b, off + first, buffer, 0, n - first);
+		count += n;
+		return n;
+	}
+
+	// Copy data out of the buffer, must be called with the lock held
+	private int take(byte[] b, int off, int len) {
+		int n = Math.min(len, count);
+		int first = Math.min(n, buffer.length - head);
+		System.arraycopy(buffer, head, b, off, first);
+		System.arraycopy(buffer, 0, b, off + first, n - first);
+		head = (head + n) % buffer.length;
+		count -= n;
+		return n;
+	}
+
+	// Wake up blocked streams and the waiting non-blocking side
+	private void changed() {
+		Runnable callback;
+		synchronized (this) {
+			notifyAll();
+			callback = waiter;
+			waiter = null;
+		}
+		if (callback != null) callback.run();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -268,6 +268,8 @@ public class ProcessOutputReaderThread extends Thread {
                     }
                     catch (Exception e) { /* ignored on purpose */ }
 				}
+				// Same for streams reading from a ring buffer
+				if (bytesRead == 0 && ByteRingBuffer.isEOF(streams[i])) bytesRead = -1;
 
 				// is EOF for the current stream
 				if (bytesRead == -1) {
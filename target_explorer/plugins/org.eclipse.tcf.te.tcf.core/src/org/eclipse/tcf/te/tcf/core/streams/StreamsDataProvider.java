@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -10,13 +10,17 @@
 package org.eclipse.tcf.te.tcf.core.streams;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.tcf.services.IProcesses;
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
 
 /**
  * Remote context streams data provider implementation.
@@ -24,6 +28,8 @@ import org.eclipse.tcf.services.IProcesses;
 public class StreamsDataProvider extends PlatformObject {
 	// The associated reader instance
 	private final Reader reader;
+	// The associated ring buffer instance
+	private ByteRingBuffer buffer;
 	// The list of applicable stream type id's
 	private final List<String> streamTypeIds;
 
@@ -36,7 +42,26 @@ public class StreamsDataProvider extends PlatformObject {
 	 * @see IProcesses
 	 */
 	public StreamsDataProvider(Reader reader, String[] streamTypeIds) {
+		this(reader, null, streamTypeIds);
+	}
+
+	/**
+	 * Constructor.
+	 * <p>
+	 * The data written to the buffer is passed to the stream as is, without character conversion.
+	 *
+	 * @param buffer The ring buffer instance. Must not be <code>null</code>.
+	 * @param streamTypeIds The list of applicable stream type id's or <code>null</code>.
+	 *
+	 * @see IProcesses
+	 */
+	public StreamsDataProvider(ByteRingBuffer buffer, String[] streamTypeIds) {
+		this(new InputStreamReader(buffer.getInputStream()), buffer, streamTypeIds);
+	}
+
+	private StreamsDataProvider(Reader reader, ByteRingBuffer buffer, String[] streamTypeIds) {
 		Assert.isNotNull(reader);
+		this.buffer = buffer;
 		this.reader = reader;
 		this.streamTypeIds = streamTypeIds != null ? Arrays.asList(streamTypeIds) : null;
 	}
@@ -62,6 +87,41 @@ public class StreamsDataProvider extends PlatformObject {
 		return reader;
 	}
 
+	/**
+	 * Returns the ring buffer the stream writer takes the data from.
+	 * <p>
+	 * If the provider was created with a reader, the buffer is created on first call and
+	 * filled from the reader by a helper thread.
+	 *
+	 * @return The ring buffer instance.
+	 */
+	public final synchronized ByteRingBuffer getBuffer() {
+		if (buffer == null) {
+			buffer = new ByteRingBuffer();
+			final Writer writer = new OutputStreamWriter(buffer.getOutputStream());
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					char[] data = new char[1024];
+					try {
+						int length;
+						while ((length = reader.read(data)) >= 0) {
+							writer.write(data, 0, length);
+							writer.flush();
+						}
+					} catch (IOException e) {
+						/* ignored on purpose */
+					} finally {
+						try { writer.close(); } catch (IOException e) { /* ignored on purpose */ }
+					}
+				}
+			}, "Thread-" + getClass().getSimpleName()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.start();
+		}
+		return buffer;
+	}
+
 	/**
 	 * Returns if or if not the given stream type id is applicable for this data receiver.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -10,6 +10,7 @@
 package org.eclipse.tcf.te.tcf.core.streams;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.List;
@@ -19,6 +20,7 @@ import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IProcesses;
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
 
 /**
  * Remote context streams data receiver implementation.
@@ -26,6 +28,8 @@ import org.eclipse.tcf.services.IProcesses;
 public class StreamsDataReceiver extends PlatformObject {
 	// The associated writer instance
 	private final Writer writer;
+	// The associated ring buffer instance or null
+	private final ByteRingBuffer buffer;
 	// The list of applicable stream type id's
 	private final List<String> streamTypeIds;
 	// The list of registered listener
@@ -57,8 +61,28 @@ public class StreamsDataReceiver extends PlatformObject {
 	 * @see IProcesses
 	 */
 	public StreamsDataReceiver(Writer writer, String[] streamTypeIds) {
+		this(writer, null, streamTypeIds);
+	}
+
+	/**
+	 * Constructor.
+	 * <p>
+	 * The received data is passed to the buffer as is, without character conversion.
+	 * The stream reader stops reading from remote while the buffer is full.
+	 *
+	 * @param buffer The ring buffer instance. Must not be <code>null</code>.
+	 * @param streamTypeIds The list of applicable stream type id's or <code>null</code>.
+	 *
+	 * @see IProcesses
+	 */
+	public StreamsDataReceiver(ByteRingBuffer buffer, String[] streamTypeIds) {
+		this(new OutputStreamWriter(buffer.getOutputStream()), buffer, streamTypeIds);
+	}
+
+	private StreamsDataReceiver(Writer writer, ByteRingBuffer buffer, String[] streamTypeIds) {
 		Assert.isNotNull(writer);
 		this.writer = writer;
+		this.buffer = buffer;
 		this.streamTypeIds = streamTypeIds != null ? Arrays.asList(streamTypeIds) : null;
 		this.listeners = new ListenerList();
 	}
@@ -83,6 +107,15 @@ public class StreamsDataReceiver extends PlatformObject {
 		listeners.remove(listener);
 	}
 
+	/**
+	 * Returns if or if not streams data receiver listeners are registered.
+	 *
+	 * @return <code>True</code> if listeners are registered, <code>false</code> otherwise.
+	 */
+	public final boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
 	/**
 	 * Notify registered streams data receiver listener.
 	 *
@@ -126,6 +159,15 @@ public class StreamsDataReceiver extends PlatformObject {
 		return writer;
 	}
 
+	/**
+	 * Returns the associated ring buffer instance.
+	 *
+	 * @return The associated ring buffer instance or <code>null</code> if the data is received through the writer only.
+	 */
+	public final ByteRingBuffer getBuffer() {
+		return buffer;
+	}
+
 	/**
 	 * Returns if or if not the given stream type id is applicable for this data receiver.
 	 *
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.core.streams;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IStreams;
+import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
+
+/**
+ * Reads a remote stream and forwards the data to the applicable data receivers,
+ * without a thread of its own.
+ * <p>
+ * Several read commands are kept outstanding on the dispatch thread, and the size of
+ * the reads adapts to the amount of data the stream delivers. Receivers backed by a
+ * {@link ByteRingBuffer} get the data as is. Receivers backed by a writer get the data
+ * through a ring buffer as well, which a helper thread drains into the writer, so that
+ * no blocking I/O is done in the dispatch thread. While the buffer of a receiver is full,
+ * no further read commands are sent until the local consumer catches up.
+ */
+public class StreamsReadPump {
+	/** Minimal size of a read command */
+	public static final int MIN_READ_SIZE = 0x400;
+	/** Maximal size of a read command */
+	public static final int MAX_READ_SIZE = 0x10000;
+	// Maximal number of outstanding read commands
+	private static final int MAX_PENDING = 4;
+
+	// An outstanding read command
+	private static class Read {
+		Exception error;
+		byte[] data;
+		boolean eos;
+		boolean done;
+	}
+
+	// The streams service instance
+	private final IStreams service;
+	// The associated stream id
+	private final String streamId;
+	// The list of receivers applicable for the associated stream type id
+	private final StreamsDataReceiver[] receivers;
+	// The ring buffers the data is passed to, per receiver
+	private ByteRingBuffer[] buffers;
+	// The outstanding read commands in the order they were sent
+	private final LinkedList<Read> queue = new LinkedList<Read>();
+	// The size of the next read command
+	private int readSize = 0x1000;
+	// The data being delivered and the delivery positions per receiver
+	private byte[] chunk;
+	private int[] positions;
+	// The callback to invoke if the pump stopped
+	private ICallback callback;
+
+	private boolean started;
+	private boolean eos;
+	private boolean stopped;
+	private boolean finished;
+	private boolean disconnected;
+
+	// Resumes delivery once a receiver buffer has space again
+	private final Runnable resume = new Runnable() {
+		@Override
+		public void run() {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					deliver();
+				}
+			});
+		}
+	};
+
+	/**
+	 * Constructor.
+	 *
+	 * @param service The streams service. Must not be <code>null</code>.
+	 * @param streamId The associated stream id. Must not be <code>null</code>.
+	 * @param streamTypeId The associated stream type id. Must not be <code>null</code>.
+	 * @param receivers The list of registered data receivers. Must not be <code>null</code>.
+	 */
+	public StreamsReadPump(IStreams service, String streamId, String streamTypeId, StreamsDataReceiver[] receivers) {
+		Assert.isNotNull(service);
+		Assert.isNotNull(streamId);
+		Assert.isNotNull(streamTypeId);
+		Assert.isNotNull(receivers);
+
+		this.service = service;
+		this.streamId = streamId;
+
+		// Loop the list of receivers and filter out the applicable ones
+		List<StreamsDataReceiver> applicable = new ArrayList<StreamsDataReceiver>();
+		for (StreamsDataReceiver receiver : receivers) {
+			if (receiver.isApplicable(streamTypeId))
+				applicable.add(receiver);
+		}
+		this.receivers = applicable.toArray(new StreamsDataReceiver[applicable.size()]);
+	}
+
+	/**
+	 * Returns the associated stream id.
+	 *
+	 * @return The associated stream id.
+	 */
+	public final String getStreamId() {
+		return streamId;
+	}
+
+	/**
+	 * Returns if or if not the list of applicable receivers is empty.
+	 *
+	 * @return <code>True</code> if the list of applicable receivers is empty, <code>false</code> otherwise.
+	 */
+	public final boolean isEmpty() {
+		return receivers.length == 0;
+	}
+
+	/**
+	 * Start reading the stream.
+	 */
+	public final void start() {
+		if (!Protocol.isDispatchThread()) {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					start();
+				}
+			});
+			return;
+		}
+		if (started) return;
+		started = true;
+		buffers = new ByteRingBuffer[receivers.length];
+		for (int i = 0; i < receivers.length; i++) {
+			buffers[i] = receivers[i].getBuffer();
+			if (buffers[i] == null) buffers[i] = startWriterThread(receivers[i]);
+		}
+		fill();
+	}
+
+	/**
+	 * Stop reading the stream. Data not yet delivered is discarded.
+	 *
+	 * @param callback The callback to invoke if the pump stopped or <code>null</code>.
+	 */
+	public final void stop(final ICallback callback) {
+		if (!Protocol.isDispatchThread()) {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					stop(callback);
+				}
+			});
+			return;
+		}
+		stopped = true;
+		onEOF(callback);
+		finish();
+	}
+
+	/**
+	 * Invoke the callback once the end of the stream has been reached and the data delivered.
+	 *
+	 * @param callback The callback to invoke on EOF or <code>null</code>.
+	 */
+	public final void onEOF(final ICallback callback) {
+		if (!Protocol.isDispatchThread()) {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					onEOF(callback);
+				}
+			});
+			return;
+		}
+		if (callback == null) return;
+		// If the pump is stopped already, invoke the callback directly
+		if (disconnected) callback.done(this, Status.OK_STATUS);
+		else this.callback = callback;
+	}
+
+	/**
+	 * Returns if the pump is stopped.
+	 */
+	protected final boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Called if reading the stream fails. The default implementation does nothing.
+	 *
+	 * @param error The error.
+	 */
+	protected void readFailed(Exception error) {
+	}
+
+	/**
+	 * Called if passing data to the writer of a receiver fails. Further data for the receiver is discarded.
+	 * The default implementation does nothing.
+	 *
+	 * @param data The data.
+	 * @param error The error.
+	 */
+	protected void appendFailed(String data, IOException error) {
+	}
+
+	// Send read commands up to the limit, unless delivery is held back
+	void fill() {
+		while (!eos && !stopped && chunk == null && queue.size() < MAX_PENDING) {
+			final Read read = new Read();
+			queue.add(read);
+			final int size = readSize;
+			service.read(streamId, size, new IStreams.DoneRead() {
+				@Override
+				public void doneRead(IToken token, Exception error, int lostSize, byte[] data, boolean eos) {
+					read.error = error;
+					read.data = data;
+					read.eos = eos;
+					read.done = true;
+					// Adapt the read size to the amount of data available
+					if (data != null && data.length >= size) readSize = Math.min(size * 2, MAX_READ_SIZE);
+					else if (data == null || data.length < size / 4) readSize = Math.max(size / 2, MIN_READ_SIZE);
+					deliver();
+				}
+			});
+		}
+	}
+
+	// Deliver completed reads in order
+	void deliver() {
+		while (!stopped && !finished) {
+			if (chunk != null) {
+				if (!push()) return;
+				chunk = null;
+			}
+			if (queue.isEmpty() || !queue.getFirst().done) break;
+			Read read = queue.removeFirst();
+			if (read.error != null) {
+				eos = true;
+				readFailed(read.error);
+				break;
+			}
+			if (read.data != null && read.data.length > 0) {
+				chunk = read.data;
+				positions = new int[receivers.length];
+				notifyListeners();
+			}
+			if (read.eos) {
+				// Reads sent after the end of the stream are not of interest
+				eos = true;
+				queue.clear();
+			}
+		}
+		if (stopped || finished) return;
+		if (eos && chunk == null && queue.isEmpty()) finish();
+		else fill();
+	}
+
+	// Pass the current chunk to the receivers, returns false if a receiver buffer is full
+	private boolean push() {
+		boolean complete = true;
+		for (int i = 0; i < receivers.length; i++) {
+			if (positions[i] >= chunk.length) continue;
+			positions[i] += buffers[i].offer(chunk, positions[i], chunk.length - positions[i], resume);
+			if (positions[i] < chunk.length) complete = false;
+		}
+		return complete;
+	}
+
+	// Create the ring buffer for a receiver backed by a writer, and the thread draining it into the writer
+	private ByteRingBuffer startWriterThread(final StreamsDataReceiver receiver) {
+		final ByteRingBuffer buffer = new ByteRingBuffer();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				Reader reader = new InputStreamReader(buffer.getInputStream());
+				Writer writer = receiver.getWriter();
+				char[] data = new char[1024];
+				int length = 0;
+				try {
+					while ((length = reader.read(data)) >= 0) {
+						writer.write(data, 0, length);
+						// Flush once the data available for now is written
+						if (!reader.ready()) writer.flush();
+					}
+				} catch (final IOException e) {
+					// Discard the remaining data, the writer is not usable anymore
+					try { buffer.getInputStream().close(); } catch (IOException e2) { /* ignored on purpose */ }
+					final String failed = length > 0 ? new String(data, 0, length) : ""; //$NON-NLS-1$
+					Protocol.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							appendFailed(failed, e);
+						}
+					});
+				} finally {
+					// All data is written, closing the receiver closes the writer
+					receiver.dispose();
+				}
+			}
+		}, "Thread-" + getClass().getSimpleName() + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
+		thread.setDaemon(true);
+		thread.start();
+		return buffer;
+	}
+
+	private void notifyListeners() {
+		String data = null;
+		for (StreamsDataReceiver receiver : receivers) {
+			if (!receiver.hasListeners()) continue;
+			if (data == null) data = new String(chunk);
+			receiver.notifyListener(data);
+		}
+	}
+
+	// Disconnect from the stream and dispose the receivers
+	void finish() {
+		if (finished) return;
+		finished = true;
+		chunk = null;
+		queue.clear();
+		service.disconnect(streamId, new IStreams.DoneDisconnect() {
+			@Override
+			public void doneDisconnect(IToken token, Exception error) {
+				// Disconnect is done, ignore any error, invoke the callback
+				disconnected = true;
+				if (callback != null) callback.done(StreamsReadPump.this, Status.OK_STATUS);
+			}
+		});
+		// Closing the receivers signals the end of the stream to the local consumers.
+		// Receivers backed by a writer are closed by their thread once the buffered data is written.
+		for (int i = 0; i < receivers.length; i++) {
+			if (buffers != null && buffers[i] != receivers[i].getBuffer()) {
+				try { buffers[i].getOutputStream().close(); } catch (IOException e) { /* ignored on purpose */ }
+			} else {
+				receivers[i].dispose();
+			}
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.core.streams;
+
+import java.io.IOException;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IStreams;
+import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
+
+/**
+ * Takes the data of a data provider and writes it to a remote stream, without a thread of its own.
+ * <p>
+ * The data is taken from the ring buffer of the provider on the dispatch thread as soon as it
+ * becomes available, and up to a limit of write commands are kept outstanding. Once the local
+ * producer closes the buffer, the end of the stream is signaled to remote.
+ */
+public class StreamsWritePump {
+	// Maximal size of a write command
+	private static final int MAX_WRITE_SIZE = 0x1000;
+	// Maximal number of outstanding write commands
+	private static final int MAX_PENDING = 4;
+
+	// The streams service instance
+	private final IStreams service;
+	// The associated stream id
+	private final String streamId;
+	// The associated stream type id
+	private final String streamTypeId;
+	// The data provider applicable for the associated stream type id
+	private final StreamsDataProvider provider;
+	// The callback to invoke if the pump stopped
+	private ICallback callback;
+	// The number of outstanding write commands
+	private int pending;
+	// The buffer to take the data of a write command into. The command encodes the data
+	// when it is sent, so the buffer is reused for all write commands.
+	private final byte[] data = new byte[MAX_WRITE_SIZE];
+
+	private boolean started;
+	private boolean eos;
+	private boolean stopped;
+	private boolean finished;
+	private boolean disconnected;
+
+	// Resumes writing once the provider buffer has data again
+	private final Runnable resume = new Runnable() {
+		@Override
+		public void run() {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					pump();
+				}
+			});
+		}
+	};
+
+	/**
+	 * Constructor.
+	 *
+	 * @param service The streams service. Must not be <code>null</code>.
+	 * @param streamId The associated stream id. Must not be <code>null</code>.
+	 * @param streamTypeId The associated stream type id. Must not be <code>null</code>.
+	 * @param provider The data provider. Must not be <code>null</code> and must be applicable for the stream type.
+	 */
+	public StreamsWritePump(IStreams service, String streamId, String streamTypeId, StreamsDataProvider provider) {
+		Assert.isNotNull(service);
+		Assert.isNotNull(streamId);
+		Assert.isNotNull(streamTypeId);
+		Assert.isNotNull(provider);
+		Assert.isTrue(provider.isApplicable(streamTypeId));
+
+		this.service = service;
+		this.streamId = streamId;
+		this.streamTypeId = streamTypeId;
+		this.provider = provider;
+	}
+
+	/**
+	 * Returns the associated stream id.
+	 *
+	 * @return The associated stream id.
+	 */
+	public final String getStreamId() {
+		return streamId;
+	}
+
+	/**
+	 * Returns the associated stream type id.
+	 *
+	 * @return The associated stream type id.
+	 */
+	public final String getStreamTypeId() {
+		return streamTypeId;
+	}
+
+	/**
+	 * Start writing to the stream.
+	 */
+	public final void start() {
+		if (!Protocol.isDispatchThread()) {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					start();
+				}
+			});
+			return;
+		}
+		if (started) return;
+		started = true;
+		pump();
+	}
+
+	/**
+	 * Stop writing to the stream. Data not yet taken from the provider is discarded.
+	 *
+	 * @param callback The callback to invoke if the pump stopped or <code>null</code>.
+	 */
+	public final void stop(final ICallback callback) {
+		if (!Protocol.isDispatchThread()) {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					stop(callback);
+				}
+			});
+			return;
+		}
+		stopped = true;
+		onEOF(callback);
+		finish();
+	}
+
+	/**
+	 * Invoke the callback once the provider has closed the data and the end of the stream is sent.
+	 *
+	 * @param callback The callback to invoke on EOF or <code>null</code>.
+	 */
+	public final void onEOF(final ICallback callback) {
+		if (!Protocol.isDispatchThread()) {
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					onEOF(callback);
+				}
+			});
+			return;
+		}
+		if (callback == null) return;
+		// If the pump is stopped already, invoke the callback directly
+		if (disconnected) callback.done(this, Status.OK_STATUS);
+		else this.callback = callback;
+	}
+
+	/**
+	 * Returns if the pump is stopped.
+	 */
+	protected final boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Called if writing to the stream fails. The default implementation does nothing.
+	 *
+	 * @param error The error.
+	 */
+	protected void writeFailed(Exception error) {
+	}
+
+	// Send write commands for the available data up to the limit
+	void pump() {
+		if (stopped || finished) return;
+		ByteRingBuffer buffer = provider.getBuffer();
+		while (!eos && pending < MAX_PENDING) {
+			int length = buffer.poll(data, 0, data.length, resume);
+			if (length == 0) return;
+			if (length < 0) {
+				eos = true;
+				break;
+			}
+			pending++;
+			service.write(streamId, data, 0, length, new IStreams.DoneWrite() {
+				@Override
+				public void doneWrite(IToken token, Exception error) {
+					pending--;
+					if (error != null && !stopped && !eos) {
+						eos = true;
+						writeFailed(error);
+					}
+					pump();
+				}
+			});
+		}
+		if (eos && pending == 0) finish();
+	}
+
+	// Signal the end of the stream and disconnect
+	void finish() {
+		if (finished) return;
+		finished = true;
+		// Make local producers fail instead of blocking on the full buffer
+		try {
+			provider.getBuffer().getInputStream().close();
+		} catch (IOException e) {
+			/* ignored on purpose */
+		}
+		service.eos(streamId, new IStreams.DoneEOS() {
+			@Override
+			public void doneEOS(IToken token, Exception error) {
+				service.disconnect(streamId, new IStreams.DoneDisconnect() {
+					@Override
+					public void doneDisconnect(IToken token, Exception error) {
+						// Disconnect is done, ignore any error, invoke the callback
+						disconnected = true;
+						if (callback != null) callback.done(StreamsWritePump.this, Status.OK_STATUS);
+					}
+				});
+			}
+		});
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.url.TcfURLConnection;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.url.TcfURLStreamHandlerService;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.ContentCache;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PersistenceManager;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
@@ -76,6 +77,7 @@ public class CorePlugin extends Plugin {
 	@Override
     public void stop(BundleContext bundleContext) throws Exception {
 		if (PersistenceManager.needsDisposal()) PersistenceManager.getInstance().dispose();
+		if (ContentCache.needsDisposal()) ContentCache.getInstance().dispose();
 		if (regURLStreamHandlerService != null) {
 			// When URL stream handler service is unregistered, any URL related operation will be invalid.
 			regURLStreamHandlerService.unregister();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Wind River Systems, Inc.
+ * Copyright (c) 2015, 2026 Wind River Systems, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,10 @@
  *******************************************************************************/
 package org.eclipse.tcf.te.tcf.filesystem.core.internal.operations;
 
+import static java.text.MessageFormat.format;
 import static java.util.Arrays.asList;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +28,7 @@ import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IFileSystem;
 import org.eclipse.tcf.services.IFileSystem.DirEntry;
 import org.eclipse.tcf.services.IFileSystem.DoneClose;
@@ -39,6 +42,7 @@ import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.IConfirmCallback;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.IOperation;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IFSTreeNode;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PipelinedFileSystem;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 
 public abstract class AbstractOperation implements IOperation {
@@ -197,6 +201,42 @@ public abstract class AbstractOperation implements IOperation {
 		}
 	}
 
+	/**
+	 * Open a remote file for pipelined reading.
+	 *
+	 * @return The reader, or <code>null</code> if the monitor was canceled.
+	 * @throws IOException if the file cannot be opened.
+	 */
+	protected PipelinedFileSystem.Reader openReader(final FSTreeNode node, IProgressMonitor monitor) throws IOException {
+		final String path = node.getLocation(true);
+		final TCFOperationMonitor<PipelinedFileSystem.Reader> result = new TCFOperationMonitor<PipelinedFileSystem.Reader>();
+		Protocol.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				IFileSystem fs = node.getRuntimeModel().getFileSystem();
+				if (fs == null) {
+					result.setCancelled();
+				} else if (!result.checkCancelled()) {
+					new PipelinedFileSystem(fs).openRead(path, new PipelinedFileSystem.DoneOpenReader() {
+						@Override
+						public void doneOpen(FileSystemException error, PipelinedFileSystem.Reader reader) {
+							if (error != null) {
+								result.setError(format(Messages.OpTargetFileDigest_error_openFile, path), error);
+							} else if (!result.setDone(reader).isOK()) {
+								// The caller has given up waiting
+								reader.close();
+							}
+						}
+					});
+				}
+			}
+		});
+		IStatus status = result.waitDone(monitor);
+		if (!status.isOK() && !monitor.isCanceled())
+			throw new IOException(status.getMessage(), status.getException());
+		return result.getValue();
+	}
+
 	protected void tcfReadDir(final IFileSystem fs, String path, final IReadDirDone callback) {
 		fs.opendir(path, new DoneOpen() {
 			private IFileHandle fHandle;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -11,15 +11,16 @@ package org.eclipse.tcf.te.tcf.filesystem.core.internal.operations;
 
 import static java.text.MessageFormat.format;
 
+import java.util.LinkedList;
 import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IFileSystem;
-import org.eclipse.tcf.services.IFileSystem.DoneCopy;
 import org.eclipse.tcf.services.IFileSystem.DoneMkDir;
 import org.eclipse.tcf.services.IFileSystem.DoneStat;
 import org.eclipse.tcf.services.IFileSystem.FileAttrs;
@@ -28,6 +29,7 @@ import org.eclipse.tcf.te.tcf.core.concurrent.TCFOperationMonitor;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.IConfirmCallback;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IFSTreeNode;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PipelinedFileSystem;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 
@@ -35,8 +37,12 @@ import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
  * The operation class that copies selected FSTreeNodes to a specify destination folder.
  */
 public class OpCopy extends OpCopyBase<FSTreeNode> {
+	// Maximum number of file copies in flight
+	private static final int MAX_PENDING_COPIES = 16;
+
 	private final boolean fCopyPermissions;
 	private final boolean fCopyOwnership;
+	private final LinkedList<TCFOperationMonitor<?>> fPending = new LinkedList<TCFOperationMonitor<?>>();
 
 	public OpCopy(List<? extends IFSTreeNode> nodes, FSTreeNode dest, boolean cpPerm, boolean cpOwn, IConfirmCallback confirmCallback) {
 		super(nodes, dest, confirmCallback);
@@ -84,9 +90,28 @@ public class OpCopy extends OpCopyBase<FSTreeNode> {
 				tcfPerformCopy(source, destination, newName, existing, result);
 			}
 		});
+		if (source.isFile()) {
+			// Files are copied in parallel, folders must exist before their children are copied
+			fPending.add(result);
+			return waitPending(MAX_PENDING_COPIES, monitor);
+		}
 		return result.waitDone(monitor);
 	}
 
+	@Override
+	protected IStatus waitPending(IProgressMonitor monitor) {
+		return waitPending(0, monitor);
+	}
+
+	private IStatus waitPending(int max, IProgressMonitor monitor) {
+		while (fPending.size() > max) {
+			IStatus status = fPending.removeFirst().waitDone(monitor);
+			if (!status.isOK())
+				return status;
+		}
+		return Status.OK_STATUS;
+	}
+
 
 	protected void tcfPerformCopy(FSTreeNode source, FSTreeNode destination, String newName, FSTreeNode existing, TCFOperationMonitor<?> result) {
 		if (result.checkCancelled())
@@ -143,27 +168,18 @@ public class OpCopy extends OpCopyBase<FSTreeNode> {
 
 		String sourcePath = source.getLocation(true);
 		final String path = getPath(dest, newName);
-		fileSystem.copy(sourcePath, path, fCopyPermissions, fCopyOwnership, new DoneCopy() {
+		new PipelinedFileSystem(fileSystem).copy(sourcePath, path, fCopyPermissions, fCopyOwnership, new DoneStat() {
 			@Override
-			public void doneCopy(IToken token, FileSystemException error) {
+			public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
 				if (error != null) {
 					result.setError(StatusHelper.createStatus(format(Messages.OpCopy_CannotCopyFile, source.getName()), error));
 				} else if (!result.checkCancelled()) {
-					fileSystem.stat(path, new DoneStat() {
-						@Override
-						public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
-							if (error != null) {
-								result.setError(StatusHelper.createStatus(format(Messages.OpCopy_CannotCopyFile, source.getName()), error));
-							} else if (!result.checkCancelled()) {
-								if (existing != null) {
-									existing.setAttributes(attrs, false);
-								} else {
-									dest.addNode(new FSTreeNode(dest, newName, false, attrs), false);
-								}
-								result.setDone(null);
-							}
-						}
-					});
+					if (existing != null) {
+						existing.setAttributes(attrs, false);
+					} else {
+						dest.addNode(new FSTreeNode(dest, newName, false, attrs), false);
+					}
+					result.setDone(null);
 				}
 			}
 		});
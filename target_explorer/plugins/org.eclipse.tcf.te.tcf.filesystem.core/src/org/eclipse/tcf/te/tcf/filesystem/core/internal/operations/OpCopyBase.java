@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -12,6 +12,7 @@ package org.eclipse.tcf.te.tcf.filesystem.core.internal.operations;
 import static java.text.MessageFormat.format;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -19,9 +20,15 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IFileSystem.DirEntry;
+import org.eclipse.tcf.services.IFileSystem.FileSystemException;
+import org.eclipse.tcf.te.tcf.core.concurrent.TCFOperationMonitor;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.IConfirmCallback;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IFSTreeNode;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.DirectoryWalker;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 
@@ -74,6 +81,14 @@ public abstract class OpCopyBase<D> extends AbstractOperation {
 
 	abstract protected IStatus performCopy(final FSTreeNode source, final D destination, final String newName, final D existing, IProgressMonitor monitor);
 
+	/**
+	 * Wait for copies that {@link #performCopy(FSTreeNode, Object, String, Object, IProgressMonitor)}
+	 * left running in the background. Called before the destination change is notified.
+	 */
+	protected IStatus waitPending(IProgressMonitor monitor) {
+		return Status.OK_STATUS;
+	}
+
 	protected void addWorkItem(FSTreeNode[] nodes, D dest) {
 		fWork.addFirst(new WorkItem<D>(nodes, dest, false));
 	}
@@ -82,29 +97,82 @@ public abstract class OpCopyBase<D> extends AbstractOperation {
 	public final IStatus doRun(IProgressMonitor monitor) {
 		fStartTime = System.currentTimeMillis();
 		monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
+		if (!fWork.isEmpty())
+			readSourceTrees(fWork.getFirst().fSources, monitor);
 		WorkItem<D> lastTop = null;
 		while (!fWork.isEmpty()) {
 			WorkItem<D> item = fWork.remove();
 			if (item.fTop) {
-				if (lastTop != null)
+				if (lastTop != null) {
+					IStatus s = waitPending(monitor);
 					notifyChange(lastTop.fDestination);
+					if (!s.isOK())
+						return s;
+				}
 				lastTop = item;
 			}
 			IStatus s = runWorkItem(item, monitor);
 			if (!s.isOK()) {
+				waitPending(monitor);
 				if (lastTop != null) {
 					notifyChange(lastTop.fDestination);
 				}
 				return s;
 			}
 		}
+		IStatus s = waitPending(monitor);
 		if (lastTop != null)
 			notifyChange(lastTop.fDestination);
 
-		return Status.OK_STATUS;
+		return s;
 	}
 
 
+	/**
+	 * Refresh the source folder trees with parallel directory reads, so that the folders
+	 * do not need to be refreshed one at a time while they are copied. Folders that cannot
+	 * be read are left to the refresh of the work item, which reports the error.
+	 */
+	private void readSourceTrees(FSTreeNode[] sources, IProgressMonitor monitor) {
+		final List<FSTreeNode> dirs = new ArrayList<FSTreeNode>();
+		for (FSTreeNode source : sources) {
+			if (source.isDirectory() && source.getRuntimeModel() == sources[0].getRuntimeModel())
+				dirs.add(source);
+		}
+		if (dirs.isEmpty())
+			return;
+
+		final TCFOperationMonitor<?> result = new TCFOperationMonitor<Object>();
+		Protocol.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				IFileSystem fs = dirs.get(0).getRuntimeModel().getFileSystem();
+				if (fs == null) {
+					result.setCancelled();
+					return;
+				}
+				new DirectoryWalker(fs, new DirectoryWalker.IVisitor() {
+					@Override
+					public FSTreeNode[] visit(FSTreeNode dir, List<DirEntry> entries) {
+						int i = 0;
+						FSTreeNode[] nodes = new FSTreeNode[entries.size()];
+						for (DirEntry entry : entries) {
+							nodes[i++] = new FSTreeNode(dir, entry.filename, false, entry.attrs);
+						}
+						dir.setContent(nodes, false);
+						return dir.getChildren();
+					}
+
+					@Override
+					public IStatus error(FSTreeNode dir, FileSystemException error) {
+						return null;
+					}
+				}).walk(dirs.toArray(new FSTreeNode[dirs.size()]), result);
+			}
+		});
+		result.waitDone(monitor);
+	}
+
 	protected IStatus runWorkItem(final WorkItem<D> item, IProgressMonitor monitor) {
 		final D destination = item.fDestination;
 		IStatus status = refreshDestination(destination, fStartTime, monitor);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -11,8 +11,10 @@ package org.eclipse.tcf.te.tcf.filesystem.core.internal.operations;
 
 import static java.text.MessageFormat.format;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -32,6 +34,8 @@ import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IFSTreeNode;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IFSTreeNodeWorkingCopy;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.CacheManager;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.DirectoryWalker;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 
 /**
@@ -64,6 +68,8 @@ public class OpDelete extends AbstractOperation {
 	LinkedList<WorkItem> fWork = new LinkedList<WorkItem>();
 	IConfirmCallback fConfirmCallback;
 	private List<FSTreeNode> fNodes;
+	// Content of the folders to delete, read in advance
+	private Map<FSTreeNode, FSTreeNode[]> fListing = new HashMap<FSTreeNode, FSTreeNode[]>();
 
 	public OpDelete(List<? extends IFSTreeNode> nodes, IConfirmCallback confirmCallback) {
 		fNodes = dropNestedNodes(nodes);
@@ -84,6 +90,11 @@ public class OpDelete extends AbstractOperation {
 
 
 	private IStatus removeNode(FSTreeNode node, SubMonitor monitor) {
+		if (node.isDirectory()) {
+			IStatus s = readTree(node, monitor);
+			if (!s.isOK())
+				return s;
+		}
 		fWork.add(new WorkItem(node));
 		while (!fWork.isEmpty()) {
 			IStatus s = runWorkItem(fWork.remove(), monitor);
@@ -95,6 +106,43 @@ public class OpDelete extends AbstractOperation {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Read the content of a folder tree with parallel directory reads, instead of
+	 * reading each folder when it is about to be emptied.
+	 */
+	private IStatus readTree(final FSTreeNode node, IProgressMonitor monitor) {
+		final TCFOperationMonitor<?> result = new TCFOperationMonitor<Object>();
+		monitor.subTask(NLS.bind(Messages.OpDelete_RemovingFileFolder, node.getLocation()));
+		Protocol.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				final IFileSystem fs = node.getRuntimeModel().getFileSystem();
+				if (fs == null) {
+					result.setCancelled();
+					return;
+				}
+				new DirectoryWalker(fs, new DirectoryWalker.IVisitor() {
+					@Override
+					public FSTreeNode[] visit(FSTreeNode dir, List<DirEntry> entries) {
+						int i = 0;
+						FSTreeNode[] children = new FSTreeNode[entries.size()];
+						for (DirEntry entry : entries) {
+							children[i++] = new FSTreeNode(dir, entry.filename, false, entry.attrs);
+						}
+						fListing.put(dir, children);
+						return children;
+					}
+
+					@Override
+					public IStatus error(FSTreeNode dir, FileSystemException error) {
+						return StatusHelper.createStatus(format(Messages.OpDelete_error_readDir, dir.getLocation(true)), error);
+					}
+				}).walk(new FSTreeNode[] {node}, result);
+			}
+		});
+		return result.waitDone(monitor);
+	}
+
 	protected IStatus runWorkItem(final WorkItem item, IProgressMonitor monitor) {
 		if (item.fContentLeftOK) {
 			if (item.fParent == null) {
@@ -158,6 +206,17 @@ public class OpDelete extends AbstractOperation {
 	}
 
 	private void tcfDeleteFolder(final WorkItem item, final TCFOperationMonitor<?> result)  {
+		FSTreeNode[] children = fListing.remove(item.fNode);
+		if (children != null) {
+			item.fContentCleared = true;
+			fWork.addFirst(item);
+			for (FSTreeNode node : children) {
+				fWork.addFirst(new WorkItem(item, node));
+			}
+			result.setDone(null);
+			return;
+		}
+
 		final String path = item.fNode.getLocation(true);
 		final IFileSystem fs = item.fNode.getRuntimeModel().getFileSystem();
 		if (fs == null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -9,12 +9,14 @@
  *******************************************************************************/
 package org.eclipse.tcf.te.tcf.filesystem.core.internal.operations;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -23,9 +25,10 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
-import org.eclipse.tcf.te.tcf.filesystem.core.internal.url.TcfURLConnection;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.ContentCache;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.FileState;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PersistenceManager;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PipelinedFileSystem;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 
@@ -70,13 +73,18 @@ public class OpDownload extends AbstractOperation {
 		}
 
 		if (!monitor.isCanceled() && digest != null) {
-			updateNodeDigest(fSource, digest.digest());
+			byte[] data = digest.digest();
+			updateNodeDigest(fSource, data);
+			if (fTarget == null) {
+				ContentCache.getInstance().putContent(fSource, data, fSource.getCacheFile());
+			} else {
+				ContentCache.getInstance().putDigest(fSource, data);
+			}
 		}
 		return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
     }
 
 	private void downloadFile(FSTreeNode source, OutputStream out, MessageDigest digest, IProgressMonitor monitor) throws IOException {
-		byte[] data = new byte[DEFAULT_CHUNK_SIZE];
 		long size = source.getSize();
 		long percentSize = size / 100;
 		int percentRead = 0;
@@ -84,21 +92,21 @@ public class OpDownload extends AbstractOperation {
 
 		monitor.beginTask(getName(), 100);
 
-		BufferedInputStream input = null;
+		File content = ContentCache.getInstance().getContent(source);
+		if (content != null && copyContent(content, out, digest, monitor))
+			return;
 
-		TcfURLConnection connection = (TcfURLConnection) source.getLocationURL().openConnection();
+		PipelinedFileSystem.Reader input = openReader(source, monitor);
+		if (input == null)
+			return;
 		try {
-			if (digest != null) {
-				input = new BufferedInputStream(new DigestInputStream(connection.getInputStream(), digest));
-			} else {
-				input = new BufferedInputStream(connection.getInputStream());
-			}
-
 			String fileLength = formatSize(size);
-			int length;
-			while ((length = input.read(data)) >= 0 && !monitor.isCanceled()) {
-				out.write(data, 0, length);
-				bytesRead += length;
+			byte[] data;
+			while ((data = input.read(monitor)) != null && !monitor.isCanceled()) {
+				if (digest != null)
+					digest.update(data);
+				out.write(data);
+				bytesRead += data.length;
 				if (percentSize != 0) {
 					int percent = (int) (bytesRead / percentSize);
 					if (percent != percentRead) { // Update the progress.
@@ -111,13 +119,37 @@ public class OpDownload extends AbstractOperation {
 			}
 		} finally {
 			out.flush();
-			if (input != null) {
-				try {
-					input.close();
-				} catch (Exception e) {
-				}
+			input.close();
+		}
+	}
+
+	/**
+	 * Copy the content of an unchanged remote file from the content cache.
+	 *
+	 * @return <code>false</code> if the content is no longer available.
+	 */
+	private boolean copyContent(File content, OutputStream out, MessageDigest digest, IProgressMonitor monitor) throws IOException {
+		InputStream input;
+		try {
+			input = new FileInputStream(content);
+		} catch (FileNotFoundException e) {
+			// Evicted in the meantime
+			return false;
+		}
+		try {
+			byte[] data = new byte[PipelinedFileSystem.DEFAULT_CHUNK_SIZE];
+			int length;
+			while ((length = input.read(data)) >= 0 && !monitor.isCanceled()) {
+				if (digest != null)
+					digest.update(data, 0, length);
+				out.write(data, 0, length);
 			}
+		} finally {
+			out.flush();
+			input.close();
 		}
+		monitor.worked(100);
+		return true;
 	}
 
 	/**
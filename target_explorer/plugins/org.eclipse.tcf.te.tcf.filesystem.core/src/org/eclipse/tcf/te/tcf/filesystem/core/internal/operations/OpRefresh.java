@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -38,14 +38,20 @@ import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.IOperation;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IFSTreeNode;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.runtime.IRuntimeModel.Delegate;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.ContentCache;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.DirectoryWalker;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.FileState;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PersistenceManager;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
 
 /**
  * FSRefresh refreshes a specified tree node and its children and grand children recursively.
  */
 public class OpRefresh extends AbstractOperation {
+	// Minimum time between change notifications while a directory tree is walked
+	private static final long NOTIFY_INTERVAL = 500;
+
 	private static Map<FSTreeNode, TCFOperationMonitor<?>> fPendingResults = new HashMap<FSTreeNode, TCFOperationMonitor<?>>();
 
 	final LinkedList<FSTreeNode> fWork = new LinkedList<FSTreeNode>();
@@ -212,41 +218,50 @@ public class OpRefresh extends AbstractOperation {
 			if (node.isFile()) {
 				tcfUpdateCacheDigest(node, result);
 			} else if (node.isDirectory()) {
-				final String path = node.getLocation(true);
 				final IFileSystem fs = node.getRuntimeModel().getFileSystem();
 				if (fs == null) {
 					result.setCancelled();
 					return;
 				}
 
-				tcfReadDir(fs, path, new IReadDirDone() {
-					@Override
-					public void error(FileSystemException error) {
-						node.setContent(NO_CHILDREN, false);
-						result.setError(format(Messages.OpRefresh_errorOpenDir, path), error);
-					}
+				DirectoryWalker walker = new DirectoryWalker(fs, new DirectoryWalker.IVisitor() {
+					private long fLastNotify = System.currentTimeMillis();
 
 					@Override
-					public boolean checkCancelled() {
-						return result.checkCancelled();
-					}
-
-					@Override
-					public void done(List<DirEntry> entries) {
+					public FSTreeNode[] visit(FSTreeNode dir, List<DirEntry> entries) {
 						int i = 0;
 						FSTreeNode[] nodes = new FSTreeNode[entries.size()];
 						for (DirEntry entry : entries) {
-							nodes[i++] = new FSTreeNode(node, entry.filename, false, entry.attrs);
+							nodes[i++] = new FSTreeNode(dir, entry.filename, false, entry.attrs);
 						}
-						node.setContent(nodes, false);
-						for (FSTreeNode node : node.getChildren()) {
-							if (fRecursive || node.isFile()) {
-								fWork.addFirst(node);
+						dir.setContent(nodes, false);
+						// Walk into the directories that have been expanded before
+						List<FSTreeNode> dirs = new ArrayList<FSTreeNode>();
+						for (FSTreeNode child : dir.getChildren()) {
+							if (child.isFile()) {
+								fWork.addFirst(child);
+							} else if (child.getChildren() != null) {
+								dirs.add(child);
 							}
 						}
-						result.setDone(null);
+						// Let the tree fill in while a large directory tree is walked
+						long time = System.currentTimeMillis();
+						if (dir != node && time - fLastNotify > NOTIFY_INTERVAL) {
+							fLastNotify = time;
+							node.notifyChange();
+						}
+						return dirs.toArray(new FSTreeNode[dirs.size()]);
+					}
+
+					@Override
+					public IStatus error(FSTreeNode dir, FileSystemException error) {
+						dir.setContent(NO_CHILDREN, false);
+						return StatusHelper.createStatus(format(Messages.OpRefresh_errorOpenDir, dir.getLocation(true)), error);
 					}
 				});
+				if (!fRecursive)
+					walker.setMaxDepth(0);
+				walker.walk(new FSTreeNode[] {node}, result);
 			} else {
 				result.setDone(null);
 			}
@@ -283,6 +298,13 @@ public class OpRefresh extends AbstractOperation {
 
 	protected void tcfUpdateTargetDigest(FileState digest, final FSTreeNode node, final TCFOperationMonitor<?> result) {
 		if (digest.getTargetDigest() == null || digest.getTargetMTime() != node.getModificationTime()) {
+			// Avoid reading the whole file if its digest is known for the current size and time stamp
+			byte[] known = ContentCache.getInstance().getDigest(node);
+			if (known != null) {
+				digest.updateTargetDigest(known, node.getModificationTime());
+				result.setDone(null);
+				return;
+			}
 			final IOperation op = node.operationDownload(new OutputStream() {
 				@Override
 				public void write(int b) {
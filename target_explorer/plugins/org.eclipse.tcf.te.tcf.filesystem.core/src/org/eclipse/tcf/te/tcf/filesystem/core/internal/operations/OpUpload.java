@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -11,13 +11,10 @@ package org.eclipse.tcf.te.tcf.filesystem.core.internal.operations;
 
 import static java.text.MessageFormat.format;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -31,19 +28,18 @@ import org.eclipse.osgi.util.NLS;
 import org.eclipse.tcf.protocol.IToken;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IFileSystem;
-import org.eclipse.tcf.services.IFileSystem.DoneOpen;
 import org.eclipse.tcf.services.IFileSystem.DoneStat;
 import org.eclipse.tcf.services.IFileSystem.FileAttrs;
 import org.eclipse.tcf.services.IFileSystem.FileSystemException;
-import org.eclipse.tcf.services.IFileSystem.IFileHandle;
 import org.eclipse.tcf.te.tcf.core.concurrent.TCFOperationMonitor;
 import org.eclipse.tcf.te.tcf.filesystem.core.interfaces.IConfirmCallback;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.ContentCache;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.FileState;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PersistenceManager;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PipelinedFileSystem;
 import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.StatusHelper;
 import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
-import org.eclipse.tcf.util.TCFFileOutputStream;
 
 /**
  * Upload multiple files from local system to a remote system.
@@ -60,9 +56,44 @@ public class OpUpload extends AbstractOperation {
 		}
 	}
 
+	/**
+	 * A file whose content has been sent, waiting for the remote file to be closed.
+	 */
+	private static class PendingUpload implements DoneStat {
+		final String fName;
+		final FSTreeNode fDestination;
+		final FSTreeNode fExisting;
+		final TCFOperationMonitor<?> fResult = new TCFOperationMonitor<Object>();
+		final byte[] fDigest;
+		PendingUpload(String name, FSTreeNode destination, FSTreeNode existing, byte[] digest) {
+			fName = name;
+			fDestination = destination;
+			fExisting = existing;
+			fDigest = digest;
+		}
+
+		@Override
+		public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
+			if (error != null) {
+				fResult.setError(format(Messages.OpUpload_error_upload, fName), error);
+			} else if (!fResult.checkCancelled()) {
+				if (fExisting != null) {
+					fExisting.setAttributes(attrs, true);
+				} else {
+					fDestination.addNode(new FSTreeNode(fDestination, fName, false, attrs), true);
+				}
+				fResult.setDone(null);
+			}
+		}
+	}
+
+	// Maximum number of files being closed in parallel with the next upload
+	private static final int MAX_PENDING_UPLOADS = 16;
+
 	IConfirmCallback fConfirmCallback;
 
 	LinkedList<WorkItem> fWork = new LinkedList<WorkItem>();
+	private LinkedList<PendingUpload> fPending = new LinkedList<PendingUpload>();
 	private long fStartTime;
 
 	public OpUpload(IConfirmCallback confirm) {
@@ -83,8 +114,28 @@ public class OpUpload extends AbstractOperation {
 		monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
 		while (!fWork.isEmpty()) {
 			IStatus s = runWorkItem(fWork.remove(), monitor);
-			if (!s.isOK())
+			if (!s.isOK()) {
+				waitPending(0, monitor);
 				return s;
+			}
+		}
+		return waitPending(0, monitor);
+	}
+
+	/**
+	 * Wait for uploaded files to be closed until at most the given number is pending.
+	 */
+	private IStatus waitPending(int max, IProgressMonitor monitor) {
+		while (fPending.size() > max) {
+			PendingUpload upload = fPending.removeFirst();
+			IStatus status = upload.fResult.waitDone(monitor);
+			if (!status.isOK())
+				return status;
+			if (upload.fDigest != null && upload.fExisting != null) {
+				FileState filedigest = PersistenceManager.getInstance().getFileDigest(upload.fExisting);
+				filedigest.reset(upload.fDigest, upload.fExisting.getCacheFile().lastModified(), upload.fExisting.getModificationTime());
+				ContentCache.getInstance().putDigest(upload.fExisting, upload.fDigest);
+			}
 		}
 		return Status.OK_STATUS;
 	}
@@ -149,7 +200,7 @@ public class OpUpload extends AbstractOperation {
 			path = destination.getLocation(true);
 		}
 
-		final TCFOperationMonitor<OutputStream> result = new TCFOperationMonitor<OutputStream>();
+		final TCFOperationMonitor<PipelinedFileSystem.Writer> result = new TCFOperationMonitor<PipelinedFileSystem.Writer>();
 		monitor.subTask(NLS.bind(Messages.OpUpload_UploadSingleFile, item.fSource));
 		Protocol.invokeLater(new Runnable() {
 			@Override
@@ -158,7 +209,7 @@ public class OpUpload extends AbstractOperation {
 				if (fs == null) {
 					result.setCancelled();
 				} else {
-					tcfGetOutputStream(fs, path, result);
+					tcfOpenWriter(fs, path, result);
 				}
 			}
 		});
@@ -166,70 +217,43 @@ public class OpUpload extends AbstractOperation {
 		if (!status.isOK())
 			return status;
 
-		OutputStream out = new BufferedOutputStream(result.getValue());
-		try {
-			IStatus s = uploadFile(item.fSource, existing, out, new SubProgressMonitor(monitor, 0));
-			if (!s.isOK())
-				return s;
-		} finally {
+		PipelinedFileSystem.Writer out = result.getValue();
+		MessageDigest digest = null;
+		if (existing != null) {
 			try {
-				out.close();
-			} catch (IOException e) {
+				digest = MessageDigest.getInstance(MD_ALG);
+			} catch (NoSuchAlgorithmException e) {
 			}
 		}
-
-		return updateNode(path, name, destination, existing, monitor);
-	}
-
-	private IStatus updateNode(final String path, final String name,
-			final FSTreeNode destination, final FSTreeNode existing, IProgressMonitor monitor) {
-		final TCFOperationMonitor<?> r2 = new TCFOperationMonitor<Object>();
-		Protocol.invokeLater(new Runnable() {
-			@Override
-			public void run() {
-				IFileSystem fs = destination.getRuntimeModel().getFileSystem();
-				if (fs == null) {
-					r2.setCancelled();
-				} else if (!r2.checkCancelled()) {
-					fs.stat(path, new DoneStat() {
-						@Override
-						public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
-							if (error != null) {
-								r2.setError(format(Messages.OpUpload_error_upload, name), error);
-							} else if (!r2.checkCancelled()) {
-								if (existing != null) {
-									existing.setAttributes(attrs, true);
-								} else {
-									destination.addNode(new FSTreeNode(destination, name, false, attrs), true);
-								}
-								r2.setDone(null);
-							}
-						}
-					});
-				}
-			}
-		});
-		return r2.waitDone(monitor);
+		IStatus s = uploadFile(item.fSource, out, digest, new SubProgressMonitor(monitor, 0));
+		if (!s.isOK()) {
+			out.abort();
+			return s;
+		}
+		// The file is closed in the background while the next one is uploaded
+		PendingUpload upload = new PendingUpload(name, destination, existing, digest != null ? digest.digest() : null);
+		out.close(monitor, upload);
+		fPending.add(upload);
+		return waitPending(MAX_PENDING_UPLOADS, monitor);
 	}
 
-	protected void tcfGetOutputStream(IFileSystem fileSystem, final String path, final TCFOperationMonitor<OutputStream> result) {
-		int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
+	protected void tcfOpenWriter(IFileSystem fileSystem, final String path, final TCFOperationMonitor<PipelinedFileSystem.Writer> result) {
 		if (!result.checkCancelled()) {
-			fileSystem.open(path, flags, null, new DoneOpen() {
+			new PipelinedFileSystem(fileSystem).openWrite(path, new PipelinedFileSystem.DoneOpenWriter() {
 				@Override
-				public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
+				public void doneOpen(FileSystemException error, PipelinedFileSystem.Writer writer) {
 					if (error != null) {
 						result.setError(StatusHelper.createStatus(format(Messages.OpUpload_error_openFile, path), error));
-					} else {
-						result.setDone(new TCFFileOutputStream(handle));
+					} else if (!result.setDone(writer).isOK()) {
+						writer.abort();
 					}
 				}
 			});
 		}
 	}
 
-	private IStatus uploadFile(File source, FSTreeNode existing, OutputStream output, IProgressMonitor monitor) {
-		byte[] data = new byte[DEFAULT_CHUNK_SIZE];
+	private IStatus uploadFile(File source, PipelinedFileSystem.Writer output, MessageDigest digest, IProgressMonitor monitor) {
+		byte[] data = new byte[PipelinedFileSystem.DEFAULT_CHUNK_SIZE];
 		// Calculate the total size.
 		long totalSize = source.length();
 		// Calculate the chunk size of one percent.
@@ -238,23 +262,17 @@ public class OpUpload extends AbstractOperation {
 		int percentRead = 0;
 		// The current length of read bytes.
 		long bytesRead = 0;
-		MessageDigest digest = null;
 		InputStream input = null;
 		try {
-			input = new BufferedInputStream(new FileInputStream(source));
-			if (existing != null) {
-				try {
-					digest = MessageDigest.getInstance(MD_ALG);
-					input = new DigestInputStream(input, digest);
-				} catch (NoSuchAlgorithmException e) {
-				}
-			}
+			input = new FileInputStream(source);
+			if (digest != null)
+				input = new DigestInputStream(input, digest);
 
 			// Total size displayed on the progress dialog.
 			String fileLength = formatSize(totalSize);
 			int length;
 			while ((length = input.read(data)) >= 0) {
-				output.write(data, 0, length);
+				output.write(data, 0, length, monitor);
 				bytesRead += length;
 				if (chunk_size != 0) {
 					int percent = (int) bytesRead / chunk_size;
@@ -269,12 +287,6 @@ public class OpUpload extends AbstractOperation {
 				if (monitor.isCanceled())
 					return Status.CANCEL_STATUS;
 			}
-
-			if (digest != null && existing != null) {
-				statFile(existing, monitor);
-				FileState filedigest = PersistenceManager.getInstance().getFileDigest(existing);
-				filedigest.reset(digest.digest(), existing.getCacheFile().lastModified(), existing.getModificationTime());
-			}
 			return Status.OK_STATUS;
 		} catch (IOException e) {
 			return StatusHelper.createStatus(format(Messages.OpUpload_error_upload, source), e);
@@ -288,39 +300,6 @@ public class OpUpload extends AbstractOperation {
 		}
 	}
 
-	private void statFile(final FSTreeNode node, IProgressMonitor monitor) {
-		final TCFOperationMonitor<?> result = new TCFOperationMonitor<Object>();
-		Protocol.invokeLater(new Runnable() {
-			@Override
-			public void run() {
-				tcfStat(node, result);
-			}
-		});
-		result.waitDone(monitor);
-	}
-
-	protected void tcfStat(final FSTreeNode node, final TCFOperationMonitor<?> result) {
-		if (!result.checkCancelled()) {
-			final IFileSystem fs = node.getRuntimeModel().getFileSystem();
-			if (fs == null) {
-				result.setCancelled();
-				return;
-			}
-
-			fs.stat(node.getLocation(true), new DoneStat() {
-				@Override
-				public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
-					if (error != null) {
-						handleFSError(node, Messages.OpRefresh_errorReadAttributes, error, result);
-					} else {
-						node.setAttributes(attrs, false);
-						result.setDone(null);
-					}
-				}
-			});
-		}
-	}
-
 	@Override
     public String getName() {
 		String message;
@@ -0,0 +1,391 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.filesystem.core.internal.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.nls.Messages;
+
+/**
+ * Content-addressed store of remote file content with a persistent digest index.
+ * <p>
+ * The index maps a remote file, identified by agent, path, size and modification time,
+ * to the digest of its content. As long as the remote file is unchanged, its digest is
+ * known without reading the file again.
+ * <p>
+ * Content is stored once per digest, no matter how many remote files on how many agents
+ * have it, and the store is kept within a byte budget by evicting the least recently used
+ * content. Index entries are small and outlive evicted content, up to a maximal count.
+ * <p>
+ * The working copies managed by {@link CacheManager} are not part of the store, they can be
+ * modified by the user and are never evicted.
+ */
+public class ContentCache {
+	// The singleton instance.
+	private static volatile ContentCache instance;
+
+	/** Default byte budget of the content store */
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	private static final String PROP_MAX_SIZE = "org.eclipse.tcf.te.tcf.filesystem.core.cache.maxSize"; //$NON-NLS-1$
+
+	// Maximal number of index entries
+	private static final int MAX_ENTRIES = 50000;
+
+	private static final String CONTENT_DIR = ".content"; //$NON-NLS-1$
+	private static final String INDEX_FILE = "content.index"; //$NON-NLS-1$
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final int INDEX_MAGIC = 0x54434643;
+	private static final int INDEX_VERSION = 1;
+	// Delay between a change of the index and saving it
+	private static final long SAVE_DELAY = 30000;
+
+	private static class Entry {
+		final long fSize;
+		final long fMTime;
+		final String fDigest;
+
+		Entry(long size, long mtime, String digest) {
+			fSize = size;
+			fMTime = mtime;
+			fDigest = digest;
+		}
+	}
+
+	private final File fRoot;
+	private final long fMaxSize;
+	// Index of remote files, in access order
+	private final LinkedHashMap<String, Entry> fEntries = new LinkedHashMap<String, Entry>(1024, 0.75f, true);
+	// Sizes of stored content by digest, in access order
+	private final LinkedHashMap<String, Long> fContent = new LinkedHashMap<String, Long>(256, 0.75f, true);
+	private long fContentSize;
+	private boolean fDirty;
+	private boolean fDisposed;
+
+	// Saves the index some time after it has changed, so it survives a crash of the workbench
+	private final Job fSaveJob = new Job(Messages.ContentCache_SaveIndex) {
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			save();
+			return Status.OK_STATUS;
+		}
+	};
+
+	/**
+	 * Get the singleton content cache.
+	 *
+	 * @return The singleton content cache.
+	 */
+	public static ContentCache getInstance() {
+		if (instance == null) {
+			synchronized (ContentCache.class) {
+				if (instance == null) {
+					instance = new ContentCache(CacheManager.getCacheRoot(), Long.getLong(PROP_MAX_SIZE, DEFAULT_MAX_SIZE).longValue());
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns if or if not the content cache needs to be disposed.
+	 */
+	public static boolean needsDisposal() {
+		return instance != null;
+	}
+
+	ContentCache(File root, long maxSize) {
+		fRoot = root;
+		fMaxSize = maxSize;
+		try {
+			load();
+		} catch (IOException e) {
+			// Start with an empty index
+			fEntries.clear();
+			fContent.clear();
+			fContentSize = 0;
+		}
+		deleteOrphans();
+		fSaveJob.setSystem(true);
+	}
+
+	private static String getKey(FSTreeNode node) {
+		return node.getRuntimeModel().getPeerNode().getPeerId() + '\n' + node.getLocation(true);
+	}
+
+	/**
+	 * Get the content digest of a remote file from the index.
+	 *
+	 * @param node The file node.
+	 * @return The digest, or <code>null</code> if the file is not known or has changed.
+	 */
+	public synchronized byte[] getDigest(FSTreeNode node) {
+		Entry entry = fEntries.get(getKey(node));
+		if (entry == null || entry.fSize != node.getSize() || entry.fMTime != node.getModificationTime())
+			return null;
+		return fromHex(entry.fDigest);
+	}
+
+	/**
+	 * Record the content digest of a remote file with its current size and modification time.
+	 *
+	 * @param node The file node.
+	 * @param digest The digest of the file content.
+	 */
+	public synchronized void putDigest(FSTreeNode node, byte[] digest) {
+		fEntries.put(getKey(node), new Entry(node.getSize(), node.getModificationTime(), toHex(digest)));
+		if (fEntries.size() > MAX_ENTRIES) {
+			Iterator<String> it = fEntries.keySet().iterator();
+			it.next();
+			it.remove();
+		}
+		setDirty();
+	}
+
+	/**
+	 * Get the stored content of a remote file.
+	 *
+	 * @param node The file node.
+	 * @return The local file with the content, or <code>null</code> if the content is not stored
+	 * or the remote file has changed.
+	 */
+	public synchronized File getContent(FSTreeNode node) {
+		byte[] digest = getDigest(node);
+		if (digest == null)
+			return null;
+		String hex = toHex(digest);
+		if (fContent.get(hex) == null)
+			return null;
+		File file = getContentFile(hex);
+		if (!file.isFile()) {
+			removeContent(hex);
+			return null;
+		}
+		return file;
+	}
+
+	/**
+	 * Record the content digest of a remote file and store a copy of its content, unless
+	 * content with the same digest is stored already.
+	 *
+	 * @param node The file node.
+	 * @param digest The digest of the file content.
+	 * @param file A local file with the content.
+	 */
+	public void putContent(FSTreeNode node, byte[] digest, File file) {
+		putDigest(node, digest);
+		String hex = toHex(digest);
+		long size = file.length();
+		synchronized (this) {
+			if (fContent.get(hex) != null || size > fMaxSize / 4)
+				return;
+		}
+		File target = getContentFile(hex);
+		// Concurrent calls may store the same digest, each one copies to its own temporary file
+		File temp = null;
+		try {
+			CacheManager.mkdirChecked(target.getParentFile());
+			temp = File.createTempFile(hex, TEMP_SUFFIX, target.getParentFile());
+			copy(file, temp);
+			if (!temp.renameTo(target) && !target.isFile())
+				return;
+		} catch (IOException e) {
+			return;
+		} finally {
+			if (temp != null)
+				temp.delete();
+		}
+		synchronized (this) {
+			if (fContent.put(hex, Long.valueOf(size)) == null)
+				fContentSize += size;
+			evict();
+			setDirty();
+		}
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<String, Long>> it = fContent.entrySet().iterator();
+		while (fContentSize > fMaxSize && it.hasNext()) {
+			Map.Entry<String, Long> e = it.next();
+			it.remove();
+			fContentSize -= e.getValue().longValue();
+			getContentFile(e.getKey()).delete();
+		}
+	}
+
+	private void removeContent(String hex) {
+		Long size = fContent.remove(hex);
+		if (size != null) {
+			fContentSize -= size.longValue();
+			setDirty();
+		}
+	}
+
+	private void setDirty() {
+		fDirty = true;
+		int state = fSaveJob.getState();
+		if (!fDisposed && (state == Job.NONE || state == Job.RUNNING))
+			fSaveJob.schedule(SAVE_DELAY);
+	}
+
+	private File getContentFile(String hex) {
+		return new File(new File(new File(fRoot, CONTENT_DIR), hex.substring(0, 2)), hex);
+	}
+
+	private static void copy(File source, File target) throws IOException {
+		InputStream in = new FileInputStream(source);
+		try {
+			OutputStream out = new FileOutputStream(target);
+			try {
+				byte[] buffer = new byte[64 * 1024];
+				int length;
+				while ((length = in.read(buffer)) >= 0) {
+					out.write(buffer, 0, length);
+				}
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	private void load() throws IOException {
+		File file = new File(fRoot, INDEX_FILE);
+		if (!file.exists())
+			return;
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION)
+				return;
+			int n = in.readInt();
+			for (int i = 0; i < n; i++) {
+				String hex = in.readUTF();
+				long size = in.readLong();
+				if (getContentFile(hex).isFile()) {
+					fContent.put(hex, Long.valueOf(size));
+					fContentSize += size;
+				}
+			}
+			n = in.readInt();
+			for (int i = 0; i < n; i++) {
+				String key = in.readUTF();
+				long size = in.readLong();
+				long mtime = in.readLong();
+				String hex = in.readUTF();
+				fEntries.put(key, new Entry(size, mtime, hex));
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Delete stored content that is not in the index, left by a session that did not save
+	 * the index or by an interrupted copy.
+	 */
+	private void deleteOrphans() {
+		File[] dirs = new File(fRoot, CONTENT_DIR).listFiles();
+		if (dirs == null)
+			return;
+		for (File dir : dirs) {
+			File[] files = dir.listFiles();
+			if (files == null)
+				continue;
+			for (File file : files) {
+				if (!fContent.containsKey(file.getName()))
+					file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Save the index and stop saving it in background.
+	 */
+	public void dispose() {
+		synchronized (this) {
+			fDisposed = true;
+		}
+		fSaveJob.cancel();
+		save();
+	}
+
+	/**
+	 * Save the index if it has changed since it was saved last time.
+	 */
+	synchronized void save() {
+		if (!fDirty)
+			return;
+		File file = new File(fRoot, INDEX_FILE);
+		File temp = new File(fRoot, INDEX_FILE + TEMP_SUFFIX);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				out.writeInt(INDEX_MAGIC);
+				out.writeInt(INDEX_VERSION);
+				out.writeInt(fContent.size());
+				for (Map.Entry<String, Long> e : fContent.entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeLong(e.getValue().longValue());
+				}
+				out.writeInt(fEntries.size());
+				for (Map.Entry<String, Entry> e : fEntries.entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeLong(e.getValue().fSize);
+					out.writeLong(e.getValue().fMTime);
+					out.writeUTF(e.getValue().fDigest);
+				}
+			} finally {
+				out.close();
+			}
+			file.delete();
+			if (temp.renameTo(file))
+				fDirty = false;
+		} catch (IOException e) {
+			// Ignore on purpose, the index is rebuilt as files are downloaded
+		} finally {
+			temp.delete();
+		}
+	}
+
+	private static String toHex(byte[] digest) {
+		StringBuilder buffer = new StringBuilder(digest.length * 2);
+		for (byte b : digest) {
+			buffer.append(Character.forDigit((b >> 4) & 0xf, 16));
+			buffer.append(Character.forDigit(b & 0xf, 16));
+		}
+		return buffer.toString();
+	}
+
+	private static byte[] fromHex(String hex) {
+		byte[] digest = new byte[hex.length() / 2];
+		for (int i = 0; i < digest.length; i++) {
+			digest[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return digest;
+	}
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.filesystem.core.internal.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IFileSystem.DirEntry;
+import org.eclipse.tcf.services.IFileSystem.DoneClose;
+import org.eclipse.tcf.services.IFileSystem.DoneOpen;
+import org.eclipse.tcf.services.IFileSystem.DoneReadDir;
+import org.eclipse.tcf.services.IFileSystem.FileSystemException;
+import org.eclipse.tcf.services.IFileSystem.IFileHandle;
+import org.eclipse.tcf.te.tcf.core.concurrent.TCFOperationMonitor;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+
+/**
+ * Breadth-first walker over remote directory trees.
+ * <p>
+ * Up to the concurrency limit of directories are read at the same time, each with its own
+ * opendir/readdir sequence. The visitor receives the entries of a directory as soon as
+ * the directory has been read, so the tree can be filled in while the walk is in progress,
+ * and decides which of the child nodes are walked into.
+ * <p>
+ * All methods must be called on the dispatch thread.
+ */
+public class DirectoryWalker {
+	/** Default number of directories read in parallel */
+	public static final int DEFAULT_CONCURRENCY = 8;
+
+	private static final String PROP_CONCURRENCY = "org.eclipse.tcf.te.tcf.filesystem.core.walker.concurrency"; //$NON-NLS-1$
+
+	/**
+	 * Call back interface of the walker, called on the dispatch thread.
+	 */
+	public interface IVisitor {
+		/**
+		 * The entries of a directory have been read.
+		 *
+		 * @param dir The directory.
+		 * @param entries The entries that pass the include and exclude filters.
+		 * @return The child directories to walk into, or <code>null</code>.
+		 */
+		FSTreeNode[] visit(FSTreeNode dir, List<DirEntry> entries);
+
+		/**
+		 * A directory cannot be read.
+		 *
+		 * @return The status to end the walk with, or <code>null</code> to continue.
+		 */
+		IStatus error(FSTreeNode dir, FileSystemException error);
+	}
+
+	private static class Item {
+		final FSTreeNode fNode;
+		final int fDepth;
+
+		Item(FSTreeNode node, int depth) {
+			fNode = node;
+			fDepth = depth;
+		}
+	}
+
+	private final IFileSystem fFileSystem;
+	private final IVisitor fVisitor;
+	private final int fConcurrency;
+	private final LinkedList<Item> fQueue = new LinkedList<Item>();
+	private int fMaxDepth = Integer.MAX_VALUE;
+	private Pattern fInclude;
+	private Pattern fExclude;
+	private int fRunning;
+	private TCFOperationMonitor<?> fResult;
+
+	public DirectoryWalker(IFileSystem fileSystem, IVisitor visitor) {
+		this(fileSystem, visitor, Integer.getInteger(PROP_CONCURRENCY, DEFAULT_CONCURRENCY).intValue());
+	}
+
+	public DirectoryWalker(IFileSystem fileSystem, IVisitor visitor, int concurrency) {
+		fFileSystem = fileSystem;
+		fVisitor = visitor;
+		fConcurrency = Math.max(concurrency, 1);
+	}
+
+	/**
+	 * Limit the depth of the walk. Depth 0 reads the start directories only.
+	 */
+	public void setMaxDepth(int depth) {
+		fMaxDepth = depth;
+	}
+
+	/**
+	 * Filter directory entries by name. Entries that match an exclude pattern are neither
+	 * reported nor walked into. When include patterns are given, only files that match one
+	 * of them are reported, directories are still walked into.
+	 *
+	 * @param includes Glob patterns ('*' and '?' wildcards) of files to report, or <code>null</code>.
+	 * @param excludes Glob patterns of entries to skip, or <code>null</code>.
+	 */
+	public void setFilter(String[] includes, String[] excludes) {
+		fInclude = compile(includes);
+		fExclude = compile(excludes);
+	}
+
+	private static Pattern compile(String[] globs) {
+		if (globs == null || globs.length == 0)
+			return null;
+		StringBuilder regex = new StringBuilder();
+		for (String glob : globs) {
+			if (regex.length() > 0)
+				regex.append('|');
+			int start = 0;
+			for (int i = 0; i < glob.length(); i++) {
+				char c = glob.charAt(i);
+				if (c == '*' || c == '?') {
+					if (i > start)
+						regex.append(Pattern.quote(glob.substring(start, i)));
+					regex.append(c == '*' ? ".*" : "."); //$NON-NLS-1$ //$NON-NLS-2$
+					start = i + 1;
+				}
+			}
+			if (start < glob.length())
+				regex.append(Pattern.quote(glob.substring(start)));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+
+	/**
+	 * Start the walk. The result is done when all directories have been visited,
+	 * walking stops when the result is canceled.
+	 *
+	 * @param dirs The directories to start with.
+	 * @param result The operation monitor that receives the outcome of the walk.
+	 */
+	public void walk(FSTreeNode[] dirs, TCFOperationMonitor<?> result) {
+		assert Protocol.isDispatchThread();
+		fResult = result;
+		for (FSTreeNode dir : dirs) {
+			fQueue.add(new Item(dir, 0));
+		}
+		next();
+	}
+
+	void next() {
+		if (fResult.checkCancelled())
+			return;
+		while (fRunning < fConcurrency && !fQueue.isEmpty()) {
+			fRunning++;
+			readDir(fQueue.removeFirst());
+		}
+		if (fRunning == 0)
+			fResult.setDone(null);
+	}
+
+	void doneReadDir(Item item, FileSystemException error, List<DirEntry> entries) {
+		fRunning--;
+		if (fResult.checkCancelled())
+			return;
+		if (error != null) {
+			IStatus status = fVisitor.error(item.fNode, error);
+			if (status != null) {
+				fResult.setError(status);
+				return;
+			}
+		} else {
+			List<DirEntry> filtered = entries;
+			if (fInclude != null || fExclude != null) {
+				filtered = new ArrayList<DirEntry>(entries.size());
+				for (DirEntry entry : entries) {
+					if (accept(entry))
+						filtered.add(entry);
+				}
+			}
+			FSTreeNode[] children = fVisitor.visit(item.fNode, filtered);
+			if (children != null && item.fDepth < fMaxDepth) {
+				for (FSTreeNode child : children) {
+					if (child.isDirectory())
+						fQueue.add(new Item(child, item.fDepth + 1));
+				}
+			}
+		}
+		next();
+	}
+
+	private boolean accept(DirEntry entry) {
+		if (fExclude != null && fExclude.matcher(entry.filename).matches())
+			return false;
+		if (fInclude == null || entry.attrs != null && entry.attrs.isDirectory())
+			return true;
+		return fInclude.matcher(entry.filename).matches();
+	}
+
+	private void readDir(final Item item) {
+		fFileSystem.opendir(item.fNode.getLocation(true), new DoneOpen() {
+			final List<DirEntry> fEntries = new ArrayList<DirEntry>();
+			IFileHandle fHandle;
+
+			@Override
+			public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
+				if (error != null) {
+					doneReadDir(item, error, null);
+				} else {
+					fHandle = handle;
+					read();
+				}
+			}
+
+			void read() {
+				if (fResult.checkCancelled()) {
+					close();
+					fRunning--;
+					return;
+				}
+				fFileSystem.readdir(fHandle, new DoneReadDir() {
+					@Override
+					public void doneReadDir(IToken token, FileSystemException error, DirEntry[] entries, boolean eof) {
+						if (error != null) {
+							close();
+							DirectoryWalker.this.doneReadDir(item, error, null);
+						} else {
+							for (DirEntry entry : entries) {
+								fEntries.add(entry);
+							}
+							if (eof) {
+								close();
+								DirectoryWalker.this.doneReadDir(item, null, fEntries);
+							} else {
+								read();
+							}
+						}
+					}
+				});
+			}
+
+			void close() {
+				fFileSystem.close(fHandle, new DoneClose() {
+					@Override
+					public void doneClose(IToken token, FileSystemException error) {
+					}
+				});
+			}
+		});
+	}
+}
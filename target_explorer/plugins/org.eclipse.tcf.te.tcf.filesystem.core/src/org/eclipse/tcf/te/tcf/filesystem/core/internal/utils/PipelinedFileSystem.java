@@ -0,0 +1,463 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.filesystem.core.internal.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IFileSystem.DoneClose;
+import org.eclipse.tcf.services.IFileSystem.DoneCopy;
+import org.eclipse.tcf.services.IFileSystem.DoneOpen;
+import org.eclipse.tcf.services.IFileSystem.DoneRead;
+import org.eclipse.tcf.services.IFileSystem.DoneStat;
+import org.eclipse.tcf.services.IFileSystem.DoneWrite;
+import org.eclipse.tcf.services.IFileSystem.FileAttrs;
+import org.eclipse.tcf.services.IFileSystem.FileSystemException;
+import org.eclipse.tcf.services.IFileSystem.IFileHandle;
+
+/**
+ * Non-blocking file system client that keeps a window of commands in flight.
+ * <p>
+ * Unlike {@link BlockingFileSystemProxy}, which waits for each command to complete,
+ * the client splits file content into chunks and keeps up to the window size of
+ * read or write commands outstanding per file. Completion is reported through callbacks,
+ * so several files can be transferred in parallel, each with its own window.
+ * <p>
+ * The factory methods must be called on the dispatch thread. The data of a transfer is
+ * exchanged with a worker thread through {@link Reader} and {@link Writer}, so local I/O
+ * never runs on the dispatch thread. The worker is blocked only when the window is empty
+ * (reader) or full (writer).
+ */
+public class PipelinedFileSystem {
+	/** Default size of a read or write command */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	/** Default number of outstanding read or write commands per file */
+	public static final int DEFAULT_WINDOW = 8;
+
+	private static final String PROP_CHUNK_SIZE = "org.eclipse.tcf.te.tcf.filesystem.core.transfer.chunkSize"; //$NON-NLS-1$
+	private static final String PROP_WINDOW = "org.eclipse.tcf.te.tcf.filesystem.core.transfer.window"; //$NON-NLS-1$
+
+	/**
+	 * Client call back interface for {@link #openRead(String, DoneOpenReader)}.
+	 */
+	public interface DoneOpenReader {
+		void doneOpen(FileSystemException error, Reader reader);
+	}
+
+	/**
+	 * Client call back interface for {@link #openWrite(String, DoneOpenWriter)}.
+	 */
+	public interface DoneOpenWriter {
+		void doneOpen(FileSystemException error, Writer writer);
+	}
+
+	final IFileSystem fFileSystem;
+	final int fChunkSize;
+	final int fWindow;
+
+	/**
+	 * Create a client using the chunk size and window configured by system properties,
+	 * or the defaults.
+	 */
+	public PipelinedFileSystem(IFileSystem fileSystem) {
+		this(fileSystem, Integer.getInteger(PROP_CHUNK_SIZE, DEFAULT_CHUNK_SIZE).intValue(),
+						Integer.getInteger(PROP_WINDOW, DEFAULT_WINDOW).intValue());
+	}
+
+	public PipelinedFileSystem(IFileSystem fileSystem, int chunkSize, int window) {
+		fFileSystem = fileSystem;
+		fChunkSize = Math.max(chunkSize, 1024);
+		fWindow = Math.max(window, 1);
+	}
+
+	public int getWindow() {
+		return fWindow;
+	}
+
+	/**
+	 * Open a remote file for reading. Read-ahead starts as soon as the file is open.
+	 */
+	public void openRead(String path, final DoneOpenReader done) {
+		assert Protocol.isDispatchThread();
+		fFileSystem.open(path, IFileSystem.TCF_O_READ, null, new DoneOpen() {
+			@Override
+			public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
+				if (error != null) {
+					done.doneOpen(error, null);
+				} else {
+					Reader reader = new Reader(handle);
+					reader.fill();
+					done.doneOpen(null, reader);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Create or truncate a remote file and open it for writing.
+	 */
+	public void openWrite(final String path, final DoneOpenWriter done) {
+		assert Protocol.isDispatchThread();
+		int flags = IFileSystem.TCF_O_WRITE | IFileSystem.TCF_O_CREAT | IFileSystem.TCF_O_TRUNC;
+		fFileSystem.open(path, flags, null, new DoneOpen() {
+			@Override
+			public void doneOpen(IToken token, FileSystemException error, IFileHandle handle) {
+				if (error != null) {
+					done.doneOpen(error, null);
+				} else {
+					done.doneOpen(null, new Writer(path, handle));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Copy a file on the remote system and report the attributes of the copy.
+	 */
+	public void copy(String source, final String destination, boolean copyPermissions, boolean copyOwnership, final DoneStat done) {
+		assert Protocol.isDispatchThread();
+		fFileSystem.copy(source, destination, copyPermissions, copyOwnership, new DoneCopy() {
+			@Override
+			public void doneCopy(IToken token, FileSystemException error) {
+				if (error != null) {
+					done.doneStat(token, error, null);
+				} else {
+					fFileSystem.stat(destination, done);
+				}
+			}
+		});
+	}
+
+	void closeHandle(IFileHandle handle, final DoneClose done) {
+		fFileSystem.close(handle, new DoneClose() {
+			@Override
+			public void doneClose(IToken token, FileSystemException error) {
+				if (done != null)
+					done.doneClose(token, error);
+			}
+		});
+	}
+
+	private static class Chunk {
+		final long fOffset;
+		final int fSize;
+		IToken fToken;
+		boolean fDone;
+		byte[] fData;
+		boolean fEof;
+		FileSystemException fError;
+
+		Chunk(long offset, int size) {
+			fOffset = offset;
+			fSize = size;
+		}
+	}
+
+	/**
+	 * Reading end of a file transfer. Chunks are read ahead on the dispatch thread and
+	 * consumed in file order by a worker thread.
+	 */
+	public class Reader {
+		private final IFileHandle fHandle;
+		// Issued chunks, in file order, both outstanding and not yet consumed.
+		private final LinkedList<Chunk> fChunks = new LinkedList<Chunk>();
+		private final Runnable fFill = new Runnable() {
+			@Override
+			public void run() {
+				fill();
+			}
+		};
+		private long fOffset;
+		private boolean fReadDone;
+		private boolean fEof;
+		private boolean fClosed;
+		private boolean fHandleClosed;
+
+		Reader(IFileHandle handle) {
+			fHandle = handle;
+		}
+
+		synchronized void fill() {
+			assert Protocol.isDispatchThread();
+			while (!fClosed && !fReadDone && fChunks.size() < fWindow) {
+				issue(fChunks.size(), new Chunk(fOffset, fChunkSize));
+				fOffset += fChunkSize;
+			}
+		}
+
+		private void issue(int index, final Chunk chunk) {
+			chunk.fToken = fFileSystem.read(fHandle, chunk.fOffset, chunk.fSize, new DoneRead() {
+				@Override
+				public void doneRead(IToken token, FileSystemException error, byte[] data, boolean eof) {
+					doneChunk(chunk, error, data, eof);
+				}
+			});
+			fChunks.add(index, chunk);
+		}
+
+		synchronized void doneChunk(Chunk chunk, FileSystemException error, byte[] data, boolean eof) {
+			chunk.fToken = null;
+			chunk.fDone = true;
+			if (fClosed) {
+				fChunks.remove(chunk);
+				closeIdle();
+				return;
+			}
+			if (error != null) {
+				chunk.fError = error;
+				fReadDone = true;
+			} else {
+				chunk.fData = data;
+				chunk.fEof = eof || data.length == 0;
+				if (chunk.fEof) {
+					fReadDone = true;
+				} else if (data.length < chunk.fSize) {
+					// Short read, fetch the rest of the chunk before the following ones
+					issue(fChunks.indexOf(chunk) + 1, new Chunk(chunk.fOffset + data.length, chunk.fSize - data.length));
+				}
+			}
+			notifyAll();
+		}
+
+		/**
+		 * Return the next chunk of the file content, waiting for it if necessary.
+		 * Must not be called on the dispatch thread.
+		 *
+		 * @param monitor The progress monitor to check for cancellation.
+		 * @return The data, or <code>null</code> at the end of the file or if the monitor is canceled.
+		 * @throws IOException if reading the file failed.
+		 */
+		public synchronized byte[] read(IProgressMonitor monitor) throws IOException {
+			assert !Protocol.isDispatchThread();
+			while (true) {
+				if (fClosed)
+					throw new IOException("Stream is closed"); //$NON-NLS-1$
+				if (fEof)
+					return null;
+				if (!fChunks.isEmpty() && fChunks.getFirst().fDone) {
+					Chunk chunk = fChunks.removeFirst();
+					if (chunk.fError != null)
+						throw chunk.fError;
+					if (!fReadDone)
+						Protocol.invokeLater(fFill);
+					if (chunk.fEof) {
+						fEof = true;
+						if (chunk.fData.length == 0)
+							return null;
+					}
+					return chunk.fData;
+				}
+				if (monitor != null && monitor.isCanceled())
+					return null;
+				try {
+					wait(100);
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+			}
+		}
+
+		/**
+		 * Stop reading and close the remote file. Outstanding commands are canceled
+		 * where possible, the handle is closed once they are done.
+		 */
+		public void close() {
+			synchronized (this) {
+				if (fClosed)
+					return;
+				fClosed = true;
+			}
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					synchronized (Reader.this) {
+						for (Iterator<Chunk> it = fChunks.iterator(); it.hasNext(); ) {
+							Chunk chunk = it.next();
+							if (chunk.fToken == null || chunk.fToken.cancel())
+								it.remove();
+						}
+						closeIdle();
+					}
+				}
+			});
+		}
+
+		private void closeIdle() {
+			if (fChunks.isEmpty() && !fHandleClosed) {
+				fHandleClosed = true;
+				closeHandle(fHandle, null);
+			}
+		}
+	}
+
+	/**
+	 * Writing end of a file transfer. A worker thread passes the content in file order,
+	 * the write commands are issued on the dispatch thread.
+	 */
+	public class Writer {
+		final String fPath;
+		private final IFileHandle fHandle;
+		private byte[] fBuffer;
+		private int fBufferLength;
+		private long fOffset;
+		private int fPending;
+		private FileSystemException fError;
+		private boolean fClosed;
+		private Runnable fIdle;
+
+		Writer(String path, IFileHandle handle) {
+			fPath = path;
+			fHandle = handle;
+		}
+
+		/**
+		 * Write data to the file. Full chunks are sent immediately, the call waits only
+		 * while the window is full. Must not be called on the dispatch thread.
+		 *
+		 * @param monitor The progress monitor to check for cancellation, when it is canceled
+		 * the data is dropped.
+		 * @throws IOException if a previous write command failed.
+		 */
+		public void write(byte[] data, int off, int len, IProgressMonitor monitor) throws IOException {
+			assert !Protocol.isDispatchThread();
+			while (len > 0) {
+				if (fBuffer == null)
+					fBuffer = new byte[fChunkSize];
+				int n = Math.min(len, fBuffer.length - fBufferLength);
+				System.arraycopy(data, off, fBuffer, fBufferLength, n);
+				fBufferLength += n;
+				off += n;
+				len -= n;
+				if (fBufferLength == fBuffer.length && !submit(monitor))
+					return;
+			}
+		}
+
+		private synchronized boolean submit(IProgressMonitor monitor) throws IOException {
+			while (fError == null && fPending >= fWindow) {
+				if (monitor != null && monitor.isCanceled())
+					return false;
+				try {
+					wait(100);
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+			}
+			if (fError != null)
+				throw fError;
+			final byte[] buffer = fBuffer;
+			final int length = fBufferLength;
+			final long offset = fOffset;
+			fBuffer = null;
+			fBufferLength = 0;
+			fOffset += length;
+			fPending++;
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					fFileSystem.write(fHandle, offset, buffer, 0, length, new DoneWrite() {
+						@Override
+						public void doneWrite(IToken token, FileSystemException error) {
+							doneChunk(error);
+						}
+					});
+				}
+			});
+			return true;
+		}
+
+		synchronized void doneChunk(FileSystemException error) {
+			if (error != null && fError == null)
+				fError = error;
+			fPending--;
+			notifyAll();
+			if (fPending == 0 && fIdle != null) {
+				Runnable idle = fIdle;
+				fIdle = null;
+				idle.run();
+			}
+		}
+
+		/**
+		 * Send the remaining data and close the file without waiting. The callback is
+		 * invoked on the dispatch thread with the attributes of the written file, or with
+		 * the first error of the transfer. Must not be called on the dispatch thread.
+		 */
+		public void close(IProgressMonitor monitor, final DoneStat done) {
+			assert !Protocol.isDispatchThread();
+			try {
+				if (fBufferLength > 0)
+					submit(monitor);
+			} catch (IOException e) {
+				// The error is reported to the callback
+			}
+			closeWhenIdle(new Runnable() {
+				@Override
+				public void run() {
+					closeHandle(fHandle, new DoneClose() {
+						@Override
+						public void doneClose(IToken token, FileSystemException error) {
+							final FileSystemException transferError = getError(error);
+							if (transferError != null) {
+								done.doneStat(token, transferError, null);
+							} else {
+								fFileSystem.stat(fPath, done);
+							}
+						}
+					});
+				}
+			});
+		}
+
+		/**
+		 * Drop the remaining data and close the file.
+		 */
+		public void abort() {
+			fBuffer = null;
+			fBufferLength = 0;
+			closeWhenIdle(new Runnable() {
+				@Override
+				public void run() {
+					closeHandle(fHandle, null);
+				}
+			});
+		}
+
+		synchronized FileSystemException getError(FileSystemException closeError) {
+			return fError != null ? fError : closeError;
+		}
+
+		private void closeWhenIdle(final Runnable close) {
+			synchronized (this) {
+				if (fClosed)
+					return;
+				fClosed = true;
+			}
+			Protocol.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					synchronized (Writer.this) {
+						if (fPending > 0) {
+							fIdle = close;
+							return;
+						}
+					}
+					close.run();
+				}
+			});
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -180,4 +180,6 @@ public class Messages extends NLS {
 	public static String FileSystem_ErrorMessage_Errno_65563;
 	public static String FileSystem_ErrorMessage_Errno_65565;
 
+	public static String ContentCache_SaveIndex;
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -14,15 +14,14 @@ import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CancellationException;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
-import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.IChannel;
 import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.services.IProcesses;
 import org.eclipse.tcf.services.IProcessesV1;
@@ -37,7 +36,8 @@ import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager.IStreamsListenerProxy;
 import org.eclipse.tcf.te.tcf.core.streams.StreamsDataProvider;
 import org.eclipse.tcf.te.tcf.core.streams.StreamsDataReceiver;
-import org.eclipse.tcf.te.tcf.core.util.ExceptionUtils;
+import org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump;
+import org.eclipse.tcf.te.tcf.core.streams.StreamsWritePump;
 import org.eclipse.tcf.te.tcf.processes.core.activator.CoreBundleActivator;
 import org.eclipse.tcf.te.tcf.processes.core.interfaces.launcher.IProcessContextAwareListener;
 import org.eclipse.tcf.te.tcf.processes.core.interfaces.tracing.ITraceIds;
@@ -60,29 +60,102 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 	private final List<StreamsDataReceiver> dataReceiver = new ArrayList<StreamsDataReceiver>();
 	// The stream data provider
 	private StreamsDataProvider dataProvider;
-	// The list of created runnable's
-	private final List<Runnable> runnables = new ArrayList<Runnable>();
+	// The list of created stream readers and writers
+	private final List<Object> pumps = new ArrayList<Object>();
 	// The streams listener proxy instance
 	private IChannelManager.IStreamsListenerProxy proxy = null;
 	// The list of already processed streams created events (simple string in format "<stream type>;<stream id>;<context id>")
 	/* default */ List<String> processedCreatedEvents = new ArrayList<String>();
 
 	/**
-	 * Remote process stream reader runnable implementation. The
-	 * runnable will be executed within a thread and is responsible to read the
+	 * Remote process stream reader implementation. The reader
+	 * is driven by the TCF event dispatch thread and is responsible to read the
 	 * incoming data from the associated stream and forward them to the registered receivers.
 	 */
+	protected class StreamReader extends StreamsReadPump {
+
+		/**
+		 * Constructor.
+		 *
+		 * @param streamId The associated stream id. Must not be <code>null</code>.
+		 * @param streamTypeId The associated stream type id. Must not be <code>null</code>.
+		 * @param receivers The list of registered data receivers. Must not be <code>null</code>.
+		 */
+		public StreamReader(String streamId, String streamTypeId, StreamsDataReceiver[] receivers) {
+			super(svcStreams, streamId, streamTypeId, receivers);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump#readFailed(java.lang.Exception)
+		 */
+		@Override
+		protected void readFailed(Exception error) {
+			// Log the error to the user, might be something serious
+			IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
+										NLS.bind(Messages.ProcessStreamReaderRunnable_error_readFailed, getStreamId(), error.getLocalizedMessage()),
+										error);
+			Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump#appendFailed(java.lang.String, java.io.IOException)
+		 */
+		@Override
+		protected void appendFailed(String data, IOException error) {
+			if (CoreBundleActivator.getTraceHandler().isSlotEnabled(1, null)) {
+				IStatus status = new Status(IStatus.WARNING, CoreBundleActivator.getUniqueIdentifier(),
+											NLS.bind(Messages.ProcessStreamReaderRunnable_error_appendFailed, getStreamId(), data),
+											error);
+				Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
+			}
+		}
+	}
+
+	/**
+	 * Remote process stream writer implementation. The writer
+	 * is driven by the TCF event dispatch thread and is responsible to take the
+	 * data from the registered provider and forward them to the associated stream.
+	 */
+	protected class StreamWriter extends StreamsWritePump {
+
+		/**
+		 * Constructor.
+		 *
+		 * @param streamId The associated stream id. Must not be <code>null</code>.
+		 * @param streamTypeId The associated stream type id. Must not be <code>null</code>.
+		 * @param provider The data provider. Must not be <code>null</code> and must be applicable for the stream type.
+		 */
+		public StreamWriter(String streamId, String streamTypeId, StreamsDataProvider provider) {
+			super(svcStreams, streamId, streamTypeId, provider);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.tcf.te.tcf.core.streams.StreamsWritePump#writeFailed(java.lang.Exception)
+		 */
+		@Override
+		protected void writeFailed(Exception error) {
+			// Log the error to the user, might be something serious
+			IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
+										NLS.bind(Messages.ProcessStreamWriterRunnable_error_writeFailed, getStreamId(), error.getLocalizedMessage()),
+										error);
+			Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
+		}
+	}
+
+	/**
+	 * Remote process stream reader runnable implementation.
+	 * <p>
+	 * Running the runnable starts a {@link StreamReader} and returns, the reader is
+	 * driven by the TCF event dispatch thread and does not need the thread.
+	 *
+	 * @deprecated Use {@link StreamReader} instead.
+	 */
+	@Deprecated
 	protected class StreamReaderRunnable implements Runnable {
-		// The associated stream id
-		/* default */ final String streamId;
-		// The associated stream type id
-		private final String streamTypeId;
-		// The list of receivers applicable for the associated stream type id
-		private final List<StreamsDataReceiver> receivers = new ArrayList<StreamsDataReceiver>();
+		// The reader doing the work
+		private final StreamReader reader;
 		// The currently active read task
 		private TCFTask<ReadData> activeTask;
-		// The callback to invoke if the runnable stopped
-		private ICallback callback;
 
 		// Flag to stop the runnable
 		private boolean stopped = false;
@@ -124,18 +197,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @param receivers The list of registered data receivers. Must not be <code>null</code>.
 		 */
 		public StreamReaderRunnable(String streamId, String streamTypeId, StreamsDataReceiver[] receivers) {
-			Assert.isNotNull(streamId);
-			Assert.isNotNull(streamTypeId);
-			Assert.isNotNull(receivers);
-
-			this.streamId = streamId;
-			this.streamTypeId = streamTypeId;
-
-			// Loop the list of receivers and filter out the applicable ones
-			for (StreamsDataReceiver receiver : receivers) {
-				if (receiver.isApplicable(this.streamTypeId))
-					this.receivers.add(receiver);
-			}
+			reader = new StreamReader(streamId, streamTypeId, receivers);
 		}
 
 		/**
@@ -144,7 +206,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @return The associated stream id.
 		 */
 		public final String getStreamId() {
-			return streamId;
+			return reader.getStreamId();
 		}
 
 		/**
@@ -153,7 +215,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @return <code>True</code> if the list of applicable receivers is empty, <code>false</code> otherwise.
 		 */
 		public final boolean isEmpty() {
-			return receivers.isEmpty();
+			return reader.isEmpty();
 		}
 
 		/**
@@ -162,9 +224,8 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @param callback The callback to invoke if the runnable stopped.
 		 */
 		public final synchronized void stop(ICallback callback) {
-			onEOF(callback);
-			// Mark the runnable as stopped
 			stopped = true;
+			reader.stop(callback);
 		}
 
 		/**
@@ -172,15 +233,8 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 *
 		 * @param callback The callback to invoke on EOF
 		 */
-		public final synchronized void onEOF(ICallback callback) {
-			// If the runnable is stopped already, invoke the callback directly
-			if (stopped) {
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-				return;
-			}
-
-			// Store the callback instance
-			this.callback = callback;
+		public final void onEOF(ICallback callback) {
+			reader.onEOF(callback);
 		}
 
 		/**
@@ -212,76 +266,8 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @see java.lang.Runnable#run()
 		 */
 		@Override
-        public void run() {
-			// Create a snapshot of the receivers
-			final StreamsDataReceiver[] receivers = this.receivers.toArray(new StreamsDataReceiver[this.receivers.size()]);
-
-			// Run until stopped and the streams service is available
-			while (!isStopped() && svcStreams != null) {
-				try {
-					ReadData streamData = read(svcStreams, streamId, 1024);
-					if (streamData != null) {
-						// Check if the received data contains some stream data
-						if (streamData.data != null) {
-							// Notify the data receivers about the new received data
-							notifyReceiver(new String(streamData.data), receivers);
-						}
-						// If the end of the stream have been reached --> break out
-						if (streamData.eos) {
-							break;
-						}
-					}
-				} catch (Exception e) {
-					// An error occurred -> Dump to the error log
-					e = ExceptionUtils.checkAndUnwrapException(e);
-					// Check if the blocking read task got canceled
-					if (!isStopped() && !(e instanceof CancellationException)) {
-						// Log the error to the user, might be something serious
-						IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
-													NLS.bind(Messages.ProcessStreamReaderRunnable_error_readFailed, streamId, e.getLocalizedMessage()),
-													e);
-						Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
-					}
-					// break out of the loop
-					break;
-				}
-			}
-
-			// Disconnect from the stream
-			if (svcStreams != null) {
-				Runnable runnable = new Runnable() {
-					@Override
-					public void run() {
-						svcStreams.disconnect(streamId, new IStreams.DoneDisconnect() {
-							@Override
-		                    @SuppressWarnings("synthetic-access")
-							public void doneDisconnect(IToken token, Exception error) {
-								synchronized (this) {
-									// Mark the runnable definitely stopped
-									stopped = true;
-									// Disconnect is done, ignore any error, invoke the callback
-									if (callback != null) callback.done(this, Status.OK_STATUS);
-								}
-							}
-						});
-					}
-				};
-
-				Protocol.invokeLater(runnable);
-			} else {
-				synchronized (this) {
-					// Mark the runnable definitely stopped
-					stopped = true;
-					// Invoke the callback directly, if any
-					if (callback != null) callback.done(this, Status.OK_STATUS);
-				}
-			}
-			// Make sure that data receivers are disposed before leaving the thread.
-			// This will closes the PipedOutputStream wrapped by the writer in the data receivers,
-			// thus the PipedInputStream read an EOS and terminate gracefully.
-			for(StreamsDataReceiver receiver:receivers) {
-				receiver.dispose();
-			}
+		public void run() {
+			reader.start();
 		}
 
 		/**
@@ -303,13 +289,10 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 			// Create the task object
 			TCFTask<ReadData> task = new TCFTask<ReadData>(channel) {
 				@Override
-                public void run() {
+				public void run() {
 					service.read(streamId, size, new IStreams.DoneRead() {
-						/* (non-Javadoc)
-						 * @see org.eclipse.tcf.services.IStreams.DoneRead#doneRead(org.eclipse.tcf.protocol.IToken, java.lang.Exception, int, byte[], boolean)
-						 */
 						@Override
-                        public void doneRead(IToken token, Exception error, int lostSize, byte[] data, boolean eos) {
+						public void doneRead(IToken token, Exception error, int lostSize, byte[] data, boolean eos) {
 							if (error == null) done(new ReadData(lostSize, data, eos));
 							else if (!isStopped())
 								error(error);
@@ -346,7 +329,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 				} catch (IOException e) {
 					if (CoreBundleActivator.getTraceHandler().isSlotEnabled(1, null)) {
 						IStatus status = new Status(IStatus.WARNING, CoreBundleActivator.getUniqueIdentifier(),
-													NLS.bind(Messages.ProcessStreamReaderRunnable_error_appendFailed, streamId, data),
+													NLS.bind(Messages.ProcessStreamReaderRunnable_error_appendFailed, getStreamId(), data),
 													e);
 						Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
 					}
@@ -356,17 +339,17 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 	}
 
 	/**
-	 * Default TCF remote process stream writer runnable implementation. The
-	 * runnable will be executed within a thread and is responsible to read the
-	 * incoming data from the registered providers and forward them to the associated stream.
+	 * Remote process stream writer runnable implementation.
+	 * <p>
+	 * Running the runnable starts a {@link StreamWriter} and returns, the writer is
+	 * driven by the TCF event dispatch thread and does not need the thread.
+	 *
+	 * @deprecated Use {@link StreamWriter} instead.
 	 */
+	@Deprecated
 	protected class StreamWriterRunnable implements Runnable {
-		// The associated stream id
-		/* default */ final String streamId;
-		// The associated stream type id
-		private final String streamTypeId;
-		// The data provider applicable for the associated stream type id
-		private final StreamsDataProvider provider;
+		// The writer doing the work
+		private final StreamWriter writer;
 		// The currently active write task
 		private TCFTask<Object> activeTask;
 		// The callback to invoke if the runnable stopped
@@ -383,14 +366,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @param provider The data provider. Must not be <code>null</code> and must be applicable for the stream type.
 		 */
 		public StreamWriterRunnable(String streamId, String streamTypeId, StreamsDataProvider provider) {
-			Assert.isNotNull(streamId);
-			Assert.isNotNull(streamTypeId);
-			Assert.isNotNull(provider);
-			Assert.isTrue(provider.isApplicable(streamTypeId));
-
-			this.streamId = streamId;
-			this.streamTypeId = streamTypeId;
-			this.provider = provider;
+			writer = new StreamWriter(streamId, streamTypeId, provider);
 		}
 
 		/**
@@ -399,7 +375,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @return The associated stream id.
 		 */
 		public final String getStreamId() {
-			return streamId;
+			return writer.getStreamId();
 		}
 
 		/**
@@ -408,7 +384,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @return The associated stream type id.
 		 */
 		public final String getStreamTypeId() {
-			return streamTypeId;
+			return writer.getStreamTypeId();
 		}
 
 		/**
@@ -417,9 +393,10 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @param callback The callback to invoke if the runnable stopped.
 		 */
 		public final synchronized void stop(ICallback callback) {
-			onEOF(callback);
-			// Mark the runnable as stopped
+			if (callback != null)
+				this.callback = callback;
 			stopped = true;
+			writer.stop(callback);
 		}
 
 		/**
@@ -428,15 +405,9 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @param callback The callback to invoke on EOF
 		 */
 		public final synchronized void onEOF(ICallback callback) {
-			// If the runnable is stopped already, invoke the callback directly
-			if (stopped) {
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-				return;
-			}
-
-			// Store the callback instance
 			if (callback != null)
 				this.callback = callback;
+			writer.onEOF(callback);
 		}
 
 		/**
@@ -469,7 +440,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 *
 		 * @return The callback instance or <code>null</code>.
 		 */
-		protected final ICallback getCallback() {
+		protected final synchronized ICallback getCallback() {
 			return callback;
 		}
 
@@ -477,81 +448,8 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 		 * @see java.lang.Runnable#run()
 		 */
 		@Override
-        public void run() {
-			// If not data provider is set, we are done here immediately
-			if (provider == null) {
-				synchronized (this) {
-					// Mark the runnable definitely stopped
-					stopped = true;
-				}
-				// Invoke the callback directly, if any
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-
-				return;
-			}
-
-			// Create the data buffer instance
-			final char[] buffer = new char[1024];
-
-			// Run until stopped and the streams service is available
-			while (!isStopped() && svcStreams != null) {
-				try {
-					// Read available data from the data provider
-					int charactersRead = provider.getReader().read(buffer, 0, 1024);
-					// Have we reached the end of the stream -> break out
-					if (charactersRead == -1) break;
-					// If we read some data from the provider, write it to the stream
-					if (charactersRead > 0) write(svcStreams, streamId, new String(buffer).getBytes(), charactersRead);
-				} catch (Exception e) {
-					// An error occurred -> Dump to the error log
-					e = ExceptionUtils.checkAndUnwrapException(e);
-					// Check if the blocking read task got canceled
-					if (!(e instanceof CancellationException)) {
-						// Log the error to the user, might be something serious
-						IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
-													NLS.bind(Messages.ProcessStreamWriterRunnable_error_writeFailed, streamId, e.getLocalizedMessage()),
-													e);
-						Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
-					}
-					// break out of the loop
-					break;
-				}
-			}
-
-			// Disconnect from the stream
-			if (svcStreams != null) {
-				Runnable runnable = new Runnable() {
-					@Override
-					public void run() {
-						svcStreams.eos(streamId, new IStreams.DoneEOS() {
-							@Override
-							public void doneEOS(IToken token, Exception error) {
-								svcStreams.disconnect(streamId, new IStreams.DoneDisconnect() {
-									@Override
-				                    @SuppressWarnings("synthetic-access")
-									public void doneDisconnect(IToken token, Exception error) {
-										synchronized (this) {
-											// Mark the runnable definitely stopped
-											stopped = true;
-										}
-										// Disconnect is done, ignore any error, invoke the callback
-										if (getCallback() != null) getCallback().done(this, Status.OK_STATUS);
-									}
-								});
-							}
-						});
-					}
-				};
-
-				Protocol.invokeLater(runnable);
-			} else {
-				synchronized (this) {
-					// Mark the runnable definitely stopped
-					stopped = true;
-				}
-				// Invoke the callback directly, if any
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-			}
+		public void run() {
+			writer.start();
 		}
 
 		/**
@@ -572,20 +470,16 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 			// Create the task object
 			TCFTask<Object> task = new TCFTask<Object>() {
 				@Override
-                public void run() {
+				public void run() {
 					service.write(streamId, data, 0, size, new IStreams.DoneWrite() {
-						/* (non-Javadoc)
-						 * @see org.eclipse.tcf.services.IStreams.DoneWrite#doneWrite(org.eclipse.tcf.protocol.IToken, java.lang.Exception)
-						 */
 						@Override
-                        public void doneWrite(IToken token, Exception error) {
+						public void doneWrite(IToken token, Exception error) {
 							if (error == null) done(null);
 							else error(error);
 						}
 					});
 				}
 			};
-			task.get();
 
 			// Push the task object to the runnable instance
 			setActiveTask(task);
@@ -650,7 +544,7 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 			dataReceiver.clear();
 		}
 
-		// Create a new collector to catch all runnable stop callback's
+		// Create a new collector to catch all stream reader and writer stop callback's
 		AsyncCallbackCollector collector = new AsyncCallbackCollector(new Callback() {
 			/* (non-Javadoc)
 			 * @see org.eclipse.tcf.te.runtime.callback.Callback#internalDone(java.lang.Object, org.eclipse.core.runtime.IStatus)
@@ -674,24 +568,24 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 			}
 		}, new CallbackInvocationDelegate());
 
-		// Loop all runnable's and attach our callback
-		synchronized (runnables) {
-			for (Runnable runnable : runnables) {
+		// Loop all stream readers and writers and attach our callback
+		synchronized (pumps) {
+			for (Object pump : pumps) {
 				AsyncCallbackCollector.SimpleCollectorCallback cb = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
-				if (runnable instanceof StreamReaderRunnable) {
+				if (pump instanceof StreamReader) {
 					if (onEof)
-						((StreamReaderRunnable)runnable).onEOF(cb);
+						((StreamReader)pump).onEOF(cb);
 					else
-						((StreamReaderRunnable)runnable).stop(cb);
+						((StreamReader)pump).stop(cb);
 				}
-				else if (runnable instanceof StreamWriterRunnable) {
+				else if (pump instanceof StreamWriter) {
 					if (onEof)
-						((StreamWriterRunnable)runnable).onEOF(cb);
+						((StreamWriter)pump).onEOF(cb);
 					else
-						((StreamWriterRunnable)runnable).stop(cb);
+						((StreamWriter)pump).stop(cb);
 				}
 			}
-			runnables.clear();
+			pumps.clear();
 		}
 
 		// Mark the collector initialization done
@@ -828,41 +722,38 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 				receivers = dataReceiver.toArray(new StreamsDataReceiver[dataReceiver.size()]);
 			}
 			// The created event is for the monitored process context
-			// --> Create the stream reader thread(s)
+			// --> Create the stream reader(s) and writer
 			if (streamId != null && streamId.equals(context.getProperties().get(IProcesses.PROP_STDIN_ID))) {
 				// Data provider set?
-				if (dataProvider != null) {
-					// Create the stdin stream writer runnable
-					StreamWriterRunnable runnable = new StreamWriterRunnable(streamId, IProcesses.PROP_STDIN_ID, dataProvider);
-					// Add to the list of created runnable's
-					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + IProcesses.PROP_STDIN_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
-					thread.start();
+				if (dataProvider != null && svcStreams != null) {
+					// Create the stdin stream writer
+					StreamWriter writer = new StreamWriter(streamId, IProcesses.PROP_STDIN_ID, dataProvider);
+					// Add to the list of created stream readers and writers
+					synchronized (pumps) { pumps.add(writer); }
+					// And start writing
+					writer.start();
 				}
 			}
-			if (streamId != null && streamId.equals(context.getProperties().get(IProcesses.PROP_STDOUT_ID))) {
-				// Create the stdout stream reader runnable
-				StreamReaderRunnable runnable = new StreamReaderRunnable(streamId, IProcesses.PROP_STDOUT_ID, receivers);
-				// If not empty, create the thread
-				if (!runnable.isEmpty()) {
-					// Add to the list of created runnable's
-					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + IProcesses.PROP_STDOUT_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
-					thread.start();
+			if (streamId != null && svcStreams != null && streamId.equals(context.getProperties().get(IProcesses.PROP_STDOUT_ID))) {
+				// Create the stdout stream reader
+				StreamReader reader = new StreamReader(streamId, IProcesses.PROP_STDOUT_ID, receivers);
+				// If not empty, start reading
+				if (!reader.isEmpty()) {
+					// Add to the list of created stream readers and writers
+					synchronized (pumps) { pumps.add(reader); }
+					// And start reading
+					reader.start();
 				}
 			}
-			if (streamId != null && streamId.equals(context.getProperties().get(IProcesses.PROP_STDERR_ID))) {
-				// Create the stdout stream reader runnable
-				StreamReaderRunnable runnable = new StreamReaderRunnable(streamId, IProcesses.PROP_STDERR_ID, receivers);
-				// If not empty, create the thread
-				if (!runnable.isEmpty()) {
-					// Add to the list of created runnable's
-					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + IProcesses.PROP_STDERR_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
-					thread.start();
+			if (streamId != null && svcStreams != null && streamId.equals(context.getProperties().get(IProcesses.PROP_STDERR_ID))) {
+				// Create the stderr stream reader
+				StreamReader reader = new StreamReader(streamId, IProcesses.PROP_STDERR_ID, receivers);
+				// If not empty, start reading
+				if (!reader.isEmpty()) {
+					// Add to the list of created stream readers and writers
+					synchronized (pumps) { pumps.add(reader); }
+					// And start reading
+					reader.start();
 				}
 			}
 
@@ -882,18 +773,18 @@ public class ProcessStreamsListener implements IChannelManager.IStreamsListener,
 
 		boolean consumed = false;
 
-		// Stop the thread(s) if the disposed event is for the active
+		// Stop the stream reader(s) if the disposed event is for the active
 		// monitored stream id(s).
-		synchronized (runnables) {
-			Iterator<Runnable> iterator = runnables.iterator();
+		synchronized (pumps) {
+			Iterator<Object> iterator = pumps.iterator();
 			while (iterator.hasNext()) {
-				Runnable runnable = iterator.next();
-				if (runnable instanceof StreamReaderRunnable) {
-					StreamReaderRunnable myRunnable = (StreamReaderRunnable)runnable;
-					if (myRunnable.getStreamId().equals(streamId)) {
+				Object pump = iterator.next();
+				if (pump instanceof StreamReader) {
+					StreamReader reader = (StreamReader)pump;
+					if (reader.getStreamId().equals(streamId)) {
 						// This method is called within the TCF event dispatch thread, so
 						// we cannot wait for a callback here
-						myRunnable.stop(null);
+						reader.stop(null);
 						iterator.remove();
 						consumed |= true;
 					}
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime;
+
+import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
+
+/**
+ * Interface to be implemented by processes runtime model refresh services
+ * supporting incremental refreshes.
+ *
+ * @since 1.8
+ */
+public interface IRuntimeModelIncrementalRefreshService extends IRuntimeModelRefreshService {
+
+	/**
+	 * Incrementally refresh the content of the model from the top. Only contexts not yet
+	 * known to the model are queried completely, and contexts not existing anymore are
+	 * removed. The volatile properties of the known contexts are refreshed in batches of
+	 * limited size, continuing with the next batch on each invocation.
+	 * <p>
+	 * If the model has not been refreshed before, a full refresh is performed instead.
+	 *
+	 * @param callback The callback to invoke once the refresh operation finished, or <code>null</code>.
+	 */
+	public void incrementalRefresh(ICallback callback);
+}
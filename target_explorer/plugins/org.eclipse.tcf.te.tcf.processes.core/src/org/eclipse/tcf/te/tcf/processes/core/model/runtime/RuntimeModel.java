@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -18,6 +18,7 @@ import org.eclipse.tcf.protocol.Protocol;
 import org.eclipse.tcf.te.core.interfaces.IConnectable;
 import org.eclipse.tcf.te.core.interfaces.IFilterable;
 import org.eclipse.tcf.te.runtime.callback.Callback;
+import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
 import org.eclipse.tcf.te.runtime.model.ContainerModelNode;
 import org.eclipse.tcf.te.runtime.model.contexts.AsyncRefreshableCtxAdapter;
 import org.eclipse.tcf.te.runtime.model.factory.Factory;
@@ -34,6 +35,7 @@ import org.eclipse.tcf.te.tcf.core.model.interfaces.services.IModelUpdateService
 import org.eclipse.tcf.te.tcf.locator.interfaces.nodes.IPeerNode;
 import org.eclipse.tcf.te.tcf.processes.core.activator.CoreBundleActivator;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModel;
+import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelIncrementalRefreshService;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelLookupService;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelRefreshService;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelUpdateService;
@@ -257,8 +259,8 @@ public final class RuntimeModel extends ContainerModelNode implements IRuntimeMo
 		Protocol.invokeLater(new Runnable() {
 			@Override
 			public void run() {
-				// Refresh the model
-				RuntimeModel.this.getService(IRuntimeModelRefreshService.class).refresh(new Callback() {
+				// Create the callback to invoke once the refresh is done
+				ICallback callback = new Callback() {
 					@Override
 					protected void internalDone(Object caller, IStatus status) {
 						// Re-schedule ourself if the interval is still > 0
@@ -277,7 +279,15 @@ public final class RuntimeModel extends ContainerModelNode implements IRuntimeMo
 							timer.schedule(task, RuntimeModel.this.interval * 1000);
 						}
 					}
-				});
+				};
+
+				// Refresh the model, only fetching what changed since the last refresh if supported
+				IRuntimeModelRefreshService service = RuntimeModel.this.getService(IRuntimeModelRefreshService.class);
+				if (service instanceof IRuntimeModelIncrementalRefreshService) {
+					((IRuntimeModelIncrementalRefreshService)service).incrementalRefresh(callback);
+				} else {
+					service.refresh(callback);
+				}
 			}
 		});
 	}
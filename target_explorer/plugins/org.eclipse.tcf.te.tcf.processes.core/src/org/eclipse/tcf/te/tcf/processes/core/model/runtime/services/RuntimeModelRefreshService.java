@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2013, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -41,6 +41,7 @@ import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.IProcessContextNod
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.IProcessContextNode.TYPE;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.IProcessContextNodeProperties;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModel;
+import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelIncrementalRefreshService;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelRefreshService;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelUpdateService;
 import org.eclipse.tcf.te.tcf.processes.core.nls.Messages;
@@ -60,13 +61,22 @@ import org.eclipse.tcf.te.tcf.processes.core.nls.Messages;
  *     all at once when the first refresh operation completes.</li>
  * <li>Auto-refresh operations are walking the whole process context model node tree, starting from the model root,
  *     and triggers an refresh of all process context model nodes found where the child list query marker is set to done.</li>
+ * <li>Incremental refresh operations are the exception to the parallel tree. Only the contexts not known to the model
+ *     are queried, and the differences are merged into the existing process context model nodes directly. Known contexts
+ *     are refreshed in batches, in turn with each incremental refresh. Terminated processes started via the processes
+ *     service are removed by the service listener without waiting for the next incremental refresh.</li>
  * </ul>
  */
-public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeModel> implements IRuntimeModelRefreshService {
+public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeModel> implements IRuntimeModelIncrementalRefreshService {
+	// The maximum number of known contexts refreshed by a single incremental refresh
+	private static final int VOLATILE_BATCH_SIZE = 64;
+
 	// For each root context to refresh, remember the callbacks to invoke.
 	private final Map<IModelNode, List<ICallback>> ctx2cb = new HashMap<IModelNode, List<ICallback>>();
 	// The default processes runtime model refresh service delegate
 	/* default */ final IRuntimeModelRefreshService.IDelegate defaultDelegate = new DefaultDelegate();
+	// The index of the first known context refreshed by the next incremental refresh
+	private int batchStart = 0;
 
 	/**
 	 * Default processes runtime model refresh service delegate implementation.
@@ -433,6 +443,87 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 		collector.initDone();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelIncrementalRefreshService#incrementalRefresh(org.eclipse.tcf.te.runtime.interfaces.callback.ICallback)
+	 */
+	@Override
+	public void incrementalRefresh(ICallback callback) {
+		Assert.isTrue(Protocol.isDispatchThread(), "Illegal Thread Access"); //$NON-NLS-1$
+
+		// Get the parent model
+		final IRuntimeModel model = getModel();
+		Assert.isNotNull(model);
+
+		// If the parent model is already disposed, the service will drop out immediately
+		if (model.isDisposed()) {
+			if (callback != null) callback.done(this, Status.OK_STATUS);
+			return;
+		}
+
+		// If the model got not refreshed before, there are no known contexts
+		// to start from. Run a full refresh instead.
+		IAsyncRefreshableCtx modelRefreshable = (IAsyncRefreshableCtx)model.getAdapter(IAsyncRefreshableCtx.class);
+		if (modelRefreshable == null || modelRefreshable.getQueryState(QueryType.CHILD_LIST) != QueryState.DONE) {
+			refresh(callback);
+			return;
+		}
+
+		// Determine if there is already a model refresh running.
+		// A model refresh can be initiated via refresh(...), autoRefresh(...) or incrementalRefresh(...).
+		final boolean isRefreshAlreadyRunning = ctx2cb.containsKey(model);
+
+		// Queue the callback to invoke once the refresh is done
+		List<ICallback> callbacks = ctx2cb.get(model);
+		if (callbacks == null) {
+			callbacks = new ArrayList<ICallback>();
+			ctx2cb.put(model, callbacks);
+		}
+		Assert.isNotNull(callbacks);
+		// Add the current callback to the list of callbacks
+		if (callback != null) callbacks.add(callback);
+
+		// If a refresh is already running, drop out. The callback is already
+		// queued and will be invoked once the refresh operation is done.
+		if (isRefreshAlreadyRunning) return;
+
+		// Make sure that the callbacks are invoked even for unexpected cases
+		try {
+			// Get an open channel
+			IModelChannelService channelService = model.getService(IModelChannelService.class);
+			channelService.openChannel(new IModelChannelService.DoneOpenChannel() {
+				@Override
+				public void doneOpenChannel(Throwable error, final IChannel channel) {
+					if (error == null) {
+						// Merge the first level contexts. Like a full refresh, new
+						// first level contexts get their children queried too.
+						mergeChildContexts(channel, null, model, true, new Callback() {
+							@Override
+							protected void internalDone(Object caller, IStatus status) {
+								if (status.isOK()) {
+									// Refresh the next batch of known contexts
+									refreshKnownContexts(channel, model, new Callback() {
+										@Override
+										protected void internalDone(Object caller, IStatus status) {
+											// Invoke the callbacks
+											invokeCallbacks(model, RuntimeModelRefreshService.this, status);
+										}
+									});
+								} else {
+									// Invoke the callbacks
+									invokeCallbacks(model, RuntimeModelRefreshService.this, status);
+								}
+							}
+						});
+					} else {
+						invokeCallbacks(model, RuntimeModelRefreshService.this, new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(), error.getLocalizedMessage(), error));
+					}
+				}
+			});
+		} catch (Throwable e) {
+			invokeCallbacks(model, RuntimeModelRefreshService.this, new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(), e.getLocalizedMessage(), e));
+		}
+	}
+
 	// ----- Non-API refresh methods -----
 
 	/**
@@ -523,22 +614,11 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 						if (status.isOK()) {
 							// Auto refresh requires to update the children of any new child found for
 							// the node refreshed. Collect all child nodes not being children of the original node.
-							List<IProcessContextNode> oldChildren = node.getChildren(IProcessContextNode.class);
-							List<IProcessContextNode> newChildren = container.getChildren(IProcessContextNode.class);
-							for (IProcessContextNode child : oldChildren) {
-								// Get the context id of the exiting child
-								String id = child.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
-								if (id == null) continue;
-								// Find the context id in the new children list
-								IProcessContextNode node = null;
-								for (IProcessContextNode candidate : newChildren) {
-									if (id.equals(candidate.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID))) {
-										node = candidate;
-										break;
-									}
-								}
-								// If found in the new children list, remove it
-								if (node != null) newChildren.remove(node);
+							Map<String, IProcessContextNode> oldChildren = RuntimeModelUpdateService.indexById(node.getChildren(IProcessContextNode.class), new ArrayList<IProcessContextNode>());
+							List<IProcessContextNode> newChildren = new ArrayList<IProcessContextNode>();
+							for (IProcessContextNode candidate : container.getChildren(IProcessContextNode.class)) {
+								String id = candidate.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
+								if (id != null && !oldChildren.containsKey(id)) newChildren.add(candidate);
 							}
 
 							// Process the new context node and merge it with the original context node
@@ -548,8 +628,8 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 							if (newChildren.size() > 0) {
 								// Create the collector firing the final callback at the end
 								final AsyncCallbackCollector collector = new AsyncCallbackCollector(callback, new CallbackInvocationDelegate());
-								// Get the real children list
-								oldChildren = node.getChildren(IProcessContextNode.class);
+								// Index the real children by context id
+								oldChildren = RuntimeModelUpdateService.indexById(node.getChildren(IProcessContextNode.class), new ArrayList<IProcessContextNode>());
 
 								for (IProcessContextNode child : newChildren) {
 									// Get the context id of the child
@@ -557,13 +637,7 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 									if (id == null) continue;
 
 									// Find the real child node
-									IProcessContextNode realChild = null;
-									for (IProcessContextNode candidate : oldChildren) {
-										if (id.equals(candidate.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID))) {
-											realChild = candidate;
-											break;
-										}
-									}
+									IProcessContextNode realChild = oldChildren.get(id);
 									if (realChild == null) continue;
 
 									// The refresh operation is building up a parallel data tree. Pass in an empty container
@@ -941,62 +1015,15 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 						final AsyncCallbackCollector collector = new AsyncCallbackCollector(callback, new CallbackInvocationDelegate());
 
 						// Loop the returned context id's and query the context data
-						for (String id : context_ids) {
-							final String contextId = id;
-
+						for (String contextId : context_ids) {
 							// Create the context node for the current context id
-							final IProcessContextNode node = createContextNodeFrom(contextId);
+							IProcessContextNode node = createContextNodeFrom(contextId);
 							Assert.isNotNull(node);
 							// Add the node to the container
 							container.add(node);
 
-							// Callback collector to fire once the system monitor and process context queries completed
-							final ICallback innerCallback = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
-							final AsyncCallbackCollector innerCollector = new AsyncCallbackCollector(new Callback() {
-								@Override
-                                protected void internalDone(Object caller, IStatus status) {
-									// Determine if a delegate is registered
-									IRuntimeModelRefreshService.IDelegate delegate = ServiceUtils.getDelegateServiceDelegate(channel.getRemotePeer(), channel.getRemotePeer(), IRuntimeModelRefreshService.IDelegate.class);
-									// Determine the node type
-									if (delegate != null) delegate.setNodeType(parentContextId, node);
-									// Fallback to the default delegate if node type is not set by delegate
-									if (node.getType() == TYPE.Unknown) defaultDelegate.setNodeType(parentContextId, node);
-
-									// Run the post refresh context delegate
-									if (delegate == null) delegate = defaultDelegate;
-									Assert.isNotNull(delegate);
-									delegate.postRefreshContext(channel, node, innerCallback);
-								}
-							}, new CallbackInvocationDelegate());
-
-							// Query the system monitor context object
-							final ICallback cb1 = new AsyncCallbackCollector.SimpleCollectorCallback(innerCollector);
-							sysMonService.getContext(contextId, new ISysMonitor.DoneGetContext() {
-								@Override
-								public void doneGetContext(IToken token, Exception error, SysMonitorContext context) {
-									// Ignore errors. Some of the context might be OS context we do not have
-									// permissions to read the properties from.
-									node.setSysMonitorContext(context);
-									// Invoke the callback
-									cb1.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
-								}
-							});
-
-							// Query the process context object
-							final ICallback cb2 = new AsyncCallbackCollector.SimpleCollectorCallback(innerCollector);
-							service.getContext(contextId, new IProcesses.DoneGetContext() {
-								@Override
-								public void doneGetContext(IToken token, Exception error, IProcesses.ProcessContext context) {
-									// Errors are ignored
-									node.setProcessContext(context);
-									// Set the context name from the process context if available
-									if (context != null) node.setProperty(IProcessContextNodeProperties.PROPERTY_NAME, context.getName());
-									// Invoke the callback
-									cb2.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
-								}
-							});
-
-							innerCollector.initDone();
+							// Query the context data
+							refreshContextNode(channel, parentContextId, node, new AsyncCallbackCollector.SimpleCollectorCallback(collector));
 						}
 
 						collector.initDone();
@@ -1017,6 +1044,341 @@ public class RuntimeModelRefreshService extends AbstractModelService<IRuntimeMod
 		});
 	}
 
+	/**
+	 * Refresh the properties of the given newly created context node using the given channel.
+	 * <p>
+	 * Queries the system monitor and the process context objects and runs the refresh service
+	 * delegate for the node.
+	 *
+	 * @param channel An open channel. Must not be <code>null</code>.
+	 * @param parentContextId The parent context id or <code>null</code> for the root context.
+	 * @param node The node. Must not be <code>null</code>.
+	 * @param callback The callback to invoke once the operation is completed. Must not be <code>null</code>.
+	 */
+	/* default */ void refreshContextNode(final IChannel channel, final String parentContextId, final IProcessContextNode node, final ICallback callback) {
+		Assert.isTrue(Protocol.isDispatchThread(), "Illegal Thread Access"); //$NON-NLS-1$
+		Assert.isNotNull(channel);
+		Assert.isNotNull(node);
+		Assert.isNotNull(callback);
+
+		// Get the required services
+		final IProcesses service = channel.getRemoteService(IProcesses.class);
+		final ISysMonitor sysMonService = channel.getRemoteService(ISysMonitor.class);
+
+		// The context id must be set
+		final String contextId = node.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
+
+		// At least the processes and the system monitor service must be available
+		if (service == null || sysMonService == null || contextId == null) {
+			callback.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			return;
+		}
+
+		// Callback collector to fire once the system monitor and process context queries completed
+		final AsyncCallbackCollector collector = new AsyncCallbackCollector(new Callback() {
+			@Override
+			protected void internalDone(Object caller, IStatus status) {
+				// Determine if a delegate is registered
+				IRuntimeModelRefreshService.IDelegate delegate = ServiceUtils.getDelegateServiceDelegate(channel.getRemotePeer(), channel.getRemotePeer(), IRuntimeModelRefreshService.IDelegate.class);
+				// Determine the node type
+				if (delegate != null) delegate.setNodeType(parentContextId, node);
+				// Fallback to the default delegate if node type is not set by delegate
+				if (node.getType() == TYPE.Unknown) defaultDelegate.setNodeType(parentContextId, node);
+
+				// Run the post refresh context delegate
+				if (delegate == null) delegate = defaultDelegate;
+				Assert.isNotNull(delegate);
+				delegate.postRefreshContext(channel, node, callback);
+			}
+		}, new CallbackInvocationDelegate());
+
+		// Query the system monitor context object
+		final ICallback cb1 = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
+		sysMonService.getContext(contextId, new ISysMonitor.DoneGetContext() {
+			@Override
+			public void doneGetContext(IToken token, Exception error, SysMonitorContext context) {
+				// Ignore errors. Some of the context might be OS context we do not have
+				// permissions to read the properties from.
+				node.setSysMonitorContext(context);
+				// Invoke the callback
+				cb1.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			}
+		});
+
+		// Query the process context object
+		final ICallback cb2 = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
+		service.getContext(contextId, new IProcesses.DoneGetContext() {
+			@Override
+			public void doneGetContext(IToken token, Exception error, IProcesses.ProcessContext context) {
+				// Errors are ignored
+				node.setProcessContext(context);
+				// Set the context name from the process context if available
+				if (context != null) node.setProperty(IProcessContextNodeProperties.PROPERTY_NAME, context.getName());
+				// Invoke the callback
+				cb2.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			}
+		});
+
+		collector.initDone();
+	}
+
+	/**
+	 * Merge the child contexts of the given parent context id into the given parent node.
+	 * <p>
+	 * Only the child contexts not yet known to the parent node are queried. Children of the
+	 * parent node not being a child context anymore are removed. Known children are kept as is.
+	 * The changes are applied to the parent node at once, after all new child contexts got queried.
+	 *
+	 * @param channel An open channel. Must not be <code>null</code>.
+	 * @param parentContextId The parent context id or <code>null</code> for the root context.
+	 * @param parent The parent node. Must not be <code>null</code>.
+	 * @param queryChildren <code>True</code> to query the children of new child contexts too, <code>false</code> otherwise.
+	 * @param callback The callback to invoke once the operation is completed. Must not be <code>null</code>.
+	 */
+	/* default */ void mergeChildContexts(final IChannel channel, final String parentContextId, final IContainerModelNode parent, final boolean queryChildren, final ICallback callback) {
+		Assert.isTrue(Protocol.isDispatchThread(), "Illegal Thread Access"); //$NON-NLS-1$
+		Assert.isNotNull(channel);
+		Assert.isNotNull(parent);
+		Assert.isNotNull(callback);
+
+		// The channel must be opened, otherwise the query cannot run
+		if (channel.getState() != IChannel.STATE_OPEN) {
+			IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(), Messages.RuntimeModelRefreshService_error_channelClosed);
+			callback.done(RuntimeModelRefreshService.this, status);
+			return;
+		}
+
+		// Get the required services
+		final ISysMonitor sysMonService = channel.getRemoteService(ISysMonitor.class);
+
+		// The system monitor service must be available
+		if (sysMonService == null) {
+			callback.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			return;
+		}
+
+		// Get the child context id's of the given parent context id
+		sysMonService.getChildren(parentContextId, new ISysMonitor.DoneGetChildren() {
+			@Override
+			public void doneGetChildren(IToken token, Exception error, String[] context_ids) {
+				if (error != null) {
+					if (StatusHelper.unwrapErrorReport(error.getLocalizedMessage()).equals("Invalid context")) { //$NON-NLS-1$
+						// OK, the context got invalid during the query. It is removed
+						// with the next merge of its own parent, keep the refresh going.
+						callback.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+					} else {
+						callback.done(RuntimeModelRefreshService.this, new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(), error.getLocalizedMessage(), error));
+					}
+					return;
+				}
+
+				// Index the known children by context id. Children without a context id
+				// or with a duplicated context id are removed.
+				final List<IProcessContextNode> removed = new ArrayList<IProcessContextNode>();
+				final Map<String, IProcessContextNode> known = RuntimeModelUpdateService.indexById(parent.getChildren(IProcessContextNode.class), removed);
+				// The new children
+				final List<IProcessContextNode> added = new ArrayList<IProcessContextNode>();
+
+				// Callback collector to fire once all new child contexts got queried
+				final AsyncCallbackCollector collector = new AsyncCallbackCollector(new Callback() {
+					@Override
+					protected void internalDone(Object caller, IStatus status) {
+						if (status.isOK()) {
+							// Disable notifications while updating the child list
+							boolean eventEnablementChanged = parent.setChangeEventsEnabled(false);
+							boolean parentChanged = false;
+
+							// Remove the children not existing anymore (non-recursive)
+							removed.addAll(known.values());
+							for (IProcessContextNode child : removed) {
+								parentChanged |= parent.remove(child, false);
+							}
+							// Add the new children, except the ones got invalid while querying them
+							for (IProcessContextNode child : added) {
+								if (child.isProperty(IProcessContextNodeProperties.PROPERTY_INVALID_CTX, true)) continue;
+								parentChanged |= parent.add(child);
+							}
+
+							// Re-enable the change events
+							if (eventEnablementChanged) parent.setChangeEventsEnabled(true);
+
+							// Fire a properties changed event if the parent node changed
+							if (parentChanged) {
+								parent.fireChangeEvent(IContainerModelNode.NOTIFY_CHANGED, null, parent.getProperties());
+							}
+						}
+
+						callback.done(RuntimeModelRefreshService.this, status);
+					}
+				}, new CallbackInvocationDelegate());
+
+				if (context_ids != null) {
+					for (String contextId : context_ids) {
+						// Known child contexts are not queried again
+						if (known.remove(contextId) != null) continue;
+
+						// Create the context node for the new context id
+						final IProcessContextNode node = createContextNodeFrom(contextId);
+						Assert.isNotNull(node);
+						added.add(node);
+
+						// Query the context data and the children if requested
+						final ICallback cb = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
+						refreshContextNode(channel, parentContextId, node, new Callback() {
+							@Override
+							protected void internalDone(Object caller, IStatus status) {
+								if (!queryChildren || !status.isOK()) {
+									cb.done(RuntimeModelRefreshService.this, status);
+									return;
+								}
+
+								final IAsyncRefreshableCtx refreshable = (IAsyncRefreshableCtx)node.getAdapter(IAsyncRefreshableCtx.class);
+								Assert.isNotNull(refreshable);
+								refreshable.setQueryState(QueryType.CHILD_LIST, QueryState.IN_PROGRESS);
+								refreshChildContexts(channel, node.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID), node, new Callback() {
+									@Override
+									protected void internalDone(Object caller, IStatus status) {
+										refreshable.setQueryState(QueryType.CHILD_LIST, QueryState.DONE);
+										cb.done(RuntimeModelRefreshService.this, status);
+									}
+								});
+							}
+						});
+					}
+				}
+
+				collector.initDone();
+			}
+		});
+	}
+
+	/**
+	 * Refresh the next batch of known contexts of the given model.
+	 * <p>
+	 * The known contexts are refreshed round-robin, at most {@link #VOLATILE_BATCH_SIZE} per
+	 * invocation. For each context, the volatile system monitor properties are refreshed, and
+	 * the child contexts are merged if the child list had been queried before.
+	 *
+	 * @param channel An open channel. Must not be <code>null</code>.
+	 * @param model The runtime model. Must not be <code>null</code>.
+	 * @param callback The callback to invoke once the operation is completed. Must not be <code>null</code>.
+	 */
+	/* default */ void refreshKnownContexts(final IChannel channel, final IRuntimeModel model, final ICallback callback) {
+		Assert.isTrue(Protocol.isDispatchThread(), "Illegal Thread Access"); //$NON-NLS-1$
+		Assert.isNotNull(channel);
+		Assert.isNotNull(model);
+		Assert.isNotNull(callback);
+
+		// Collect the known contexts
+		List<IProcessContextNode> nodes = new ArrayList<IProcessContextNode>();
+		collectContextNodes(model, nodes);
+
+		// If there are no known contexts, there is nothing to refresh
+		if (nodes.isEmpty()) {
+			callback.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			return;
+		}
+
+		// Callback collector to fire once all contexts of the batch got refreshed
+		final AsyncCallbackCollector collector = new AsyncCallbackCollector(callback, new CallbackInvocationDelegate());
+
+		// Continue with the context following the last batch
+		if (batchStart >= nodes.size()) batchStart = 0;
+		int count = Math.min(VOLATILE_BATCH_SIZE, nodes.size());
+		for (int i = 0; i < count; i++) {
+			IProcessContextNode node = nodes.get((batchStart + i) % nodes.size());
+			refreshVolatileContext(channel, node, new AsyncCallbackCollector.SimpleCollectorCallback(collector));
+		}
+		batchStart = (batchStart + count) % nodes.size();
+
+		collector.initDone();
+	}
+
+	/**
+	 * Refresh the volatile properties of the given known context node using the given channel.
+	 * If the child list of the node had been queried before, the child contexts are merged too.
+	 *
+	 * @param channel An open channel. Must not be <code>null</code>.
+	 * @param node The node. Must not be <code>null</code>.
+	 * @param callback The callback to invoke once the operation is completed. Must not be <code>null</code>.
+	 */
+	/* default */ void refreshVolatileContext(final IChannel channel, final IProcessContextNode node, final ICallback callback) {
+		Assert.isTrue(Protocol.isDispatchThread(), "Illegal Thread Access"); //$NON-NLS-1$
+		Assert.isNotNull(channel);
+		Assert.isNotNull(node);
+		Assert.isNotNull(callback);
+
+		// Get the required services
+		final ISysMonitor sysMonService = channel.getRemoteService(ISysMonitor.class);
+
+		// The context id must be set
+		final String contextId = node.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
+
+		// The system monitor service must be available
+		if (sysMonService == null || contextId == null) {
+			callback.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			return;
+		}
+
+		// Callback collector to fire once the system monitor context and child list queries completed
+		final AsyncCallbackCollector collector = new AsyncCallbackCollector(callback, new CallbackInvocationDelegate());
+
+		// Query the system monitor context object
+		final ICallback cb1 = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
+		sysMonService.getContext(contextId, new ISysMonitor.DoneGetContext() {
+			@Override
+			public void doneGetContext(IToken token, Exception error, SysMonitorContext context) {
+				// Ignore errors. Contexts not existing anymore are removed with the next
+				// merge of the parent node.
+				if (error == null && context != null) {
+					// Update the system monitor context object (if necessary)
+					SysMonitorContext oldContext = node.getSysMonitorContext();
+					if (oldContext == null || !oldContext.getProperties().equals(context.getProperties())) {
+						node.setSysMonitorContext(context);
+						node.fireChangeEvent(IContainerModelNode.NOTIFY_CHANGED, null, null);
+					}
+				}
+				// Invoke the callback
+				cb1.done(RuntimeModelRefreshService.this, Status.OK_STATUS);
+			}
+		});
+
+		// Merge the child contexts if the child list had been queried before
+		final IAsyncRefreshableCtx refreshable = (IAsyncRefreshableCtx)node.getAdapter(IAsyncRefreshableCtx.class);
+		if (refreshable != null && refreshable.getQueryState(QueryType.CHILD_LIST) == QueryState.DONE) {
+			// Mark the refresh as in progress
+			refreshable.setQueryState(QueryType.CHILD_LIST, QueryState.IN_PROGRESS);
+			final ICallback cb2 = new AsyncCallbackCollector.SimpleCollectorCallback(collector);
+			mergeChildContexts(channel, contextId, node, false, new Callback() {
+				@Override
+				protected void internalDone(Object caller, IStatus status) {
+					// Mark the refresh as done
+					refreshable.setQueryState(QueryType.CHILD_LIST, QueryState.DONE);
+					// Invoke the callback
+					cb2.done(RuntimeModelRefreshService.this, status);
+				}
+			});
+		}
+
+		collector.initDone();
+	}
+
+	/**
+	 * Collect the process context nodes of the given container recursively.
+	 *
+	 * @param container The container. Must not be <code>null</code>.
+	 * @param nodes The list of collected nodes. Must not be <code>null</code>.
+	 */
+	private void collectContextNodes(IContainerModelNode container, List<IProcessContextNode> nodes) {
+		Assert.isNotNull(container);
+		Assert.isNotNull(nodes);
+
+		for (IProcessContextNode node : container.getChildren(IProcessContextNode.class)) {
+			nodes.add(node);
+			collectContextNodes(node, nodes);
+		}
+	}
+
 	/**
 	 * Create a process context node instance for the given context id.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -11,7 +11,9 @@ package org.eclipse.tcf.te.tcf.processes.core.model.runtime.services;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.tcf.protocol.Protocol;
@@ -83,28 +85,33 @@ public class RuntimeModelUpdateService extends AbstractModelService<IRuntimeMode
 	}
 
 	/**
-	 * Lookup a node with the given id in the given list.
+	 * Index the given nodes by their context id.
+	 * <p>
+	 * Nodes without a context id, and any further node with an already indexed
+	 * context id, are added to the given list of unmatched nodes.
 	 *
-	 * @param id The node id. Must not be <code>null</code>.
 	 * @param list The list. Must not be <code>null</code>.
+	 * @param unmatched The list of unmatched nodes. Must not be <code>null</code>.
 	 *
-	 * @return The matching process context node or <code>null</code> if not found.
+	 * @return The process context nodes by context id.
 	 */
-	/* default */ IProcessContextNode findInList(String id, List<IProcessContextNode> list) {
+	/* default */ static Map<String, IProcessContextNode> indexById(List<IProcessContextNode> list, List<IProcessContextNode> unmatched) {
 		Assert.isTrue(Protocol.isDispatchThread(), "Illegal Thread Access"); //$NON-NLS-1$
-		Assert.isNotNull(id);
 		Assert.isNotNull(list);
+		Assert.isNotNull(unmatched);
 
-		IProcessContextNode node = null;
+		Map<String, IProcessContextNode> index = new HashMap<String, IProcessContextNode>();
 
 		for (IProcessContextNode candidate : list) {
-			if (id.equals(candidate.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID))) {
-				node = candidate;
-				break;
+			String id = candidate.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
+			if (id == null || index.containsKey(id)) {
+				unmatched.add(candidate);
+			} else {
+				index.put(id, candidate);
 			}
 		}
 
-		return node;
+		return index;
 	}
 
 	/**
@@ -145,8 +152,9 @@ public class RuntimeModelUpdateService extends AbstractModelService<IRuntimeMode
 			return dstNodeChanged;
 		}
 
-		// Get the list of old children (update node instances where possible)
-		final List<IProcessContextNode> oldChildren = dst.getChildren(IProcessContextNode.class);
+		// Index the old children by context id (update node instances where possible)
+		final List<IProcessContextNode> unmatchedChildren = new ArrayList<IProcessContextNode>();
+		final Map<String, IProcessContextNode> oldChildren = indexById(dst.getChildren(IProcessContextNode.class), unmatchedChildren);
 
 		// Disable notifications while updating the child list
 		boolean eventEnablementChanged = dst.setChangeEventsEnabled(false);
@@ -163,11 +171,9 @@ public class RuntimeModelUpdateService extends AbstractModelService<IRuntimeMode
 			// the context had been added to the tree before. If the context was not
 			// in the tree before, it will not be added at all.
 			if (candidate.isProperty(IProcessContextNodeProperties.PROPERTY_INVALID_CTX, true)) continue;
-			// Find the old process context node
-			IProcessContextNode oldNode = findInList(id, oldChildren);
+			// Find the old process context node and remove it from the old children index
+			IProcessContextNode oldNode = oldChildren.remove(id);
 			if (oldNode != null) {
-				// Remove the old node from the old children list
-				oldChildren.remove(oldNode);
 				// Update the properties of the old node from the new node
 				dstNodeChanged |= __updateProperties(oldNode, candidate);
 				// If the child list of the new node is valid, update the child list
@@ -197,7 +203,8 @@ public class RuntimeModelUpdateService extends AbstractModelService<IRuntimeMode
 		}
 
 		// If there are remaining old children, remove them (non-recursive)
-		for (IProcessContextNode oldChild : oldChildren) {
+		unmatchedChildren.addAll(oldChildren.values());
+		for (IProcessContextNode oldChild : unmatchedChildren) {
 			dstNodeChanged |= dst.remove(oldChild, false);
 		}
 
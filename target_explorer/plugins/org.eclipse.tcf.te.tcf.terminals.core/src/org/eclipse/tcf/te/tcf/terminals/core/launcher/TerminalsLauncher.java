@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -13,11 +13,7 @@ import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -46,6 +42,7 @@ import org.eclipse.tcf.te.runtime.callback.Callback;
 import org.eclipse.tcf.te.runtime.events.EventManager;
 import org.eclipse.tcf.te.runtime.interfaces.callback.ICallback;
 import org.eclipse.tcf.te.runtime.interfaces.properties.IPropertiesContainer;
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
 import org.eclipse.tcf.te.tcf.core.Tcf;
 import org.eclipse.tcf.te.tcf.core.async.CallbackInvocationDelegate;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager;
@@ -544,23 +541,17 @@ public class TerminalsLauncher extends PlatformObject implements ITerminalsLaunc
 		Assert.isNotNull(streamsListener);
 		Assert.isNotNull(streamIds);
 
-		InputStream stream = null;
+		// Create the buffer receiving the data from remote
+		ByteRingBuffer buffer = new ByteRingBuffer();
 
-		// Create the output stream receiving the data from remote
-		PipedOutputStream remoteStreamDataReceiverStream = new PipedOutputStream();
-		// Create the piped input stream instance
-		try { stream = new PipedInputStream(remoteStreamDataReceiverStream); } catch (IOException e) { /* ignored on purpose */ }
-
-		// If the input stream creation succeeded, connect the data receiver
-		if (stream != null) {
-			StreamsDataReceiver receiver = new StreamsDataReceiver(new OutputStreamWriter(remoteStreamDataReceiverStream), streamIds);
-			// Register the data receiver to the streams listener
-			if (getStreamsListener() instanceof TerminalsStreamsListener) {
-				((TerminalsStreamsListener)getStreamsListener()).registerDataReceiver(receiver);
-			}
+		// Connect the data receiver
+		StreamsDataReceiver receiver = new StreamsDataReceiver(buffer, streamIds);
+		// Register the data receiver to the streams listener
+		if (getStreamsListener() instanceof TerminalsStreamsListener) {
+			((TerminalsStreamsListener)getStreamsListener()).registerDataReceiver(receiver);
 		}
 
-		return stream;
+		return buffer.getInputStream();
 	}
 
 	/**
@@ -575,23 +566,17 @@ public class TerminalsLauncher extends PlatformObject implements ITerminalsLaunc
 		Assert.isNotNull(streamsListener);
 		Assert.isNotNull(streamIds);
 
-		PipedInputStream inStream = null;
+		// Create the buffer receiving the data from local
+		ByteRingBuffer buffer = new ByteRingBuffer();
 
-		// Create the output stream receiving the data from local
-		PipedOutputStream stream = new PipedOutputStream();
-		// Create the piped input stream instance
-		try { inStream = new PipedInputStream(stream); } catch (IOException e) { stream = null; }
-
-		// If the stream creation succeeded, connect the data provider
-		if (stream != null && inStream != null) {
-			StreamsDataProvider provider = new StreamsDataProvider(new InputStreamReader(inStream), streamIds);
-			// Register the data provider to the streams listener
-			if (getStreamsListener() instanceof TerminalsStreamsListener) {
-				((TerminalsStreamsListener)getStreamsListener()).setDataProvider(provider);
-			}
+		// Connect the data provider
+		StreamsDataProvider provider = new StreamsDataProvider(buffer, streamIds);
+		// Register the data provider to the streams listener
+		if (getStreamsListener() instanceof TerminalsStreamsListener) {
+			((TerminalsStreamsListener)getStreamsListener()).setDataProvider(provider);
 		}
 
-		return stream;
+		return buffer.getOutputStream();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -14,7 +14,6 @@ import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CancellationException;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
@@ -35,7 +34,8 @@ import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager;
 import org.eclipse.tcf.te.tcf.core.interfaces.IChannelManager.IStreamsListenerProxy;
 import org.eclipse.tcf.te.tcf.core.streams.StreamsDataProvider;
 import org.eclipse.tcf.te.tcf.core.streams.StreamsDataReceiver;
-import org.eclipse.tcf.te.tcf.core.util.ExceptionUtils;
+import org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump;
+import org.eclipse.tcf.te.tcf.core.streams.StreamsWritePump;
 import org.eclipse.tcf.te.tcf.terminals.core.activator.CoreBundleActivator;
 import org.eclipse.tcf.te.tcf.terminals.core.interfaces.launcher.ITerminalsContextAwareListener;
 import org.eclipse.tcf.te.tcf.terminals.core.interfaces.tracing.ITraceIds;
@@ -54,30 +54,104 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 	private final List<StreamsDataReceiver> dataReceiver = new ArrayList<StreamsDataReceiver>();
 	// The stream data provider
 	private StreamsDataProvider dataProvider;
-	// The list of created runnable's
-	private final List<Runnable> runnables = new ArrayList<Runnable>();
+	// The list of created stream readers and writers
+	private final List<Object> pumps = new ArrayList<Object>();
 	// The streams listener proxy instance
 	private IChannelManager.IStreamsListenerProxy proxy = null;
 	// The list of already processed streams created events (simple string in format "<stream type>;<stream id>;<context id>")
 	/* default */ List<String> processedCreatedEvents = new ArrayList<String>();
 
 	/**
-	 * Remote stream reader runnable implementation.
+	 * Remote stream reader implementation.
 	 * <p>
-	 * The runnable will be executed within a thread and is responsible to read the
+	 * The reader is driven by the TCF event dispatch thread and is responsible to read the
 	 * incoming data from the associated stream and forward them to the registered receivers.
 	 */
+	protected class StreamReader extends StreamsReadPump {
+
+		/**
+		 * Constructor.
+		 *
+		 * @param streamId The associated stream id. Must not be <code>null</code>.
+		 * @param streamTypeId The associated stream type id. Must not be <code>null</code>.
+		 * @param receivers The list of registered data receivers. Must not be <code>null</code>.
+		 */
+		public StreamReader(String streamId, String streamTypeId, StreamsDataReceiver[] receivers) {
+			super(getParent().getSvcStreams(), streamId, streamTypeId, receivers);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump#readFailed(java.lang.Exception)
+		 */
+		@Override
+		protected void readFailed(Exception error) {
+			// Log the error to the user, might be something serious
+			IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
+										NLS.bind(Messages.TerminalsStreamReaderRunnable_error_readFailed, getStreamId(), error.getLocalizedMessage()),
+										error);
+			Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump#appendFailed(java.lang.String, java.io.IOException)
+		 */
+		@Override
+		protected void appendFailed(String data, IOException error) {
+			if (CoreBundleActivator.getTraceHandler().isSlotEnabled(1, null)) {
+				IStatus status = new Status(IStatus.WARNING, CoreBundleActivator.getUniqueIdentifier(),
+											NLS.bind(Messages.TerminalsStreamReaderRunnable_error_appendFailed, getStreamId(), data),
+											error);
+				Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
+			}
+		}
+	}
+
+	/**
+	 * Remote stream writer implementation.
+	 * <p>
+	 * The writer is driven by the TCF event dispatch thread and is responsible to take the
+	 * data from the registered provider and forward them to the associated stream.
+	 */
+	protected class StreamWriter extends StreamsWritePump {
+
+		/**
+		 * Constructor.
+		 *
+		 * @param streamId The associated stream id. Must not be <code>null</code>.
+		 * @param streamTypeId The associated stream type id. Must not be <code>null</code>.
+		 * @param provider The data provider. Must not be <code>null</code> and must be applicable for the stream type.
+		 */
+		public StreamWriter(String streamId, String streamTypeId, StreamsDataProvider provider) {
+			super(getParent().getSvcStreams(), streamId, streamTypeId, provider);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.tcf.te.tcf.core.streams.StreamsWritePump#writeFailed(java.lang.Exception)
+		 */
+		@Override
+		protected void writeFailed(Exception error) {
+			// Log the error to the user, might be something serious
+			IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
+										NLS.bind(Messages.TerminalsStreamWriterRunnable_error_writeFailed, getStreamId(), error.getLocalizedMessage()),
+										error);
+			Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
+		}
+	}
+
+	/**
+	 * Remote terminal stream reader runnable implementation.
+	 * <p>
+	 * Running the runnable starts a {@link StreamReader} and returns, the reader is
+	 * driven by the TCF event dispatch thread and does not need the thread.
+	 *
+	 * @deprecated Use {@link StreamReader} instead.
+	 */
+	@Deprecated
 	protected class StreamReaderRunnable implements Runnable {
-		// The associated stream id
-		private final String streamId;
-		// The associated stream type id
-		private final String streamTypeId;
-		// The list of receivers applicable for the associated stream type id
-		private final List<StreamsDataReceiver> receivers = new ArrayList<StreamsDataReceiver>();
+		// The reader doing the work
+		private final StreamReader reader;
 		// The currently active read task
 		private TCFTask<ReadData> activeTask;
-		// The callback to invoke if the runnable stopped
-		private ICallback callback;
 
 		// Flag to stop the runnable
 		private boolean stopped = false;
@@ -119,18 +193,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @param receivers The list of registered data receivers. Must not be <code>null</code>.
 		 */
 		public StreamReaderRunnable(String streamId, String streamTypeId, StreamsDataReceiver[] receivers) {
-			Assert.isNotNull(streamId);
-			Assert.isNotNull(streamTypeId);
-			Assert.isNotNull(receivers);
-
-			this.streamId = streamId;
-			this.streamTypeId = streamTypeId;
-
-			// Loop the list of receivers and filter out the applicable ones
-			for (StreamsDataReceiver receiver : receivers) {
-				if (receiver.isApplicable(this.streamTypeId))
-					this.receivers.add(receiver);
-			}
+			reader = new StreamReader(streamId, streamTypeId, receivers);
 		}
 
 		/**
@@ -139,7 +202,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @return The associated stream id.
 		 */
 		public final String getStreamId() {
-			return streamId;
+			return reader.getStreamId();
 		}
 
 		/**
@@ -148,7 +211,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @return <code>True</code> if the list of applicable receivers is empty, <code>false</code> otherwise.
 		 */
 		public final boolean isEmpty() {
-			return receivers.isEmpty();
+			return reader.isEmpty();
 		}
 
 		/**
@@ -157,16 +220,17 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @param callback The callback to invoke if the runnable stopped.
 		 */
 		public final synchronized void stop(ICallback callback) {
-			// If the runnable is stopped already, invoke the callback directly
-			if (stopped) {
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-				return;
-			}
-
-			// Store the callback instance
-			this.callback = callback;
-			// Mark the runnable as stopped
 			stopped = true;
+			reader.stop(callback);
+		}
+
+		/**
+		 * Notify callback on EOF.
+		 *
+		 * @param callback The callback to invoke on EOF
+		 */
+		public final void onEOF(ICallback callback) {
+			reader.onEOF(callback);
 		}
 
 		/**
@@ -194,65 +258,12 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			return activeTask;
 		}
 
-		/**
-		 * Returns the callback instance to invoke.
-		 *
-		 * @return The callback instance or <code>null</code>.
-		 */
-		protected final ICallback getCallback() {
-			return callback;
-		}
-
 		/* (non-Javadoc)
 		 * @see java.lang.Runnable#run()
 		 */
 		@Override
-        public void run() {
-			// Create a snapshot of the receivers
-			final StreamsDataReceiver[] receivers = this.receivers.toArray(new StreamsDataReceiver[this.receivers.size()]);
-			// Get the service instance from the parent
-			final IStreams svcStreams = getParent().getSvcStreams();
-
-			// Run until stopped and the streams service is available
-			while (!isStopped() && svcStreams != null) {
-				try {
-					ReadData streamData = read(svcStreams, streamId, 1024);
-					if (streamData != null) {
-						// Check if the received data contains some stream data
-						if (streamData.data != null) {
-							// Notify the data receivers about the new received data
-							notifyReceiver(new String(streamData.data), receivers);
-						}
-						// If the end of the stream have been reached --> break out
-						if (streamData.eos) break;
-					}
-				} catch (Exception e) {
-					// An error occurred -> Dump to the error log
-					e = ExceptionUtils.checkAndUnwrapException(e);
-					// Check if the blocking read task got canceled
-					if (!(e instanceof CancellationException)) {
-						// Log the error to the user, might be something serious
-						IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
-													NLS.bind(Messages.TerminalsStreamReaderRunnable_error_readFailed, streamId, e.getLocalizedMessage()),
-													e);
-						Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
-					}
-					// break out of the loop
-					break;
-				}
-			}
-
-			// Disconnect from the stream
-			if (svcStreams != null) {
-				disconnect(svcStreams, streamId);
-			} else {
-				synchronized (this) {
-					// Mark the runnable definitely stopped
-					stopped = true;
-				}
-				// Invoke the callback directly, if any
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-			}
+		public void run() {
+			reader.start();
 		}
 
 		/**
@@ -274,15 +285,13 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			// Create the task object
 			TCFTask<ReadData> task = new TCFTask<ReadData>(getParent().getChannel()) {
 				@Override
-                public void run() {
+				public void run() {
 					service.read(streamId, size, new IStreams.DoneRead() {
-						/* (non-Javadoc)
-						 * @see org.eclipse.tcf.services.IStreams.DoneRead#doneRead(org.eclipse.tcf.protocol.IToken, java.lang.Exception, int, byte[], boolean)
-						 */
 						@Override
-                        public void doneRead(IToken token, Exception error, int lostSize, byte[] data, boolean eos) {
+						public void doneRead(IToken token, Exception error, int lostSize, byte[] data, boolean eos) {
 							if (error == null) done(new ReadData(lostSize, data, eos));
-							else error(error);
+							else if (!isStopped())
+								error(error);
 						}
 					});
 				}
@@ -295,35 +304,6 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			return task.get();
 		}
 
-		/**
-		 * Disconnects from the stream.
-		 *
-		 * @param service The streams service. Must not be <code>null</code>.
-		 * @param streamId The stream id. Must not be <code>null</code>.
-		 */
-		protected final void disconnect(final IStreams service, final String streamId) {
-			Assert.isNotNull(service);
-			Assert.isNotNull(streamId);
-
-			Protocol.invokeLater(new Runnable() {
-				@Override
-				public void run() {
-					service.disconnect(streamId, new IStreams.DoneDisconnect() {
-						@Override
-	                    @SuppressWarnings("synthetic-access")
-						public void doneDisconnect(IToken token, Exception error) {
-							synchronized (this) {
-								// Mark the runnable definitely stopped
-								stopped = true;
-							}
-							// Disconnect is done, ignore any error, invoke the callback
-							if (getCallback() != null) getCallback().done(this, Status.OK_STATUS);
-						}
-					});
-				}
-			});
-		}
-
 		/**
 		 * Notify the data receiver that some data has been received.
 		 *
@@ -337,13 +317,15 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 					// Get the writer
 					Writer writer = receiver.getWriter();
 					// Append the data
-					writer.append(data);
+					writer.write(data);
 					// And flush it
 					writer.flush();
+					// Notify potential listeners
+					receiver.notifyListener(data);
 				} catch (IOException e) {
 					if (CoreBundleActivator.getTraceHandler().isSlotEnabled(1, null)) {
 						IStatus status = new Status(IStatus.WARNING, CoreBundleActivator.getUniqueIdentifier(),
-													NLS.bind(Messages.TerminalsStreamReaderRunnable_error_appendFailed, streamId, data),
+													NLS.bind(Messages.TerminalsStreamReaderRunnable_error_appendFailed, getStreamId(), data),
 													e);
 						Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
 					}
@@ -353,18 +335,17 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 	}
 
 	/**
-	 * Remote stream writer runnable implementation.
+	 * Remote terminal stream writer runnable implementation.
 	 * <p>
-	 * The runnable will be executed within a thread and is responsible to read the
-	 * incoming data from the registered providers and forward them to the associated stream.
+	 * Running the runnable starts a {@link StreamWriter} and returns, the writer is
+	 * driven by the TCF event dispatch thread and does not need the thread.
+	 *
+	 * @deprecated Use {@link StreamWriter} instead.
 	 */
+	@Deprecated
 	protected class StreamWriterRunnable implements Runnable {
-		// The associated stream id
-		/* default */ final String streamId;
-		// The associated stream type id
-		private final String streamTypeId;
-		// The data provider applicable for the associated stream type id
-		private final StreamsDataProvider provider;
+		// The writer doing the work
+		private final StreamWriter writer;
 		// The currently active write task
 		private TCFTask<Object> activeTask;
 		// The callback to invoke if the runnable stopped
@@ -381,14 +362,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @param provider The data provider. Must not be <code>null</code> and must be applicable for the stream type.
 		 */
 		public StreamWriterRunnable(String streamId, String streamTypeId, StreamsDataProvider provider) {
-			Assert.isNotNull(streamId);
-			Assert.isNotNull(streamTypeId);
-			Assert.isNotNull(provider);
-			Assert.isTrue(provider.isApplicable(streamTypeId));
-
-			this.streamId = streamId;
-			this.streamTypeId = streamTypeId;
-			this.provider = provider;
+			writer = new StreamWriter(streamId, streamTypeId, provider);
 		}
 
 		/**
@@ -397,7 +371,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @return The associated stream id.
 		 */
 		public final String getStreamId() {
-			return streamId;
+			return writer.getStreamId();
 		}
 
 		/**
@@ -406,7 +380,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @return The associated stream type id.
 		 */
 		public final String getStreamTypeId() {
-			return streamTypeId;
+			return writer.getStreamTypeId();
 		}
 
 		/**
@@ -415,16 +389,21 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @param callback The callback to invoke if the runnable stopped.
 		 */
 		public final synchronized void stop(ICallback callback) {
-			// If the runnable is stopped already, invoke the callback directly
-			if (stopped) {
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-				return;
-			}
-
-			// Store the callback instance
-			this.callback = callback;
-			// Mark the runnable as stopped
+			if (callback != null)
+				this.callback = callback;
 			stopped = true;
+			writer.stop(callback);
+		}
+
+		/**
+		 * Notify callback on EOF.
+		 *
+		 * @param callback The callback to invoke on EOF
+		 */
+		public final synchronized void onEOF(ICallback callback) {
+			if (callback != null)
+				this.callback = callback;
+			writer.onEOF(callback);
 		}
 
 		/**
@@ -457,7 +436,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 *
 		 * @return The callback instance or <code>null</code>.
 		 */
-		protected final ICallback getCallback() {
+		protected final synchronized ICallback getCallback() {
 			return callback;
 		}
 
@@ -465,61 +444,8 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 		 * @see java.lang.Runnable#run()
 		 */
 		@Override
-        public void run() {
-			// If no data provider is set, we are done here immediately
-			if (provider == null) {
-				synchronized (this) {
-					// Mark the runnable definitely stopped
-					stopped = true;
-				}
-				// Invoke the callback directly, if any
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-
-				return;
-			}
-
-			// Get the service instance from the parent
-			final IStreams svcStreams = getParent().getSvcStreams();
-
-			// Create the data buffer instance
-			final char[] buffer = new char[1024];
-
-			// Run until stopped and the streams service is available
-			while (!isStopped() && svcStreams != null) {
-				try {
-					// Read available data from the data provider
-					int charactersRead = provider.getReader().read(buffer, 0, 1024);
-					// Have we reached the end of the stream -> break out
-					if (charactersRead == -1) break;
-					// If we read some data from the provider, write it to the stream
-					if (charactersRead > 0) write(svcStreams, streamId, new String(buffer).getBytes(), charactersRead);
-				} catch (Exception e) {
-					// An error occurred -> Dump to the error log
-					e = ExceptionUtils.checkAndUnwrapException(e);
-					// Check if the blocking read task got canceled
-					if (!(e instanceof CancellationException)) {
-						// Log the error to the user, might be something serious
-						IStatus status = new Status(IStatus.ERROR, CoreBundleActivator.getUniqueIdentifier(),
-													NLS.bind(Messages.TerminalsStreamWriterRunnable_error_writeFailed, streamId, e.getLocalizedMessage()),
-													e);
-						Platform.getLog(CoreBundleActivator.getContext().getBundle()).log(status);
-					}
-					// break out of the loop
-					break;
-				}
-			}
-
-			// Disconnect from the stream
-			if (svcStreams != null) {
-				disconnect(svcStreams, streamId);
-			} else {
-				synchronized (this) {
-					// Mark the runnable definitely stopped
-					stopped = true;
-				}
-				// Invoke the callback directly, if any
-				if (callback != null) callback.done(this, Status.OK_STATUS);
-			}
+		public void run() {
+			writer.start();
 		}
 
 		/**
@@ -540,20 +466,16 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			// Create the task object
 			TCFTask<Object> task = new TCFTask<Object>() {
 				@Override
-                public void run() {
+				public void run() {
 					service.write(streamId, data, 0, size, new IStreams.DoneWrite() {
-						/* (non-Javadoc)
-						 * @see org.eclipse.tcf.services.IStreams.DoneWrite#doneWrite(org.eclipse.tcf.protocol.IToken, java.lang.Exception)
-						 */
 						@Override
-                        public void doneWrite(IToken token, Exception error) {
+						public void doneWrite(IToken token, Exception error) {
 							if (error == null) done(null);
 							else error(error);
 						}
 					});
 				}
 			};
-			task.get();
 
 			// Push the task object to the runnable instance
 			setActiveTask(task);
@@ -561,43 +483,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			// Execute the write
 			task.get();
 		}
-
-		/**
-		 * Disconnects from the stream.
-		 *
-		 * @param service The streams service. Must not be <code>null</code>.
-		 * @param streamId The stream id. Must not be <code>null</code>.
-		 */
-		protected final void disconnect(final IStreams service, final String streamId) {
-			Assert.isNotNull(service);
-			Assert.isNotNull(streamId);
-
-			Protocol.invokeLater(new Runnable() {
-				@Override
-				public void run() {
-					// Write EOS first
-					service.eos(streamId, new IStreams.DoneEOS() {
-						@Override
-						public void doneEOS(IToken token, Exception error) {
-							// Disconnect now
-							service.disconnect(streamId, new IStreams.DoneDisconnect() {
-								@Override
-			                    @SuppressWarnings("synthetic-access")
-								public void doneDisconnect(IToken token, Exception error) {
-									synchronized (this) {
-										// Mark the runnable definitely stopped
-										stopped = true;
-									}
-									// Disconnect is done, ignore any error, invoke the callback
-									if (getCallback() != null) getCallback().done(this, Status.OK_STATUS);
-								}
-							});
-						}
-					});
-				}
-			});
-		}
-}
+	}
 
 	/**
 	 * Constructor.
@@ -634,7 +520,7 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			dataReceiver.clear();
 		}
 
-		// Create a new collector to catch all runnable stop callback's
+		// Create a new collector to catch all stream reader stop callback's
 		AsyncCallbackCollector collector = new AsyncCallbackCollector(new Callback() {
 			/* (non-Javadoc)
 			 * @see org.eclipse.tcf.te.runtime.callback.Callback#internalDone(java.lang.Object, org.eclipse.core.runtime.IStatus)
@@ -658,14 +544,14 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 			}
 		}, new CallbackInvocationDelegate());
 
-		// Loop all runnable's and force them to stop
-		synchronized (runnables) {
-			for (Runnable runnable : runnables) {
-				if (runnable instanceof StreamReaderRunnable) {
-					((StreamReaderRunnable)runnable).stop(new AsyncCallbackCollector.SimpleCollectorCallback(collector));
+		// Loop all stream readers and force them to stop
+		synchronized (pumps) {
+			for (Object pump : pumps) {
+				if (pump instanceof StreamReader) {
+					((StreamReader)pump).stop(new AsyncCallbackCollector.SimpleCollectorCallback(collector));
 				}
 			}
-			runnables.clear();
+			pumps.clear();
 		}
 
 		// Mark the collector initialization done
@@ -805,41 +691,38 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 				receivers = dataReceiver.toArray(new StreamsDataReceiver[dataReceiver.size()]);
 			}
 			// The created event is for the monitored terminals context
-			// --> Create the stream reader thread(s)
+			// --> Create the stream reader(s) and writer
 			if (streamId != null && streamId.equals(context.getProperties().get(ITerminals.PROP_STDIN_ID))) {
 				// Data provider set?
-				if (dataProvider != null) {
-					// Create the stdin stream writer runnable
-					StreamWriterRunnable runnable = new StreamWriterRunnable(streamId, ITerminals.PROP_STDIN_ID, dataProvider);
-					// Add to the list of created runnable's
-					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + ITerminals.PROP_STDIN_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
-					thread.start();
+				if (dataProvider != null && parent.getSvcStreams() != null) {
+					// Create the stdin stream writer
+					StreamWriter writer = new StreamWriter(streamId, ITerminals.PROP_STDIN_ID, dataProvider);
+					// Add to the list of created stream readers and writers
+					synchronized (pumps) { pumps.add(writer); }
+					// And start writing
+					writer.start();
 				}
 			}
-			if (streamId != null && streamId.equals(context.getProperties().get(ITerminals.PROP_STDOUT_ID))) {
-				// Create the stdout stream reader runnable
-				StreamReaderRunnable runnable = new StreamReaderRunnable(streamId, ITerminals.PROP_STDOUT_ID, receivers);
-				// If not empty, create the thread
-				if (!runnable.isEmpty()) {
-					// Add to the list of created runnable's
-					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + ITerminals.PROP_STDOUT_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
-					thread.start();
+			if (streamId != null && parent.getSvcStreams() != null && streamId.equals(context.getProperties().get(ITerminals.PROP_STDOUT_ID))) {
+				// Create the stdout stream reader
+				StreamReader reader = new StreamReader(streamId, ITerminals.PROP_STDOUT_ID, receivers);
+				// If not empty, start reading
+				if (!reader.isEmpty()) {
+					// Add to the list of created stream readers and writers
+					synchronized (pumps) { pumps.add(reader); }
+					// And start reading
+					reader.start();
 				}
 			}
-			if (streamId != null && streamId.equals(context.getProperties().get(ITerminals.PROP_STDERR_ID))) {
-				// Create the stdout stream reader runnable
-				StreamReaderRunnable runnable = new StreamReaderRunnable(streamId, ITerminals.PROP_STDERR_ID, receivers);
-				// If not empty, create the thread
-				if (!runnable.isEmpty()) {
-					// Add to the list of created runnable's
-					synchronized (runnables) { runnables.add(runnable); }
-					// And create and start the thread
-					Thread thread = new Thread(runnable, "Thread-" + ITerminals.PROP_STDERR_ID + "-" + streamId); //$NON-NLS-1$ //$NON-NLS-2$
-					thread.start();
+			if (streamId != null && parent.getSvcStreams() != null && streamId.equals(context.getProperties().get(ITerminals.PROP_STDERR_ID))) {
+				// Create the stderr stream reader
+				StreamReader reader = new StreamReader(streamId, ITerminals.PROP_STDERR_ID, receivers);
+				// If not empty, start reading
+				if (!reader.isEmpty()) {
+					// Add to the list of created stream readers and writers
+					synchronized (pumps) { pumps.add(reader); }
+					// And start reading
+					reader.start();
 				}
 			}
 
@@ -859,18 +742,18 @@ public class TerminalsStreamsListener implements IChannelManager.IStreamsListene
 
 		boolean consumed = false;
 
-		// Stop the thread(s) if the disposed event is for the active
+		// Stop the stream reader(s) if the disposed event is for the active
 		// monitored stream id(s).
-		synchronized (runnables) {
-			Iterator<Runnable> iterator = runnables.iterator();
+		synchronized (pumps) {
+			Iterator<Object> iterator = pumps.iterator();
 			while (iterator.hasNext()) {
-				Runnable runnable = iterator.next();
-				if (runnable instanceof StreamReaderRunnable) {
-					StreamReaderRunnable myRunnable = (StreamReaderRunnable)runnable;
-					if (myRunnable.getStreamId().equals(streamId)) {
+				Object pump = iterator.next();
+				if (pump instanceof StreamReader) {
+					StreamReader reader = (StreamReader)pump;
+					if (reader.getStreamId().equals(streamId)) {
 						// This method is called within the TCF event dispatch thread, so
 						// we cannot wait for a callback here
-						myRunnable.stop(null);
+						reader.stop(null);
 						iterator.remove();
 						consumed |= true;
 					}
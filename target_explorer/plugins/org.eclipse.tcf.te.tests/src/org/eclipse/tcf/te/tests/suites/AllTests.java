@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -15,7 +15,9 @@ import org.eclipse.tcf.te.tests.model.ModelTestCase;
 import org.eclipse.tcf.te.tests.statushandler.StatusHandlerTestCase;
 import org.eclipse.tcf.te.tests.stepper.StepperTests;
 import org.eclipse.tcf.te.tests.tcf.locator.LocatorModelTestCase;
+import org.eclipse.tcf.te.tests.tcf.processes.launcher.StreamsReadPumpTestCase;
 import org.eclipse.tcf.te.tests.tcf.processes.model.ProcessModelTestCase;
+import org.eclipse.tcf.te.tests.utils.ByteRingBufferTestCase;
 import org.eclipse.tcf.te.tests.utils.UtilityTestCase;
 
 import junit.framework.Test;
@@ -63,6 +65,7 @@ public class AllTests {
 		suite.addTest(ModelTestCase.getTestSuite());
 		suite.addTest(org.eclipse.tcf.te.tests.tcf.model.ModelTestCase.getTestSuite());
 		suite.addTest(UtilityTestCase.getTestSuite());
+		suite.addTest(ByteRingBufferTestCase.getTestSuite());
 		suite.addTest(ConcurrentTestCase.getTestSuite());
 		suite.addTest(StatusHandlerTestCase.getTestSuite());
 		suite.addTest(LocatorModelTestCase.getTestSuite());
@@ -70,6 +73,7 @@ public class AllTests {
 		suite.addTest(StepperTests.getTestSuite());
 //		suite.addTest(TcfLaunchTests.getTestSuite());
 		suite.addTest(ProcessModelTestCase.getTestSuite());
+		suite.addTest(StreamsReadPumpTestCase.getTestSuite());
 //		suite.addTest(ProcessLauncherTestCase.getTestSuite());
 
 //		AllFileSystemTests.addTests(suite);
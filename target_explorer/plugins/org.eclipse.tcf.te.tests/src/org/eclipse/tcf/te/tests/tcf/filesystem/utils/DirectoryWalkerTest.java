@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tests.tcf.filesystem.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IFileSystem.DirEntry;
+import org.eclipse.tcf.services.IFileSystem.FileSystemException;
+import org.eclipse.tcf.te.tcf.core.concurrent.TCFOperationMonitor;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.FSTreeNode;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.DirectoryWalker;
+
+/**
+ * Tests for the directory walker, run on the test folder tree:
+ * <pre>
+ * test/test.txt
+ * test/test1/test1.txt
+ * test/test1/test11/test11.txt
+ * test/test1/test12/test12.txt
+ * test/test2/test21/test21.txt
+ * test/test2/test22/test22.txt
+ * </pre>
+ * Other tests may leave more entries in the test folder, so the checks do not depend
+ * on the exact content of the tree.
+ */
+public class DirectoryWalkerTest extends UtilsTestBase {
+	private static final long TIMEOUT = 60000;
+
+	/**
+	 * Records visited directories and reported files by their path relative to the test folder.
+	 */
+	class Visitor implements DirectoryWalker.IVisitor {
+		final List<String> fDirs = new ArrayList<String>();
+		final List<String> fFiles = new ArrayList<String>();
+		final List<String> fErrors = new ArrayList<String>();
+		final List<String> fMissing = new ArrayList<String>();
+		IStatus fErrorStatus;
+
+		@Override
+		public FSTreeNode[] visit(FSTreeNode dir, List<DirEntry> entries) {
+			assertTrue(Protocol.isDispatchThread());
+			String path = getPath(dir);
+			fDirs.add(path);
+			List<FSTreeNode> children = new ArrayList<FSTreeNode>();
+			for (DirEntry entry : entries) {
+				FSTreeNode child = new FSTreeNode(dir, entry.filename, false, entry.attrs);
+				if (child.isDirectory())
+					children.add(child);
+				else
+					fFiles.add(getPath(child));
+			}
+			if (fMissing.contains(path))
+				children.add(new FSTreeNode(dir, "missing", false, null)); //$NON-NLS-1$
+			return children.toArray(new FSTreeNode[children.size()]);
+		}
+
+		@Override
+		public IStatus error(FSTreeNode dir, FileSystemException error) {
+			assertTrue(Protocol.isDispatchThread());
+			fErrors.add(getPath(dir));
+			return fErrorStatus;
+		}
+	}
+
+	String getPath(FSTreeNode node) {
+		String root = testFolder.getLocation(true);
+		String path = node.getLocation(true);
+		assertTrue(path.startsWith(root));
+		path = path.substring(root.length());
+		return path.startsWith("/") ? path.substring(1) : path; //$NON-NLS-1$
+	}
+
+	private static int getDepth(String path) {
+		if (path.length() == 0)
+			return 0;
+		int depth = 1;
+		for (int i = 0; i < path.length(); i++) {
+			if (path.charAt(i) == '/')
+				depth++;
+		}
+		return depth;
+	}
+
+	private static String getName(String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	private IStatus walk(final DirectoryWalker walker) {
+		final TCFOperationMonitor<Object> result = new TCFOperationMonitor<Object>();
+		Protocol.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				walker.walk(new FSTreeNode[] {testFolder}, result);
+			}
+		});
+		IStatus status = result.waitDone(null, TIMEOUT);
+		assertNotSame(Status.CANCEL_STATUS, status);
+		return status;
+	}
+
+	private DirectoryWalker createWalker(Visitor visitor, int concurrency) {
+		IFileSystem fs = testFolder.getRuntimeModel().getFileSystem();
+		assertNotNull(fs);
+		return new DirectoryWalker(fs, visitor, concurrency);
+	}
+
+	private static void assertContains(List<String> list, String... items) {
+		for (String item : items)
+			assertTrue(item + " is missing", list.contains(item)); //$NON-NLS-1$
+	}
+
+	private static void assertNotContains(List<String> list, String... items) {
+		for (String item : items)
+			assertFalse(item + " is not expected", list.contains(item)); //$NON-NLS-1$
+	}
+
+	public void testWalkAll() throws Exception {
+		Visitor visitor = new Visitor();
+		assertTrue(walk(createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY)).isOK());
+		assertContains(visitor.fDirs, "", "test1", "test2", "test1/test11", "test1/test12", "test2/test21", "test2/test22"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+		assertContains(visitor.fFiles, "test.txt", "test1/test1.txt", "test1/test11/test11.txt", "test1/test12/test12.txt", "test2/test21/test21.txt", "test2/test22/test22.txt"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		assertTrue(visitor.fErrors.isEmpty());
+	}
+
+	public void testBreadthFirst() throws Exception {
+		// With one directory read at a time the directories are visited level by level
+		Visitor visitor = new Visitor();
+		assertTrue(walk(createWalker(visitor, 1)).isOK());
+		int depth = 0;
+		for (String dir : visitor.fDirs) {
+			assertTrue(dir + " is visited too late", getDepth(dir) >= depth); //$NON-NLS-1$
+			depth = getDepth(dir);
+		}
+		assertTrue(depth >= 2);
+	}
+
+	public void testMaxDepth() throws Exception {
+		Visitor visitor = new Visitor();
+		DirectoryWalker walker = createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY);
+		walker.setMaxDepth(0);
+		assertTrue(walk(walker).isOK());
+		assertEquals(1, visitor.fDirs.size());
+		assertEquals("", visitor.fDirs.get(0)); //$NON-NLS-1$
+		assertContains(visitor.fFiles, "test.txt"); //$NON-NLS-1$
+
+		visitor = new Visitor();
+		walker = createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY);
+		walker.setMaxDepth(1);
+		assertTrue(walk(walker).isOK());
+		assertContains(visitor.fDirs, "", "test1", "test2"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		for (String dir : visitor.fDirs)
+			assertTrue(dir + " is too deep", getDepth(dir) <= 1); //$NON-NLS-1$
+		assertContains(visitor.fFiles, "test.txt", "test1/test1.txt"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotContains(visitor.fFiles, "test1/test11/test11.txt"); //$NON-NLS-1$
+	}
+
+	public void testInclude() throws Exception {
+		// Include patterns select the reported files, directories are still walked into
+		Visitor visitor = new Visitor();
+		DirectoryWalker walker = createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY);
+		walker.setFilter(new String[] {"test?.txt", "*22.t?t"}, null); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(walk(walker).isOK());
+		assertContains(visitor.fDirs, "test1/test11", "test2/test22"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertContains(visitor.fFiles, "test1/test1.txt", "test2/test22/test22.txt"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (String file : visitor.fFiles) {
+			String name = getName(file);
+			assertTrue(file + " is not included", name.matches("test.\\.txt|.*22\\.t.t")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	public void testIncludeIsNotRegex() throws Exception {
+		// Characters other than '*' and '?' are matched literally
+		Visitor visitor = new Visitor();
+		DirectoryWalker walker = createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY);
+		walker.setFilter(new String[] {"test1.txt", "test[12]1.txt", "test.+"}, null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertTrue(walk(walker).isOK());
+		assertContains(visitor.fFiles, "test1/test1.txt"); //$NON-NLS-1$
+		for (String file : visitor.fFiles)
+			assertEquals("test1.txt", getName(file)); //$NON-NLS-1$
+	}
+
+	public void testExclude() throws Exception {
+		// Excluded entries are neither reported nor walked into
+		Visitor visitor = new Visitor();
+		DirectoryWalker walker = createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY);
+		walker.setFilter(null, new String[] {"test1?", "test.txt"}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(walk(walker).isOK());
+		assertContains(visitor.fDirs, "test1", "test2/test21"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotContains(visitor.fDirs, "test1/test11", "test1/test12"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertContains(visitor.fFiles, "test1/test1.txt", "test2/test22/test22.txt"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotContains(visitor.fFiles, "test.txt", "test1/test11/test11.txt", "test1/test12/test12.txt"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	public void testIncludeAndExclude() throws Exception {
+		Visitor visitor = new Visitor();
+		DirectoryWalker walker = createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY);
+		walker.setFilter(new String[] {"*.txt"}, new String[] {"test2*"}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(walk(walker).isOK());
+		assertNotContains(visitor.fDirs, "test2"); //$NON-NLS-1$
+		for (String file : visitor.fFiles) {
+			assertTrue(file + " is not included", file.endsWith(".txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertFalse(file + " is not excluded", file.startsWith("test2")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		assertContains(visitor.fFiles, "test.txt", "test1/test12/test12.txt"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testErrorContinue() throws Exception {
+		// The visitor returns null from error(), the walk goes on
+		Visitor visitor = new Visitor();
+		visitor.fMissing.add("test1"); //$NON-NLS-1$
+		assertTrue(walk(createWalker(visitor, DirectoryWalker.DEFAULT_CONCURRENCY)).isOK());
+		assertEquals(1, visitor.fErrors.size());
+		assertEquals("test1/missing", visitor.fErrors.get(0)); //$NON-NLS-1$
+		assertContains(visitor.fDirs, "test1/test11", "test2/test22"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testErrorStop() throws Exception {
+		Visitor visitor = new Visitor();
+		visitor.fMissing.add(""); //$NON-NLS-1$
+		visitor.fErrorStatus = new Status(IStatus.ERROR, "org.eclipse.tcf.te.tests", "Walk failed"); //$NON-NLS-1$ //$NON-NLS-2$
+		IStatus status = walk(createWalker(visitor, 1));
+		assertSame(visitor.fErrorStatus, status);
+		assertEquals(1, visitor.fErrors.size());
+	}
+}
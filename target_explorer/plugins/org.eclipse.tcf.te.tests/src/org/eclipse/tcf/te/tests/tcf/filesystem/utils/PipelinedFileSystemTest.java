@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tests.tcf.filesystem.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IFileSystem;
+import org.eclipse.tcf.services.IFileSystem.DoneClose;
+import org.eclipse.tcf.services.IFileSystem.DoneOpen;
+import org.eclipse.tcf.services.IFileSystem.DoneRead;
+import org.eclipse.tcf.services.IFileSystem.DoneStat;
+import org.eclipse.tcf.services.IFileSystem.DoneWrite;
+import org.eclipse.tcf.services.IFileSystem.FileAttrs;
+import org.eclipse.tcf.services.IFileSystem.FileSystemException;
+import org.eclipse.tcf.services.IFileSystem.IFileHandle;
+import org.eclipse.tcf.te.tcf.filesystem.core.internal.utils.PipelinedFileSystem;
+import org.eclipse.tcf.te.tests.CoreTestCase;
+
+/**
+ * Tests for the pipelined file system client, run against an in-memory file system service
+ * that returns short reads and can hold back replies.
+ */
+public class PipelinedFileSystemTest extends CoreTestCase {
+	private static final int CHUNK_SIZE = 1024;
+	private static final int WINDOW = 4;
+	private static final long TIMEOUT = 30000;
+
+	/**
+	 * In-memory file system service. All methods are called on the dispatch thread,
+	 * replies are sent asynchronously like replies of a remote agent. While 'fHold' is set,
+	 * replies to read and write commands are kept back until {@link #release()}.
+	 */
+	static class FakeFileSystem implements InvocationHandler {
+		final IFileSystem fService = (IFileSystem) Proxy.newProxyInstance(IFileSystem.class.getClassLoader(), new Class<?>[] { IFileSystem.class }, this);
+		final IFileHandle fHandle = new IFileHandle() {
+			@Override
+			public IFileSystem getService() {
+				return fService;
+			}
+		};
+		final IToken fToken = new IToken() {
+			@Override
+			public boolean cancel() {
+				return false;
+			}
+		};
+		byte[] fContent = new byte[0];
+		int fMaxRead = Integer.MAX_VALUE;
+		long fErrorOffset = -1;
+		boolean fHold;
+		final List<Runnable> fHeld = new ArrayList<Runnable>();
+		int fPending;
+		int fMaxPending;
+		int fShortReads;
+		int fClosed;
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class)
+				return method.invoke(this, args);
+			assertTrue(Protocol.isDispatchThread());
+			String name = method.getName();
+			if (name.equals("getName")) //$NON-NLS-1$
+				return IFileSystem.NAME;
+			if (name.equals("open")) { //$NON-NLS-1$
+				if ((((Integer) args[1]).intValue() & IFileSystem.TCF_O_TRUNC) != 0)
+					fContent = new byte[0];
+				final DoneOpen done = (DoneOpen) args[3];
+				reply(new Runnable() {
+					@Override
+					public void run() {
+						done.doneOpen(fToken, null, fHandle);
+					}
+				});
+			}
+			else if (name.equals("read")) { //$NON-NLS-1$
+				read(((Long) args[1]).longValue(), ((Integer) args[2]).intValue(), (DoneRead) args[3]);
+			}
+			else if (name.equals("write")) { //$NON-NLS-1$
+				write(((Long) args[1]).longValue(), (byte[]) args[2], ((Integer) args[3]).intValue(), ((Integer) args[4]).intValue(), (DoneWrite) args[5]);
+			}
+			else if (name.equals("close")) { //$NON-NLS-1$
+				assertSame(fHandle, args[0]);
+				fClosed++;
+				final DoneClose done = (DoneClose) args[1];
+				reply(new Runnable() {
+					@Override
+					public void run() {
+						done.doneClose(fToken, null);
+					}
+				});
+			}
+			else if (name.equals("stat")) { //$NON-NLS-1$
+				final DoneStat done = (DoneStat) args[1];
+				final FileAttrs attrs = new FileAttrs(IFileSystem.ATTR_SIZE, fContent.length, 0, 0, 0, 0, 0, null);
+				reply(new Runnable() {
+					@Override
+					public void run() {
+						done.doneStat(fToken, null, attrs);
+					}
+				});
+			}
+			else {
+				throw new UnsupportedOperationException(name);
+			}
+			return fToken;
+		}
+
+		private void read(long offset, int size, final DoneRead done) {
+			final FileSystemException error;
+			final byte[] data;
+			if (fErrorOffset >= 0 && offset <= fErrorOffset && fErrorOffset < offset + size) {
+				error = new FileSystemException("Read error at " + offset) { //$NON-NLS-1$
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public int getStatus() {
+						return IFileSystem.STATUS_PERMISSION_DENIED;
+					}
+				};
+				data = null;
+			}
+			else {
+				error = null;
+				int n = (int) Math.max(0, Math.min(Math.min(size, fMaxRead), fContent.length - offset));
+				if (n > 0 && n < size && offset + n < fContent.length)
+					fShortReads++;
+				data = Arrays.copyOfRange(fContent, (int) Math.min(offset, fContent.length), (int) Math.min(offset, fContent.length) + n);
+			}
+			request(new Runnable() {
+				@Override
+				public void run() {
+					done.doneRead(fToken, error, data, data != null && data.length == 0);
+				}
+			});
+		}
+
+		private void write(long offset, byte[] buf, int off, int len, final DoneWrite done) {
+			int end = (int) offset + len;
+			if (end > fContent.length)
+				fContent = Arrays.copyOf(fContent, end);
+			System.arraycopy(buf, off, fContent, (int) offset, len);
+			request(new Runnable() {
+				@Override
+				public void run() {
+					done.doneWrite(fToken, null);
+				}
+			});
+		}
+
+		private void request(final Runnable done) {
+			fPending++;
+			fMaxPending = Math.max(fMaxPending, fPending);
+			Runnable reply = new Runnable() {
+				@Override
+				public void run() {
+					fPending--;
+					done.run();
+				}
+			};
+			if (fHold)
+				fHeld.add(reply);
+			else
+				Protocol.invokeLater(reply);
+		}
+
+		private void reply(Runnable done) {
+			Protocol.invokeLater(done);
+		}
+
+		void release() {
+			fHold = false;
+			for (Runnable r : fHeld)
+				Protocol.invokeLater(r);
+			fHeld.clear();
+		}
+	}
+
+	private FakeFileSystem fFake;
+	private PipelinedFileSystem fPipelined;
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.tcf.te.tests.CoreTestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fFake = new FakeFileSystem();
+		fPipelined = new PipelinedFileSystem(fFake.fService, CHUNK_SIZE, WINDOW);
+	}
+
+	private static byte[] makeContent(int size) {
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+		return content;
+	}
+
+	private int getPending() {
+		final int[] res = new int[1];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				res[0] = fFake.fPending;
+			}
+		});
+		return res[0];
+	}
+
+	private int getClosed() {
+		final int[] res = new int[1];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				res[0] = fFake.fClosed;
+			}
+		});
+		return res[0];
+	}
+
+	private void waitForPending(int pending) throws InterruptedException {
+		long time = System.currentTimeMillis();
+		while (getPending() != pending) {
+			assertTrue("Timed out waiting for commands", System.currentTimeMillis() - time < TIMEOUT); //$NON-NLS-1$
+			Thread.sleep(10);
+		}
+	}
+
+	private void waitForClosed() throws InterruptedException {
+		long time = System.currentTimeMillis();
+		while (getClosed() == 0) {
+			assertTrue("Timed out waiting for close", System.currentTimeMillis() - time < TIMEOUT); //$NON-NLS-1$
+			Thread.sleep(10);
+		}
+		assertEquals(1, getClosed());
+	}
+
+	private PipelinedFileSystem.Reader openRead() throws InterruptedException {
+		final CountDownLatch done = new CountDownLatch(1);
+		final PipelinedFileSystem.Reader[] res = new PipelinedFileSystem.Reader[1];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				fPipelined.openRead("/file", new PipelinedFileSystem.DoneOpenReader() { //$NON-NLS-1$
+					@Override
+					public void doneOpen(FileSystemException error, PipelinedFileSystem.Reader reader) {
+						assertNull(error);
+						res[0] = reader;
+						done.countDown();
+					}
+				});
+			}
+		});
+		assertTrue(done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		return res[0];
+	}
+
+	private PipelinedFileSystem.Writer openWrite() throws InterruptedException {
+		final CountDownLatch done = new CountDownLatch(1);
+		final PipelinedFileSystem.Writer[] res = new PipelinedFileSystem.Writer[1];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				fPipelined.openWrite("/file", new PipelinedFileSystem.DoneOpenWriter() { //$NON-NLS-1$
+					@Override
+					public void doneOpen(FileSystemException error, PipelinedFileSystem.Writer writer) {
+						assertNull(error);
+						res[0] = writer;
+						done.countDown();
+					}
+				});
+			}
+		});
+		assertTrue(done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		return res[0];
+	}
+
+	private static byte[] readAll(PipelinedFileSystem.Reader reader) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] data;
+		while ((data = reader.read(null)) != null)
+			out.write(data);
+		return out.toByteArray();
+	}
+
+	private FileAttrs close(PipelinedFileSystem.Writer writer) throws Exception {
+		final CountDownLatch done = new CountDownLatch(1);
+		final FileAttrs[] res = new FileAttrs[1];
+		final FileSystemException[] err = new FileSystemException[1];
+		writer.close(null, new DoneStat() {
+			@Override
+			public void doneStat(IToken token, FileSystemException error, FileAttrs attrs) {
+				assertTrue(Protocol.isDispatchThread());
+				err[0] = error;
+				res[0] = attrs;
+				done.countDown();
+			}
+		});
+		assertTrue(done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		if (err[0] != null)
+			throw err[0];
+		return res[0];
+	}
+
+	public void testRead() throws Exception {
+		byte[] content = makeContent(CHUNK_SIZE * 10 + 123);
+		fFake.fContent = content;
+		PipelinedFileSystem.Reader reader = openRead();
+		assertTrue(Arrays.equals(content, readAll(reader)));
+		assertNull(reader.read(null));
+		reader.close();
+		waitForClosed();
+		assertTrue(fFake.fMaxPending <= WINDOW);
+	}
+
+	public void testShortReads() throws Exception {
+		// Short reads are not end of file, the rest of the chunk must be read before the next chunks
+		byte[] content = makeContent(CHUNK_SIZE * 20 + 7);
+		fFake.fContent = content;
+		fFake.fMaxRead = 300;
+		PipelinedFileSystem.Reader reader = openRead();
+		assertTrue(Arrays.equals(content, readAll(reader)));
+		reader.close();
+		waitForClosed();
+		assertTrue(fFake.fShortReads > 0);
+	}
+
+	public void testEmptyFile() throws Exception {
+		PipelinedFileSystem.Reader reader = openRead();
+		assertNull(reader.read(null));
+		reader.close();
+		waitForClosed();
+	}
+
+	public void testReadError() throws Exception {
+		byte[] content = makeContent(CHUNK_SIZE * 10);
+		fFake.fContent = content;
+		fFake.fErrorOffset = CHUNK_SIZE * 5 + 10;
+		PipelinedFileSystem.Reader reader = openRead();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			byte[] data;
+			while ((data = reader.read(null)) != null)
+				out.write(data);
+			fail("Read error is not reported"); //$NON-NLS-1$
+		}
+		catch (FileSystemException e) {
+			assertEquals(IFileSystem.STATUS_PERMISSION_DENIED, e.getStatus());
+		}
+		// Data in front of the failed chunk is delivered
+		assertEquals(CHUNK_SIZE * 5, out.size());
+		assertTrue(Arrays.equals(Arrays.copyOf(content, CHUNK_SIZE * 5), out.toByteArray()));
+		reader.close();
+		waitForClosed();
+	}
+
+	public void testReadWindow() throws Exception {
+		fFake.fContent = makeContent(CHUNK_SIZE * 20);
+		fFake.fHold = true;
+		PipelinedFileSystem.Reader reader = openRead();
+		// Read-ahead fills the window, but does not go beyond it
+		waitForPending(WINDOW);
+		Thread.sleep(100);
+		assertEquals(WINDOW, getPending());
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				fFake.release();
+			}
+		});
+		assertTrue(Arrays.equals(fFake.fContent, readAll(reader)));
+		reader.close();
+		waitForClosed();
+		assertEquals(WINDOW, fFake.fMaxPending);
+	}
+
+	public void testWrite() throws Exception {
+		byte[] content = makeContent(CHUNK_SIZE * 10 + 500);
+		PipelinedFileSystem.Writer writer = openWrite();
+		Random rnd = new Random(0);
+		int pos = 0;
+		while (pos < content.length) {
+			int n = Math.min(content.length - pos, 1 + rnd.nextInt(CHUNK_SIZE * 3));
+			writer.write(content, pos, n, null);
+			pos += n;
+		}
+		FileAttrs attrs = close(writer);
+		assertEquals(content.length, attrs.size);
+		assertTrue(Arrays.equals(content, fFake.fContent));
+		assertEquals(1, getClosed());
+		assertTrue(fFake.fMaxPending <= WINDOW);
+	}
+
+	public void testWriteWindow() throws Exception {
+		final byte[] content = makeContent(CHUNK_SIZE * (WINDOW + 2));
+		final PipelinedFileSystem.Writer writer = openWrite();
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				fFake.fHold = true;
+			}
+		});
+		final IOException[] err = new IOException[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					writer.write(content, 0, content.length, null);
+				}
+				catch (IOException e) {
+					err[0] = e;
+				}
+			}
+		};
+		thread.start();
+		// The writer blocks while the window is full
+		waitForPending(WINDOW);
+		Thread.sleep(100);
+		assertTrue(thread.isAlive());
+		assertEquals(WINDOW, getPending());
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				fFake.release();
+			}
+		});
+		thread.join(TIMEOUT);
+		assertFalse(thread.isAlive());
+		assertNull(err[0]);
+		close(writer);
+		assertTrue(Arrays.equals(content, fFake.fContent));
+		assertEquals(WINDOW, fFake.fMaxPending);
+	}
+}
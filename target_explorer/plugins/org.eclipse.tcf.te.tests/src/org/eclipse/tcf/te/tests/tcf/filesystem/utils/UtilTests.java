@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -18,6 +18,8 @@ public class UtilTests {
 		suite.addTestSuite(CacheManagerTest.class);
 		suite.addTestSuite(ContentTypeHelperTest.class);
 		suite.addTestSuite(StateManagerTest.class);
+		suite.addTestSuite(PipelinedFileSystemTest.class);
+		suite.addTestSuite(DirectoryWalkerTest.class);
 		return suite;
 	}
 }
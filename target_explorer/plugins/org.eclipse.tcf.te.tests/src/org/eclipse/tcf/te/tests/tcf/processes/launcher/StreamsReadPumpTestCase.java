@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tests.tcf.processes.launcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IStreams;
+import org.eclipse.tcf.te.runtime.callback.Callback;
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
+import org.eclipse.tcf.te.tcf.core.streams.StreamsDataReceiver;
+import org.eclipse.tcf.te.tcf.core.streams.StreamsReadPump;
+import org.eclipse.tcf.te.tests.CoreTestCase;
+
+/**
+ * Stream read pump test cases, run against an in-memory streams service.
+ */
+public class StreamsReadPumpTestCase extends CoreTestCase {
+	private static final String STREAM_ID = "ST1"; //$NON-NLS-1$
+	private static final String STREAM_TYPE_ID = "stdout"; //$NON-NLS-1$
+	private static final int CAPACITY = 4096;
+	private static final int MAX_PENDING = 4;
+	private static final long TIMEOUT = 30000;
+
+	/**
+	 * In-memory streams service. All methods are called on the dispatch thread,
+	 * replies are sent asynchronously like replies of a remote agent.
+	 */
+	static class FakeStreams implements InvocationHandler {
+		final IStreams fService = (IStreams) Proxy.newProxyInstance(IStreams.class.getClassLoader(), new Class<?>[] { IStreams.class }, this);
+		final IToken fToken = new IToken() {
+			@Override
+			public boolean cancel() {
+				return false;
+			}
+		};
+		final byte[] fContent;
+		int fPosition;
+		int fReads;
+		int fPending;
+		int fMaxPending;
+		int fDisconnected;
+
+		FakeStreams(byte[] content) {
+			fContent = content;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class)
+				return method.invoke(this, args);
+			assertTrue(Protocol.isDispatchThread());
+			String name = method.getName();
+			if (name.equals("getName")) //$NON-NLS-1$
+				return IStreams.NAME;
+			if (name.equals("read")) { //$NON-NLS-1$
+				assertEquals(STREAM_ID, args[0]);
+				final int size = ((Integer) args[1]).intValue();
+				final IStreams.DoneRead done = (IStreams.DoneRead) args[2];
+				fReads++;
+				fPending++;
+				fMaxPending = Math.max(fMaxPending, fPending);
+				Protocol.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						fPending--;
+						int n = Math.min(size, fContent.length - fPosition);
+						byte[] data = Arrays.copyOfRange(fContent, fPosition, fPosition + n);
+						fPosition += n;
+						done.doneRead(fToken, null, 0, data, fPosition == fContent.length);
+					}
+				});
+			}
+			else if (name.equals("disconnect")) { //$NON-NLS-1$
+				assertEquals(STREAM_ID, args[0]);
+				fDisconnected++;
+				final IStreams.DoneDisconnect done = (IStreams.DoneDisconnect) args[1];
+				Protocol.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						done.doneDisconnect(fToken, null);
+					}
+				});
+			}
+			else {
+				throw new UnsupportedOperationException(name);
+			}
+			return fToken;
+		}
+	}
+
+	/**
+	 * Provides a test suite to the caller which combines all single
+	 * test bundled within this category.
+	 *
+	 * @return Test suite containing all test for this test category.
+	 */
+	public static Test getTestSuite() {
+		TestSuite testSuite = new TestSuite("Test stream read pump"); //$NON-NLS-1$
+
+			// add ourself to the test suite
+			testSuite.addTestSuite(StreamsReadPumpTestCase.class);
+
+		return testSuite;
+	}
+
+	private static byte[] createData(int size) {
+		byte[] data = new byte[size];
+		for (int i = 0; i < size; i++)
+			data[i] = (byte) (i * 31 + (i >> 8));
+		return data;
+	}
+
+	// Get a value from the dispatch thread
+	private static int getReads(final FakeStreams streams) {
+		final int[] result = new int[2];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				result[0] = streams.fReads;
+				result[1] = streams.fPending;
+			}
+		});
+		// Outstanding reads are not counted, their replies may still arrive
+		return result[1] == 0 ? result[0] : -1;
+	}
+
+	//***** BEGIN SECTION: Single test methods *****
+	//NOTE: All method which represents a single test case must
+	//      start with 'test'!
+
+	public void testBackpressure() throws Exception {
+		byte[] content = createData(1024 * 1024);
+		final FakeStreams streams = new FakeStreams(content);
+		ByteRingBuffer buffer = new ByteRingBuffer(CAPACITY);
+		StreamsDataReceiver receiver = new StreamsDataReceiver(buffer, new String[] { STREAM_TYPE_ID });
+		final StreamsReadPump pump = new StreamsReadPump(streams.fService, STREAM_ID, STREAM_TYPE_ID, new StreamsDataReceiver[] { receiver });
+		final CountDownLatch eof = new CountDownLatch(1);
+		pump.start();
+		pump.onEOF(new Callback() {
+			@Override
+			protected void internalDone(Object caller, IStatus status) {
+				eof.countDown();
+			}
+		});
+
+		// Nobody reads the buffer, the pump must stop sending read commands once it is full
+		int reads = -1;
+		long time = System.currentTimeMillis();
+		for (;;) {
+			assertTrue("Pump does not stop reading", System.currentTimeMillis() - time < TIMEOUT); //$NON-NLS-1$
+			Thread.sleep(200);
+			int n = getReads(streams);
+			if (n >= 0 && n == reads) break;
+			reads = n;
+		}
+		InputStream in = buffer.getInputStream();
+		assertEquals(CAPACITY, in.available());
+		assertTrue("Too much data read: " + streams.fPosition, streams.fPosition < content.length / 2); //$NON-NLS-1$
+		assertEquals(0, streams.fDisconnected);
+
+		// Consuming the data resumes the pump until the end of the stream
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] b = new byte[1000];
+		int n;
+		while ((n = in.read(b)) >= 0)
+			result.write(b, 0, n);
+		assertTrue(Arrays.equals(content, result.toByteArray()));
+		assertTrue("Timed out waiting for end of stream", eof.await(TIMEOUT, TimeUnit.MILLISECONDS)); //$NON-NLS-1$
+		assertTrue(streams.fReads > reads);
+		assertTrue("Too many outstanding reads: " + streams.fMaxPending, streams.fMaxPending <= MAX_PENDING); //$NON-NLS-1$
+		assertEquals(1, streams.fDisconnected);
+	}
+
+	public void testStop() throws Exception {
+		byte[] content = createData(1024 * 1024);
+		final FakeStreams streams = new FakeStreams(content);
+		ByteRingBuffer buffer = new ByteRingBuffer(CAPACITY);
+		StreamsDataReceiver receiver = new StreamsDataReceiver(buffer, null);
+		StreamsReadPump pump = new StreamsReadPump(streams.fService, STREAM_ID, STREAM_TYPE_ID, new StreamsDataReceiver[] { receiver });
+		assertFalse(pump.isEmpty());
+		pump.start();
+		InputStream in = buffer.getInputStream();
+		assertTrue(in.read() >= 0);
+
+		// Stopping a held back pump discards the data and closes the receiver
+		final CountDownLatch stopped = new CountDownLatch(1);
+		pump.stop(new Callback() {
+			@Override
+			protected void internalDone(Object caller, IStatus status) {
+				stopped.countDown();
+			}
+		});
+		assertTrue("Timed out waiting for stop", stopped.await(TIMEOUT, TimeUnit.MILLISECONDS)); //$NON-NLS-1$
+		while (in.read() >= 0) {
+			// Drain the data delivered before the stop
+		}
+		assertEquals(1, streams.fDisconnected);
+		assertTrue(streams.fPosition < content.length);
+	}
+
+	public void testNotApplicable() throws Exception {
+		FakeStreams streams = new FakeStreams(new byte[0]);
+		StreamsDataReceiver receiver = new StreamsDataReceiver(new ByteRingBuffer(CAPACITY), new String[] { "stderr" }); //$NON-NLS-1$
+		StreamsReadPump pump = new StreamsReadPump(streams.fService, STREAM_ID, STREAM_TYPE_ID, new StreamsDataReceiver[] { receiver });
+		assertTrue(pump.isEmpty());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the terms
  * of the Eclipse Public License 2.0 which accompanies this distribution, and is
  * available at https://www.eclipse.org/legal/epl-2.0/
@@ -9,6 +9,9 @@
  *******************************************************************************/
 package org.eclipse.tcf.te.tests.tcf.processes.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -26,13 +29,18 @@ import org.eclipse.tcf.te.tcf.core.async.CallbackInvocationDelegate;
 import org.eclipse.tcf.te.tcf.core.model.interfaces.services.IModelRefreshService;
 import org.eclipse.tcf.te.tcf.processes.core.model.ModelManager;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.IProcessContextNode;
+import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.IProcessContextNodeProperties;
 import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModel;
+import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelIncrementalRefreshService;
+import org.eclipse.tcf.te.tcf.processes.core.model.interfaces.runtime.IRuntimeModelRefreshService;
 import org.eclipse.tcf.te.tests.tcf.TcfTestCase;
 
 /**
  * Process model test cases.
  */
 public class ProcessModelTestCase extends TcfTestCase {
+	// The context id of a process not known to the agent
+	private static final String UNKNOWN_ID = "P_unknown_process"; //$NON-NLS-1$
 
 	/**
 	 * Provides a test suite to the caller which combines all single
@@ -137,5 +145,159 @@ public class ProcessModelTestCase extends TcfTestCase {
 		ModelManager.disposeRuntimeModel(peerNode);
 	}
 
+	public void testIncrementalRefresh() {
+		assertNotNull("Test peer missing.", peer); //$NON-NLS-1$
+		assertNotNull("Test peer model missing.", peerNode); //$NON-NLS-1$
+
+		// Get the process model for the test peer model
+		final IRuntimeModel model = ModelManager.getRuntimeModel(peerNode);
+		assertNotNull("Failed to get runtime model for peer model.", model); //$NON-NLS-1$
+
+		// Fill the model with a full refresh first
+		IStatus status = doRefresh(model, false);
+		assertFalse("Process runtime model refresh failed. Possible cause: " + status.getMessage(), status.getSeverity() == IStatus.ERROR); //$NON-NLS-1$
+
+		// Let the model deviate from the agent: Remove a process, add a process not
+		// existing at the agent and drop the system monitor context of another process.
+		// The processes with the lowest PID's are taken as they are the least likely to exit.
+		final String[] ids = new String[2];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				List<IProcessContextNode> processes = new ArrayList<IProcessContextNode>();
+				for (IProcessContextNode process : model.getChildren(IProcessContextNode.class)) {
+					if (process.getSysMonitorContext() != null) processes.add(process);
+				}
+				Collections.sort(processes, new Comparator<IProcessContextNode>() {
+					@Override
+					public int compare(IProcessContextNode o1, IProcessContextNode o2) {
+						long pid1 = o1.getSysMonitorContext().getPID();
+						long pid2 = o2.getSysMonitorContext().getPID();
+						return pid1 < pid2 ? -1 : pid1 > pid2 ? 1 : 0;
+					}
+				});
+				if (processes.size() < 2) return;
+
+				IProcessContextNode removed = processes.get(0);
+				ids[0] = removed.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
+				model.remove(removed, false);
+
+				IProcessContextNode changed = processes.get(1);
+				ids[1] = changed.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID);
+				changed.setSysMonitorContext(null);
+
+				IProcessContextNode added = model.getFactory().newInstance(IProcessContextNode.class);
+				added.setProperty(IProcessContextNodeProperties.PROPERTY_ID, UNKNOWN_ID);
+				model.add(added);
+			}
+		});
+		assertNotNull("Test agent reports less than two processes.", ids[0]); //$NON-NLS-1$
+		assertNotNull("Test agent reports less than two processes.", ids[1]); //$NON-NLS-1$
+
+		// The incremental refresh merges the process list at once
+		status = doRefresh(model, true);
+		assertFalse("Incremental process runtime model refresh failed. Possible cause: " + status.getMessage(), status.getSeverity() == IStatus.ERROR); //$NON-NLS-1$
+
+		final IProcessContextNode[] nodes = new IProcessContextNode[3];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				nodes[0] = findChild(model, ids[0]);
+				nodes[1] = findChild(model, ids[1]);
+				nodes[2] = findChild(model, UNKNOWN_ID);
+			}
+		});
+		assertNotNull("Removed process not added again.", nodes[0]); //$NON-NLS-1$
+		assertNotNull("Known process removed.", nodes[1]); //$NON-NLS-1$
+		assertNull("Process not existing at the agent not removed.", nodes[2]); //$NON-NLS-1$
+
+		// Added processes are queried completely
+		final boolean[] refreshed = new boolean[2];
+		Protocol.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				refreshed[0] = nodes[0].getSysMonitorContext() != null;
+				refreshed[1] = nodes[1].getSysMonitorContext() != null;
+			}
+		});
+		assertTrue("Added process not queried.", refreshed[0]); //$NON-NLS-1$
+
+		// Known processes are refreshed in batches, the changed process gets
+		// updated once its batch comes up
+		for (int i = 0; !refreshed[1] && i < 100; i++) {
+			status = doRefresh(model, true);
+			assertFalse("Incremental process runtime model refresh failed. Possible cause: " + status.getMessage(), status.getSeverity() == IStatus.ERROR); //$NON-NLS-1$
+			Protocol.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+					refreshed[1] = nodes[1].getSysMonitorContext() != null;
+				}
+			});
+		}
+		assertTrue("Changed process not refreshed.", refreshed[1]); //$NON-NLS-1$
+
+		ModelManager.disposeRuntimeModel(peerNode);
+	}
+
 	//***** END SECTION: Single test methods *****
+
+	/**
+	 * Refresh the given model and wait for the refresh to complete.
+	 *
+	 * @param model The runtime model. Must not be <code>null</code>.
+	 * @param incremental <code>True</code> for an incremental refresh, <code>false</code> for a full refresh.
+	 *
+	 * @return The status of the refresh.
+	 */
+	private IStatus doRefresh(final IRuntimeModel model, final boolean incremental) {
+		final AsyncCallbackHandler handler = new AsyncCallbackHandler();
+		final AtomicReference<IStatus> statusRef = new AtomicReference<IStatus>();
+
+		final Callback callback = new Callback() {
+			@Override
+			protected void internalDone(Object caller, IStatus status) {
+				statusRef.set(status);
+				handler.removeCallback(this);
+			}
+		};
+		handler.addCallback(callback);
+
+		final IRuntimeModelRefreshService service = model.getService(IRuntimeModelRefreshService.class);
+		assertNotNull("Failed to get refresh service for runtime model.", service); //$NON-NLS-1$
+		if (incremental) {
+			assertTrue("Refresh service does not support incremental refreshes.", service instanceof IRuntimeModelIncrementalRefreshService); //$NON-NLS-1$
+		}
+
+		Protocol.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (incremental) {
+					((IRuntimeModelIncrementalRefreshService)service).incrementalRefresh(callback);
+				} else {
+					service.refresh(callback);
+				}
+			}
+		});
+
+		waitAndDispatch(0, handler.getConditionTester());
+
+		IStatus status = statusRef.get();
+		assertNotNull("Missing return status.", status); //$NON-NLS-1$
+		return status;
+	}
+
+	/**
+	 * Returns the child process of the given model with the given context id.
+	 *
+	 * @param model The runtime model. Must not be <code>null</code>.
+	 * @param id The context id. Must not be <code>null</code>.
+	 *
+	 * @return The child process or <code>null</code>.
+	 */
+	/* default */ static IProcessContextNode findChild(IRuntimeModel model, String id) {
+		for (IProcessContextNode process : model.getChildren(IProcessContextNode.class)) {
+			if (id.equals(process.getStringProperty(IProcessContextNodeProperties.PROPERTY_ID))) return process;
+		}
+		return null;
+	}
 }
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others. All rights reserved.
+ * This program and the accompanying materials are made available under the terms
+ * of the Eclipse Public License 2.0 which accompanies this distribution, and is
+ * available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ * Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.te.tests.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.tcf.te.runtime.processes.ByteRingBuffer;
+import org.eclipse.tcf.te.tests.CoreTestCase;
+
+/**
+ * Ring buffer test cases.
+ */
+public class ByteRingBufferTestCase extends CoreTestCase {
+	private static final long TIMEOUT = 10000;
+
+	/**
+	 * Counts the invocations of a call back.
+	 */
+	static class Waiter implements Runnable {
+		final CountDownLatch fLatch = new CountDownLatch(1);
+		int fCount;
+
+		@Override
+		public synchronized void run() {
+			fCount++;
+			fLatch.countDown();
+		}
+
+		synchronized int getCount() {
+			return fCount;
+		}
+	}
+
+	/**
+	 * Provides a test suite to the caller which combines all single
+	 * test bundled within this category.
+	 *
+	 * @return Test suite containing all test for this test category.
+	 */
+	public static Test getTestSuite() {
+		TestSuite testSuite = new TestSuite("Test byte ring buffer"); //$NON-NLS-1$
+
+			// add ourself to the test suite
+			testSuite.addTestSuite(ByteRingBufferTestCase.class);
+
+		return testSuite;
+	}
+
+	private static byte[] createData(int size, int seed) {
+		byte[] data = new byte[size];
+		for (int i = 0; i < size; i++)
+			data[i] = (byte) (i * 31 + seed);
+		return data;
+	}
+
+	//***** BEGIN SECTION: Single test methods *****
+	//NOTE: All method which represents a single test case must
+	//      start with 'test'!
+
+	public void testEmpty() throws Exception {
+		ByteRingBuffer buffer = new ByteRingBuffer(16);
+		Waiter waiter = new Waiter();
+		assertEquals(0, buffer.poll(new byte[4], 0, 4, waiter));
+		assertEquals(0, buffer.getInputStream().available());
+		assertFalse(buffer.isEOF());
+		assertEquals(0, waiter.getCount());
+
+		// Data written by the blocking side wakes up the poller once
+		buffer.getOutputStream().write(new byte[] { 1, 2 });
+		assertEquals(1, waiter.getCount());
+		buffer.getOutputStream().write(new byte[] { 3 });
+		assertEquals(1, waiter.getCount());
+
+		byte[] b = new byte[8];
+		assertEquals(3, buffer.poll(b, 0, b.length, null));
+		assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, Arrays.copyOf(b, 3)));
+	}
+
+	public void testFull() throws Exception {
+		ByteRingBuffer buffer = new ByteRingBuffer(16);
+		Waiter waiter = new Waiter();
+		byte[] data = createData(20, 0);
+
+		// Only the capacity is accepted, the rest is left to the caller
+		assertEquals(16, buffer.offer(data, 0, data.length, waiter));
+		assertEquals(0, buffer.offer(data, 16, 4, waiter));
+		assertEquals(16, buffer.getInputStream().available());
+		assertEquals(0, waiter.getCount());
+
+		// Reading from the blocking side makes space and wakes up the writer once
+		byte[] b = new byte[5];
+		assertEquals(5, buffer.getInputStream().read(b));
+		assertTrue(Arrays.equals(Arrays.copyOfRange(data, 0, 5), b));
+		assertEquals(1, waiter.getCount());
+		assertEquals(4, buffer.offer(data, 16, 4, waiter));
+
+		b = new byte[15];
+		assertEquals(15, buffer.getInputStream().read(b));
+		assertTrue(Arrays.equals(Arrays.copyOfRange(data, 5, 20), b));
+	}
+
+	public void testWrapAround() throws Exception {
+		ByteRingBuffer buffer = new ByteRingBuffer(16);
+		byte[] data = createData(1000, 7);
+		byte[] result = new byte[data.length];
+		int written = 0;
+		int read = 0;
+		int step = 0;
+		// Odd sizes move the head and the tail around the end of the buffer in all positions
+		while (read < data.length) {
+			int n = Math.min(data.length - written, 1 + step % 11);
+			written += buffer.offer(data, written, n, null);
+			n = Math.min(result.length - read, 1 + step % 7);
+			int m = buffer.poll(result, read, n, null);
+			assertTrue(m >= 0);
+			read += m;
+			step++;
+		}
+		assertTrue(Arrays.equals(data, result));
+		assertEquals(0, buffer.getInputStream().available());
+	}
+
+	public void testBlockingWriterHeldBack() throws Exception {
+		final ByteRingBuffer buffer = new ByteRingBuffer(64);
+		final byte[] data = createData(4096, 3);
+		final IOException[] error = new IOException[1];
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					OutputStream out = buffer.getOutputStream();
+					out.write(data);
+					out.close();
+				} catch (IOException e) {
+					error[0] = e;
+				}
+			}
+		});
+		writer.start();
+
+		// The writer blocks while the buffer is full
+		long time = System.currentTimeMillis();
+		while (buffer.getInputStream().available() < 64) {
+			assertTrue(System.currentTimeMillis() - time < TIMEOUT);
+			Thread.sleep(10);
+		}
+		Thread.sleep(100);
+		assertTrue(writer.isAlive());
+		assertEquals(64, buffer.getInputStream().available());
+
+		// Drain with the non-blocking side until the end of the data
+		byte[] result = new byte[data.length];
+		int read = 0;
+		for (;;) {
+			Waiter waiter = new Waiter();
+			int n = buffer.poll(result, read, Math.min(100, result.length - read), waiter);
+			if (n < 0) break;
+			if (n == 0) assertTrue(waiter.fLatch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			read += n;
+		}
+		writer.join(TIMEOUT);
+		assertNull(error[0]);
+		assertEquals(data.length, read);
+		assertTrue(Arrays.equals(data, result));
+		assertTrue(buffer.isEOF());
+		assertTrue(ByteRingBuffer.isEOF(buffer.getInputStream()));
+		assertEquals(-1, buffer.getInputStream().read());
+	}
+
+	public void testReaderClosed() throws Exception {
+		ByteRingBuffer buffer = new ByteRingBuffer(16);
+		Waiter waiter = new Waiter();
+		byte[] data = createData(20, 0);
+		assertEquals(16, buffer.offer(data, 0, data.length, waiter));
+		InputStream in = buffer.getInputStream();
+		in.close();
+		// Closing the reader discards the data and releases the writer
+		assertEquals(1, waiter.getCount());
+		assertEquals(4, buffer.offer(data, 16, 4, null));
+		try {
+			in.read();
+			fail("Read from closed stream"); //$NON-NLS-1$
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
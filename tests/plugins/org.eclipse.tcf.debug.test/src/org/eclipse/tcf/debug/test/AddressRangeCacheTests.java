@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.math.BigInteger;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.internal.debug.ui.model.TCFAddressRangeCache;
+
+/**
+ * Tests for address range cache used by line number, function and symbol file lookups.
+ */
+public class AddressRangeCacheTests extends TestCase {
+
+    private static BigInteger addr(long n) {
+        return BigInteger.valueOf(n);
+    }
+
+    private static String find(TCFAddressRangeCache<String> cache, long n) {
+        TCFAddressRangeCache.Range<String> r = cache.find(addr(n));
+        if (r == null) return null;
+        return r.value == null ? "<none>" : r.value;
+    }
+
+    public void testFind() {
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(16);
+        cache.put(addr(0x1000), addr(0x1010), "a");
+        cache.put(addr(0x1010), addr(0x1020), "b");
+        cache.put(addr(0x2000), addr(0x2100), "c");
+        Assert.assertNull(find(cache, 0xfff));
+        Assert.assertEquals("a", find(cache, 0x1000));
+        Assert.assertEquals("a", find(cache, 0x100f));
+        Assert.assertEquals("b", find(cache, 0x1010));
+        Assert.assertEquals("b", find(cache, 0x101f));
+        Assert.assertNull(find(cache, 0x1020));
+        Assert.assertNull(find(cache, 0x1fff));
+        Assert.assertEquals("c", find(cache, 0x2080));
+        Assert.assertNull(find(cache, 0x2100));
+        TCFAddressRangeCache.Range<String> r = cache.find(addr(0x2080));
+        Assert.assertEquals(addr(0x2000), r.lo);
+        Assert.assertEquals(addr(0x2100), r.hi);
+    }
+
+    public void testNullValue() {
+        /* A range with null value means the address is known to have no data */
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(16);
+        cache.put(addr(0x100), addr(0x200), null);
+        Assert.assertEquals("<none>", find(cache, 0x100));
+        Assert.assertNull(find(cache, 0x200));
+    }
+
+    public void testEmptyRange() {
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(16);
+        cache.put(addr(0x100), addr(0x100), "a");
+        cache.put(addr(0x200), addr(0x100), "b");
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(find(cache, 0x100));
+    }
+
+    public void testOverlap() {
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(16);
+        cache.put(addr(0x100), addr(0x200), "a");
+        cache.put(addr(0x200), addr(0x300), "b");
+        cache.put(addr(0x300), addr(0x400), "c");
+        cache.put(addr(0x400), addr(0x500), "d");
+
+        /* New range overlaps end of "a" and start of "b" */
+        cache.put(addr(0x180), addr(0x280), "x");
+        Assert.assertNull(find(cache, 0x100));
+        Assert.assertEquals("x", find(cache, 0x180));
+        Assert.assertEquals("x", find(cache, 0x27f));
+        Assert.assertNull(find(cache, 0x280));
+        Assert.assertEquals("c", find(cache, 0x300));
+        Assert.assertEquals(3, cache.size());
+
+        /* New range covers several ranges */
+        cache.put(addr(0x0), addr(0x1000), "y");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("y", find(cache, 0x450));
+
+        /* New range replaces part of existing range */
+        cache.put(addr(0x500), addr(0x600), "z");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("z", find(cache, 0x500));
+        Assert.assertNull(find(cache, 0x400));
+        Assert.assertNull(find(cache, 0x600));
+    }
+
+    public void testLargeAddresses() {
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(16);
+        BigInteger lo = new BigInteger("fffffffffffff000", 16);
+        BigInteger hi = BigInteger.ONE.shiftLeft(64);
+        cache.put(lo, hi, "top");
+        Assert.assertEquals("top", cache.find(hi.subtract(BigInteger.ONE)).value);
+        Assert.assertNull(cache.find(hi));
+        Assert.assertNull(cache.find(lo.subtract(BigInteger.ONE)));
+    }
+
+    public void testEviction() {
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(3);
+        cache.put(addr(0x100), addr(0x200), "a");
+        cache.put(addr(0x200), addr(0x300), "b");
+        cache.put(addr(0x300), addr(0x400), "c");
+        /* Lookup makes "a" most recently used, "b" is discarded first */
+        Assert.assertEquals("a", find(cache, 0x150));
+        cache.put(addr(0x400), addr(0x500), "d");
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull(find(cache, 0x250));
+        Assert.assertEquals("a", find(cache, 0x150));
+        Assert.assertEquals("c", find(cache, 0x350));
+        Assert.assertEquals("d", find(cache, 0x450));
+        for (int i = 0; i < 100; i++) cache.put(addr(0x1000 + i * 0x10), addr(0x1010 + i * 0x10), "e" + i);
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals("e99", find(cache, 0x1630));
+        Assert.assertEquals("e97", find(cache, 0x1610));
+        Assert.assertNull(find(cache, 0x1600));
+    }
+
+    public void testClear() {
+        TCFAddressRangeCache<String> cache = new TCFAddressRangeCache<String>(16);
+        cache.put(addr(0x100), addr(0x200), "a");
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(find(cache, 0x100));
+        cache.put(addr(0x100), addr(0x200), "b");
+        Assert.assertEquals("b", find(cache, 0x100));
+    }
+}
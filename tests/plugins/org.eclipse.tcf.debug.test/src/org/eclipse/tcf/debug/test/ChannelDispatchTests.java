@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+
+/**
+ * Tests for batched dispatch of inbound channel messages.
+ */
+public class ChannelDispatchTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+
+    @Override
+    protected void setUp() throws Exception {
+        fChannels = PipeChannel.open(0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+    }
+
+    private void setBatchSize(final AbstractChannel channel, final int size) {
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                channel.setMaxInputBatchSize(size);
+            }
+        });
+    }
+
+    private static List<String> makeData(int cnt) {
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < cnt; i++) data.add("msg" + i);
+        return data;
+    }
+
+    /**
+     * Send echo commands and record the replies in the order they are handled.
+     */
+    private static CountDownLatch echo(final IChannel channel, final List<String> data, final List<String> replies) {
+        final CountDownLatch done = new CountDownLatch(data.size());
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                for (String s : data) {
+                    diag.echo(s, new IDiagnostics.DoneEcho() {
+                        public void doneEcho(IToken token, Throwable error, String str) {
+                            replies.add(error != null ? error.toString() : str);
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        return done;
+    }
+
+    private static AbstractChannel.DispatchStatistics getStatistics(final AbstractChannel channel) {
+        final AbstractChannel.DispatchStatistics[] res = new AbstractChannel.DispatchStatistics[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                res[0] = channel.getDispatchStatistics();
+            }
+        });
+        return res[0];
+    }
+
+    public void testBatchSize() throws Exception {
+        setBatchSize(fChannels[0], 3);
+        AbstractChannel.DispatchStatistics s0 = getStatistics(fChannels[0]);
+        List<String> data = makeData(500);
+        List<String> replies = new ArrayList<String>();
+        Assert.assertTrue("Timed out waiting for echo replies",
+                echo(fChannels[0], data, replies).await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        /* Replies are handled in the order they were received */
+        Assert.assertEquals(data, replies);
+
+        AbstractChannel.DispatchStatistics s1 = getStatistics(fChannels[0]);
+        long messages = s1.messages - s0.messages;
+        long batches = s1.batches - s0.batches;
+        Assert.assertTrue(messages >= data.size());
+        Assert.assertTrue(batches * 3 >= messages);
+        Assert.assertEquals(0, s1.queue_depth);
+
+        /* No batches larger than 3 since the size was set */
+        long cnt = 0;
+        for (int i = 0; i < s1.batch_size_histogram.length; i++) {
+            long n = s1.batch_size_histogram[i] - s0.batch_size_histogram[i];
+            if (i >= 2) Assert.assertEquals(0, n);
+            cnt += n;
+        }
+        Assert.assertEquals(batches, cnt);
+    }
+
+    public void testInvalidBatchSize() throws Exception {
+        final Throwable[] error = new Throwable[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    fChannels[0].setMaxInputBatchSize(0);
+                }
+                catch (Throwable x) {
+                    error[0] = x;
+                }
+            }
+        });
+        Assert.assertTrue(error[0] instanceof IllegalArgumentException);
+    }
+
+    public void testEndOfStreamOrder() throws Exception {
+        /* Remote peer closes the channel right after sending the last reply.
+         * End of stream must be handled after the replies, otherwise the commands fail. */
+        setBatchSize(fChannels[0], 2);
+        final List<String> data = makeData(200);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final Throwable[] close_error = new Throwable[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                fChannels[0].addChannelListener(new IChannel.IChannelListener() {
+                    public void onChannelOpened() {
+                    }
+                    public void congestionLevel(int level) {
+                    }
+                    public void onChannelClosed(Throwable error) {
+                        close_error[0] = error;
+                        closed.countDown();
+                    }
+                });
+                fChannels[1].addTraceListener(new AbstractChannel.TraceListener() {
+                    int cnt;
+                    public void onMessageReceived(char type, String token, String service, String name, byte[] data) {
+                    }
+                    public void onMessageSent(char type, String token, String service, String name, byte[] d) {
+                        if (type == 'R' && ++cnt == data.size()) fChannels[1].close();
+                    }
+                    public void onChannelClosed(Throwable error) {
+                    }
+                });
+            }
+        });
+        List<String> replies = new ArrayList<String>();
+        Assert.assertTrue("Timed out waiting for echo replies",
+                echo(fChannels[0], data, replies).await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(data, replies);
+        Assert.assertTrue("Timed out closing channel", closed.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertNull(close_error[0]);
+    }
+}
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.ChannelNIO;
+import org.eclipse.tcf.core.ServerNIO;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+
+/**
+ * Tests for ChannelNIO and ServerNIO: channels are connected to a server in same process,
+ * messages are echoed by the Diagnostics service of the server side channels.
+ */
+public class ChannelNIOTests extends TestCase {
+
+    private static final int TIMEOUT = 30000;
+
+    private ServerNIO fServer;
+    private final List<IChannel> fChannels = new ArrayList<IChannel>();
+
+    /**
+     * Channel listener that records the channel state changes.
+     */
+    private static class Listener implements IChannel.IChannelListener {
+
+        final CountDownLatch opened = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        Throwable error;
+
+        public void onChannelOpened() {
+            opened.countDown();
+        }
+
+        public void congestionLevel(int level) {
+        }
+
+        public void onChannelClosed(Throwable error) {
+            this.error = error;
+            opened.countDown();
+            closed.countDown();
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        final Exception[] error = new Exception[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    fServer = new ServerNIO("TCF NIO Test", 0);
+                }
+                catch (Exception x) {
+                    error[0] = x;
+                }
+            }
+        });
+        if (error[0] != null) throw error[0];
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final List<Listener> listeners = new ArrayList<Listener>();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                for (IChannel c : fChannels) {
+                    if (c.getState() == IChannel.STATE_CLOSED) continue;
+                    Listener l = new Listener();
+                    c.addChannelListener(l);
+                    c.close();
+                    listeners.add(l);
+                }
+                fChannels.clear();
+                try {
+                    if (fServer != null) fServer.close();
+                }
+                catch (Exception x) {
+                    Protocol.log("Cannot close server", x);
+                }
+                fServer = null;
+            }
+        });
+        for (Listener l : listeners) {
+            Assert.assertTrue("Timed out closing channel", l.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            Assert.assertNull(l.error);
+        }
+    }
+
+    private Listener connect(final int port) throws Exception {
+        final Listener l = new Listener();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                Map<String,String> attrs = new HashMap<String,String>();
+                attrs.put(IPeer.ATTR_ID, "NIOTest:" + port);
+                attrs.put(IPeer.ATTR_NAME, "NIOTest");
+                attrs.put(IPeer.ATTR_TRANSPORT_NAME, "TCP");
+                attrs.put(IPeer.ATTR_IP_HOST, "127.0.0.1");
+                attrs.put(IPeer.ATTR_IP_PORT, Integer.toString(port));
+                ChannelNIO c = new ChannelNIO(new TransientPeer(attrs), "127.0.0.1", port);
+                c.addChannelListener(l);
+                fChannels.add(c);
+            }
+        });
+        Assert.assertTrue("Timed out opening channel", l.opened.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        return l;
+    }
+
+    private IChannel open() throws Exception {
+        Listener l = connect(fServer.getLocalPort());
+        Assert.assertNull(l.error);
+        IChannel c = fChannels.get(fChannels.size() - 1);
+        Assert.assertEquals(IChannel.STATE_OPEN, c.getState());
+        return c;
+    }
+
+    private static String makeString(int len, int seed) {
+        StringBuffer bf = new StringBuffer(len);
+        for (int i = 0; i < len; i++) bf.append((char)((i * 31 + seed) % 0x7f + 1));
+        return bf.toString();
+    }
+
+    private static List<String> makeData(int cnt) {
+        List<String> data = new ArrayList<String>();
+        data.add("");
+        data.add("\u0003\u0003");
+        data.add("\u00e4\u4e2d\u0003");
+        for (int i = 0; i < cnt; i++) data.add(makeString(1 + i * 37 % 1000, i));
+        /* Larger than the output batch and the socket buffers */
+        data.add(makeString(0x30000, 7));
+        return data;
+    }
+
+    private static void echo(final IChannel channel, final List<String> data) throws Exception {
+        final CountDownLatch done = new CountDownLatch(data.size());
+        final List<String> errors = new ArrayList<String>();
+        final List<String> replies = new ArrayList<String>();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                for (final String s : data) {
+                    diag.echo(s, new IDiagnostics.DoneEcho() {
+                        public void doneEcho(IToken token, Throwable error, String str) {
+                            if (error != null) errors.add(error.toString());
+                            else if (!s.equals(str)) errors.add("Invalid echo reply, length " + str.length());
+                            replies.add(str);
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        Assert.assertTrue("Timed out waiting for echo replies", done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(new ArrayList<String>(), errors);
+        /* Replies arrive in the order the commands were sent */
+        Assert.assertEquals(data, replies);
+    }
+
+    public void testEcho() throws Exception {
+        IChannel c = open();
+        echo(c, makeData(200));
+        echo(c, makeData(10));
+    }
+
+    public void testManyChannels() throws Exception {
+        List<IChannel> channels = new ArrayList<IChannel>();
+        for (int i = 0; i < 8; i++) channels.add(open());
+        final List<String> data = makeData(50);
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        /* All channels share one selector thread */
+        for (final IChannel c : channels) {
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        echo(c, data);
+                    }
+                    catch (Throwable x) {
+                        synchronized (errors) {
+                            errors.add(x);
+                        }
+                    }
+                }
+            };
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) t.join(TIMEOUT);
+        Assert.assertEquals(new ArrayList<Throwable>(), errors);
+    }
+
+    public void testTerminate() throws Exception {
+        final IChannel c = open();
+        final Listener l = new Listener();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                c.addChannelListener(l);
+                c.terminate(new Exception("Test"));
+            }
+        });
+        Assert.assertTrue("Timed out closing channel", l.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(l.error);
+        Assert.assertEquals(IChannel.STATE_CLOSED, c.getState());
+        /* The server keeps accepting connections */
+        echo(open(), makeData(10));
+    }
+
+    public void testConnectRefused() throws Exception {
+        ServerSocketChannel s = ServerSocketChannel.open();
+        s.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+        int port = s.socket().getLocalPort();
+        s.close();
+        Listener l = connect(port);
+        Assert.assertTrue("Timed out closing channel", l.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(l.error);
+    }
+
+    public void testServerClose() throws Exception {
+        IChannel c = open();
+        final int port = fServer.getLocalPort();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    fServer.close();
+                }
+                catch (Exception x) {
+                    throw new RuntimeException(x);
+                }
+                fServer = null;
+            }
+        });
+        /* Channels that are already open are not affected */
+        echo(c, makeData(10));
+        Listener l = connect(port);
+        Assert.assertTrue("Timed out closing channel", l.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(l.error);
+    }
+}
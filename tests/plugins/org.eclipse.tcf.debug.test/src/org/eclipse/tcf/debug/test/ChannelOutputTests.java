@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Tests for batching of outbound channel messages.
+ */
+public class ChannelOutputTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+
+    @Override
+    protected void setUp() throws Exception {
+        fChannels = PipeChannel.open(0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+    }
+
+    private static List<String> makeData(int cnt, int len) {
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < cnt; i++) {
+            StringBuffer bf = new StringBuffer();
+            bf.append(i).append(':');
+            while (bf.length() < len) bf.append((char)('a' + bf.length() % 26));
+            data.add(bf.toString());
+        }
+        return data;
+    }
+
+    private static AbstractChannel.OutputStatistics getStatistics(final AbstractChannel channel) {
+        final AbstractChannel.OutputStatistics[] res = new AbstractChannel.OutputStatistics[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                res[0] = channel.getOutputStatistics();
+            }
+        });
+        return res[0];
+    }
+
+    private static void checkHistogram(AbstractChannel.OutputStatistics s) {
+        long cnt = 0;
+        for (long n : s.messages_per_flush_histogram) cnt += n;
+        Assert.assertEquals(s.flushes, cnt);
+        Assert.assertTrue(s.messages >= s.flushes);
+        Assert.assertTrue(s.max_bytes_per_flush <= s.bytes);
+    }
+
+    public void testBatching() throws Exception {
+        AbstractChannel.OutputStatistics s0 = getStatistics(fChannels[0]);
+        /* Commands are queued faster than the pipe can take them, they must be sent in batches */
+        List<String> data = makeData(2000, 100);
+        PipeChannel.echo(fChannels[0], data);
+        AbstractChannel.OutputStatistics s1 = getStatistics(fChannels[0]);
+        long messages = s1.messages - s0.messages;
+        long flushes = s1.flushes - s0.flushes;
+        Assert.assertTrue(messages >= data.size());
+        Assert.assertTrue(s1.bytes - s0.bytes >= data.size() * 100L);
+        Assert.assertTrue("No batching: " + s1, flushes < messages);
+        Assert.assertTrue(s1.max_messages_per_flush > 1);
+        checkHistogram(s1);
+
+        /* Same for the replies */
+        AbstractChannel.OutputStatistics r = getStatistics(fChannels[1]);
+        Assert.assertTrue(r.messages >= data.size());
+        checkHistogram(r);
+    }
+
+    public void testFlushSize() throws Exception {
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                fChannels[0].setOutputBatching(200, 0);
+            }
+        });
+        AbstractChannel.OutputStatistics s0 = getStatistics(fChannels[0]);
+        List<String> data = makeData(500, 100);
+        PipeChannel.echo(fChannels[0], data);
+        AbstractChannel.OutputStatistics s1 = getStatistics(fChannels[0]);
+        /* A flush stops at the first message that reaches the limit, each message is shorter than the limit.
+         * A small flow control message can be sent together with two of these messages. */
+        Assert.assertTrue("Flush too big: " + s1, s1.max_bytes_per_flush < 400);
+        for (int i = 2; i < s1.messages_per_flush_histogram.length; i++) {
+            Assert.assertEquals(s0.messages_per_flush_histogram[i], s1.messages_per_flush_histogram[i]);
+        }
+        checkHistogram(s1);
+    }
+
+    public void testFlushDelay() throws Exception {
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                fChannels[0].setOutputBatching(0x10000, 2000);
+            }
+        });
+        /* Waiting for more messages must not hold back the last message of a batch */
+        PipeChannel.echo(fChannels[0], makeData(1000, 50));
+        for (int i = 0; i < 20; i++) PipeChannel.echo(fChannels[0], makeData(1, 50));
+        checkHistogram(getStatistics(fChannels[0]));
+    }
+
+    public void testInvalidBatching() throws Exception {
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    fChannels[0].setOutputBatching(0, 0);
+                }
+                catch (IllegalArgumentException x) {
+                    errors.add(x);
+                }
+                try {
+                    fChannels[0].setOutputBatching(100, -1);
+                }
+                catch (IllegalArgumentException x) {
+                    errors.add(x);
+                }
+            }
+        });
+        Assert.assertEquals(2, errors.size());
+    }
+}
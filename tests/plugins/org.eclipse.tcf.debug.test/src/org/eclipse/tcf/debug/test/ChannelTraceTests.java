@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.ChannelTraceReader;
+import org.eclipse.tcf.core.ChannelTraceRecorder;
+import org.eclipse.tcf.core.ChannelTraceSummary;
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Tests for channel trace files: ChannelTraceRecorder writes them, ChannelTraceReader
+ * and ChannelTraceSummary read them back.
+ */
+public class ChannelTraceTests extends TestCase {
+
+    /* Smallest allowed trace file */
+    private static final long MIN_SIZE = 64 + 0x1000;
+
+    private PipeChannel[] fChannels;
+    private File fFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        fFile = File.createTempFile("tcf", ".trace");
+        fFile.deleteOnExit();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+        fFile.delete();
+    }
+
+    private ChannelTraceRecorder record(long size) throws Exception {
+        fChannels = PipeChannel.open(0);
+        final long sz = size;
+        final ChannelTraceRecorder[] res = new ChannelTraceRecorder[1];
+        final Exception[] error = new Exception[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    res[0] = new ChannelTraceRecorder(fChannels[0], fFile, sz);
+                }
+                catch (Exception x) {
+                    error[0] = x;
+                }
+            }
+        });
+        if (error[0] != null) throw error[0];
+        return res[0];
+    }
+
+    private void closeChannels() throws Exception {
+        PipeChannel[] c = fChannels;
+        fChannels = null;
+        PipeChannel.close(c);
+        /* Trace listeners are notified after channel listeners, in same dispatch event */
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+    }
+
+    private static List<ChannelTraceReader.Record> read(File file) throws Exception {
+        List<ChannelTraceReader.Record> res = new ArrayList<ChannelTraceReader.Record>();
+        ChannelTraceReader reader = new ChannelTraceReader(file);
+        try {
+            for (;;) {
+                ChannelTraceReader.Record r = reader.next();
+                if (r == null) break;
+                res.add(r);
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return res;
+    }
+
+    private static Object[] parse(final byte[] data) {
+        final Object[][] res = new Object[1][];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    res[0] = JSON.parseSequence(data);
+                }
+                catch (Exception x) {
+                    throw new RuntimeException(x);
+                }
+            }
+        });
+        return res[0];
+    }
+
+    private static List<String> makeData(int cnt, int len) {
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < cnt; i++) {
+            StringBuffer bf = new StringBuffer();
+            bf.append(i).append(':');
+            while (bf.length() < len) bf.append((char)('a' + bf.length() % 26));
+            data.add(bf.toString());
+        }
+        return data;
+    }
+
+    public void testRoundTrip() throws Exception {
+        long t0 = System.currentTimeMillis();
+        record(ChannelTraceRecorder.DEFAULT_SIZE);
+        List<String> data = makeData(100, 50);
+        data.add("\u0003\u00e4\u4e2d");
+        PipeChannel.echo(fChannels[0], data);
+        closeChannels();
+
+        List<ChannelTraceReader.Record> records = read(fFile);
+        Map<String,String> cmds = new HashMap<String,String>();
+        List<String> replies = new ArrayList<String>();
+        long time = 0;
+        for (ChannelTraceReader.Record r : records) {
+            Assert.assertTrue("Record time goes back", r.time >= time);
+            time = r.time;
+            if (r.type == 'C') {
+                Assert.assertFalse(r.received);
+                Assert.assertEquals("Diagnostics", r.service);
+                Assert.assertEquals("echo", r.name);
+                Assert.assertNotNull(r.token);
+                cmds.put(r.token, (String)parse(r.data)[0]);
+            }
+            else if (r.type == 'R') {
+                Assert.assertTrue(r.received);
+                Assert.assertNull(r.service);
+                String cmd = cmds.remove(r.token);
+                Assert.assertNotNull("Reply to unknown command", cmd);
+                Assert.assertEquals(cmd, parse(r.data)[0]);
+                replies.add(cmd);
+            }
+        }
+        Assert.assertEquals(data, replies);
+        Assert.assertTrue(cmds.isEmpty());
+        ChannelTraceReader.Record last = records.get(records.size() - 1);
+        Assert.assertEquals(ChannelTraceReader.TYPE_CLOSED, last.type);
+        Assert.assertNull(last.data);
+
+        ChannelTraceReader reader = new ChannelTraceReader(fFile);
+        try {
+            Assert.assertTrue(reader.getStartTime() >= t0);
+            Assert.assertTrue(reader.getStartTime() <= System.currentTimeMillis());
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    public void testRingWrap() throws Exception {
+        ChannelTraceRecorder recorder = record(MIN_SIZE);
+        List<String> data = makeData(500, 100);
+        PipeChannel.echo(fChannels[0], data);
+        closeChannels();
+        Assert.assertTrue(recorder.getRecordedSize() > MIN_SIZE);
+
+        /* Oldest records are overwritten, remaining replies must be a tail of the reply sequence */
+        List<ChannelTraceReader.Record> records = read(fFile);
+        Assert.assertTrue(records.size() > 1);
+        int next = -1;
+        int cnt = 0;
+        for (ChannelTraceReader.Record r : records) {
+            if (r.type != 'R') continue;
+            String s = (String)parse(r.data)[0];
+            int i = data.indexOf(s);
+            Assert.assertTrue(i >= 0);
+            if (next >= 0) Assert.assertEquals(next, i);
+            next = i + 1;
+            cnt++;
+        }
+        Assert.assertEquals(data.size(), next);
+        Assert.assertTrue(cnt > 0);
+        Assert.assertTrue(cnt < data.size());
+        Assert.assertEquals(ChannelTraceReader.TYPE_CLOSED, records.get(records.size() - 1).type);
+    }
+
+    public void testLargeMessage() throws Exception {
+        /* Message data that does not fit into the ring is not recorded, the message still is */
+        record(MIN_SIZE);
+        List<String> data = makeData(1, 10000);
+        PipeChannel.echo(fChannels[0], data);
+        closeChannels();
+        int cnt = 0;
+        for (ChannelTraceReader.Record r : read(fFile)) {
+            if (r.type != 'C' && r.type != 'R') continue;
+            Assert.assertNull(r.data);
+            cnt++;
+        }
+        Assert.assertEquals(2, cnt);
+    }
+
+    public void testInvalidSize() throws Exception {
+        fChannels = PipeChannel.open(0);
+        final Exception[] error = new Exception[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    new ChannelTraceRecorder(fChannels[0], fFile, MIN_SIZE - 1);
+                }
+                catch (Exception x) {
+                    error[0] = x;
+                }
+            }
+        });
+        Assert.assertNotNull(error[0]);
+    }
+
+    public void testSummary() throws Exception {
+        record(ChannelTraceRecorder.DEFAULT_SIZE);
+        PipeChannel.echo(fChannels[0], makeData(200, 20));
+        closeChannels();
+        ChannelTraceSummary summary = new ChannelTraceSummary();
+        summary.add(fFile);
+        ChannelTraceSummary.Statistics echo = null;
+        for (ChannelTraceSummary.Statistics s : summary.getStatistics()) {
+            if (s.service.equals("Diagnostics") && s.name.equals("echo")) echo = s;
+        }
+        Assert.assertNotNull(echo);
+        Assert.assertFalse(echo.received);
+        Assert.assertEquals(200, echo.count);
+        Assert.assertEquals(0, echo.pending);
+        Assert.assertEquals(0, echo.rejected);
+        Assert.assertTrue(echo.min <= echo.p50);
+        Assert.assertTrue(echo.p50 <= echo.p90);
+        Assert.assertTrue(echo.p90 <= echo.p99);
+        Assert.assertTrue(echo.p99 <= echo.max);
+    }
+}
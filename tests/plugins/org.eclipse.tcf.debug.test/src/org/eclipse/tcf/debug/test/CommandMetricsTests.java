@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.AbstractChannel;
+import org.eclipse.tcf.core.CommandMetrics;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+
+/**
+ * Tests for per service and command metrics of a channel.
+ */
+public class CommandMetricsTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+    private boolean fEnabled;
+
+    @Override
+    protected void setUp() throws Exception {
+        fEnabled = CommandMetrics.isEnabled();
+        CommandMetrics.setEnabled(true);
+        fChannels = PipeChannel.open(0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+        CommandMetrics.setEnabled(fEnabled);
+    }
+
+    private static List<String> makeData(int cnt) {
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < cnt; i++) data.add("msg" + i);
+        return data;
+    }
+
+    private static CommandMetrics.Statistics getStatistics(final AbstractChannel channel, final String service, final String name) {
+        final CommandMetrics.Statistics[] res = new CommandMetrics.Statistics[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                CommandMetrics m = channel.getCommandMetrics();
+                if (m == null) return;
+                for (CommandMetrics.Statistics s : m.getStatistics()) {
+                    if (s.service.equals(service) && s.name.equals(name)) res[0] = s;
+                }
+            }
+        });
+        return res[0];
+    }
+
+    public void testCommands() throws Exception {
+        List<String> data = makeData(300);
+        PipeChannel.echo(fChannels[0], data);
+        CommandMetrics.Statistics s = getStatistics(fChannels[0], IDiagnostics.NAME, "echo");
+        Assert.assertNotNull(s);
+        Assert.assertEquals(data.size(), s.commands);
+        Assert.assertEquals(data.size(), s.results);
+        Assert.assertEquals(0, s.rejected);
+        Assert.assertEquals(0, s.canceled);
+        Assert.assertTrue(s.bytes_sent > 0);
+        Assert.assertTrue(s.bytes_received > 0);
+        Assert.assertTrue(s.max_latency >= s.avg_latency);
+    }
+
+    public void testLatencyPercentile() throws Exception {
+        PipeChannel.echo(fChannels[0], makeData(500));
+        CommandMetrics.Statistics s = getStatistics(fChannels[0], IDiagnostics.NAME, "echo");
+        Assert.assertNotNull(s);
+        /* Percentiles are monotonic and never exceed the largest recorded time */
+        long prev = 0;
+        for (int p = 0; p <= 100; p += 5) {
+            long v = s.getLatencyPercentile(p);
+            Assert.assertTrue("Percentile " + p + ": " + s, v >= prev);
+            Assert.assertTrue("Percentile " + p + ": " + s, v <= s.max_latency);
+            prev = v;
+        }
+        Assert.assertEquals(s.max_latency, s.getLatencyPercentile(100));
+    }
+
+    public void testRejected() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final Throwable[] error = new Throwable[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                IDiagnostics diag = fChannels[0].getRemoteService(IDiagnostics.class);
+                fChannels[0].sendCommand(diag, "noSuchCommand", new byte[0], new IChannel.ICommandListener() {
+                    public void progress(IToken token, byte[] data) {
+                    }
+                    public void result(IToken token, byte[] data) {
+                        done.countDown();
+                    }
+                    public void terminated(IToken token, Exception err) {
+                        error[0] = err;
+                        done.countDown();
+                    }
+                });
+            }
+        });
+        Assert.assertTrue("Timed out waiting for reply", done.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(error[0]);
+        CommandMetrics.Statistics s = getStatistics(fChannels[0], IDiagnostics.NAME, "noSuchCommand");
+        Assert.assertNotNull(s);
+        Assert.assertEquals(1, s.commands);
+        Assert.assertEquals(1, s.rejected);
+        Assert.assertEquals(0, s.results);
+    }
+
+    public void testReset() throws Exception {
+        PipeChannel.echo(fChannels[0], makeData(10));
+        Assert.assertNotNull(getStatistics(fChannels[0], IDiagnostics.NAME, "echo"));
+        final String[] dump = new String[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    StringWriter out = new StringWriter();
+                    CommandMetrics.dump(out);
+                    dump[0] = out.toString();
+                }
+                catch (Exception x) {
+                    dump[0] = x.toString();
+                }
+                fChannels[0].getCommandMetrics().reset();
+            }
+        });
+        Assert.assertTrue(dump[0], dump[0].indexOf(IDiagnostics.NAME + ".echo cmds=10 results=10") >= 0);
+        Assert.assertNull(getStatistics(fChannels[0], IDiagnostics.NAME, "echo"));
+        PipeChannel.echo(fChannels[0], makeData(5));
+        Assert.assertEquals(5, getStatistics(fChannels[0], IDiagnostics.NAME, "echo").commands);
+    }
+
+    public void testDisabled() throws Exception {
+        CommandMetrics.setEnabled(false);
+        PipeChannel[] channels = PipeChannel.open(0);
+        try {
+            PipeChannel.echo(channels[0], makeData(10));
+            Assert.assertNull(getStatistics(channels[0], IDiagnostics.NAME, "echo"));
+        }
+        finally {
+            PipeChannel.close(channels);
+        }
+    }
+}
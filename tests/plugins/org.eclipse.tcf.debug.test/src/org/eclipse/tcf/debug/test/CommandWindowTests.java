@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+
+/**
+ * Tests for per-service command windows of a channel.
+ */
+public class CommandWindowTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+
+    @Override
+    protected void setUp() throws Exception {
+        fChannels = PipeChannel.open(0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+    }
+
+    /**
+     * Sends echo commands as fast as the command window allows.
+     */
+    private static class Sender implements Runnable {
+
+        final IChannel channel;
+        final IDiagnostics diag;
+        final int total;
+        final CountDownLatch done;
+        final List<String> errors = new ArrayList<String>();
+        int sent;
+        int max_pending;
+        int min_window = Integer.MAX_VALUE;
+        int max_window;
+        int waits;
+
+        Sender(IChannel channel, int total) {
+            this.channel = channel;
+            this.diag = channel.getRemoteService(IDiagnostics.class);
+            this.total = total;
+            this.done = new CountDownLatch(total);
+        }
+
+        public void run() {
+            while (sent < total) {
+                int window = channel.getCommandWindow(diag);
+                min_window = Math.min(min_window, window);
+                max_window = Math.max(max_window, window);
+                if (!channel.waitForCommandWindow(diag, this)) {
+                    waits++;
+                    return;
+                }
+                final String s = "cmd" + sent++;
+                diag.echo(s, new IDiagnostics.DoneEcho() {
+                    public void doneEcho(IToken token, Throwable error, String str) {
+                        if (error != null) errors.add(error.toString());
+                        else if (!s.equals(str)) errors.add("Invalid echo reply: " + str);
+                        done.countDown();
+                    }
+                });
+                int pending = channel.getPendingCommandCount(diag);
+                if (pending > channel.getCommandWindow(diag)) errors.add("Window exceeded: " + pending);
+                max_pending = Math.max(max_pending, pending);
+            }
+        }
+    }
+
+    private static Sender createSender(final IChannel channel, final int total) {
+        final Sender[] res = new Sender[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                res[0] = new Sender(channel, total);
+            }
+        });
+        return res[0];
+    }
+
+    private int getPending(final IChannel channel) {
+        final int[] res = new int[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                res[0] = channel.getPendingCommandCount(channel.getRemoteService(IDiagnostics.class));
+            }
+        });
+        return res[0];
+    }
+
+    public void testWindow() throws Exception {
+        Assert.assertEquals(0, getPending(fChannels[0]));
+        final Sender sender = createSender(fChannels[0], 5000);
+        Protocol.invokeAndWait(sender);
+        Assert.assertTrue("Timed out waiting for echo replies", sender.done.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(0, getPending(fChannels[0]));
+        Assert.assertEquals(new ArrayList<String>(), sender.errors);
+        Assert.assertEquals(5000, sender.sent);
+        /* The window was full at times, the sender was resumed by replies */
+        Assert.assertTrue(sender.waits > 0);
+        Assert.assertTrue(sender.max_pending >= sender.min_window);
+        Assert.assertTrue(sender.min_window >= 2);
+        Assert.assertTrue(sender.max_window <= 256);
+    }
+
+    public void testServicesIndependent() throws Exception {
+        /* Commands of other services do not count against the window */
+        final Sender sender = createSender(fChannels[0], 100);
+        final int[] pending = new int[2];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                sender.run();
+                pending[0] = fChannels[0].getPendingCommandCount(sender.diag);
+                pending[1] = fChannels[0].getPendingCommandCount(fChannels[0].getRemoteService("Locator"));
+            }
+        });
+        Assert.assertTrue(pending[0] > 0);
+        Assert.assertEquals(0, pending[1]);
+        Assert.assertTrue("Timed out waiting for echo replies", sender.done.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    public void testCloseReleasesWaiters() throws Exception {
+        final CountDownLatch released = new CountDownLatch(1);
+        final boolean[] res = new boolean[2];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                IDiagnostics diag = fChannels[0].getRemoteService(IDiagnostics.class);
+                Runnable waiter = new Runnable() {
+                    public void run() {
+                        released.countDown();
+                    }
+                };
+                /* Fill the window without waiting for the replies */
+                while (fChannels[0].waitForCommandWindow(diag, waiter)) {
+                    diag.echo("x", new IDiagnostics.DoneEcho() {
+                        public void doneEcho(IToken token, Throwable error, String str) {
+                        }
+                    });
+                }
+                res[0] = fChannels[0].getPendingCommandCount(diag) >= fChannels[0].getCommandWindow(diag);
+                fChannels[0].terminate(new Exception("Test"));
+                res[1] = fChannels[0].waitForCommandWindow(diag, waiter);
+            }
+        });
+        Assert.assertTrue(res[0]);
+        /* Closed channel never blocks clients */
+        Assert.assertTrue(res[1]);
+        Assert.assertTrue("Timed out waiting for window", released.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        fChannels = null;
+    }
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.ChannelTCP;
+import org.eclipse.tcf.core.StreamChannel;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+/**
+ * Measures Diagnostics echo round trips over a TCP loopback connection
+ * with and without byte stream compression.
+ * Each run echoes 2000 messages, about 2 MB of repetitive hex data.
+ */
+public class CompressedStreamPerformanceTest extends TestCase {
+
+    private static final int RUNS = 5;
+    private static final int MESSAGES = 2000;
+    private static final int TIMEOUT = 60000;
+
+    private List<String> fData;
+
+    @Override
+    protected void setUp() throws Exception {
+        fData = new ArrayList<String>();
+        for (int i = 0; i < MESSAGES; i++) {
+            StringBuffer bf = new StringBuffer();
+            for (int j = 0; j < 110; j++) bf.append(Integer.toHexString(0x40001000 + ((i + j) % 16) * 4)).append(' ');
+            fData.add(bf.toString());
+        }
+    }
+
+    private static class Connection {
+        final ChannelTCP[] channels = new ChannelTCP[2];
+        final CountDownLatch opened = new CountDownLatch(2);
+        final CountDownLatch closed = new CountDownLatch(2);
+        final List<Throwable> errors = new ArrayList<Throwable>();
+    }
+
+    private Connection connect(final boolean compression) throws Exception {
+        ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        final Socket[] sockets = new Socket[2];
+        try {
+            sockets[0] = new Socket("127.0.0.1", server.getLocalPort());
+            sockets[1] = server.accept();
+        }
+        finally {
+            server.close();
+        }
+        final Connection conn = new Connection();
+        final Exception[] error = new Exception[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                Map<String,String> attrs = new HashMap<String,String>();
+                attrs.put(IPeer.ATTR_ID, "CompressedStreamPerformanceTest");
+                attrs.put(IPeer.ATTR_NAME, "CompressedStreamPerformanceTest");
+                IPeer peer = new TransientPeer(attrs);
+                try {
+                    for (int i = 0; i < 2; i++) {
+                        conn.channels[i] = new ChannelTCP(peer, peer, sockets[i]) {
+                            @Override
+                            protected boolean isCompressionEnabled() {
+                                return compression;
+                            }
+                        };
+                        conn.channels[i].addChannelListener(new IChannel.IChannelListener() {
+                            public void onChannelOpened() {
+                                conn.opened.countDown();
+                            }
+                            public void congestionLevel(int level) {
+                            }
+                            public void onChannelClosed(Throwable x) {
+                                if (x != null) conn.errors.add(x);
+                                conn.closed.countDown();
+                            }
+                        });
+                    }
+                }
+                catch (Exception x) {
+                    error[0] = x;
+                }
+            }
+        });
+        if (error[0] != null) throw error[0];
+        Assert.assertTrue("Timed out opening channels", conn.opened.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        return conn;
+    }
+
+    private void disconnect(final Connection conn) throws Exception {
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                conn.channels[0].close();
+            }
+        });
+        Assert.assertTrue("Timed out closing channels", conn.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(new ArrayList<Throwable>(), conn.errors);
+    }
+
+    private void echo(final IChannel channel) throws Exception {
+        final CountDownLatch done = new CountDownLatch(fData.size());
+        final int[] errors = new int[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                for (final String s : fData) {
+                    diag.echo(s, new IDiagnostics.DoneEcho() {
+                        public void doneEcho(IToken token, Throwable error, String str) {
+                            if (error != null || !s.equals(str)) errors[0]++;
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        Assert.assertTrue("Timed out waiting for echo replies", done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(0, errors[0]);
+    }
+
+    private void measureEcho(String id, boolean compression) throws Exception {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this, id));
+        try {
+            for (int i = 0; i < RUNS; i++) {
+                Connection conn = connect(compression);
+                try {
+                    meter.start();
+                    echo(conn.channels[0]);
+                    meter.stop();
+                    StreamChannel.CompressionStatistics s = conn.channels[0].getCompressionStatistics();
+                    if (compression) Assert.assertTrue(s.compressed_bytes < s.raw_bytes);
+                    else Assert.assertEquals(0, s.blocks);
+                }
+                finally {
+                    disconnect(conn);
+                }
+            }
+            meter.commit();
+        }
+        finally {
+            meter.dispose();
+        }
+    }
+
+    public void testEchoUncompressed() throws Exception {
+        measureEcho("echo.off", false);
+    }
+
+    public void testEchoCompressed() throws Exception {
+        measureEcho("echo.on", true);
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.StreamChannel;
+import org.eclipse.tcf.protocol.IChannel;
+
+/**
+ * Tests for StreamChannel byte stream compression ("ESC 4" marker and compressed blocks).
+ * The tests echo messages between two PipeChannels and inspect raw bytes written by each channel.
+ */
+public class CompressedStreamTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+    }
+
+    private PipeChannel[] open(boolean compress0, boolean compress1, int max_read) throws Exception {
+        fChannels = PipeChannel.open(compress0, compress1, max_read);
+        return fChannels;
+    }
+
+    private static int indexOf(byte[] buf, int b0, int b1) {
+        for (int i = 0; i + 1 < buf.length; i++) {
+            if (buf[i] == b0 && buf[i + 1] == b1) return i;
+        }
+        return -1;
+    }
+
+    private static List<String> makeData() {
+        List<String> data = new ArrayList<String>();
+        Random rnd = new Random(1);
+        /* Repetitive data, like memory dumps */
+        for (int i = 0; i < 200; i++) {
+            StringBuffer bf = new StringBuffer();
+            for (int j = 0; j < 64; j++) bf.append(Integer.toHexString(0x40001000 + (j % 8) * 4)).append(' ');
+            data.add(bf.toString());
+        }
+        /* Escape characters and non-ASCII text */
+        for (int i = 0; i < 50; i++) data.add("\u0003\u0003 \u0001\u0002\u0004 \u00e4\u4e2d " + i + " \u0003");
+        /* Messages larger than compression block */
+        StringBuffer big = new StringBuffer();
+        for (int i = 0; i < 200000; i++) big.append((char)('a' + i % 23));
+        data.add(big.toString());
+        /* Incompressible data, it is sent as stored blocks */
+        StringBuffer noise = new StringBuffer();
+        for (int i = 0; i < 100000; i++) noise.append((char)(0x20 + rnd.nextInt(0x5f)));
+        data.add(noise.toString());
+        data.add("");
+        return data;
+    }
+
+    private void checkCompressed(PipeChannel[] c) {
+        for (PipeChannel ch : c) {
+            byte[] raw = ch.getRawOutput();
+            int pos = indexOf(raw, StreamChannel.ESC, 4);
+            Assert.assertTrue("Missing compressed stream marker", pos > 0);
+            /* The marker is placed between messages */
+            Assert.assertEquals(StreamChannel.ESC, raw[pos - 2]);
+            Assert.assertEquals(1, raw[pos - 1]);
+            StreamChannel.CompressionStatistics s = ch.getCompressionStatistics();
+            Assert.assertTrue(s.blocks > 0);
+            Assert.assertTrue(s.compressed_bytes < s.raw_bytes);
+        }
+    }
+
+    public void testCompressedEcho() throws Exception {
+        PipeChannel[] c = open(true, true, 0);
+        List<String> data = makeData();
+        PipeChannel.echo(c[0], data);
+        PipeChannel.echo(c[1], data);
+        checkCompressed(c);
+    }
+
+    public void testCompressedSplitReads() throws Exception {
+        /* Compressed block headers and the marker itself are split between reads */
+        PipeChannel[] c = open(true, true, 7);
+        List<String> data = makeData();
+        PipeChannel.echo(c[0], data);
+        PipeChannel.echo(c[1], data);
+        checkCompressed(c);
+    }
+
+    public void testCompressionNotNegotiated() throws Exception {
+        PipeChannel[] c = open(true, false, 0);
+        List<String> data = makeData();
+        PipeChannel.echo(c[0], data);
+        PipeChannel.echo(c[1], data);
+        for (PipeChannel ch : c) {
+            Assert.assertEquals(-1, indexOf(ch.getRawOutput(), StreamChannel.ESC, 4));
+            Assert.assertEquals(0, ch.getCompressionStatistics().blocks);
+        }
+    }
+
+    public void testCloseCompressed() throws Exception {
+        PipeChannel[] c = open(true, true, 0);
+        PipeChannel.echo(c[0], makeData());
+        fChannels = null;
+        PipeChannel.close(c);
+        for (PipeChannel ch : c) {
+            Assert.assertEquals(IChannel.STATE_CLOSED, ch.getState());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.internal.cdt.ui.disassembly.DisassemblyCache;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDisassembly.IDisassemblyLine;
+
+/**
+ * Tests for the cache of decoded instruction blocks used by the disassembly backend.
+ */
+public class DisassemblyCacheTests extends TestCase {
+
+    private static class Line implements IDisassemblyLine {
+
+        final long addr;
+        final int size;
+
+        Line(long addr, int size) {
+            this.addr = addr;
+            this.size = size;
+        }
+
+        public Number getAddress() {
+            return BigInteger.valueOf(addr);
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public byte[] getOpcodeValue() {
+            return null;
+        }
+
+        public Map<String,Object>[] getInstruction() {
+            return null;
+        }
+    }
+
+    private static void invoke(final Runnable r) throws Exception {
+        final Throwable[] error = new Throwable[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    r.run();
+                }
+                catch (Throwable x) {
+                    error[0] = x;
+                }
+            }
+        });
+        if (error[0] instanceof Error) throw (Error)error[0];
+        if (error[0] != null) throw (Exception)error[0];
+    }
+
+    /**
+     * Create a block of instructions of 4 bytes each.
+     */
+    private static DisassemblyCache.Block createBlock(String mem_id, long addr, int cnt) {
+        IDisassemblyLine[] lines = new IDisassemblyLine[cnt];
+        for (int i = 0; i < cnt; i++) lines[i] = new Line(addr + i * 4, 4);
+        return new DisassemblyCache.Block(mem_id, lines);
+    }
+
+    private static BigInteger addr(long addr) {
+        return BigInteger.valueOf(addr);
+    }
+
+    public void testFind() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                DisassemblyCache cache = new DisassemblyCache();
+                DisassemblyCache.Block b = createBlock("P1", 0x1000, 4);
+                Assert.assertEquals(addr(0x1010), b.end);
+                cache.add(b);
+                Assert.assertSame(b, cache.find("P1", addr(0x1000)));
+                Assert.assertSame(b, cache.find("P1", addr(0x100c)));
+                /* Not an instruction start, or outside the block */
+                Assert.assertNull(cache.find("P1", addr(0x1002)));
+                Assert.assertNull(cache.find("P1", addr(0x1010)));
+                Assert.assertNull(cache.find("P1", addr(0xffc)));
+                Assert.assertNull(cache.find("P2", addr(0x1000)));
+
+                Assert.assertSame(b.lines, b.getLines(addr(0x1000), addr(0x1010)));
+                IDisassemblyLine[] lines = b.getLines(addr(0x1004), addr(0x100c));
+                Assert.assertEquals(2, lines.length);
+                Assert.assertSame(b.lines[1], lines[0]);
+                Assert.assertNull(b.getLines(addr(0x1006), addr(0x100c)));
+
+                /* Block at same address replaces the old one */
+                DisassemblyCache.Block c = createBlock("P1", 0x1000, 8);
+                cache.add(c);
+                Assert.assertSame(c, cache.find("P1", addr(0x1014)));
+                Assert.assertSame(c, cache.find("P1", addr(0x1000)));
+                /* Removing a block that is not cached anymore has no effect */
+                cache.remove(b);
+                Assert.assertSame(c, cache.find("P1", addr(0x1000)));
+                cache.remove(c);
+                Assert.assertNull(cache.find("P1", addr(0x1000)));
+            }
+        });
+    }
+
+    public void testMemoryChanged() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                DisassemblyCache cache = new DisassemblyCache();
+                DisassemblyCache.Block b1 = createBlock("P1", 0x1000, 4);
+                DisassemblyCache.Block b2 = createBlock("P1", 0x2000, 4);
+                DisassemblyCache.Block b3 = createBlock("P2", 0x1000, 4);
+                cache.add(b1);
+                cache.add(b2);
+                cache.add(b3);
+
+                /* Range that ends at block start, or starts at block end, does not overlap it */
+                int mod_cnt = cache.getModCount();
+                cache.memoryChanged("P1", new Number[] { 0xff0, 0x2010 }, new long[] { 0x10, 4 });
+                Assert.assertTrue(cache.getModCount() > mod_cnt);
+                Assert.assertSame(b1, cache.find("P1", addr(0x1000)));
+                Assert.assertSame(b2, cache.find("P1", addr(0x2000)));
+
+                /* Only blocks of the context that overlap the range are removed */
+                cache.memoryChanged("P1", new Number[] { 0x100c }, new long[] { 1 });
+                Assert.assertNull(cache.find("P1", addr(0x1000)));
+                Assert.assertSame(b2, cache.find("P1", addr(0x2000)));
+                Assert.assertSame(b3, cache.find("P2", addr(0x1000)));
+
+                /* Null ranges mean whole memory */
+                cache.memoryChanged("P1", null, null);
+                Assert.assertNull(cache.find("P1", addr(0x2000)));
+                Assert.assertSame(b3, cache.find("P2", addr(0x1000)));
+            }
+        });
+    }
+
+    public void testClear() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                DisassemblyCache cache = new DisassemblyCache();
+                DisassemblyCache.Block b1 = createBlock("P1", 0x1000, 4);
+                DisassemblyCache.Block b2 = createBlock("P2", 0x1000, 4);
+                cache.add(b1);
+                cache.add(b2);
+                int mod_cnt = cache.getModCount();
+                cache.clear("P1");
+                Assert.assertEquals(mod_cnt + 1, cache.getModCount());
+                Assert.assertNull(cache.find("P1", addr(0x1000)));
+                Assert.assertSame(b2, cache.find("P2", addr(0x1000)));
+                cache.clear();
+                Assert.assertEquals(mod_cnt + 2, cache.getModCount());
+                Assert.assertNull(cache.find("P2", addr(0x1000)));
+            }
+        });
+    }
+
+    public void testChannel() throws Exception {
+        final PipeChannel[] channels = PipeChannel.open(0);
+        try {
+            invoke(new Runnable() {
+                public void run() {
+                    DisassemblyCache cache = new DisassemblyCache();
+                    cache.setChannel(channels[0]);
+                    DisassemblyCache.Block b = createBlock("P1", 0x1000, 4);
+                    cache.add(b);
+                    /* Same channel keeps the data, new channel clears it */
+                    cache.setChannel(channels[0]);
+                    Assert.assertSame(b, cache.find("P1", addr(0x1000)));
+                    cache.setChannel(null);
+                    Assert.assertNull(cache.find("P1", addr(0x1000)));
+                }
+            });
+        }
+        finally {
+            PipeChannel.close(channels);
+        }
+    }
+
+    public void testLimit() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                DisassemblyCache cache = new DisassemblyCache();
+                int n = 1000;
+                for (int i = 0; i < n; i++) {
+                    cache.add(createBlock("P1", 0x10000 + i * 0x100, 4));
+                    /* Keep the first block recently used */
+                    Assert.assertNotNull(cache.find("P1", addr(0x10000)));
+                }
+                /* Least recently used blocks are evicted, the newest ones are kept */
+                Assert.assertNull(cache.find("P1", addr(0x10100)));
+                Assert.assertNotNull(cache.find("P1", addr(0x10000 + (n - 1) * 0x100)));
+                int cnt = 0;
+                for (int i = 0; i < n; i++) {
+                    if (cache.find("P1", addr(0x10000 + i * 0x100)) != null) cnt++;
+                }
+                Assert.assertTrue(cnt > 1 && cnt < n);
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.internal.debug.model.DownloadManifest;
+
+/**
+ * Tests for block digests used by incremental download of remote program files.
+ */
+public class DownloadManifestTests extends TestCase {
+
+    private static final int BLOCK_SIZE = DownloadManifest.BLOCK_SIZE;
+
+    private File fDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        fDir = File.createTempFile("tcf-downloads", "");
+        Assert.assertTrue(fDir.delete());
+        Assert.assertTrue(fDir.mkdirs());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = fDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        fDir.delete();
+    }
+
+    private File createFile(String name, int size) throws Exception {
+        File f = new File(fDir, name);
+        byte[] buf = new byte[size];
+        for (int i = 0; i < size; i++) buf[i] = (byte)(i * 7 + i / 251);
+        FileOutputStream out = new FileOutputStream(f);
+        try {
+            out.write(buf);
+        }
+        finally {
+            out.close();
+        }
+        return f;
+    }
+
+    private static void patch(File f, long pos, int val) throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(f, "rw");
+        try {
+            raf.seek(pos);
+            int b = raf.read();
+            raf.seek(pos);
+            raf.write(b ^ val);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    private static int countChanged(DownloadManifest m, DownloadManifest base) {
+        int cnt = 0;
+        int blocks = (int)((m.size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        for (int i = 0; i < blocks; i++) {
+            if (!m.isUnchanged(base, i)) cnt++;
+        }
+        return cnt;
+    }
+
+    public void testCompute() throws Exception {
+        File f = createFile("a.elf", BLOCK_SIZE * 2 + 100);
+        DownloadManifest m = DownloadManifest.compute(f);
+        Assert.assertEquals(f.length(), m.size);
+        Assert.assertEquals(0, m.mtime);
+        /* Same content - all blocks unchanged, including the partial last block */
+        DownloadManifest n = DownloadManifest.compute(f);
+        Assert.assertEquals(0, countChanged(n, m));
+        Assert.assertFalse(n.isUnchanged(m, 3));
+
+        DownloadManifest e = DownloadManifest.compute(createFile("empty.elf", 0));
+        Assert.assertEquals(0, e.size);
+        Assert.assertFalse(e.isUnchanged(m, 0));
+    }
+
+    public void testChangedBlocks() throws Exception {
+        File f = createFile("a.elf", BLOCK_SIZE * 4);
+        DownloadManifest base = DownloadManifest.compute(f);
+
+        /* One byte in the second block */
+        patch(f, BLOCK_SIZE + 17, 0x55);
+        DownloadManifest m = DownloadManifest.compute(f);
+        Assert.assertTrue(m.isUnchanged(base, 0));
+        Assert.assertFalse(m.isUnchanged(base, 1));
+        Assert.assertTrue(m.isUnchanged(base, 2));
+        Assert.assertTrue(m.isUnchanged(base, 3));
+
+        /* Last byte of the file */
+        patch(f, BLOCK_SIZE * 4 - 1, 0x01);
+        m = DownloadManifest.compute(f);
+        Assert.assertEquals(2, countChanged(m, base));
+        Assert.assertFalse(m.isUnchanged(base, 3));
+    }
+
+    public void testSizeChange() throws Exception {
+        DownloadManifest base = DownloadManifest.compute(createFile("a.elf", BLOCK_SIZE * 2 + 10));
+
+        /* File grows: the partial block and new blocks are written */
+        DownloadManifest m = DownloadManifest.compute(createFile("b.elf", BLOCK_SIZE * 3 + 10));
+        Assert.assertTrue(m.isUnchanged(base, 0));
+        Assert.assertTrue(m.isUnchanged(base, 1));
+        Assert.assertFalse(m.isUnchanged(base, 2));
+        Assert.assertFalse(m.isUnchanged(base, 3));
+
+        /* File shrinks: whole blocks that remain are kept */
+        m = DownloadManifest.compute(createFile("c.elf", BLOCK_SIZE + 5));
+        Assert.assertTrue(m.isUnchanged(base, 0));
+        Assert.assertFalse(m.isUnchanged(base, 1));
+    }
+
+    public void testSaveLoad() throws Exception {
+        File f = createFile("a.elf", BLOCK_SIZE * 3 + 1);
+        DownloadManifest m = DownloadManifest.compute(f);
+        m.mtime = 1234567890123L;
+        String key = "TCP:127.0.0.1:1534:/tmp/a.elf";
+        Assert.assertNull(DownloadManifest.load(fDir, key));
+        DownloadManifest.save(fDir, key, m);
+
+        DownloadManifest l = DownloadManifest.load(fDir, key);
+        Assert.assertNotNull(l);
+        Assert.assertEquals(m.size, l.size);
+        Assert.assertEquals(m.mtime, l.mtime);
+        Assert.assertEquals(0, countChanged(m, l));
+
+        /* Manifests are kept per peer and remote path */
+        Assert.assertNull(DownloadManifest.load(fDir, "TCP:127.0.0.1:1534:/tmp/b.elf"));
+
+        /* Saving null deletes the manifest */
+        DownloadManifest.save(fDir, key, null);
+        Assert.assertNull(DownloadManifest.load(fDir, key));
+    }
+
+    public void testDamagedFile() throws Exception {
+        DownloadManifest m = DownloadManifest.compute(createFile("a.elf", BLOCK_SIZE * 2));
+        String key = "TCP:127.0.0.1:1534:/tmp/a.elf";
+        DownloadManifest.save(fDir, key, m);
+        File[] files = fDir.listFiles();
+        for (File f : files) {
+            if (f.getName().endsWith(".elf")) continue;
+            /* Truncated manifest is ignored */
+            RandomAccessFile raf = new RandomAccessFile(f, "rw");
+            raf.setLength(raf.length() - 5);
+            raf.close();
+        }
+        Assert.assertNull(DownloadManifest.load(fDir, key));
+    }
+}
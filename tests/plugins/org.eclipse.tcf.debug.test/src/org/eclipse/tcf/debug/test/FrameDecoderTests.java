@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.protocol.IChannel;
+
+/**
+ * Tests for block decoding of StreamChannel input.
+ * Messages are echoed between two PipeChannels, reads are limited to small random sizes,
+ * so escape sequences, binary block headers and messages are split at arbitrary points.
+ */
+public class FrameDecoderTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+    }
+
+    private PipeChannel[] open(int max_read) throws Exception {
+        fChannels = PipeChannel.open(max_read);
+        return fChannels;
+    }
+
+    private static String makeString(int len, int seed) {
+        StringBuffer bf = new StringBuffer(len);
+        for (int i = 0; i < len; i++) bf.append((char)((i * 31 + seed) % 0x7f + 1));
+        return bf.toString();
+    }
+
+    private void echoBothWays(List<String> data) throws Exception {
+        PipeChannel.echo(fChannels[0], data);
+        PipeChannel.echo(fChannels[1], data);
+    }
+
+    public void testEscapes() throws Exception {
+        /* Short messages are written with escapes, ESC is sent as "ESC 0" */
+        open(1);
+        List<String> data = new ArrayList<String>();
+        data.add("");
+        data.add("\u0003");
+        data.add("\u0003\u0003\u0003");
+        data.add("\u0001\u0002\u0003\u0000");
+        data.add("\u00e4\u4e2d\u0003");
+        for (int i = 0; i < 200; i++) data.add(makeString(i % 24, i));
+        echoBothWays(data);
+    }
+
+    public void testBinaryBlocks() throws Exception {
+        /* Longer message data is sent as "ESC 3" binary blocks, the size is a variable length number */
+        open(5);
+        List<String> data = new ArrayList<String>();
+        for (int i = 20; i < 300; i++) data.add(makeString(i, i));
+        data.add(makeString(0x3fff, 1));
+        data.add(makeString(0x4000, 2));
+        data.add(makeString(0x4001, 3));
+        echoBothWays(data);
+    }
+
+    public void testLargeMessages() throws Exception {
+        /* Messages that span many input blocks, large results are parsed in place */
+        open(0);
+        List<String> data = new ArrayList<String>();
+        data.add(makeString(1000000, 1));
+        for (int i = 0; i < 50; i++) data.add(makeString(20000 + i * 1000, i));
+        data.add(makeString(3000000, 2));
+        echoBothWays(data);
+    }
+
+    public void testManySmallMessages() throws Exception {
+        /* Many messages in a single input block */
+        open(0);
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < 20000; i++) data.add(Integer.toString(i));
+        echoBothWays(data);
+    }
+
+    public void testRandomSplits() throws Exception {
+        open(97);
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < 500; i++) data.add(makeString((i * 7919) % 5000, i));
+        echoBothWays(data);
+    }
+
+    public void testEndOfStream() throws Exception {
+        PipeChannel[] c = open(3);
+        List<String> data = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) data.add(makeString(i * 10, i));
+        echoBothWays(data);
+        fChannels = null;
+        PipeChannel.close(c);
+        for (PipeChannel ch : c) {
+            Assert.assertEquals(IChannel.STATE_CLOSED, ch.getState());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.JSONReader;
+import org.eclipse.tcf.protocol.JSONWriter;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Checks that JSONReader and JSONWriter produce the same results as the static JSON codec.
+ */
+public class JSONCodecTests extends TestCase {
+
+    private Object[] fChildren;
+    private Object[] fSamples;
+
+    @Override
+    protected void setUp() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) ids.add("P1234.T" + i);
+        fChildren = new Object[] { null, ids };
+        List<Map<String,Object>> samples = new ArrayList<Map<String,Object>>();
+        for (int i = 0; i < 500; i++) {
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put("Count", i % 17);
+            m.put("Time", 1700000000000L + i);
+            m.put("PC", Arrays.asList(0x400000 + i * 4, 0x400100 + i * 8, 0x7fff0000L + i));
+            m.put("Name", "func_\u00e4\u4e2d_" + i);
+            m.put("Ok", i % 2 == 0);
+            samples.add(m);
+        }
+        fSamples = new Object[] { null, samples };
+    }
+
+    private byte[] encode(final Object[] args) {
+        final byte[][] res = new byte[1][];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    res[0] = JSON.toJSONSequence(args);
+                }
+                catch (Exception x) {
+                    throw new RuntimeException(x);
+                }
+            }
+        });
+        return res[0];
+    }
+
+    private Object[] parse(final byte[] data) {
+        final Object[][] res = new Object[1][];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    res[0] = JSON.parseSequence(data);
+                }
+                catch (Exception x) {
+                    throw new RuntimeException(x);
+                }
+            }
+        });
+        return res[0];
+    }
+
+    private void checkParse(byte[] data) throws Exception {
+        JSONReader r = new JSONReader();
+        r.reset(data, 0, data.length);
+        Assert.assertEquals(Arrays.asList(parse(data)), Arrays.asList(r.nextSequence()));
+        /* The reader is reusable */
+        r.reset(data, 0, data.length);
+        Assert.assertEquals(Arrays.asList(parse(data)), Arrays.asList(r.nextSequence()));
+    }
+
+    private void checkWrite(Object[] args) throws Exception {
+        JSONWriter w = new JSONWriter();
+        Assert.assertTrue(Arrays.equals(encode(args), w.toJSONSequence(args, false)));
+        Assert.assertTrue(Arrays.equals(encode(args), w.toJSONSequence(args, false)));
+    }
+
+    public void testParseChildren() throws Exception {
+        checkParse(encode(fChildren));
+    }
+
+    public void testParseSamples() throws Exception {
+        checkParse(encode(fSamples));
+    }
+
+    public void testParseValues() throws Exception {
+        checkParse("1\0\"x\\u00e4\\n\"\0{\"A\":[1,2.5,-3,12345678901234,true,false,null]}\0".getBytes("UTF-8"));
+        checkParse("\0null\0[]\0{}\0".getBytes("UTF-8"));
+        checkParse(new byte[0]);
+    }
+
+    public void testParseSlice() throws Exception {
+        byte[] data = "XX[1,2]\0\"a\"\0YY".getBytes("UTF-8");
+        JSONReader r = new JSONReader();
+        r.reset(data, 2, data.length - 4);
+        Object[] res = r.nextSequence();
+        Assert.assertEquals(2, res.length);
+        Assert.assertEquals(Arrays.asList(1, 2), res[0]);
+        Assert.assertEquals("a", res[1]);
+    }
+
+    public void testParseError() throws Exception {
+        byte[] data = "{\"A\":}\0".getBytes("UTF-8");
+        JSONReader r = new JSONReader();
+        r.reset(data, 0, data.length);
+        try {
+            r.nextSequence();
+            Assert.fail("Syntax error expected");
+        }
+        catch (IOException x) {
+        }
+    }
+
+    public void testWriteChildren() throws Exception {
+        checkWrite(fChildren);
+    }
+
+    public void testWriteSamples() throws Exception {
+        checkWrite(fSamples);
+    }
+
+    public void testWriteEmpty() throws Exception {
+        JSONWriter w = new JSONWriter();
+        Assert.assertNull(w.toJSONSequence(null, false));
+        Assert.assertNull(w.toJSONSequence(new Object[0], false));
+    }
+
+    public void testPullChildren() throws Exception {
+        byte[] data = encode(fChildren);
+        JSONReader r = new JSONReader(data, 0, data.length);
+        r.nextNull();
+        r.nextSeparator();
+        int cnt = 0;
+        r.beginArray();
+        while (r.hasNext()) {
+            Assert.assertEquals("P1234.T" + cnt, r.nextString());
+            cnt++;
+        }
+        r.endArray();
+        r.nextSeparator();
+        Assert.assertEquals(JSONReader.END_OF_INPUT, r.peek());
+        Assert.assertEquals(1000, cnt);
+    }
+
+    public void testPullSamples() throws Exception {
+        byte[] data = encode(fSamples);
+        JSONReader r = new JSONReader(data, 0, data.length);
+        r.skipValue();
+        r.nextSeparator();
+        long time = 0;
+        r.beginArray();
+        while (r.hasNext()) {
+            r.beginObject();
+            while (r.hasNext()) {
+                if (r.nextName().equals("Time")) time += r.nextLong() - 1700000000000L;
+                else r.skipValue();
+            }
+            r.endObject();
+        }
+        r.endArray();
+        r.nextSeparator();
+        Assert.assertEquals(499L * 500 / 2, time);
+    }
+}
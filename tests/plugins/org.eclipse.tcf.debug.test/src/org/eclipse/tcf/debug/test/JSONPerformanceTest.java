@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.protocol.JSON;
+import org.eclipse.tcf.protocol.JSONReader;
+import org.eclipse.tcf.protocol.JSONWriter;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+/**
+ * Compares static JSON codec with JSONReader and JSONWriter.
+ * Messages are modeled after large getChildren replies and profiler sample lists.
+ */
+public class JSONPerformanceTest extends TestCase {
+
+    private static final int RUNS = 20;
+    private static final int ITERATIONS = 20;
+
+    private Object[] fChildren;
+    private Object[] fSamples;
+
+    @Override
+    protected void setUp() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++) ids.add("P1234.T" + i);
+        fChildren = new Object[] { null, ids };
+        List<Map<String,Object>> samples = new ArrayList<Map<String,Object>>();
+        for (int i = 0; i < 5000; i++) {
+            Map<String,Object> m = new HashMap<String,Object>();
+            m.put("Count", i % 17);
+            m.put("Time", 1700000000000L + i);
+            m.put("PC", Arrays.asList(0x400000 + i * 4, 0x400100 + i * 8, 0x7fff0000L + i));
+            m.put("Name", "func_\u00e4_" + i);
+            samples.add(m);
+        }
+        fSamples = new Object[] { null, samples };
+    }
+
+    private byte[] encode(final Object[] args) {
+        final byte[][] res = new byte[1][];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    res[0] = JSON.toJSONSequence(args);
+                }
+                catch (Exception x) {
+                    throw new RuntimeException(x);
+                }
+            }
+        });
+        return res[0];
+    }
+
+    private void measureParse(String id, final byte[] data) throws Exception {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter json = perf.createPerformanceMeter(perf.getDefaultScenarioId(this, id + ".JSON"));
+        PerformanceMeter reader = perf.createPerformanceMeter(perf.getDefaultScenarioId(this, id + ".JSONReader"));
+        try {
+            final Object[][] expected = new Object[1][];
+            for (int i = 0; i < RUNS; i++) {
+                json.start();
+                Protocol.invokeAndWait(new Runnable() {
+                    public void run() {
+                        try {
+                            for (int j = 0; j < ITERATIONS; j++) expected[0] = JSON.parseSequence(data);
+                        }
+                        catch (Exception x) {
+                            throw new RuntimeException(x);
+                        }
+                    }
+                });
+                json.stop();
+            }
+            JSONReader r = new JSONReader();
+            Object[] actual = null;
+            for (int i = 0; i < RUNS; i++) {
+                reader.start();
+                for (int j = 0; j < ITERATIONS; j++) {
+                    r.reset(data, 0, data.length);
+                    actual = r.nextSequence();
+                }
+                reader.stop();
+            }
+            Assert.assertEquals(Arrays.asList(expected[0]), Arrays.asList(actual));
+            json.commit();
+            reader.commit();
+        }
+        finally {
+            json.dispose();
+            reader.dispose();
+        }
+    }
+
+    private void measureWrite(String id, final Object[] args) throws Exception {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter json = perf.createPerformanceMeter(perf.getDefaultScenarioId(this, id + ".JSON"));
+        PerformanceMeter writer = perf.createPerformanceMeter(perf.getDefaultScenarioId(this, id + ".JSONWriter"));
+        try {
+            final byte[][] expected = new byte[1][];
+            for (int i = 0; i < RUNS; i++) {
+                json.start();
+                Protocol.invokeAndWait(new Runnable() {
+                    public void run() {
+                        try {
+                            for (int j = 0; j < ITERATIONS; j++) expected[0] = JSON.toJSONSequence(args);
+                        }
+                        catch (Exception x) {
+                            throw new RuntimeException(x);
+                        }
+                    }
+                });
+                json.stop();
+            }
+            JSONWriter w = new JSONWriter();
+            byte[] actual = null;
+            for (int i = 0; i < RUNS; i++) {
+                writer.start();
+                for (int j = 0; j < ITERATIONS; j++) actual = w.toJSONSequence(args, false);
+                writer.stop();
+            }
+            Assert.assertTrue(Arrays.equals(expected[0], actual));
+            json.commit();
+            writer.commit();
+        }
+        finally {
+            json.dispose();
+            writer.dispose();
+        }
+    }
+
+    public void testParseChildren() throws Exception {
+        measureParse("children", encode(fChildren));
+    }
+
+    public void testParseSamples() throws Exception {
+        measureParse("samples", encode(fSamples));
+    }
+
+    public void testWriteChildren() throws Exception {
+        measureWrite("children", fChildren);
+    }
+
+    public void testWriteSamples() throws Exception {
+        measureWrite("samples", fSamples);
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.LockFreeEventQueue;
+
+/**
+ * Tests for LockFreeEventQueue. Each test uses its own queue instance,
+ * the queue of the framework is not affected.
+ */
+public class LockFreeEventQueueTests extends TestCase {
+
+    private static final int TIMEOUT = 30000;
+
+    private LockFreeEventQueue fQueue;
+
+    /**
+     * Event that records its sequence number.
+     */
+    private static class SeqEvent implements Runnable {
+
+        final int producer;
+        final int seq;
+        final int[] last;
+        final List<String> errors;
+        final CountDownLatch done;
+        final LockFreeEventQueue queue;
+
+        SeqEvent(LockFreeEventQueue queue, int producer, int seq, int[] last, List<String> errors, CountDownLatch done) {
+            this.queue = queue;
+            this.producer = producer;
+            this.seq = seq;
+            this.last = last;
+            this.errors = errors;
+            this.done = done;
+        }
+
+        public void run() {
+            /* Events are executed by the dispatch thread only, no need to synchronize */
+            if (!queue.isDispatchThread()) errors.add("Not in dispatch thread");
+            if (last[producer] != seq - 1) errors.add("Producer " + producer + ": event " + seq + " after " + last[producer]);
+            last[producer] = seq;
+            done.countDown();
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        fQueue = new LockFreeEventQueue("TCF Test Event Queue");
+        fQueue.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        fQueue.shutdown();
+        fQueue = null;
+    }
+
+    private void sync() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        fQueue.invokeLater(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        });
+        Assert.assertTrue("Timed out waiting for event", done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    public void testOrder() throws Exception {
+        final int producers = 8;
+        final int events = 20000;
+        final int[] last = new int[producers];
+        for (int i = 0; i < producers; i++) last[i] = -1;
+        final List<String> errors = new ArrayList<String>();
+        final CountDownLatch done = new CountDownLatch(producers * events);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < producers; i++) {
+            final int producer = i;
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    for (int seq = 0; seq < events; seq++) {
+                        fQueue.invokeLater(new SeqEvent(fQueue, producer, seq, last, errors, done));
+                        /* Let the dispatch thread run out of events and park from time to time */
+                        if (seq % 1000 == 999) Thread.yield();
+                    }
+                }
+            };
+            threads.add(t);
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join(TIMEOUT);
+        Assert.assertTrue("Timed out waiting for events", done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        sync();
+        Assert.assertEquals(new ArrayList<String>(), errors);
+        for (int i = 0; i < producers; i++) Assert.assertEquals(events - 1, last[i]);
+        Assert.assertFalse(fQueue.isDispatchThread());
+    }
+
+    public void testStatistics() throws Exception {
+        final CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            fQueue.invokeLater(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            });
+        }
+        Assert.assertTrue("Timed out waiting for events", done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        sync();
+        LockFreeEventQueue.Statistics s = fQueue.getStatistics();
+        Assert.assertEquals(101, s.events);
+        Assert.assertEquals(0, s.queue_depth);
+        Assert.assertTrue(s.max_queue_depth >= 1 && s.max_queue_depth <= 100);
+        Assert.assertTrue(s.max_latency >= s.avg_latency);
+        long cnt = 0;
+        for (long n : s.latency_histogram) cnt += n;
+        Assert.assertEquals(s.events, cnt);
+        Assert.assertTrue(s.utilization >= 0 && s.utilization <= 100);
+        /* Profiling is disabled by default */
+        Assert.assertTrue(s.classes.isEmpty());
+        /* Congestion is reported only while events are waiting */
+        Assert.assertEquals(-100, fQueue.getCongestion());
+    }
+
+    private static class SlowEvent implements Runnable {
+        public void run() {
+            try {
+                Thread.sleep(2);
+            }
+            catch (InterruptedException x) {
+            }
+        }
+    }
+
+    private static class FastEvent implements Runnable {
+        public void run() {
+        }
+    }
+
+    public void testProfiling() throws Exception {
+        fQueue.setProfiling(true);
+        for (int i = 0; i < 10; i++) {
+            fQueue.invokeLater(new SlowEvent());
+            fQueue.invokeLater(new FastEvent());
+        }
+        sync();
+        List<LockFreeEventQueue.ClassStatistics> classes = fQueue.getStatistics().classes;
+        Assert.assertTrue(classes.size() >= 2);
+        /* Sorted by total time */
+        Assert.assertEquals(SlowEvent.class.getName(), classes.get(0).name);
+        Assert.assertEquals(10, classes.get(0).count);
+        Assert.assertTrue(classes.get(0).total_time >= 10 * 2000000L);
+        Assert.assertTrue(classes.get(0).max_time >= 2000000L);
+        boolean fast = false;
+        for (LockFreeEventQueue.ClassStatistics c : classes) {
+            if (c.name.equals(FastEvent.class.getName())) {
+                Assert.assertEquals(10, c.count);
+                fast = true;
+            }
+        }
+        Assert.assertTrue(fast);
+
+        fQueue.setProfiling(false);
+        Assert.assertTrue(fQueue.getStatistics().classes.isEmpty());
+    }
+
+    public void testExceptionInEvent() throws Exception {
+        final int[] cnt = new int[1];
+        fQueue.invokeLater(new Runnable() {
+            public void run() {
+                throw new IllegalStateException("Test");
+            }
+        });
+        fQueue.invokeLater(new Runnable() {
+            public void run() {
+                cnt[0]++;
+            }
+        });
+        /* The dispatch thread survives exceptions thrown by events */
+        sync();
+        Assert.assertEquals(1, cnt[0]);
+    }
+
+    public void testShutdown() throws Exception {
+        final int[] cnt = new int[1];
+        for (int i = 0; i < 1000; i++) {
+            fQueue.invokeLater(new Runnable() {
+                public void run() {
+                    cnt[0]++;
+                }
+            });
+        }
+        /* Queued events are executed before the thread exits */
+        fQueue.shutdown();
+        Assert.assertEquals(1000, cnt[0]);
+        try {
+            fQueue.invokeLater(new FastEvent());
+            fail("Event queued after shutdown");
+        }
+        catch (IllegalStateException x) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Performance tests, they are not part of the functional suites.
+ */
+public class PerformanceSuite extends TestSuite {
+
+    public PerformanceSuite() throws Exception {
+        addTest(new TestSuite(JSONPerformanceTest.class));
+        addTest(new TestSuite(CompressedStreamPerformanceTest.class));
+    }
+
+    /**
+     * Returns the suite.  This is required to
+     * use the JUnit Launcher.
+     */
+    public static Test suite() throws Exception {
+        return new PerformanceSuite();
+    }
+
+}
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.eclipse.tcf.core.StreamChannel;
+import org.eclipse.tcf.core.TransientPeer;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IPeer;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+
+/**
+ * StreamChannel that is connected back to back with another PipeChannel through in-memory pipes.
+ * Tests use it to exchange messages without sockets and to inspect raw bytes written by a channel.
+ */
+class PipeChannel extends StreamChannel {
+
+    static final int TIMEOUT = 30000;
+
+    /**
+     * One direction of an in-memory connection.
+     * If 'max_read' is not 0, reads return random number of bytes up to 'max_read',
+     * so escape sequences and messages are split at arbitrary points.
+     */
+    private static class Pipe {
+
+        private final byte[] buf = new byte[0x10000];
+        private final int max_read;
+        private final Random rnd = new Random(1);
+        private int inp;
+        private int out;
+        private int cnt;
+        private boolean closed;
+
+        Pipe(int max_read) {
+            this.max_read = max_read;
+        }
+
+        synchronized int read(byte[] b) throws IOException {
+            try {
+                while (cnt == 0) {
+                    if (closed) return -1;
+                    wait();
+                }
+                int max = b.length;
+                if (max_read > 0) max = Math.min(max, 1 + rnd.nextInt(max_read));
+                int n = 0;
+                while (n < max && cnt > 0) {
+                    b[n++] = buf[out];
+                    out = (out + 1) % buf.length;
+                    cnt--;
+                }
+                notifyAll();
+                return n;
+            }
+            catch (InterruptedException x) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        synchronized void write(byte[] b, int pos, int len) throws IOException {
+            try {
+                while (len > 0) {
+                    if (closed) throw new IOException("Pipe closed");
+                    if (cnt == buf.length) {
+                        notifyAll();
+                        wait();
+                        continue;
+                    }
+                    buf[inp] = b[pos++];
+                    inp = (inp + 1) % buf.length;
+                    cnt++;
+                    len--;
+                }
+                notifyAll();
+            }
+            catch (InterruptedException x) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    private final Pipe inp;
+    private final Pipe out;
+    private final boolean compression;
+    private final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+    private final byte[] one = new byte[1];
+
+    private PipeChannel(IPeer peer, Pipe inp, Pipe out, boolean compression) {
+        super(peer);
+        this.inp = inp;
+        this.out = out;
+        this.compression = compression;
+        start();
+    }
+
+    /**
+     * Create two connected channels without stream compression and wait until both are open.
+     * @param max_read - maximal number of bytes returned by one read, 0 means no limit.
+     * @return the channels.
+     * @throws Exception
+     */
+    static PipeChannel[] open(int max_read) throws Exception {
+        return open(false, false, max_read);
+    }
+
+    /**
+     * Create two connected channels and wait until both are open.
+     * @param compress0 - true if the first channel offers stream compression.
+     * @param compress1 - true if the second channel offers stream compression.
+     * @param max_read - maximal number of bytes returned by one read, 0 means no limit.
+     * @return the channels.
+     * @throws Exception
+     */
+    static PipeChannel[] open(final boolean compress0, final boolean compress1, final int max_read) throws Exception {
+        final CountDownLatch opened = new CountDownLatch(2);
+        final PipeChannel[] res = new PipeChannel[2];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                Map<String,String> attrs = new HashMap<String,String>();
+                attrs.put(IPeer.ATTR_ID, "PipeChannel");
+                attrs.put(IPeer.ATTR_NAME, "PipeChannel");
+                IPeer peer = new TransientPeer(attrs);
+                Pipe p0 = new Pipe(max_read);
+                Pipe p1 = new Pipe(max_read);
+                res[0] = new PipeChannel(peer, p0, p1, compress0);
+                res[1] = new PipeChannel(peer, p1, p0, compress1);
+                for (PipeChannel c : res) {
+                    c.addChannelListener(new IChannel.IChannelListener() {
+                        public void onChannelOpened() {
+                            opened.countDown();
+                        }
+                        public void congestionLevel(int level) {
+                        }
+                        public void onChannelClosed(Throwable error) {
+                        }
+                    });
+                }
+            }
+        });
+        Assert.assertTrue("Timed out opening channels", opened.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        return res;
+    }
+
+    /**
+     * Close the channels and wait until both are closed.
+     * Fails if a channel is closed because of an error.
+     * @param channels - channels created by open().
+     * @throws Exception
+     */
+    static void close(final PipeChannel[] channels) throws Exception {
+        final CountDownLatch closed = new CountDownLatch(channels.length);
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                for (PipeChannel c : channels) {
+                    if (c.getState() == IChannel.STATE_CLOSED) {
+                        closed.countDown();
+                        continue;
+                    }
+                    c.addChannelListener(new IChannel.IChannelListener() {
+                        public void onChannelOpened() {
+                        }
+                        public void congestionLevel(int level) {
+                        }
+                        public void onChannelClosed(Throwable error) {
+                            if (error != null) errors.add(error);
+                            closed.countDown();
+                        }
+                    });
+                }
+                if (channels[0].getState() != IChannel.STATE_CLOSED) channels[0].close();
+            }
+        });
+        Assert.assertTrue("Timed out closing channels", closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(new ArrayList<Throwable>(), errors);
+    }
+
+    /**
+     * Send all strings to remote Diagnostics service, wait for replies and check them.
+     * @param channel - the channel.
+     * @param data - the strings.
+     * @throws Exception
+     */
+    static void echo(final IChannel channel, final List<String> data) throws Exception {
+        final CountDownLatch done = new CountDownLatch(data.size());
+        final List<String> errors = new ArrayList<String>();
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                IDiagnostics diag = channel.getRemoteService(IDiagnostics.class);
+                for (final String s : data) {
+                    diag.echo(s, new IDiagnostics.DoneEcho() {
+                        public void doneEcho(IToken token, Throwable error, String str) {
+                            if (error != null) errors.add(error.toString());
+                            else if (!s.equals(str)) errors.add("Invalid echo reply, length " + str.length());
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        Assert.assertTrue("Timed out waiting for echo replies", done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(new ArrayList<String>(), errors);
+    }
+
+    /**
+     * @return copy of all bytes written by the channel.
+     */
+    byte[] getRawOutput() {
+        synchronized (raw) {
+            return raw.toByteArray();
+        }
+    }
+
+    @Override
+    protected boolean isCompressionEnabled() {
+        return compression;
+    }
+
+    @Override
+    protected int get() throws IOException {
+        byte[] b = new byte[1];
+        if (inp.read(b) < 0) return -1;
+        return b[0] & 0xff;
+    }
+
+    @Override
+    protected int get(byte[] buf) throws IOException {
+        return inp.read(buf);
+    }
+
+    @Override
+    protected void put(int n) throws IOException {
+        one[0] = (byte)n;
+        put(one, 0, 1);
+    }
+
+    @Override
+    protected void put(byte[] buf) throws IOException {
+        put(buf, 0, buf.length);
+    }
+
+    @Override
+    protected void put(byte[] buf, int pos, int len) throws IOException {
+        synchronized (raw) {
+            raw.write(buf, pos, len);
+        }
+        out.write(buf, pos, len);
+    }
+
+    @Override
+    protected void flush() throws IOException {
+    }
+
+    @Override
+    protected void stop() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.internal.debug.ui.profiler.LongMap;
+import org.eclipse.tcf.internal.debug.ui.profiler.StackTraceTree;
+
+/**
+ * Tests for data structures used by the profiler view to aggregate samples.
+ */
+public class ProfilerDataTests extends TestCase {
+
+    public void testLongMap() throws Exception {
+        LongMap<String> map = new LongMap<String>();
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(0));
+        map.put(0, "zero");
+        map.put(-1, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(Long.MAX_VALUE, "max");
+        Assert.assertEquals(4, map.size());
+        Assert.assertEquals("zero", map.get(0));
+        Assert.assertEquals("minus one", map.get(-1));
+        Assert.assertEquals("min", map.get(Long.MIN_VALUE));
+        Assert.assertEquals("max", map.get(Long.MAX_VALUE));
+        Assert.assertNull(map.get(1));
+
+        /* Put with existing key replaces the value */
+        map.put(-1, "replaced");
+        Assert.assertEquals(4, map.size());
+        Assert.assertEquals("replaced", map.get(-1));
+
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(0));
+    }
+
+    public void testLongMapGrow() throws Exception {
+        LongMap<Long> map = new LongMap<Long>();
+        Map<Long,Long> ref = new HashMap<Long,Long>();
+        Random rnd = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            /* Addresses are often aligned, which must not degrade hashing */
+            long key = i % 2 == 0 ? 0x80000000L + i * 16L : rnd.nextLong();
+            map.put(key, key + 1);
+            ref.put(key, key + 1);
+        }
+        Assert.assertEquals(ref.size(), map.size());
+        for (Map.Entry<Long,Long> e : ref.entrySet()) {
+            Assert.assertEquals(e.getValue(), map.get(e.getKey()));
+        }
+        List<Long> values = new ArrayList<Long>();
+        map.getValues(values);
+        Assert.assertEquals(ref.size(), values.size());
+        Assert.assertEquals(new HashSet<Long>(ref.values()), new HashSet<Long>(values));
+    }
+
+    private static StackTraceTree.Node find(List<StackTraceTree.Node> list, long... trace) {
+        for (StackTraceTree.Node n : list) {
+            if (n.depth != trace.length - 1) continue;
+            StackTraceTree.Node x = n;
+            while (x.depth >= 0 && x.addr == trace[x.depth]) x = x.parent;
+            if (x.depth < 0) return n;
+        }
+        return null;
+    }
+
+    public void testStackTraceTree() throws Exception {
+        StackTraceTree tree = new StackTraceTree();
+        tree.add(new long[] { 0x100, 0x200, 0x300 }, 3, 1);
+        tree.add(new long[] { 0x104, 0x200, 0x300 }, 3, 2);
+        tree.add(new long[] { 0x100, 0x200, 0x300 }, 3, 5);
+        tree.add(new long[] { 0x100, 0x200, 0x400 }, 3, 4);
+        tree.add(new long[] { 0x100, 0x200, 0x300, 0x500 }, 2, 1);
+        tree.add(new long[] { 0x600 }, 1, 0);
+
+        /* Same stack trace is counted in one node */
+        List<StackTraceTree.Node> updates = tree.getUpdates();
+        Assert.assertEquals(4, updates.size());
+        StackTraceTree.Node a = find(updates, 0x100, 0x200, 0x300);
+        StackTraceTree.Node b = find(updates, 0x104, 0x200, 0x300);
+        StackTraceTree.Node c = find(updates, 0x100, 0x200);
+        StackTraceTree.Node d = find(updates, 0x100, 0x200, 0x400);
+        Assert.assertNotNull(a);
+        Assert.assertNotNull(b);
+        Assert.assertNotNull(c);
+        Assert.assertNotNull(d);
+        Assert.assertEquals(6, a.count);
+        Assert.assertEquals(2, b.count);
+        Assert.assertEquals(1, c.count);
+        Assert.assertEquals(4, d.count);
+        Assert.assertEquals(6, a.new_count);
+
+        /* Common innermost frames share tree branches */
+        Assert.assertSame(c, a.parent);
+        Assert.assertSame(c, d.parent);
+        Assert.assertEquals(0x100, c.parent.addr);
+        Assert.assertEquals(0, c.parent.depth);
+        Assert.assertEquals(0, c.parent.count);
+        Assert.assertNotSame(a.parent, b.parent);
+
+        /* Updates are collected incrementally */
+        tree.clearUpdates();
+        Assert.assertEquals(0, tree.getUpdates().size());
+        Assert.assertEquals(0, a.new_count);
+        Assert.assertEquals(6, a.count);
+        tree.add(new long[] { 0x100, 0x200, 0x300 }, 3, 3);
+        Assert.assertEquals(1, tree.getUpdates().size());
+        Assert.assertSame(a, tree.getUpdates().get(0));
+        Assert.assertEquals(9, a.count);
+        Assert.assertEquals(3, a.new_count);
+    }
+
+    public void testStackTraceTreeWide() throws Exception {
+        /* Node with many children switches from array to hash map */
+        StackTraceTree tree = new StackTraceTree();
+        for (int j = 0; j < 2; j++) {
+            for (int i = 0; i < 100; i++) {
+                tree.add(new long[] { 0x2000, 0x1000 + i * 4 }, 2, 1);
+            }
+        }
+        List<StackTraceTree.Node> updates = tree.getUpdates();
+        Assert.assertEquals(100, updates.size());
+        StackTraceTree.Node parent = updates.get(0).parent;
+        for (int i = 0; i < 100; i++) {
+            StackTraceTree.Node n = find(updates, 0x2000, 0x1000 + i * 4);
+            Assert.assertNotNull(n);
+            Assert.assertEquals(2, n.count);
+            Assert.assertSame(parent, n.parent);
+        }
+    }
+
+    public void testClearData() throws Exception {
+        StackTraceTree tree = new StackTraceTree();
+        for (int i = 0; i < 20; i++) {
+            tree.add(new long[] { 0x3000, 0x2000, 0x1000 + i }, 3, 1);
+        }
+        List<StackTraceTree.Node> nodes = new ArrayList<StackTraceTree.Node>(tree.getUpdates());
+        for (StackTraceTree.Node n : nodes) {
+            for (StackTraceTree.Node x = n; x.depth >= 0; x = x.parent) x.data = "func";
+        }
+        /* Client data is dropped, e.g. when memory map changes, sample counts are kept */
+        tree.clearData();
+        for (StackTraceTree.Node n : nodes) {
+            for (StackTraceTree.Node x = n; x.depth >= 0; x = x.parent) Assert.assertNull(x.data);
+            Assert.assertEquals(1, n.count);
+        }
+    }
+}
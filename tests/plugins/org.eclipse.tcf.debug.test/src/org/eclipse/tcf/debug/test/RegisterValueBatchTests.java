@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.core.ErrorReport;
+import org.eclipse.tcf.internal.debug.ui.model.TCFRegisterValueBatch;
+import org.eclipse.tcf.protocol.IErrorReport;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IRegisters;
+
+/**
+ * Tests for reading values of sibling registers with single getm command.
+ */
+public class RegisterValueBatchTests extends TestCase {
+
+    private PipeChannel[] fChannels;
+    private FakeRegisters fRegisters;
+
+    /**
+     * Registers service that replies to getm with a value made of register IDs,
+     * or with an error.
+     */
+    private static class FakeRegisters implements IRegisters {
+
+        final List<Location[]> getm = new ArrayList<Location[]>();
+        Exception error;
+        int short_reply;
+
+        public String getName() {
+            return NAME;
+        }
+
+        public IToken getContext(String id, DoneGetContext done) {
+            throw new UnsupportedOperationException();
+        }
+
+        public IToken getChildren(String parent_context_id, DoneGetChildren done) {
+            throw new UnsupportedOperationException();
+        }
+
+        public IToken getm(final Location[] locs, final DoneGet done) {
+            getm.add(locs);
+            final IToken token = new IToken() {
+                public boolean cancel() {
+                    return false;
+                }
+            };
+            Protocol.invokeLater(new Runnable() {
+                public void run() {
+                    if (error != null) {
+                        done.doneGet(token, error, null);
+                        return;
+                    }
+                    int size = 0;
+                    for (Location l : locs) size += l.size;
+                    byte[] value = new byte[size - short_reply];
+                    int offs = 0;
+                    for (Location l : locs) {
+                        for (int i = 0; i < l.size && offs < value.length; i++) value[offs++] = getByte(l.id, i);
+                    }
+                    done.doneGet(token, null, value);
+                }
+            });
+            return token;
+        }
+
+        public IToken setm(Location[] locs, byte[] value, DoneSet done) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void addListener(RegistersListener listener) {
+        }
+
+        public void removeListener(RegistersListener listener) {
+        }
+    }
+
+    private static byte getByte(String id, int i) {
+        return (byte)(id.hashCode() + i);
+    }
+
+    private static byte[] getValue(String id, int size) {
+        byte[] buf = new byte[size];
+        for (int i = 0; i < size; i++) buf[i] = getByte(id, i);
+        return buf;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        fChannels = PipeChannel.open(0);
+        fRegisters = new FakeRegisters();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (fChannels != null) PipeChannel.close(fChannels);
+        fChannels = null;
+    }
+
+    /**
+     * Create a batch, add registers and validate it the same way register nodes do:
+     * all registers are added in one dispatch cycle.
+     */
+    private Map<String,byte[]> read(final TCFRegisterValueBatch batch, final String[] ids, final int[] sizes) throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<Map<String,byte[]>> res = new ArrayList<Map<String,byte[]>>();
+        final boolean[] added = new boolean[ids.length];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                for (int i = 0; i < ids.length; i++) {
+                    added[i] = batch.add(ids[i], sizes[i]);
+                    batch.validate(new Runnable() {
+                        public void run() {
+                            if (!batch.validate(this)) return;
+                            if (res.size() == 0) res.add(batch.getData());
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        for (boolean b : added) Assert.assertTrue(b);
+        Assert.assertTrue("Timed out waiting for values", done.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+        return res.get(0);
+    }
+
+    private static boolean add(final TCFRegisterValueBatch batch, final String id, final int size) {
+        final boolean[] res = new boolean[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                res[0] = batch.add(id, size);
+            }
+        });
+        return res[0];
+    }
+
+    private TCFRegisterValueBatch create(final IRegisters service) {
+        final TCFRegisterValueBatch[] res = new TCFRegisterValueBatch[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                res[0] = new TCFRegisterValueBatch(fChannels[0], service);
+            }
+        });
+        return res[0];
+    }
+
+    public void testSingleCommand() throws Exception {
+        String[] ids = { "R0", "R1", "PC", "SP" };
+        int[] sizes = { 4, 4, 8, 2 };
+        TCFRegisterValueBatch batch = create(fRegisters);
+        Map<String,byte[]> values = read(batch, ids, sizes);
+        /* Registers added in same dispatch cycle are read by one command */
+        Assert.assertEquals(1, fRegisters.getm.size());
+        Assert.assertEquals(ids.length, fRegisters.getm.get(0).length);
+        Assert.assertNotNull(values);
+        Assert.assertEquals(ids.length, values.size());
+        for (int i = 0; i < ids.length; i++) {
+            Assert.assertTrue(ids[i], Arrays.equals(getValue(ids[i], sizes[i]), values.get(ids[i])));
+        }
+        Assert.assertFalse(batch.isRejected());
+        /* The command is sent, registers must go to a new batch */
+        Assert.assertFalse(add(batch, "R2", 4));
+    }
+
+    public void testShortReply() throws Exception {
+        fRegisters.short_reply = 1;
+        TCFRegisterValueBatch batch = create(fRegisters);
+        /* Values that don't match the requested sizes are not used */
+        Assert.assertNull(read(batch, new String[] { "R0", "R1" }, new int[] { 4, 4 }));
+        Assert.assertFalse(batch.isRejected());
+        Assert.assertNull(batch.getError());
+    }
+
+    public void testError() throws Exception {
+        fRegisters.error = new Exception("Test");
+        TCFRegisterValueBatch batch = create(fRegisters);
+        /* Failed command is not an error of the batch, the registers fall back to reading one by one */
+        Assert.assertNull(read(batch, new String[] { "R0", "R1" }, new int[] { 4, 4 }));
+        Assert.assertNull(batch.getError());
+        Assert.assertFalse(batch.isRejected());
+    }
+
+    public void testRejected() throws Exception {
+        fRegisters.error = new ErrorReport("Unsupported command", IErrorReport.TCF_ERROR_INV_COMMAND);
+        TCFRegisterValueBatch batch = create(fRegisters);
+        Assert.assertNull(read(batch, new String[] { "R0" }, new int[] { 4 }));
+        Assert.assertTrue(batch.isRejected());
+    }
+
+    public void testNoService() throws Exception {
+        TCFRegisterValueBatch batch = create(null);
+        Assert.assertNull(read(batch, new String[] { "R0" }, new int[] { 4 }));
+        Assert.assertEquals(0, fRegisters.getm.size());
+    }
+}
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.internal.debug.ui.model.TCFSymbolDiskCache;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.ISymbols;
+
+/**
+ * Tests for the persistent symbol cache. Caches are created in a temporary directory.
+ */
+public class SymbolDiskCacheTests extends TestCase {
+
+    private File fRoot;
+
+    /**
+     * Symbol object backed by a property map, same as one created by Symbols service proxy.
+     */
+    private static class TestSymbol implements ISymbols.Symbol {
+
+        private final Map<String,Object> props;
+
+        TestSymbol(Map<String,Object> props) {
+            this.props = props;
+        }
+
+        public String getID() {
+            return (String)props.get(ISymbols.PROP_ID);
+        }
+
+        public String getOwnerID() {
+            return (String)props.get(ISymbols.PROP_OWNER_ID);
+        }
+
+        public int getUpdatePolicy() {
+            return getInt(ISymbols.PROP_UPDATE_POLICY);
+        }
+
+        public String getName() {
+            return (String)props.get(ISymbols.PROP_NAME);
+        }
+
+        public ISymbols.SymbolClass getSymbolClass() {
+            return ISymbols.SymbolClass.values()[getInt(ISymbols.PROP_SYMBOL_CLASS)];
+        }
+
+        public ISymbols.TypeClass getTypeClass() {
+            return ISymbols.TypeClass.values()[getInt(ISymbols.PROP_TYPE_CLASS)];
+        }
+
+        public String getTypeID() {
+            return (String)props.get(ISymbols.PROP_TYPE_ID);
+        }
+
+        public String getBaseTypeID() {
+            return (String)props.get(ISymbols.PROP_BASE_TYPE_ID);
+        }
+
+        public String getIndexTypeID() {
+            return (String)props.get(ISymbols.PROP_INDEX_TYPE_ID);
+        }
+
+        public String getContainerID() {
+            return (String)props.get(ISymbols.PROP_CONTAINER_ID);
+        }
+
+        public int getSize() {
+            return getInt(ISymbols.PROP_SIZE);
+        }
+
+        public int getLength() {
+            return getInt(ISymbols.PROP_LENGTH);
+        }
+
+        public Number getLowerBound() {
+            return (Number)props.get(ISymbols.PROP_LOWER_BOUND);
+        }
+
+        public Number getUpperBound() {
+            return (Number)props.get(ISymbols.PROP_UPPER_BOUND);
+        }
+
+        public Number getBitStride() {
+            return (Number)props.get(ISymbols.PROP_BIT_STRIDE);
+        }
+
+        public int getOffset() {
+            return getInt(ISymbols.PROP_OFFSET);
+        }
+
+        public Number getAddress() {
+            return (Number)props.get(ISymbols.PROP_ADDRESS);
+        }
+
+        public byte[] getValue() {
+            return null;
+        }
+
+        public boolean isBigEndian() {
+            return false;
+        }
+
+        public String getRegisterID() {
+            return (String)props.get(ISymbols.PROP_REGISTER);
+        }
+
+        public int getFlags() {
+            return getInt(ISymbols.PROP_FLAGS);
+        }
+
+        public boolean getFlag(int flag) {
+            return (getFlags() & flag) != 0;
+        }
+
+        public Map<String,Object> getProperties() {
+            return props;
+        }
+
+        private int getInt(String name) {
+            Number n = (Number)props.get(name);
+            return n == null ? 0 : n.intValue();
+        }
+    }
+
+    private static ISymbols.Symbol makeType(String id, String name, int size) {
+        Map<String,Object> props = new HashMap<String,Object>();
+        props.put(ISymbols.PROP_ID, id);
+        props.put(ISymbols.PROP_NAME, name);
+        props.put(ISymbols.PROP_SIZE, size);
+        props.put(ISymbols.PROP_UPDATE_POLICY, ISymbols.UPDATE_ON_MEMORY_MAP_CHANGES);
+        props.put(ISymbols.PROP_SYMBOL_CLASS, ISymbols.SymbolClass.type.ordinal());
+        props.put(ISymbols.PROP_TYPE_CLASS, ISymbols.TypeClass.integer.ordinal());
+        return new TestSymbol(props);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        fRoot = File.createTempFile("tcf-symbols", "");
+        Assert.assertTrue(fRoot.delete());
+        Assert.assertTrue(fRoot.mkdirs());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(fRoot);
+    }
+
+    private static void delete(File f) {
+        File[] files = f.listFiles();
+        if (files != null) {
+            for (File c : files) delete(c);
+        }
+        f.delete();
+    }
+
+    /*
+     * Cache methods must be called on the dispatch thread,
+     * run a test body there and rethrow assertion failures in the test thread.
+     */
+    private static void invoke(final Runnable r) throws Exception {
+        final Throwable[] error = new Throwable[1];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    r.run();
+                }
+                catch (Throwable x) {
+                    error[0] = x;
+                }
+            }
+        });
+        if (error[0] instanceof Error) throw (Error)error[0];
+        if (error[0] != null) throw (Exception)error[0];
+    }
+
+    private TCFSymbolDiskCache open(String identity) {
+        TCFSymbolDiskCache cache = TCFSymbolDiskCache.open(fRoot, identity);
+        Assert.assertNotNull(cache);
+        return cache;
+    }
+
+    private static File getFile(File root, String name) {
+        File[] dirs = root.listFiles();
+        Assert.assertEquals(1, dirs.length);
+        return new File(dirs[0], name);
+    }
+
+    public void testPutGet() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                TCFSymbolDiskCache cache = open("test:a.out");
+                Assert.assertNull(cache.getContext("T1"));
+                Assert.assertNull(cache.getChildren("T1"));
+                cache.putContext(makeType("T1", "int", 4));
+                cache.putChildren("T1", new String[] { "F1", "F2" });
+                cache.putChildren("T2", new String[0]);
+                ISymbols.Symbol sym = cache.getContext("T1");
+                Assert.assertNotNull(sym);
+                Assert.assertEquals("T1", sym.getID());
+                Assert.assertEquals("int", sym.getName());
+                Assert.assertEquals(4, sym.getSize());
+                Assert.assertEquals(ISymbols.SymbolClass.type, sym.getSymbolClass());
+                Assert.assertEquals(ISymbols.TypeClass.integer, sym.getTypeClass());
+                Assert.assertTrue(cache.hasContext("T1"));
+                Assert.assertFalse(cache.hasContext("T2"));
+                /* Properties and children are kept apart */
+                Assert.assertEquals(Arrays.asList("F1", "F2"), Arrays.asList(cache.getChildren("T1")));
+                Assert.assertEquals(0, cache.getChildren("T2").length);
+                Assert.assertNull(cache.getContext("T2"));
+                /* First entry wins, a cache is never updated */
+                cache.putContext(makeType("T1", "long", 8));
+                Assert.assertEquals("int", cache.getContext("T1").getName());
+                cache.close();
+            }
+        });
+    }
+
+    public void testPersistence() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                TCFSymbolDiskCache cache = open("test:a.out");
+                /* Enough entries to grow the index several times */
+                for (int i = 0; i < 5000; i++) cache.putContext(makeType("T" + i, "t" + i, i));
+                cache.close();
+                cache = open("test:a.out");
+                for (int i = 0; i < 5000; i++) {
+                    ISymbols.Symbol sym = cache.getContext("T" + i);
+                    Assert.assertNotNull("T" + i, sym);
+                    Assert.assertEquals("t" + i, sym.getName());
+                    Assert.assertEquals(i, sym.getSize());
+                }
+                cache.close();
+
+                /* Different identity - different cache */
+                cache = open("test:a.out:rebuilt");
+                Assert.assertNull(cache.getContext("T1"));
+                cache.close();
+                Assert.assertEquals(2, fRoot.listFiles().length);
+            }
+        });
+    }
+
+    private void fill(final int cnt) throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                TCFSymbolDiskCache cache = open("test:a.out");
+                for (int i = 0; i < cnt; i++) cache.putContext(makeType("T" + i, "t" + i, i));
+                cache.close();
+            }
+        });
+    }
+
+    private void check(final int cnt) throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                TCFSymbolDiskCache cache = open("test:a.out");
+                for (int i = 0; i < cnt; i++) Assert.assertEquals("t" + i, cache.getContext("T" + i).getName());
+                cache.close();
+            }
+        });
+    }
+
+    public void testIndexRebuild() throws Exception {
+        fill(100);
+
+        /* Damaged index is rebuilt from the data file */
+        RandomAccessFile f = new RandomAccessFile(getFile(fRoot, "index"), "rw");
+        f.writeInt(0);
+        f.close();
+        check(100);
+
+        /* Missing index too */
+        Assert.assertTrue(getFile(fRoot, "index").delete());
+        check(100);
+    }
+
+    public void testTruncatedData() throws Exception {
+        fill(10);
+
+        /* Simulate a crash while the last record was written */
+        RandomAccessFile f = new RandomAccessFile(getFile(fRoot, "data"), "rw");
+        f.setLength(f.length() - 3);
+        f.close();
+        Assert.assertTrue(getFile(fRoot, "index").delete());
+        check(9);
+        invoke(new Runnable() {
+            public void run() {
+                TCFSymbolDiskCache cache = open("test:a.out");
+                Assert.assertNull(cache.getContext("T9"));
+                /* The cache is still usable */
+                cache.putContext(makeType("T9", "t9", 9));
+                Assert.assertEquals("t9", cache.getContext("T9").getName());
+                cache.close();
+            }
+        });
+    }
+
+    public void testDeleteOldCaches() throws Exception {
+        invoke(new Runnable() {
+            public void run() {
+                TCFSymbolDiskCache open = open("test:open");
+                File[] dirs = fRoot.listFiles();
+                Assert.assertEquals(1, dirs.length);
+                File open_dir = dirs[0];
+                Assert.assertTrue(open_dir.setLastModified(System.currentTimeMillis() - 3600000));
+                for (int i = 0; i < 20; i++) {
+                    TCFSymbolDiskCache cache = open("test:" + i);
+                    cache.close();
+                }
+                /* Old caches are pruned, but not the one that is open */
+                Assert.assertTrue(fRoot.listFiles().length <= 17);
+                Assert.assertTrue(open_dir.exists());
+                open.putContext(makeType("T1", "int", 4));
+                Assert.assertEquals("int", open.getContext("T1").getName());
+                open.close();
+            }
+        });
+    }
+
+    public void testIsCacheable() throws Exception {
+        ISymbols.Symbol type = makeType("T1", "int", 4);
+        Assert.assertTrue(TCFSymbolDiskCache.isCacheable(type));
+
+        ISymbols.Symbol var = makeType("V1", "x", 4);
+        var.getProperties().put(ISymbols.PROP_SYMBOL_CLASS, ISymbols.SymbolClass.reference.ordinal());
+        Assert.assertTrue(TCFSymbolDiskCache.isCacheable(var));
+        var.getProperties().put(ISymbols.PROP_ADDRESS, 0x1000);
+        Assert.assertFalse(TCFSymbolDiskCache.isCacheable(var));
+
+        ISymbols.Symbol reg = makeType("R1", "r", 4);
+        reg.getProperties().put(ISymbols.PROP_SYMBOL_CLASS, ISymbols.SymbolClass.reference.ordinal());
+        reg.getProperties().put(ISymbols.PROP_REGISTER, "R0");
+        Assert.assertFalse(TCFSymbolDiskCache.isCacheable(reg));
+
+        ISymbols.Symbol func = makeType("F1", "main", 0);
+        func.getProperties().put(ISymbols.PROP_SYMBOL_CLASS, ISymbols.SymbolClass.function.ordinal());
+        Assert.assertFalse(TCFSymbolDiskCache.isCacheable(func));
+
+        ISymbols.Symbol local = makeType("L1", "int", 4);
+        local.getProperties().put(ISymbols.PROP_UPDATE_POLICY, ISymbols.UPDATE_ON_EXE_STATE_CHANGES);
+        Assert.assertFalse(TCFSymbolDiskCache.isCacheable(local));
+    }
+}
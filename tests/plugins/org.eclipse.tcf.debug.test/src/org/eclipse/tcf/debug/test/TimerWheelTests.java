@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.protocol.ITimer;
+import org.eclipse.tcf.protocol.Protocol;
+
+/**
+ * Tests for delayed events scheduled with Protocol.schedule().
+ */
+public class TimerWheelTests extends TestCase {
+
+    private static class Event implements Runnable {
+        final int id;
+        final long deadline;
+        final List<Event> log;
+        final CountDownLatch done;
+        long time;
+        boolean dispatch_thread;
+
+        Event(int id, long delay, List<Event> log, CountDownLatch done) {
+            this.id = id;
+            this.deadline = System.nanoTime() + delay * 1000000;
+            this.log = log;
+            this.done = done;
+        }
+
+        public void run() {
+            time = System.nanoTime();
+            dispatch_thread = Protocol.isDispatchThread();
+            synchronized (log) {
+                log.add(this);
+            }
+            done.countDown();
+        }
+    }
+
+    private void await(CountDownLatch done, long timeout) throws InterruptedException {
+        Assert.assertTrue("Timed out waiting for delayed events", done.await(timeout, TimeUnit.MILLISECONDS));
+    }
+
+    public void testOrder() throws Exception {
+        /* Delays span first three levels of the wheel, equal delays must keep scheduling order */
+        long[] delays = { 0, 10, 2, 70, 10, 0, 300, 60, 80, 4100, 10, 1000, 70 };
+        List<Event> log = new ArrayList<Event>();
+        CountDownLatch done = new CountDownLatch(delays.length);
+        for (int i = 0; i < delays.length; i++) {
+            Event e = new Event(i, delays[i], log, done);
+            Protocol.schedule(delays[i], e);
+        }
+        await(done, 10000);
+        Assert.assertEquals(delays.length, log.size());
+        Event prev = null;
+        for (Event e : log) {
+            Assert.assertTrue("Event dispatched outside of dispatch thread", e.dispatch_thread);
+            Assert.assertTrue("Event " + e.id + " dispatched early", e.time >= e.deadline);
+            if (prev != null) {
+                long d0 = delays[prev.id];
+                long d1 = delays[e.id];
+                Assert.assertTrue("Event " + e.id + " dispatched before " + prev.id, d0 <= d1);
+                if (d0 == d1) Assert.assertTrue("Equal delays dispatched out of order", prev.id < e.id);
+            }
+            prev = e;
+        }
+    }
+
+    public void testCancel() throws Exception {
+        List<Event> log = new ArrayList<Event>();
+        CountDownLatch done = new CountDownLatch(2);
+        Event e0 = new Event(0, 20, log, done);
+        Event e1 = new Event(1, 20, log, done);
+        Event e2 = new Event(2, 100, log, done);
+        Event e3 = new Event(3, 5000, log, done);
+        ITimer t0 = Protocol.schedule(20, e0);
+        ITimer t1 = Protocol.schedule(20, e1);
+        ITimer t2 = Protocol.schedule(100, e2);
+        ITimer t3 = Protocol.schedule(5000, e3);
+        Assert.assertTrue(t1.cancel());
+        Assert.assertFalse(t1.cancel());
+        Assert.assertTrue(t3.cancel());
+        await(done, 10000);
+        Thread.sleep(50);
+        Assert.assertFalse(t0.cancel());
+        Assert.assertFalse(t2.cancel());
+        Assert.assertEquals(2, log.size());
+        Assert.assertSame(e0, log.get(0));
+        Assert.assertSame(e2, log.get(1));
+    }
+
+    public void testCancelFromDispatchThread() throws Exception {
+        /* The first event cancels the second one, which is due at the same time */
+        final List<Event> log = new ArrayList<Event>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final boolean[] canceled = new boolean[1];
+        final ITimer[] timers = new ITimer[2];
+        Protocol.invokeAndWait(new Runnable() {
+            public void run() {
+                timers[0] = Protocol.schedule(10, new Event(0, 10, log, done) {
+                    @Override
+                    public void run() {
+                        canceled[0] = timers[1].cancel();
+                        super.run();
+                    }
+                });
+                timers[1] = Protocol.schedule(10, new Event(1, 10, log, done));
+            }
+        });
+        await(done, 10000);
+        Thread.sleep(50);
+        Assert.assertTrue(canceled[0]);
+        Assert.assertEquals(1, log.size());
+        Assert.assertEquals(0, log.get(0).id);
+    }
+
+    public void testManyTimers() throws Exception {
+        int n = 20000;
+        List<Event> log = new ArrayList<Event>();
+        CountDownLatch done = new CountDownLatch(n / 2);
+        ITimer[] timers = new ITimer[n];
+        for (int i = 0; i < n; i++) {
+            long delay = (i * 7919L) % 500;
+            timers[i] = Protocol.schedule(delay, new Event(i, delay, log, done));
+            if (i % 2 == 1) Assert.assertTrue(timers[i].cancel());
+        }
+        await(done, 20000);
+        Thread.sleep(50);
+        Assert.assertEquals(n / 2, log.size());
+        for (Event e : log) {
+            Assert.assertEquals(0, e.id % 2);
+            Assert.assertTrue(e.time >= e.deadline);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Wind River Systems and others.
+ * Copyright (c) 2012, 2026 Wind River Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,24 @@ public class UtilsSuite extends TestSuite {
         addTest(new TestSuite(TransactionTests.class));
         addTest(new TestSuite(QueryTests.class));
         addTest(new TestSuite(RangeCacheTests.class));
+        addTest(new TestSuite(AddressRangeCacheTests.class));
+        addTest(new TestSuite(JSONCodecTests.class));
+        addTest(new TestSuite(TimerWheelTests.class));
+        addTest(new TestSuite(FrameDecoderTests.class));
+        addTest(new TestSuite(CompressedStreamTests.class));
+        addTest(new TestSuite(ChannelTraceTests.class));
+        addTest(new TestSuite(ChannelNIOTests.class));
+        addTest(new TestSuite(ChannelDispatchTests.class));
+        addTest(new TestSuite(LockFreeEventQueueTests.class));
+        addTest(new TestSuite(ChannelOutputTests.class));
+        addTest(new TestSuite(CommandWindowTests.class));
+        addTest(new TestSuite(CommandMetricsTests.class));
+        addTest(new TestSuite(SymbolDiskCacheTests.class));
+        addTest(new TestSuite(ViewportTests.class));
+        addTest(new TestSuite(RegisterValueBatchTests.class));
+        addTest(new TestSuite(DownloadManifestTests.class));
+        addTest(new TestSuite(ProfilerDataTests.class));
+        addTest(new TestSuite(DisassemblyCacheTests.class));
     }
 
     /**
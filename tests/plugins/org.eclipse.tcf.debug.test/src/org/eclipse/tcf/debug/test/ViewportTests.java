@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Wind River Systems, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Wind River Systems - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tcf.debug.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.eclipse.tcf.internal.debug.ui.model.TCFViewport;
+import org.eclipse.tcf.protocol.IChannel;
+import org.eclipse.tcf.protocol.IToken;
+import org.eclipse.tcf.protocol.Protocol;
+import org.eclipse.tcf.services.IDiagnostics;
+import org.eclipse.tcf.util.TCFDataCache;
+
+/**
+ * Tests for evaluation of visible expression rows: prefetch and cancellation decisions,
+ * and restart of canceled evaluations.
+ */
+public class ViewportTests extends TestCase {
+
+    private static final int MARGIN = TCFViewport.PREFETCH_MARGIN;
+
+    public void testNoRanges() throws Exception {
+        TCFViewport v = new TCFViewport();
+        Assert.assertEquals(Integer.MAX_VALUE, v.getDistance(0));
+        Assert.assertTrue(v.isCancel(0));
+        Assert.assertFalse(v.isPrefetch(0));
+    }
+
+    public void testDistance() throws Exception {
+        TCFViewport v = new TCFViewport();
+        v.setRange("Variables", 100, 20);
+        Assert.assertEquals(0, v.getDistance(100));
+        Assert.assertEquals(0, v.getDistance(119));
+        Assert.assertEquals(1, v.getDistance(99));
+        Assert.assertEquals(1, v.getDistance(120));
+        Assert.assertEquals(100, v.getDistance(0));
+
+        /* Rows inside the range are neither prefetched nor canceled */
+        Assert.assertFalse(v.isPrefetch(110));
+        Assert.assertFalse(v.isCancel(110));
+
+        /* Rows within the margin are prefetched */
+        Assert.assertTrue(v.isPrefetch(100 - MARGIN));
+        Assert.assertTrue(v.isPrefetch(119 + MARGIN));
+        Assert.assertFalse(v.isCancel(100 - MARGIN));
+        Assert.assertFalse(v.isCancel(119 + MARGIN));
+
+        /* Rows beyond the margin are canceled */
+        Assert.assertTrue(v.isCancel(99 - MARGIN));
+        Assert.assertTrue(v.isCancel(120 + MARGIN));
+        Assert.assertFalse(v.isPrefetch(99 - MARGIN));
+    }
+
+    public void testScrolling() throws Exception {
+        TCFViewport v = new TCFViewport();
+        v.setRange("Variables", 0, 50);
+        Assert.assertEquals(0, v.getDistance(10));
+        /* Newer request of same view replaces the old range */
+        v.setRange("Variables", 1000, 50);
+        Assert.assertTrue(v.isCancel(10));
+        Assert.assertEquals(0, v.getDistance(1010));
+    }
+
+    public void testManyViews() throws Exception {
+        TCFViewport v = new TCFViewport();
+        v.setRange("Variables", 0, 50);
+        v.setRange("Expressions", 1000, 50);
+        /* A row visible in any view is kept */
+        Assert.assertEquals(0, v.getDistance(10));
+        Assert.assertEquals(0, v.getDistance(1010));
+        Assert.assertTrue(v.isCancel(500));
+        Assert.assertTrue(v.isPrefetch(50));
+        Assert.assertTrue(v.isPrefetch(999));
+    }
+
+    public void testEmptyRange() throws Exception {
+        TCFViewport v = new TCFViewport();
+        v.setRange("Variables", 10, 0);
+        Assert.assertEquals(1, v.getDistance(10));
+        Assert.assertEquals(1, v.getDistance(9));
+        Assert.assertTrue(v.isPrefetch(10));
+    }
+
+    /**
+     * Cache that counts data retrievals, the data is an echo of a string.
+     */
+    private static class EchoCache extends TCFDataCache<String> {
+
+        final IDiagnostics diag;
+        int cnt;
+
+        EchoCache(IChannel channel) {
+            super(channel);
+            diag = channel.getRemoteService(IDiagnostics.class);
+        }
+
+        @Override
+        protected boolean startDataRetrieval() {
+            cnt++;
+            command = diag.echo("value" + cnt, new IDiagnostics.DoneEcho() {
+                public void doneEcho(IToken token, Throwable error, String str) {
+                    set(token, error, str);
+                }
+            });
+            return false;
+        }
+    }
+
+    public void testCancelRestart() throws Exception {
+        /* Evaluation canceled when a row is scrolled away restarts when the row is requested again */
+        final PipeChannel[] channels = PipeChannel.open(0);
+        try {
+            final EchoCache[] cache = new EchoCache[1];
+            final boolean[] res = new boolean[3];
+            Protocol.invokeAndWait(new Runnable() {
+                public void run() {
+                    cache[0] = new EchoCache(channels[0]);
+                    res[0] = cache[0].validate();
+                    res[1] = cache[0].isPending();
+                    cache[0].cancel();
+                    res[2] = cache[0].isPending();
+                }
+            });
+            Assert.assertFalse(res[0]);
+            Assert.assertTrue(res[1]);
+            Assert.assertFalse(res[2]);
+            final CountDownLatch done = new CountDownLatch(1);
+            final String[] data = new String[1];
+            Protocol.invokeAndWait(new Runnable() {
+                public void run() {
+                    cache[0].validate(new Runnable() {
+                        public void run() {
+                            if (!cache[0].validate(this)) return;
+                            data[0] = cache[0].getData();
+                            done.countDown();
+                        }
+                    });
+                }
+            });
+            Assert.assertTrue("Timed out waiting for data", done.await(PipeChannel.TIMEOUT, TimeUnit.MILLISECONDS));
+            Assert.assertEquals(2, cache[0].cnt);
+            Assert.assertEquals("value2", data[0]);
+        }
+        finally {
+            PipeChannel.close(channels);
+        }
+    }
+}